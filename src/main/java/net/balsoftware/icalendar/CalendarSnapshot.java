@@ -0,0 +1,487 @@
+package net.balsoftware.icalendar;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import net.balsoftware.icalendar.VElementBase.Message;
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.components.VComponentElement;
+import net.balsoftware.icalendar.parameters.VParameter;
+import net.balsoftware.icalendar.parameters.VParameterElement;
+import net.balsoftware.icalendar.properties.VProperty;
+import net.balsoftware.icalendar.properties.VPropertyBase;
+import net.balsoftware.icalendar.properties.VPropertyElement;
+import net.balsoftware.icalendar.properties.component.misc.UnknownProperty;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePart;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
+import net.balsoftware.icalendar.utilities.ICalendarUtilities;
+
+/**
+ * Compact binary snapshot of a {@link VCalendar}, for saving and loading a parsed calendar faster than writing
+ * and parsing its iCalendar text.
+ *
+ * The snapshot is the calendar's element tree in content order.  Components, properties, parameters and RRULE parts
+ * are identified by the ordinal of their {@link VComponentElement}, {@link VPropertyElement}, {@link VParameterElement}
+ * or {@link RRuleElement}; only non-standard names are written as text.  DATE and DATE-TIME values are written as
+ * numbers instead of text, so they aren't parsed when loaded.  Other values are written as their content text and
+ * converted as they are when parsed.  Each distinct String, such as a TZID, an attendee or a repeated value, is
+ * written once and then referred to by its index in a string table.
+ *
+ * The snapshot is written and read as a stream, so a calendar of any size can be saved and loaded without
+ * buffering the snapshot.  A snapshot starts with a magic number and a format version.  A snapshot can only be
+ * read by a library that knows its version, so snapshots are for caching, not for exchanging calendars.
+ *
+ * Only elements are written.  Content lines kept by a {@link ParseProjection#keepingSkippedContent()} projection
+ * aren't in the snapshot, so a loaded calendar writes only its parsed elements.
+ *
+ * This is a saved form of a calendar, unrelated to the in-memory, read-only calendar returned by
+ * {@link VCalendar#snapshot()}.  Either kind of calendar can be written, and reading always makes a new calendar
+ * that can be changed.
+ * <pre>
+ * try (OutputStream out = Files.newOutputStream(snapshotPath))
+ * {
+ *     CalendarSnapshot.write(vCalendar, out);
+ * }
+ * try (InputStream in = Files.newInputStream(snapshotPath))
+ * {
+ *     vCalendar = CalendarSnapshot.read(in);
+ * }
+ * </pre>
+ *
+ * @author David Bal
+ * @see VCalendar#parse(java.nio.file.Path)
+ * @see VCalendar#snapshot()
+ */
+public final class CalendarSnapshot
+{
+    /** First bytes of a snapshot, "ICSB" */
+    public static final int MAGIC = 0x49435342;
+    /** Version of the snapshot format written by this class */
+    public static final int VERSION = 1;
+
+    // kinds of children
+    private static final int COMPONENT = 1;
+    private static final int PROPERTY = 2;
+    // kinds of values
+    private static final int TEXT = 0;
+    private static final int DATE = 1;
+    private static final int DATE_TIME = 2;
+    private static final int ZONED_DATE_TIME = 3;
+    private static final int DATE_TIME_SET = 4;
+    private static final int DATE_TIME_LIST = 5;
+    private static final int RECURRENCE_RULE = 6;
+    private static final int NO_VALUE = 7;
+    // element name that isn't an enum, written as text
+    private static final int NAMED = 0;
+
+    private CalendarSnapshot() { }
+
+    /**
+     * Write a snapshot of a calendar to a stream.  The stream isn't closed.
+     *
+     * @param vCalendar - calendar to write
+     * @param out - stream to write to
+     * @throws IOException  if the stream can't be written
+     */
+    public static void write(VCalendar vCalendar, OutputStream out) throws IOException
+    {
+        Writer writer = new Writer(out);
+        writer.out.writeInt(MAGIC);
+        writer.out.writeShort(VERSION);
+        writer.writeChildren(vCalendar);
+        writer.out.flush();
+    }
+
+    /**
+     * Read a calendar from a snapshot written by {@link #write(VCalendar, OutputStream)}.  The stream isn't closed.
+     *
+     * @param in - stream to read
+     * @return - the calendar
+     * @throws IOException  if the stream can't be read, isn't a snapshot, or is a snapshot of an unsupported version
+     */
+    public static VCalendar read(InputStream in) throws IOException
+    {
+        Reader reader = new Reader(in);
+        if (reader.in.readInt() != MAGIC)
+        {
+            throw new IOException("Not a calendar snapshot");
+        }
+        int version = reader.in.readUnsignedShort();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported calendar snapshot version:" + version);
+        }
+        VCalendar vCalendar = new VCalendar();
+        reader.readChildren(vCalendar);
+        return vCalendar;
+    }
+
+    /*
+     * WRITER
+     */
+    private static final class Writer
+    {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private Writer(OutputStream out)
+        {
+            this.out = new DataOutputStream(new BufferedOutputStream(out));
+        }
+
+        // components and properties of a calendar or component
+        private void writeChildren(VParent parent) throws IOException
+        {
+            List<VChild> children = parent.childrenUnmodifiable();
+            writeVarInt(children.size());
+            for (VChild child : children)
+            {
+                if (child instanceof VComponent)
+                {
+                    out.writeByte(COMPONENT);
+                    writeVarInt(VComponentElement.fromClass(child.getClass()).ordinal());
+                    writeChildren((VParent) child);
+                } else
+                {
+                    out.writeByte(PROPERTY);
+                    writeProperty((VPropertyBase<?,?>) child);
+                }
+            }
+        }
+
+        private void writeProperty(VPropertyBase<?,?> property) throws IOException
+        {
+            VPropertyElement element = VPropertyElement.fromClass(property.getClass());
+            if (property.name().equals(element.toString()))
+            {
+                writeVarInt(element.ordinal() + 1);
+            } else
+            { // non-standard name
+                writeVarInt(NAMED);
+                writeString(property.name());
+            }
+            List<VChild> parameters = property.childrenUnmodifiable();
+            writeVarInt(parameters.size());
+            for (VChild parameter : parameters)
+            {
+                writeVarInt(VParameterElement.enumFromClass(parameter.getClass()).ordinal());
+                writeString(parameter.toString());
+            }
+            Object value = property.getValue();
+            if (value instanceof RecurrenceRuleValue)
+            {
+                out.writeByte(RECURRENCE_RULE);
+                List<VChild> parts = ((RecurrenceRuleValue) value).childrenUnmodifiable();
+                writeVarInt(parts.size());
+                for (VChild part : parts)
+                {
+                    writeVarInt(RRuleElement.fromClass(part.getClass()).ordinal());
+                    Object partValue = ((RRulePart<?>) part).getValue();
+                    if (! writeTemporal(partValue))
+                    {
+                        out.writeByte(TEXT);
+                        writeString(part.toString());
+                    }
+                }
+            } else if ((value instanceof Collection) && isTemporals((Collection<?>) value))
+            {
+                out.writeByte((value instanceof Set) ? DATE_TIME_SET : DATE_TIME_LIST);
+                writeVarInt(((Collection<?>) value).size());
+                for (Object t : (Collection<?>) value)
+                {
+                    writeTemporal(t);
+                }
+            } else if (! writeTemporal(value))
+            {
+                String text = property.valueContent();
+                if ((value == null) && text.isEmpty())
+                { // empty value isn't parsed
+                    out.writeByte(NO_VALUE);
+                } else
+                {
+                    out.writeByte(TEXT);
+                    writeString(text);
+                }
+            }
+        }
+
+        private boolean isTemporals(Collection<?> values)
+        {
+            for (Object value : values)
+            {
+                if (! ((value instanceof LocalDate) || (value instanceof LocalDateTime) || (value instanceof ZonedDateTime)))
+                {
+                    return false;
+                }
+            }
+            return ! values.isEmpty();
+        }
+
+        // write a DATE or DATE-TIME with its kind, returns false if value isn't one
+        private boolean writeTemporal(Object value) throws IOException
+        {
+            if (value instanceof LocalDate)
+            {
+                out.writeByte(DATE);
+                writeVarLong(((LocalDate) value).toEpochDay());
+            } else if (value instanceof LocalDateTime)
+            {
+                out.writeByte(DATE_TIME);
+                writeLocalDateTime((LocalDateTime) value);
+            } else if (value instanceof ZonedDateTime)
+            {
+                ZonedDateTime zonedDateTime = (ZonedDateTime) value;
+                out.writeByte(ZONED_DATE_TIME);
+                writeLocalDateTime(zonedDateTime.toLocalDateTime());
+                writeVarLong(zonedDateTime.getOffset().getTotalSeconds());
+                writeString(zonedDateTime.getZone().getId());
+            } else
+            {
+                return false;
+            }
+            return true;
+        }
+
+        private void writeLocalDateTime(LocalDateTime value) throws IOException
+        {
+            writeVarLong(value.toEpochSecond(ZoneOffset.UTC));
+            writeVarInt(value.getNano());
+        }
+
+        // index of a String already written, or a new String
+        private void writeString(String value) throws IOException
+        {
+            Integer index = strings.get(value);
+            if (index != null)
+            {
+                writeVarInt(index + 1);
+            } else
+            {
+                strings.put(value, strings.size());
+                writeVarInt(0);
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private void writeVarInt(int value) throws IOException
+        {
+            writeVarLong(value);
+        }
+
+        // zigzag encoding of a signed long in 7 bit groups, small magnitudes take one byte
+        private void writeVarLong(long value) throws IOException
+        {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0)
+            {
+                out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.writeByte((int) zigzag);
+        }
+    }
+
+    /*
+     * READER
+     */
+    private static final class Reader
+    {
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+        private final List<Message> messages = new ArrayList<>(); // ignored, like the messages of a parse
+
+        private Reader(InputStream in)
+        {
+            this.in = new DataInputStream(new BufferedInputStream(in));
+        }
+
+        /* Components and properties are completed before they are added, like when parsed.  Children are added
+         * without the checks of a parse, because they were checked when the snapshot's calendar was made. */
+        private void readChildren(VParentBase<?> parent) throws IOException
+        {
+            int size = readVarInt();
+            for (int i=0; i<size; i++)
+            {
+                int kind = in.readUnsignedByte();
+                final VChild child;
+                if (kind == COMPONENT)
+                {
+                    VComponentElement element = element(VComponentElement.values(), readVarInt());
+                    child = VElementBase.newEmptyVElement(VComponent.class, element.toString());
+                    readChildren((VParentBase<?>) child);
+                } else if (kind == PROPERTY)
+                {
+                    child = readProperty();
+                } else
+                {
+                    throw new IOException("Invalid calendar snapshot element kind:" + kind);
+                }
+                parent.addChild(child);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private VChild readProperty() throws IOException
+        {
+            int ordinal = readVarInt();
+            final VPropertyBase<?,?> property;
+            if (ordinal == NAMED)
+            {
+                String name = readString();
+                property = (VPropertyBase<?,?>) VElementBase.newEmptyVElement(VProperty.class, name);
+                if (property == null)
+                {
+                    throw new IOException("Unknown property in calendar snapshot:" + name);
+                }
+                ((UnknownProperty<?,?>) property).setPropertyName(name);
+            } else
+            {
+                VPropertyElement element = element(VPropertyElement.values(), ordinal - 1);
+                property = (VPropertyBase<?,?>) VElementBase.newEmptyVElement(VProperty.class, element.toString());
+            }
+            int parameters = readVarInt();
+            for (int i=0; i<parameters; i++)
+            {
+                VParameterElement element = element(VParameterElement.values(), readVarInt());
+                VElementBase parameter = (VElementBase) VElementBase.newEmptyVElement(VParameter.class, element.toString());
+                messages.addAll(parameter.parseContent(readString()));
+                property.addChild((VChild) parameter);
+            }
+            int kind = in.readUnsignedByte();
+            switch (kind)
+            {
+            case TEXT:
+                ((VParentBase<?>) property).processInLineChild(messages, ICalendarUtilities.PROPERTY_VALUE_KEY, readString(), VParameter.class, ParseOptions.DEFAULT);
+                break;
+            case RECURRENCE_RULE:
+                RecurrenceRuleValue rrule = new RecurrenceRuleValue();
+                int parts = readVarInt();
+                for (int i=0; i<parts; i++)
+                {
+                    RRuleElement element = element(RRuleElement.values(), readVarInt());
+                    VElementBase part = (VElementBase) VElementBase.newEmptyVElement(RRulePart.class, element.toString());
+                    int partKind = in.readUnsignedByte();
+                    if (partKind == TEXT)
+                    {
+                        messages.addAll(part.parseContent(readString()));
+                    } else
+                    {
+                        ((RRulePart<Temporal>) part).setValue(readTemporal(partKind));
+                    }
+                    rrule.addChild((VChild) part);
+                }
+                ((VProperty<RecurrenceRuleValue>) property).setValue(rrule);
+                break;
+            case DATE_TIME_SET:
+            case DATE_TIME_LIST:
+                int size = readVarInt();
+                Collection<Temporal> temporals = (kind == DATE_TIME_SET) ? new TreeSet<>(DateTimeUtilities.TEMPORAL_COMPARATOR) : new ArrayList<>(size);
+                for (int i=0; i<size; i++)
+                {
+                    temporals.add(readTemporal(in.readUnsignedByte()));
+                }
+                ((VProperty<Collection<Temporal>>) property).setValue(temporals);
+                break;
+            case NO_VALUE:
+                break;
+            default:
+                ((VProperty<Temporal>) property).setValue(readTemporal(kind));
+            }
+            return property;
+        }
+
+        private Temporal readTemporal(int kind) throws IOException
+        {
+            switch (kind)
+            {
+            case DATE:
+                return LocalDate.ofEpochDay(readVarLong());
+            case DATE_TIME:
+                return readLocalDateTime();
+            case ZONED_DATE_TIME:
+                LocalDateTime localDateTime = readLocalDateTime();
+                ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) readVarLong());
+                ZoneId zone = ZoneId.of(readString());
+                return ZonedDateTime.ofLocal(localDateTime, zone, offset);
+            default:
+                throw new IOException("Invalid calendar snapshot value kind:" + kind);
+            }
+        }
+
+        private LocalDateTime readLocalDateTime() throws IOException
+        {
+            long epochSecond = readVarLong();
+            return LocalDateTime.ofEpochSecond(epochSecond, readVarInt(), ZoneOffset.UTC);
+        }
+
+        private String readString() throws IOException
+        {
+            int index = readVarInt();
+            if (index > 0)
+            {
+                if (index > strings.size())
+                {
+                    throw new IOException("Invalid calendar snapshot string index:" + index);
+                }
+                return strings.get(index - 1);
+            }
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private <E extends Enum<E>> E element(E[] elements, int ordinal) throws IOException
+        {
+            if ((ordinal < 0) || (ordinal >= elements.length))
+            {
+                throw new IOException("Invalid calendar snapshot element:" + ordinal);
+            }
+            return elements[ordinal];
+        }
+
+        private int readVarInt() throws IOException
+        {
+            return (int) readVarLong();
+        }
+
+        private long readVarLong() throws IOException
+        {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7)
+            {
+                int b = in.readUnsignedByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new IOException("Invalid calendar snapshot number");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package net.balsoftware.icalendar;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List of a {@link VCalendar}'s components or non-standard properties, returned by its getters, such as
+ * {@link VCalendar#getVEvents()}.  The elements are shared with the calendar's snapshots and copied the first time
+ * the list changes after a snapshot, so taking a snapshot doesn't copy the lists.  An element added, removed or
+ * replaced through the list is passed to the calendar, which keeps its UID and occurrence indexes current.
+ *
+ * @author David Bal
+ */
+final class ComponentList<E> extends AbstractList<E> implements RandomAccess
+{
+	private final VCalendar calendar;
+	private List<E> elements;
+	private boolean isShared; // elements are shared with a snapshot, copy them before a change
+
+	ComponentList(VCalendar calendar, List<E> elements)
+	{
+		this.calendar = calendar;
+		this.elements = elements;
+	}
+
+	/* Returns the elements for a snapshot.  They are copied before this list next changes. */
+	List<E> share()
+	{
+		isShared = true;
+		return Collections.unmodifiableList(elements);
+	}
+
+	private List<E> modifiableElements()
+	{
+		if (isShared)
+		{
+			elements = new ArrayList<>(elements);
+			isShared = false;
+		}
+		return elements;
+	}
+
+	@Override
+	public E get(int index)
+	{
+		return elements.get(index);
+	}
+
+	@Override
+	public int size()
+	{
+		return elements.size();
+	}
+
+	@Override
+	public E set(int index, E element)
+	{
+		E oldElement = modifiableElements().set(index, element);
+		calendar.componentListChanged(oldElement, element);
+		return oldElement;
+	}
+
+	@Override
+	public void add(int index, E element)
+	{
+		modifiableElements().add(index, element);
+		modCount++;
+		calendar.componentListChanged(null, element);
+	}
+
+	@Override
+	public E remove(int index)
+	{
+		E oldElement = modifiableElements().remove(index);
+		modCount++;
+		calendar.componentListChanged(oldElement, null);
+		return oldElement;
+	}
+}
@@ -0,0 +1,318 @@
+package net.balsoftware.icalendar;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.components.VDisplayable;
+import net.balsoftware.icalendar.components.VRepeatable;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
+
+/**
+ * <p>Sorted timeline of the recurrence start dates or date-times of all the {@link VRepeatable} components
+ * in a {@link VCalendar}.  Finds all occurrences between two dates in O(log n + k) time instead of walking
+ * the recurrence set of every component.</p>
+ *
+ * <p>Series with a COUNT or UNTIL, or without a RRULE, are expanded when the component is added.  Infinite series are
+ * only indexed for a window, from the start of the latest query to the furthest end queried since the window last
+ * moved back.  A later query moves the window forward, expanding from where the last expansion stopped and dropping the
+ * occurrences before its start, so memory doesn't grow as queries move forward in time.  An earlier query moves the
+ * window back, expanding the infinite series again from the new window start.</p>
+ *
+ * <p>The index is kept current by {@link VCalendar} when components are added or removed, and when a component, or one
+ * of its properties, is changed through its setters.  Changes made by modifying a property value in place (e.g. adding a
+ * date to the Set returned by {@code getExceptionDates().get(0).getValue()}) are not detected.  Use
+ * {@link VCalendar#refreshOccurrenceIndex(VComponent)} after such changes.</p>
+ *
+ * <p>The start and end of a query are compared with occurrence starts as an instant.  Like
+ * {@link net.balsoftware.icalendar.utilities.DateTimeUtilities#TEMPORAL_COMPARATOR2} DATE and floating DATE-TIME values
+ * use the system default time zone.</p>
+ *
+ * <p>Not thread-safe by itself.  Its {@link VCalendar} calls it only while holding the calendar's lock, both for queries
+ * and for the updates made when components change.</p>
+ *
+ * @author David Bal
+ * @see VCalendar#occurrences(Temporal, Temporal)
+ */
+public class OccurrenceIndex
+{
+	/** A single start of a {@link VRepeatable} component's recurrence set */
+	public static class Occurrence
+	{
+		private final VRepeatable<?> component;
+		/** Returns the component that produced the occurrence */
+		public VRepeatable<?> getComponent() { return component; }
+
+		private final Temporal start;
+		/** Returns the start date or date-time of the occurrence, the same type as DTSTART */
+		public Temporal getStart() { return start; }
+
+		private final Instant key;
+
+		Occurrence(VRepeatable<?> component, Temporal start)
+		{
+			this.component = component;
+			this.start = start;
+			this.key = toInstant(start);
+		}
+
+		@Override
+		public String toString()
+		{
+			return "Occurrence [component=" + component.name() + ", start=" + start + "]";
+		}
+	}
+
+	/* Occurrences of one component in start order, plus the last start for resuming expansion of an infinite series */
+	private static class Entry
+	{
+		private final List<Occurrence> occurrences = new ArrayList<>();
+		private boolean isInfinite;
+		private Temporal lastStart;
+	}
+
+	private final VCalendar calendar; // finds the recurrence children and parents
+	private final NavigableMap<Instant, List<Occurrence>> timeline = new TreeMap<>();
+	private final Map<VRepeatable<?>, Entry> entries = new IdentityHashMap<>();
+	private final Set<VRepeatable<?>> infiniteComponents = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Set<VRepeatable<?>> changedComponents = Collections.newSetFromMap(new IdentityHashMap<>());
+	// infinite series are indexed from windowStart, inclusive, to horizon, exclusive
+	private Instant windowStart;
+	private Instant horizon;
+
+	/*
+	 * CONSTRUCTOR
+	 */
+	/** Create an index containing the recurrences of components, a calendar's children */
+	OccurrenceIndex(VCalendar calendar, Collection<? extends VComponent> components)
+	{
+		this.calendar = calendar;
+		components.forEach(c -> add(c));
+	}
+
+	/**
+	 * Returns the occurrences that start on or after the start parameter and before the end parameter,
+	 * in start order
+	 *
+	 * @param start  include occurrences that start at or after this value (inclusive)
+	 * @param end  include occurrences that start before this value (exclusive)
+	 * @return  occurrences in the range
+	 */
+	public List<Occurrence> occurrences(Temporal start, Temporal end)
+	{
+		Instant startKey = toInstant(start);
+		Instant endKey = toInstant(end);
+		refreshChanged();
+		moveWindow(startKey, endKey);
+		return timeline.subMap(startKey, true, endKey, false)
+				.values()
+				.stream()
+				.flatMap(l -> l.stream())
+				.collect(Collectors.toList());
+	}
+
+	/** Returns the number of indexed occurrences, including those of infinite series in the current window */
+	public int size()
+	{
+		refreshChanged();
+		return entries.values()
+				.stream()
+				.mapToInt(e -> e.occurrences.size())
+				.sum();
+	}
+
+	/*
+	 * INDEX MAINTENANCE
+	 */
+	/** Add the component's occurrences.  Components that aren't {@link VRepeatable} are ignored. */
+	void add(VComponent component)
+	{
+		if (! (component instanceof VRepeatable) || entries.containsKey(component)) return;
+		VRepeatable<?> repeatable = (VRepeatable<?>) component;
+		Entry entry = new Entry();
+		entries.put(repeatable, entry);
+		markRecurrenceParentChanged(component);
+		if (repeatable.getDateTimeStart() == null) return; // nothing to index
+		entry.isInfinite = (repeatable.getRecurrenceRule() != null) && repeatable.getRecurrenceRule().getValue().isInfinite();
+		if (entry.isInfinite)
+		{
+			infiniteComponents.add(repeatable);
+			if (horizon != null)
+			{
+				expand(repeatable, entry, horizon);
+			}
+		} else
+		{
+			streamRecurrences(repeatable, repeatable.getDateTimeStart().getValue()).forEach(t -> addOccurrence(entry, new Occurrence(repeatable, t)));
+		}
+	}
+
+	/** Remove the component's occurrences */
+	void remove(VComponent component)
+	{
+		Entry entry = entries.remove(component);
+		if (entry == null) return;
+		removeOccurrences(entry.occurrences);
+		infiniteComponents.remove(component);
+		changedComponents.remove(component);
+		markRecurrenceParentChanged(component);
+	}
+
+	/** Mark the component to have its occurrences recalculated before the next query */
+	void changed(VComponent component)
+	{
+		if (entries.containsKey(component))
+		{
+			changedComponents.add((VRepeatable<?>) component);
+			markRecurrenceParentChanged(component);
+		}
+	}
+
+	boolean contains(VComponent component)
+	{
+		return entries.containsKey(component);
+	}
+
+	/* A RECURRENCE-ID component replaces one occurrence of its parent, so the parent must be recalculated also */
+	private void markRecurrenceParentChanged(VComponent component)
+	{
+		if ((component instanceof VDisplayable) && (((VDisplayable<?>) component).getRecurrenceId() != null))
+		{
+			VDisplayable<?> recurrenceParent = ((VDisplayable<?>) component).recurrenceParent(calendar);
+			if ((recurrenceParent != null) && entries.containsKey(recurrenceParent))
+			{
+				changedComponents.add(recurrenceParent);
+			}
+		}
+	}
+
+	private void refreshChanged()
+	{
+		while (! changedComponents.isEmpty())
+		{
+			Iterator<VRepeatable<?>> i = changedComponents.iterator();
+			VRepeatable<?> component = i.next();
+			i.remove();
+			Entry entry = entries.remove(component);
+			removeOccurrences(entry.occurrences);
+			infiniteComponents.remove(component);
+			add(component);
+		}
+	}
+
+	/* Index infinite series from the start instant up to, but not including, the end instant, and drop the rest */
+	private void moveWindow(Instant start, Instant end)
+	{
+		if ((windowStart == null) || start.isBefore(windowStart))
+		{ // window moves back, expand again from the window start
+			for (VRepeatable<?> component : infiniteComponents)
+			{
+				Entry entry = entries.get(component);
+				removeOccurrences(entry.occurrences);
+				entry.occurrences.clear();
+				entry.lastStart = null;
+			}
+			windowStart = start;
+			horizon = start;
+		} else if (start.isAfter(windowStart))
+		{ // window moves forward, drop occurrences before it
+			for (VRepeatable<?> component : infiniteComponents)
+			{
+				List<Occurrence> occurrences = entries.get(component).occurrences;
+				int before = 0;
+				while ((before < occurrences.size()) && occurrences.get(before).key.isBefore(start))
+				{
+					before++;
+				}
+				List<Occurrence> dropped = occurrences.subList(0, before);
+				removeOccurrences(dropped);
+				dropped.clear();
+			}
+			windowStart = start;
+		}
+		if (end.isAfter(horizon))
+		{
+			for (VRepeatable<?> component : infiniteComponents)
+			{
+				expand(component, entries.get(component), end);
+			}
+			horizon = end;
+		}
+	}
+
+	/* Expand an infinite series from where it stopped up to the end instant, indexing only the window */
+	private void expand(VRepeatable<?> component, Entry entry, Instant end)
+	{
+		Temporal resumeStart = (entry.lastStart == null) ? windowStartFor(component) : entry.lastStart;
+		Iterator<Temporal> i = streamRecurrences(component, resumeStart).iterator();
+		while (i.hasNext())
+		{
+			Temporal t = i.next();
+			if (t.equals(entry.lastStart)) continue; // already indexed
+			Occurrence occurrence = new Occurrence(component, t);
+			if (! occurrence.key.isBefore(end)) break;
+			if (! occurrence.key.isBefore(windowStart))
+			{
+				addOccurrence(entry, occurrence);
+			}
+			entry.lastStart = t;
+		}
+	}
+
+	/* The window start as the type of DTSTART, or DTSTART if it's later, so the whole periods before the window are skipped
+	 * instead of walking the series from DTSTART */
+	private Temporal windowStartFor(VRepeatable<?> component)
+	{
+		Temporal dateTimeStart = component.getDateTimeStart().getValue();
+		ZoneId zone = (dateTimeStart instanceof ZonedDateTime) ? ((ZonedDateTime) dateTimeStart).getZone() : ZoneId.systemDefault();
+		Temporal start = DateTimeType.of(dateTimeStart).from(windowStart.atZone(ZoneOffset.UTC), zone);
+		return DateTimeUtilities.isBefore(start, dateTimeStart) ? dateTimeStart : start;
+	}
+
+	/* Recurrences without the occurrences replaced by recurrence children in the calendar, which can be a snapshot */
+	private Stream<Temporal> streamRecurrences(VRepeatable<?> component, Temporal start)
+	{
+		return (component instanceof VDisplayable) ? ((VDisplayable<?>) component).streamRecurrences(start, calendar)
+				: component.streamRecurrences(start);
+	}
+
+	private void addOccurrence(Entry entry, Occurrence occurrence)
+	{
+		entry.occurrences.add(occurrence);
+		timeline.computeIfAbsent(occurrence.key, k -> new ArrayList<>(1)).add(occurrence);
+	}
+
+	private void removeOccurrences(List<Occurrence> occurrences)
+	{
+		for (Occurrence occurrence : occurrences)
+		{
+			List<Occurrence> atInstant = timeline.get(occurrence.key);
+			atInstant.remove(occurrence);
+			if (atInstant.isEmpty())
+			{
+				timeline.remove(occurrence.key);
+			}
+		}
+	}
+
+	private static Instant toInstant(Temporal temporal)
+	{
+		return ((ZonedDateTime) DateTimeType.DATE_WITH_UTC_TIME.from(temporal)).toInstant();
+	}
+}
@@ -0,0 +1,122 @@
+package net.balsoftware.icalendar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import net.balsoftware.icalendar.VElementBase.MessageEffect;
+import net.balsoftware.icalendar.utilities.StringConverter;
+
+/**
+ * Sink for the problems found while parsing, such as invalid values, unknown elements and repeated properties.
+ *
+ * Diagnostics are used by a parse through its {@link ParseOptions}.  With diagnostics, parsing uses its
+ * exception-free path: values are converted with {@link StringConverter#tryFromString(String)}, so an invalid value
+ * doesn't throw and catch an exception, and the message of a problem is only made if the diagnostics ask for it.
+ * Without diagnostics, problems are collected as messages as before.
+ * <pre>
+ * ParseDiagnostics.Counting diagnostics = ParseDiagnostics.counting();
+ * vCalendar = VCalendar.parse(icsFilePath, ParseOptions.DEFAULT.withDiagnostics(diagnostics));
+ * System.out.println(diagnostics.count());
+ * </pre>
+ * Diagnostics used by a parallel parse are called from many threads.
+ *
+ * @author David Bal
+ */
+@FunctionalInterface
+public interface ParseDiagnostics
+{
+    /**
+     * Report a problem
+     *
+     * @param element - element with the problem, or the parent it was found in
+     * @param effect - effect of the problem
+     * @param message - makes the problem's message, only called if the message is needed
+     */
+    void report(VElement element, MessageEffect effect, Supplier<String> message);
+
+    /** Diagnostics that ignore all problems */
+    static ParseDiagnostics none()
+    {
+        return (element, effect, message) -> { };
+    }
+
+    /** Diagnostics that count the problems without making their messages */
+    static Counting counting()
+    {
+        return new Counting();
+    }
+
+    /** Diagnostics that collect the messages of the problems */
+    static Collecting collecting()
+    {
+        return new Collecting();
+    }
+
+    /** Diagnostics that stop the parse at the first problem by throwing an IllegalArgumentException */
+    static ParseDiagnostics failFast()
+    {
+        return (element, effect, message) ->
+        {
+            throw new IllegalArgumentException(element.name() + ":" + message.get());
+        };
+    }
+
+    /** Diagnostics that count problems */
+    final class Counting implements ParseDiagnostics
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder exceptionCount = new LongAdder();
+
+        /** Number of problems */
+        public long count() { return count.sum(); }
+        /** Number of problems with the effect {@link MessageEffect#THROW_EXCEPTION} */
+        public long exceptionCount() { return exceptionCount.sum(); }
+
+        private Counting() { }
+
+        @Override
+        public void report(VElement element, MessageEffect effect, Supplier<String> message)
+        {
+            count.increment();
+            if (effect == MessageEffect.THROW_EXCEPTION)
+            {
+                exceptionCount.increment();
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return getClass().getSimpleName() + "[count=" + count() + ", exceptionCount=" + exceptionCount() + "]";
+        }
+    }
+
+    /** Diagnostics that collect messages, in the form NAME:message */
+    final class Collecting implements ParseDiagnostics
+    {
+        private final List<String> messages = new ArrayList<>();
+
+        /** Copy of the messages collected so far */
+        public List<String> messages()
+        {
+            synchronized (messages)
+            {
+                return new ArrayList<>(messages);
+            }
+        }
+
+        private Collecting() { }
+
+        @Override
+        public void report(VElement element, MessageEffect effect, Supplier<String> message)
+        {
+            String text = element.name() + ":" + message.get();
+            synchronized (messages)
+            {
+                messages.add(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package net.balsoftware.icalendar;
+
+import net.balsoftware.icalendar.properties.VPropertyBase;
+import net.balsoftware.icalendar.utilities.InternPool;
+
+/**
+ * Options of a parse: the {@link InternPool} that shares repeated values, the {@link ParseDiagnostics} that receive
+ * the problems found, the {@link ParseProjection} that limits what is parsed, and lazy decoding of property values.
+ * The options are passed to a parse method, such as {@link VCalendar#parse(java.nio.file.Path, ParseOptions)}, and
+ * from there to every element the parse makes, including the tasks of a parallel parse.
+ * <pre>
+ * InternPool pool = new InternPool();
+ * ParseOptions options = ParseOptions.DEFAULT
+ *         .withInternPool(pool)
+ *         .withLazyDecoding(true);
+ * vCalendar = VCalendar.parse(icsFilePath, options);
+ * </pre>
+ * A component or property is parsed with options by {@link #parse(VElementBase, String)}:
+ * <pre>
+ * VEvent vEvent = options.parse(new VEvent(), content);
+ * </pre>
+ * Options are immutable and can be shared by many parses on many threads.
+ *
+ * @author David Bal
+ */
+public final class ParseOptions
+{
+    /** Options that parse everything, decode values when parsed, and return problems as parse messages */
+    public static final ParseOptions DEFAULT = new ParseOptions(null, null, null, false);
+
+    private final InternPool internPool;
+    /** Returns the pool of canonical values, or null if values aren't pooled */
+    public InternPool getInternPool() { return internPool; }
+    private final ParseDiagnostics diagnostics;
+    /** Returns the diagnostics that receive the problems, or null if problems are returned as parse messages */
+    public ParseDiagnostics getDiagnostics() { return diagnostics; }
+    private final ParseProjection projection;
+    /** Returns the projection that limits what is parsed, or null if everything is parsed */
+    public ParseProjection getProjection() { return projection; }
+    private final boolean isLazyDecoding;
+    /**
+     * Returns true if property values are kept as text and converted the first time {@link VPropertyBase#getValue()}
+     * is called.  A property whose value is never accessed writes its original text, without converting it and back,
+     * until its value is set.  Properties that don't support lazy decoding are always converted when parsed.  A text
+     * that can't be converted makes a null value, and the text is kept as the unknown value.  Unlike a property
+     * converted when parsed, the error isn't reported.  The decoded value is taken from the options' pool.
+     */
+    public boolean isLazyDecoding() { return isLazyDecoding; }
+
+    /*
+     * CONSTRUCTOR
+     */
+    private ParseOptions(InternPool internPool, ParseDiagnostics diagnostics, ParseProjection projection, boolean isLazyDecoding)
+    {
+        this.internPool = internPool;
+        this.diagnostics = diagnostics;
+        this.projection = projection;
+        this.isLazyDecoding = isLazyDecoding;
+    }
+
+    /** Returns a copy of these options using the pool, null for none */
+    public ParseOptions withInternPool(InternPool internPool)
+    {
+        return new ParseOptions(internPool, diagnostics, projection, isLazyDecoding);
+    }
+
+    /** Returns a copy of these options reporting problems to the diagnostics, null to return parse messages */
+    public ParseOptions withDiagnostics(ParseDiagnostics diagnostics)
+    {
+        return new ParseOptions(internPool, diagnostics, projection, isLazyDecoding);
+    }
+
+    /** Returns a copy of these options limited by the projection, null to parse everything */
+    public ParseOptions withProjection(ParseProjection projection)
+    {
+        return new ParseOptions(internPool, diagnostics, projection, isLazyDecoding);
+    }
+
+    /** Returns a copy of these options with lazy decoding of property values on or off, see {@link #isLazyDecoding()} */
+    public ParseOptions withLazyDecoding(boolean isLazyDecoding)
+    {
+        return new ParseOptions(internPool, diagnostics, projection, isLazyDecoding);
+    }
+
+    /**
+     * Parse content into an empty element with these options
+     *
+     * @param element - new empty element, such as a new VEvent
+     * @param content - the text to parse, in the form used by the element's parse method
+     * @return - element, or null if content is null
+     */
+    public <T extends VElementBase> T parse(T element, String content)
+    {
+        return VElementBase.parse(element, content, this);
+    }
+
+    /** Returns the canonical value from the pool, or value if there's no pool.  Used by the parsers. */
+    public <T> T canonical(T value)
+    {
+        return (internPool == null) ? value : internPool.intern(value);
+    }
+
+    /** Returns true if the projection skips the component.  Used by the parsers. */
+    boolean isComponentSkipped(String componentName)
+    {
+        return (projection != null) && ! projection.isComponentIncluded(componentName);
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[internPool=" + internPool + ", diagnostics=" + diagnostics +
+                ", projection=" + projection + ", lazyDecoding=" + isLazyDecoding + "]";
+    }
+}
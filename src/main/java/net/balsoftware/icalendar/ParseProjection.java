@@ -0,0 +1,131 @@
+package net.balsoftware.icalendar;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import net.balsoftware.icalendar.components.VComponentElement;
+import net.balsoftware.icalendar.properties.VPropertyElement;
+
+/**
+ * Limits parsing to some component types and properties.  Index jobs that only need a few properties, such as UID,
+ * DTSTART and RRULE, can skip the VALARMs, attachments, descriptions and non-standard properties without making
+ * their elements.
+ *
+ * A skipped component is scanned past to its END line and a skipped property line is passed over.  Neither makes an
+ * element or a parse message.  With {@link #keepingSkippedContent()} the skipped lines are kept as text by the
+ * parent and written by its toString where they were, so the unchanged calendar's output is the same as
+ * if it was fully parsed.  The kept lines follow the child parsed before them, so they stay in place when other
+ * children are added or removed.  They are copied by the copy constructors and by {@link VParentBase#edit(VChild)},
+ * but they aren't elements: equals doesn't compare them and {@link CalendarSnapshot} doesn't write them.
+ *
+ * The property filter applies to the properties of components.  Calendar properties, such as VERSION and PRODID,
+ * are always parsed.  The names of unknown components and properties don't match any element, so they are skipped
+ * by an including projection and parsed by an excluding one.  Non-standard (X-) properties are matched by
+ * {@link VPropertyElement#NON_STANDARD_PROPERTY}.
+ *
+ * A projection is used by a parse through its {@link ParseOptions}:
+ * <pre>
+ * ParseProjection projection = ParseProjection.including(
+ *         EnumSet.of(VComponentElement.VEVENT),
+ *         EnumSet.of(VPropertyElement.UNIQUE_IDENTIFIER, VPropertyElement.DATE_TIME_START, VPropertyElement.RECURRENCE_RULE));
+ * vCalendar = VCalendar.parse(icsFilePath, ParseOptions.DEFAULT.withProjection(projection));
+ * </pre>
+ * A projection is immutable and can be shared by many parses on many threads.
+ *
+ * @author David Bal
+ */
+public final class ParseProjection
+{
+    private final Set<String> componentNames; // null matches all
+    private final Set<String> propertyNames; // null matches all
+    private final boolean isIncluding;
+    private final boolean isKeepingSkippedContent;
+
+    /** Returns true if the skipped lines are kept as text */
+    public boolean isKeepingSkippedContent() { return isKeepingSkippedContent; }
+
+    /*
+     * CONSTRUCTORS
+     */
+    private ParseProjection(Set<String> componentNames, Set<String> propertyNames, boolean isIncluding, boolean isKeepingSkippedContent)
+    {
+        this.componentNames = componentNames;
+        this.propertyNames = propertyNames;
+        this.isIncluding = isIncluding;
+        this.isKeepingSkippedContent = isKeepingSkippedContent;
+    }
+
+    /**
+     * Projection that parses only the listed components and properties
+     *
+     * @param components - components to parse, null to parse all components
+     * @param properties - component properties to parse, null to parse all properties
+     */
+    public static ParseProjection including(Collection<VComponentElement> components, Collection<VPropertyElement> properties)
+    {
+        return new ParseProjection(names(components), names(properties), true, false);
+    }
+
+    /**
+     * Projection that parses everything except the listed components and properties
+     *
+     * @param components - components to skip, null to skip none
+     * @param properties - component properties to skip, null to skip none
+     */
+    public static ParseProjection excluding(Collection<VComponentElement> components, Collection<VPropertyElement> properties)
+    {
+        return new ParseProjection(names(components), names(properties), false, false);
+    }
+
+    /** Returns a copy of this projection that keeps the skipped lines as text, so they are still in the output */
+    public ParseProjection keepingSkippedContent()
+    {
+        return new ParseProjection(componentNames, propertyNames, isIncluding, true);
+    }
+
+    private static Set<String> names(Collection<?> elements)
+    {
+        return (elements == null) ? null : Collections.unmodifiableSet(elements.stream()
+                .map(e -> e.toString())
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * Returns true if the component is parsed
+     *
+     * @param componentName - name from the component's BEGIN line
+     */
+    public boolean isComponentIncluded(String componentName)
+    {
+        return isIncluded(componentNames, componentName);
+    }
+
+    /**
+     * Returns true if the component property is parsed
+     *
+     * @param propertyName - property name, X- for a non-standard property
+     */
+    public boolean isPropertyIncluded(String propertyName)
+    {
+        return isIncluded(propertyNames, propertyName.startsWith("X-") ? "X-" : propertyName);
+    }
+
+    private boolean isIncluded(Set<String> names, String name)
+    {
+        if (names == null)
+        {
+            return true;
+        }
+        return names.contains(name.toUpperCase()) == isIncluding;
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[" + (isIncluding ? "including" : "excluding") +
+                " components=" + componentNames + ", properties=" + propertyNames +
+                ", keepingSkippedContent=" + isKeepingSkippedContent + "]";
+    }
+}
@@ -3,15 +3,30 @@ package net.balsoftware.icalendar;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
+import net.balsoftware.icalendar.OccurrenceIndex.Occurrence;
 import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.VParentBase;
 import net.balsoftware.icalendar.components.VComponent;
@@ -23,6 +38,7 @@ import net.balsoftware.icalendar.components.VTimeZone;
 import net.balsoftware.icalendar.components.VTodo;
 import net.balsoftware.icalendar.content.MultiLineContent;
 import net.balsoftware.icalendar.content.OrdererBase;
+import net.balsoftware.icalendar.content.UnfoldingByteBufferIterator;
 import net.balsoftware.icalendar.content.UnfoldingStringIterator;
 import net.balsoftware.icalendar.itip.AbstractITIPFactory;
 import net.balsoftware.icalendar.itip.DefaultITIPFactory;
@@ -79,8 +95,8 @@ public class VCalendar extends VParentBase<VCalendar>
     public void setCalendarScale(String calendarScale) { setCalendarScale(CalendarScale.parse(calendarScale)); }
     public void setCalendarScale(CalendarScale calendarScale)
     {
+    	orderChild(this.calendarScale, calendarScale);
     	this.calendarScale = calendarScale;
-    	orderChild(calendarScale);
 	}
     public VCalendar withCalendarScale(CalendarScale calendarScale)
     {
@@ -106,8 +122,8 @@ public class VCalendar extends VParentBase<VCalendar>
     public void setMethod(String method) { setMethod(Method.parse(method)); }
     public void setMethod(Method method)
     {
+    	orderChild(this.method, method);
     	this.method = method;
-    	orderChild(method);
 	}
     public void setMethod(MethodType method) { setMethod(new Method(method)); }
     public VCalendar withMethod(Method method)
@@ -141,8 +157,8 @@ public class VCalendar extends VParentBase<VCalendar>
     public void setProductIdentifier(String productIdentifier) { setProductIdentifier(ProductIdentifier.parse(productIdentifier)); }
     public void setProductIdentifier(ProductIdentifier productIdentifier)
     {
+    	orderChild(this.productIdentifier, productIdentifier);
     	this.productIdentifier = productIdentifier;
-    	orderChild(productIdentifier);
 	}
     public VCalendar withProductIdentifier(ProductIdentifier productIdentifier)
     {
@@ -172,8 +188,8 @@ public class VCalendar extends VParentBase<VCalendar>
     public void setVersion(String version) { setVersion(Version.parse(version)); }
     public void setVersion(Version version)
     {
+    	orderChild(this.version, version);
     	this.version = version;
-    	orderChild(version);
 	}
     public VCalendar withVersion(Version version)
     {
@@ -198,11 +214,12 @@ public class VCalendar extends VParentBase<VCalendar>
     public List<NonStandardProperty> getNonStandard() { return nonStandardProps; }
     public void setNonStandard(List<NonStandardProperty> nonStandardProps)
     {
+    	checkNotFrozen();
     	if (this.nonStandardProps != null)
     	{
     		this.nonStandardProps.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.nonStandardProps = nonStandardProps;
+    	this.nonStandardProps = componentList(nonStandardProps);
     	if (nonStandardProps != null)
     	{
     		nonStandardProps.forEach(c -> orderChild(c)); // order new elements
@@ -263,11 +280,12 @@ public class VCalendar extends VParentBase<VCalendar>
     private List<VEvent> vEvents;
     public void setVEvents(List<VEvent> vEvents)
     {
+    	checkNotFrozen();
     	if (this.vEvents != null)
     	{
     		this.vEvents.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.vEvents = vEvents;
+    	this.vEvents = componentList(vEvents);
     	if (vEvents != null)
 		{
     		vEvents.forEach(c -> orderChild(c)); // order new elements
@@ -308,11 +326,12 @@ public class VCalendar extends VParentBase<VCalendar>
     private List<VTodo> vTodos;
     public void setVTodos(List<VTodo> vTodos)
     {
+    	checkNotFrozen();
     	if (this.vTodos != null)
     	{
     		this.vTodos.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.vTodos = vTodos;
+    	this.vTodos = componentList(vTodos);
     	if (vTodos != null)
 		{
     		vTodos.forEach(c -> orderChild(c)); // order new elements
@@ -355,11 +374,12 @@ public class VCalendar extends VParentBase<VCalendar>
     private List<VJournal> vJournals;
     public void setVJournals(List<VJournal> vJournals)
     {
+    	checkNotFrozen();
     	if (this.vJournals != null)
     	{
     		this.vJournals.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.vJournals = vJournals;
+    	this.vJournals = componentList(vJournals);
     	if (vJournals != null)
 		{
     		vJournals.forEach(c -> orderChild(c)); // order new elements
@@ -399,11 +419,12 @@ public class VCalendar extends VParentBase<VCalendar>
     private List<VFreeBusy> vFreeBusys;
     public void setVFreeBusys(List<VFreeBusy> vFreeBusys)
     {
+    	checkNotFrozen();
     	if (this.vFreeBusys != null)
     	{
     		this.vFreeBusys.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.vFreeBusys = vFreeBusys;
+    	this.vFreeBusys = componentList(vFreeBusys);
     	if (vFreeBusys != null)
 		{
     		vFreeBusys.forEach(c -> orderChild(c)); // order new elements
@@ -443,11 +464,12 @@ public class VCalendar extends VParentBase<VCalendar>
     private List<VTimeZone> vTimeZones;
     public void setVTimeZones(List<VTimeZone> vTimeZones)
     {
+    	checkNotFrozen();
     	if (this.vTimeZones != null)
     	{
     		this.vTimeZones.forEach(e -> orderChild(e, null)); // remove old elements
     	}
-    	this.vTimeZones = vTimeZones;
+    	this.vTimeZones = componentList(vTimeZones);
     	if (vTimeZones != null)
 		{
     		vTimeZones.forEach(c -> orderChild(c)); // order new elements
@@ -564,6 +586,358 @@ public class VCalendar extends VParentBase<VCalendar>
         }
     }
     
+    /*
+     * OCCURRENCE INDEX
+     * The occurrence and UID indexes are guarded by this calendar's lock.  Queries hold it, so the first query of
+     * a snapshot read by many threads builds the indexes once, and so do the index updates made when a child is
+     * added, removed or changed.  The component lists aren't guarded, so a calendar changed on one thread and
+     * queried on another still needs external synchronization.
+     */
+    private OccurrenceIndex occurrenceIndex; // made on first query, then kept current as children change
+    private OccurrenceIndex occurrenceIndex()
+    {
+    	if (occurrenceIndex == null)
+    	{
+    		occurrenceIndex = new OccurrenceIndex(this, childrenUnmodifiable()
+    				.stream()
+    				.filter(c -> c instanceof VComponent)
+    				.map(c -> (VComponent) c)
+    				.collect(Collectors.toList()));
+    	}
+    	return occurrenceIndex;
+    }
+    
+    /**
+     * Returns the occurrences of all the {@link VEvent}, {@link VTodo} and {@link VJournal} components that start
+     * on or after the start parameter and before the end parameter, in start order.  The result is the same as
+     * calling {@link net.balsoftware.icalendar.components.VRepeatable#streamRecurrences(Temporal, Temporal)} on
+     * each component, but it's found from an index instead.
+     * 
+     * 
+     * <p>The index is guarded by this calendar's lock, so a snapshot can be queried from many threads.</p>
+     * 
+     * @param start  include occurrences that start at or after this value (inclusive)
+     * @param end  include occurrences that start before this value (exclusive)
+     * @return  occurrences in the range
+     * @see OccurrenceIndex
+     */
+    public synchronized List<Occurrence> occurrences(Temporal start, Temporal end)
+    {
+    	return occurrenceIndex().occurrences(start, end);
+    }
+    
+    /**
+     * Recalculates the occurrences of a component.  Only needed after a property value is modified in place,
+     * such as adding a date to an existing EXDATE's Set.  Changes made through setters are detected automatically.
+     * 
+     * @param vComponent  changed component
+     */
+    public synchronized void refreshOccurrenceIndex(VComponent vComponent)
+    {
+    	if (occurrenceIndex != null)
+    	{
+    		occurrenceIndex.changed(vComponent);
+    	}
+    }
+    
+    /*
+     * UID INDEX
+     * Components grouped by UID value, to find recurrence parents, recurrence children and iTIP matches
+     * without scanning the component lists
+     */
+    private final Map<String, List<VPersonal<?>>> uniqueIdentifierIndex = new HashMap<>();
+    private final Map<VPersonal<?>, String> indexedUniqueIdentifiers = new IdentityHashMap<>(); // all indexed components, UID can be null
+    private final Set<VPersonal<?>> changedComponents = Collections.newSetFromMap(new IdentityHashMap<>()); // UID may have changed
+    private boolean isUniqueIdentifierIndexBuilt; // false until the first lookup, such as in a new snapshot
+    
+    /**
+     * Returns the VEVENT, VTODO, VJOURNAL and VFREEBUSY components with the UID, in the order they were added.
+     * Returns an empty list if none are found.
+     * 
+     * <p>The UID index is kept current by {@link #addChild(VChild)}, {@link #removeChild(VChild)}, the list setters
+     * and {@link #orderChild(VChild)}, and by the lists returned by the getters, such as {@link #getVEvents()}, which pass
+     * every add, remove and replacement to this calendar.  Changes made to the List passed to a setter, instead of the
+     * List returned by the getter, aren't detected.  The index is guarded by this calendar's lock, so a snapshot can be
+     * queried from many threads.</p>
+     * 
+     * @param uniqueIdentifier  UID value to look up
+     * @return  unmodifiable list of components with the UID
+     */
+    public synchronized List<VPersonal<?>> findByUniqueIdentifier(String uniqueIdentifier)
+    {
+    	checkUniqueIdentifierIndex();
+    	List<VPersonal<?>> components = uniqueIdentifierIndex.get(uniqueIdentifier);
+    	return (components == null) ? Collections.emptyList() : Collections.unmodifiableList(components);
+    }
+    
+    /**
+     * Returns the components of the same type (e.g. VEVENT) with the same UID as the parameter, including
+     * the parameter itself if it's in this VCalendar.
+     * 
+     * @param vComponent  component with UID to look up
+     * @return  list of components with the same type and UID
+     */
+    public List<VPersonal<?>> findByUniqueIdentifier(VPersonal<?> vComponent)
+    {
+    	if (vComponent.getUniqueIdentifier() == null) return Collections.emptyList();
+    	return findByUniqueIdentifier(vComponent.getUniqueIdentifier().getValue())
+    			.stream()
+    			.filter(v -> v.name().equals(vComponent.name()))
+    			.collect(Collectors.toList());
+    }
+    
+    private static String uniqueIdentifierValue(VPersonal<?> vComponent)
+    {
+    	return (vComponent.getUniqueIdentifier() == null) ? null : vComponent.getUniqueIdentifier().getValue();
+    }
+    
+    private void indexUniqueIdentifier(VPersonal<?> vComponent)
+    {
+    	if (indexedUniqueIdentifiers.containsKey(vComponent)) return;
+    	String uid = uniqueIdentifierValue(vComponent);
+    	indexedUniqueIdentifiers.put(vComponent, uid);
+    	if (uid != null)
+    	{
+    		uniqueIdentifierIndex.computeIfAbsent(uid, k -> new ArrayList<>(1)).add(vComponent);
+    	}
+    }
+    
+    private void unindexUniqueIdentifier(VPersonal<?> vComponent)
+    {
+    	if (! indexedUniqueIdentifiers.containsKey(vComponent)) return;
+    	String uid = indexedUniqueIdentifiers.remove(vComponent);
+    	changedComponents.remove(vComponent);
+    	if (uid != null)
+    	{
+    		List<VPersonal<?>> components = uniqueIdentifierIndex.get(uid);
+    		components.removeIf(v -> v == vComponent);
+    		if (components.isEmpty())
+    		{
+    			uniqueIdentifierIndex.remove(uid);
+    		}
+    	}
+    }
+    
+    /* Builds the index on the first lookup, then moves changed components to their new UID */
+    private void checkUniqueIdentifierIndex()
+    {
+    	if (! isUniqueIdentifierIndexBuilt)
+    	{
+    		uniqueIdentifierIndex.clear();
+    		indexedUniqueIdentifiers.clear();
+    		changedComponents.clear();
+    		Arrays.asList(getVEvents(), getVTodos(), getVJournals(), getVFreeBusies())
+    			.stream()
+    			.filter(l -> l != null)
+    			.flatMap(l -> l.stream())
+    			.forEach(v -> indexUniqueIdentifier(v));
+    		isUniqueIdentifierIndexBuilt = true;
+    	} else if (! changedComponents.isEmpty())
+    	{
+    		List<VPersonal<?>> changed = new ArrayList<>(changedComponents);
+    		changedComponents.clear();
+    		changed.stream()
+    			.filter(v -> ! Objects.equals(indexedUniqueIdentifiers.get(v), uniqueIdentifierValue(v)))
+    			.forEach(v ->
+    			{
+    				unindexUniqueIdentifier(v);
+    				indexUniqueIdentifier(v);
+    			});
+    	}
+    }
+    
+
+    /*
+     * INDEX MAINTENANCE
+     */
+	@Override
+	public void orderChild(VChild addedChild)
+	{
+		boolean isFrozen = isFrozen(addedChild);
+		super.orderChild(addedChild);
+		childAdded(addedChild, isFrozen);
+	}
+	
+	@Override
+	public void orderChild(VChild oldChild, VChild newChild)
+	{
+		boolean isFrozen = isFrozen(newChild);
+		super.orderChild(oldChild, newChild);
+		childRemoved(oldChild);
+		childAdded(newChild, isFrozen);
+	}
+	
+	@Override
+	public void orderChild(int index, VChild addedChild)
+	{
+		boolean isFrozen = isFrozen(addedChild);
+		super.orderChild(index, addedChild);
+		childAdded(addedChild, isFrozen);
+	}
+	
+	// checked before the child is added, when its parent can still be another VCalendar
+	private static boolean isFrozen(VChild child)
+	{
+		return (child != null) && child.isFrozen();
+	}
+	
+	private synchronized void childAdded(VChild child, boolean isFrozen)
+	{
+		if ((child instanceof VElementBase) && ! isFrozen)
+		{ // a child shared with a snapshot stays frozen
+			((VElementBase) child).addedGeneration = generation;
+		}
+		if (child instanceof VPersonal)
+		{
+			indexUniqueIdentifier((VPersonal<?>) child);
+		}
+		if ((occurrenceIndex != null) && (child instanceof VComponent))
+		{
+			occurrenceIndex.add((VComponent) child);
+		}
+	}
+	
+	private synchronized void childRemoved(VChild child)
+	{
+		if (child instanceof VPersonal)
+		{
+			unindexUniqueIdentifier((VPersonal<?>) child);
+		}
+		if ((occurrenceIndex != null) && (child instanceof VComponent))
+		{
+			occurrenceIndex.remove((VComponent) child);
+		}
+	}
+	
+	@Override
+	protected void childContentChanged(VChild child)
+	{
+		super.childContentChanged(child);
+		synchronized (this)
+		{
+			// Notification can come before the new value is assigned, so UID changes are checked on the next lookup
+			if ((child instanceof VPersonal) && indexedUniqueIdentifiers.containsKey(child))
+			{
+				changedComponents.add((VPersonal<?>) child);
+			}
+			if ((occurrenceIndex != null) && (child instanceof VComponent))
+			{
+				occurrenceIndex.changed((VComponent) child);
+			}
+		}
+	}
+    
+    /*
+     * SNAPSHOTS
+     * A snapshot shares the children of the calendar it was taken from.  The calendar's component lists and orderer
+     * are copied the first time each changes after a snapshot, and a frozen child is replaced by a copy when it's
+     * edited, so a snapshot never changes.  The latest snapshot is reused until the calendar changes, through its
+     * methods or through a list returned by a getter.
+     * Only the thread that changes the calendar takes snapshots.  generation is volatile because reader threads
+     * read it when they check if a child of a snapshot is frozen.
+     */
+    private final boolean isSnapshot;
+    private volatile int generation; // number of snapshots taken, children added in an earlier generation are frozen
+    private VCalendar latestSnapshot; // null after the calendar changes
+    
+    /**
+     * <p>Returns a read-only snapshot of this calendar.  Taking a snapshot doesn't copy anything: the snapshot shares
+     * this calendar's component lists, components and properties, which are frozen.  A component list is copied the
+     * first time it changes after a snapshot.  A frozen element can't be changed, see
+     * {@link VElement#isFrozen()}.  To change a component, use the copy returned by {@link #edit(VChild)},
+     * which shares the unchanged properties with the snapshot.  Adding and removing components doesn't change
+     * the snapshot.  Calling snapshot again before this calendar changes returns the same snapshot.</p>
+     * 
+     * <p>A snapshot is safe to read from many threads without locks, such as iterating its components and
+     * writing its content, while one thread changes this calendar and publishes new snapshots, for example
+     * with an AtomicReference or a volatile field.  The first UID or occurrence query of a snapshot builds its
+     * index while holding the snapshot's lock, and finds recurrence children and parents in the snapshot.  A
+     * component of a snapshot returns this calendar as its parent, so query the snapshot instead of using the
+     * component's parent.  Changes made directly to a mutable value, such as adding to the List passed to a
+     * setter instead of the List returned by the getter, aren't detected and must not be made to frozen
+     * elements.</p>
+     * 
+     * <pre>
+     * AtomicReference&lt;VCalendar&gt; published = new AtomicReference&lt;&gt;(vCalendar.snapshot());
+     * // writer thread
+     * VEvent vEvent = vCalendar.edit(vCalendar.getVEvents().get(0));
+     * vEvent.setSummary("Changed");
+     * published.set(vCalendar.snapshot());
+     * // reader threads
+     * String content = published.get().toString();
+     * </pre>
+     * 
+     * <p>A snapshot is an in-memory, read-only {@link VCalendar}.  To save a calendar and load it again quickly,
+     * for example between runs, write it with {@link CalendarSnapshot}, which is a binary form of the element tree.
+     * The two are independent: writing a snapshot to a {@link CalendarSnapshot} and reading it back makes a
+     * new, unfrozen calendar.</p>
+     * 
+     * @return  frozen calendar with the current components and properties
+     * @see CalendarSnapshot
+     */
+    public VCalendar snapshot()
+    {
+    	if (isSnapshot)
+    	{
+    		return this;
+    	}
+    	VCalendar snapshot = latestSnapshot;
+    	if (snapshot == null)
+    	{
+    		snapshot = new VCalendar(this, true);
+    		generation++;
+    		latestSnapshot = snapshot;
+    	}
+    	return snapshot;
+    }
+    
+    /** Returns true if this calendar is a snapshot */
+    @Override
+    public boolean isFrozen()
+    {
+    	return isSnapshot;
+    }
+    
+    /* Returns true if child, a child of this calendar, is shared with a snapshot */
+    boolean isFrozen(VElementBase child)
+    {
+    	return isSnapshot || (child.addedGeneration < generation);
+    }
+    
+    /* Wraps a list passed to a setter, so changes made through the getter are passed to this calendar */
+    private <U> List<U> componentList(List<U> list)
+    {
+    	return (list == null) ? null : new ComponentList<>(this, list);
+    }
+    
+    /* The elements of a component list for a snapshot, see ComponentList */
+    private static <U> List<U> share(List<U> list)
+    {
+    	return (list == null) ? null : ((ComponentList<U>) list).share();
+    }
+    
+    /* Called by ComponentList when a component list is changed directly.  The indexes are updated here because
+     * the list may be changed without orderChild.  The updates are skipped when orderChild makes them again. */
+    void componentListChanged(Object removedElement, Object addedElement)
+    {
+    	latestSnapshot = null;
+    	if (removedElement instanceof VChild)
+    	{
+    		childRemoved((VChild) removedElement);
+    	}
+    	if (addedElement instanceof VChild)
+    	{
+    		VChild addedChild = (VChild) addedElement;
+    		childAdded(addedChild, isFrozen(addedChild));
+    	}
+    }
+    
+    @Override
+    protected void contentChanged()
+    {
+    	latestSnapshot = null;
+    	super.contentChanged();
+    }
     
     /** set AbstractITIPFactory to handle processing input VCalendar based on {@link Method} */
     public void setMethodProcessFactory(AbstractITIPFactory iTIPFactory)
@@ -749,6 +1123,7 @@ public class VCalendar extends VParentBase<VCalendar>
     /** Creates an empty VCalendar */
     public VCalendar()
     {
+        isSnapshot = false;
         setMethodProcessFactory(new DefaultITIPFactory());
 //    	List<java.lang.reflect.Method> getters = ICalendarUtilities.collectGetters(getClass());
         orderer = new OrdererBase(this, getGetters());
@@ -765,6 +1140,29 @@ public class VCalendar extends VParentBase<VCalendar>
         this();
         source.copyChildrenInto(this);  
     }
+    
+    /* Snapshot constructor, shares the children of source, see snapshot */
+    private VCalendar(VCalendar source, boolean isSnapshot)
+    {
+        this.isSnapshot = isSnapshot;
+        setMethodProcessFactory(source.getITIPFactory());
+        orderer = source.orderer.share(this);
+        contentLineGenerator = new MultiLineContent(
+                orderer,
+                FIRST_CONTENT_LINE,
+                LAST_CONTENT_LINE,
+                1000);
+        calendarScale = source.calendarScale;
+        method = source.method;
+        productIdentifier = source.productIdentifier;
+        version = source.version;
+        nonStandardProps = share(source.nonStandardProps);
+        vEvents = share(source.vEvents);
+        vTodos = share(source.vTodos);
+        vJournals = share(source.vJournals);
+        vFreeBusys = share(source.vFreeBusys);
+        vTimeZones = share(source.vTimeZones);
+    }
 
     /*
      * OTHER METHODS
@@ -872,80 +1270,173 @@ public class VCalendar extends VParentBase<VCalendar>
 //        return messages;
 //    }
 
-//    // multi threaded
-//    /** Parse content lines into calendar object */
-//    // TODO - TEST THIS - MAY NOT MAINTAIN ORDER
-//    // TODO - FIX THIS - DOESN'T WORK, DOESN'T GET CALENDARY PROPERTIES
-//    public void parseContentMulti(Iterator<String> lineIterator)
-//    {
-//        // Callables to generate components
-//        ExecutorService service = Executors.newWorkStealingPool();
-////        Map<Integer, Callable<Object>> taskMap = new LinkedHashMap<>();
-//        Integer order = 0;
-//        List<Callable<Object>> tasks = new ArrayList<>();
-//        
-//        String firstLine = lineIterator.next();
-//        if (! firstLine.equals("BEGIN:VCALENDAR"))
-//        {
-//            throw new IllegalArgumentException("Content lines must begin with BEGIN:VCALENDAR");
-//        }
-//        while (lineIterator.hasNext())
-//        {
-//            String line = lineIterator.next();
-//            int nameEndIndex = ICalendarUtilities.getPropertyNameIndex(line);
-//            String propertyName = line.substring(0, nameEndIndex);
-//            
-//            // Parse component
-//            if (propertyName.equals("BEGIN"))
-//            {
-//                String componentName = line.substring(nameEndIndex+1);
-//                List<String> myLines = new ArrayList<>(20);
-//                myLines.add(line);
-//                final String endLine = "END:" + componentName;
-//                while (lineIterator.hasNext())
-//                {
-//                    String myLine = lineIterator.next();
-//                    myLines.add(myLine);
-//                    if (myLine.equals(endLine))
-//                    {
-//                        Integer myOrder = order;
-//                        order += 100;
-//                        Runnable vComponentRunnable = () -> 
-//                        {
-//                            CalendarComponent elementType = CalendarComponent.valueOf(componentName);
-//                            VElement component = elementType.parse(this, myLines);
-////                            orderer().elementSortOrderMap().put((VChild) component, myOrder);
-//                        };
-////                        taskMap.put(order, Executors.callable(vComponentRunnable));
-//                        tasks.add(Executors.callable(vComponentRunnable));
-//                        break;
-//                    }
-//                }
-//                
-//            // parse calendar properties (ignores unknown properties)
-//            } else
-//            {
-//                CalendarComponent elementType = CalendarComponent.enumFromName(propertyName);
-//                if (elementType != null)
-//                {
-//                    VElement property = elementType.parse(this, Arrays.asList(line));
-////                    orderer().elementSortOrderMap().put((VChild) property, order);
-////                    order += 100;
-//                }
-//            }
-//        }
-//        
-//        try
-//        {
-////            List<Callable<Object>> tasks = taskMap.entrySet().stream().map(e -> e.getValue()).collect(Collectors.toList());
-//            service.invokeAll(tasks);
-//        } catch (InterruptedException e)
-//        {
-//            e.printStackTrace();
-//        }
-//    }
+    /*
+     * PARALLEL PARSING
+     */
+    // Approximate number of unfolded lines parsed by each task
+    private static final int PARALLEL_BATCH_SIZE = 1000;
+    
+    /*
+     * Section of the calendar content in document order.  Contains either lines parsed by the calendar, such as one
+     * calendar property line or a component skipped by the parse projection, or a batch of top-level components
+     * being parsed by a task.
+     */
+    private static class ParseSegment
+    {
+        final List<String> lines;
+        final CompletableFuture<List<ParsedComponent>> components;
+        
+        ParseSegment(List<String> lines)
+        {
+            this.lines = lines;
+            this.components = null;
+        }
+        
+        ParseSegment(CompletableFuture<List<ParsedComponent>> components)
+        {
+            this.lines = null;
+            this.components = components;
+        }
+    }
+    
+    /* Component parsed by a parallel parse task, with its parse messages */
+    private static class ParsedComponent
+    {
+        final VComponent component;
+        final List<Message> messages;
+        
+        ParsedComponent(VComponent component, List<Message> messages)
+        {
+            this.component = component;
+            this.messages = messages;
+        }
+    }
+    
+    /** Parse unfolded content lines into calendar object, parsing top-level components concurrently
+     * with the executor.  The children are added in the same order as {@link #parseContent(Iterator, ParseOptions)}. */
+    protected List<Message> parseContent(Iterator<String> unfoldedLineIterator, Executor executor, ParseOptions options)
+    {
+        List<ParseSegment> segments = new ArrayList<>();
+        List<List<String>> batch = new ArrayList<>();
+        int batchLineCount = 0;
+        while (unfoldedLineIterator.hasNext())
+        {
+            String unfoldedLine = unfoldedLineIterator.next();
+            if (unfoldedLine.startsWith(FIRST_CONTENT_LINE)) continue;
+            if (unfoldedLine.startsWith(LAST_CONTENT_LINE)) break;
+            if (unfoldedLine.startsWith(BEGIN))
+            { // collect component lines up to its matching END line
+                List<String> componentLines = new ArrayList<>();
+                componentLines.add(unfoldedLine);
+                int depth = 1;
+                while ((depth > 0) && unfoldedLineIterator.hasNext())
+                {
+                    String line = unfoldedLineIterator.next();
+                    if (line.startsWith(BEGIN)) depth++;
+                    else if (line.startsWith(END)) depth--;
+                    componentLines.add(line);
+                }
+                if (options.isComponentSkipped(unfoldedLine.substring(BEGIN.length())))
+                { // skipped, or kept as text, by the calendar in document order
+                    if (! batch.isEmpty())
+                    {
+                        segments.add(new ParseSegment(parseComponentsAsync(batch, executor, options)));
+                        batch = new ArrayList<>();
+                        batchLineCount = 0;
+                    }
+                    segments.add(new ParseSegment(componentLines));
+                    continue;
+                }
+                batch.add(componentLines);
+                batchLineCount += componentLines.size();
+                if (batchLineCount >= PARALLEL_BATCH_SIZE)
+                {
+                    segments.add(new ParseSegment(parseComponentsAsync(batch, executor, options)));
+                    batch = new ArrayList<>();
+                    batchLineCount = 0;
+                }
+            } else if (! unfoldedLine.isEmpty())
+            { // calendar property - close current batch to keep document order
+                if (! batch.isEmpty())
+                {
+                    segments.add(new ParseSegment(parseComponentsAsync(batch, executor, options)));
+                    batch = new ArrayList<>();
+                    batchLineCount = 0;
+                }
+                segments.add(new ParseSegment(Collections.singletonList(unfoldedLine)));
+            }
+        }
+        if (! batch.isEmpty())
+        {
+            segments.add(new ParseSegment(parseComponentsAsync(batch, executor, options)));
+        }
+        
+        // assemble children in document order
+        List<Message> messages = new ArrayList<>();
+        for (ParseSegment segment : segments)
+        {
+            if (segment.lines != null)
+            {
+                messages.addAll(parseContent(segment.lines.iterator(), options));
+            } else
+            {
+                final List<ParsedComponent> components;
+                try
+                {
+                    components = segment.components.join();
+                } catch (CompletionException e)
+                { // such as a fail-fast diagnostics exception
+                    if (e.getCause() instanceof RuntimeException)
+                    {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw e;
+                }
+                for (ParsedComponent parsed : components)
+                { // same order as parseContent(Iterator): the component's messages, then adding it
+                    messages.addAll(parsed.messages);
+                    VComponent component = parsed.component;
+                    addChildInternal(messages, BEGIN + component.name(), component.name(), component, options);
+                }
+            }
+        }
+        return messages;
+    }
+    
+    private static CompletableFuture<List<ParsedComponent>> parseComponentsAsync(List<List<String>> batch, Executor executor, ParseOptions options)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            List<ParsedComponent> components = new ArrayList<>(batch.size());
+            for (List<String> componentLines : batch)
+            {
+                String firstLine = componentLines.get(0);
+                String componentName = firstLine.substring(BEGIN.length());
+                VComponent component = (VComponent) newEmptyVElement(VComponent.class, componentName);
+                if (component != null) // unknown components are ignored
+                {
+                    List<Message> messages = ((VParentBase<?>) component).parseContent(componentLines.iterator(), options);
+                    components.add(new ParsedComponent(component, messages));
+                }
+            }
+            return components;
+        }, executor);
+    }
     
     public static VCalendar parse(Reader reader) throws IOException
+    {
+        return parse(reader, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VCalendar from iCalendar content with the options
+     * 
+     * @param reader  source of iCalendar content
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Reader reader, ParseOptions options) throws IOException
     {
         BufferedReader br = new BufferedReader(reader);
         Iterator<String> unfoldedLineIterator = new UnfoldingStringIterator(br.lines().iterator());
@@ -953,7 +1444,7 @@ public class VCalendar extends VParentBase<VCalendar>
 //        UnfoldingBufferedReader unfoldingReader = new UnfoldingBufferedReader(reader);
 //        Iterator<String> unfoldedLineIterator = unfoldingReader.lines().iterator();
         VCalendar vCalendar = new VCalendar();
-        vCalendar.parseContent(unfoldedLineIterator);
+        vCalendar.parseContent(unfoldedLineIterator, options);
 //        unfoldingReader.close();
         return vCalendar;
     }
@@ -967,7 +1458,136 @@ public class VCalendar extends VParentBase<VCalendar>
      */
     public static VCalendar parse(Path icsFilePath) throws IOException
     {
-        return parse(Files.newBufferedReader(icsFilePath));
+        return parse(icsFilePath, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VCalendar from an ics file with the options
+     * 
+     * @param icsFilePath  path of ics file to parse
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Path icsFilePath, ParseOptions options) throws IOException
+    {
+        ByteBuffer buffer = mapFile(icsFilePath);
+        if (buffer == null)
+        {
+            return parse(Files.newBufferedReader(icsFilePath), options);
+        }
+        return parse(buffer, options);
+    }
+    
+    /**
+     * Creates a new VCalendar from UTF-8 iCalendar content, such as a memory-mapped ics file.
+     * The lines are found and unfolded in the bytes, so only the unfolded lines are decoded.
+     * 
+     * @param buffer  UTF-8 content from the buffer's position to its limit
+     * @return  Created VCalendar
+     * @see UnfoldingByteBufferIterator
+     */
+    public static VCalendar parse(ByteBuffer buffer)
+    {
+        return parse(buffer, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VCalendar from UTF-8 iCalendar content with the options
+     * 
+     * @param buffer  UTF-8 content from the buffer's position to its limit
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  Created VCalendar
+     */
+    public static VCalendar parse(ByteBuffer buffer, ParseOptions options)
+    {
+        VCalendar vCalendar = new VCalendar();
+        vCalendar.parseContent(new UnfoldingByteBufferIterator(buffer), options);
+        return vCalendar;
+    }
+    
+    /* Memory-map a file for reading, or return null if it's too large for one buffer */
+    private static ByteBuffer mapFile(Path icsFilePath) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(icsFilePath, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+    
+    /**
+     * Creates a new VCalendar by parsing the top-level components concurrently.
+     * The content lines are split at the component boundaries and the components are parsed
+     * by tasks run by the executor.  The result is the same as {@link #parse(Reader)}.
+     * 
+     * @param reader  source of iCalendar content
+     * @param executor  executor to run the component parsing tasks, such as {@link ForkJoinPool#commonPool()}
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Reader reader, Executor executor) throws IOException
+    {
+        return parse(reader, executor, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VCalendar by parsing the top-level components concurrently with the options.
+     * The tasks run by the executor parse with the same options.
+     * 
+     * @param reader  source of iCalendar content
+     * @param executor  executor to run the component parsing tasks, such as {@link ForkJoinPool#commonPool()}
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  Created VCalendar
+     * @throws IOException
+     */
+    public static VCalendar parse(Reader reader, Executor executor, ParseOptions options) throws IOException
+    {
+        BufferedReader br = new BufferedReader(reader);
+        Iterator<String> unfoldedLineIterator = new UnfoldingStringIterator(br.lines().iterator());
+        VCalendar vCalendar = new VCalendar();
+        vCalendar.parseContent(unfoldedLineIterator, executor, options);
+        return vCalendar;
+    }
+    
+    /**
+     * Creates a new VCalendar from an ics file by parsing the top-level components concurrently
+     * in the {@link ForkJoinPool#commonPool()}
+     * 
+     * @param icsFilePath  path of ics file to parse
+     * @return  Created VCalendar
+     * @throws IOException
+     * @see #parse(Reader, Executor)
+     */
+    public static VCalendar parseParallel(Path icsFilePath) throws IOException
+    {
+        return parseParallel(icsFilePath, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VCalendar from an ics file by parsing the top-level components concurrently
+     * in the {@link ForkJoinPool#commonPool()} with the options
+     * 
+     * @param icsFilePath  path of ics file to parse
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  Created VCalendar
+     * @throws IOException
+     * @see #parse(Reader, Executor, ParseOptions)
+     */
+    public static VCalendar parseParallel(Path icsFilePath, ParseOptions options) throws IOException
+    {
+        ByteBuffer buffer = mapFile(icsFilePath);
+        if (buffer == null)
+        {
+            return parse(Files.newBufferedReader(icsFilePath), ForkJoinPool.commonPool(), options);
+        }
+        VCalendar vCalendar = new VCalendar();
+        vCalendar.parseContent(new UnfoldingByteBufferIterator(buffer), ForkJoinPool.commonPool(), options);
+        return vCalendar;
     }
     
     /**
@@ -1032,4 +1652,16 @@ public class VCalendar extends VParentBase<VCalendar>
     {
     	return VCalendar.parse(new VCalendar(), content);
     }
+    
+    /**
+     * Creates a new VCalendar calendar component by parsing a String of iCalendar content lines with the options
+     *
+     * @param content  the text to parse, not null
+     * @param options  options of the parse, such as an {@link net.balsoftware.icalendar.utilities.InternPool}
+     * @return  the parsed VCalendar
+     */
+    public static VCalendar parse(String content, ParseOptions options)
+    {
+    	return options.parse(new VCalendar(), content);
+    }
 }
@@ -0,0 +1,422 @@
+package net.balsoftware.icalendar;
+
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import net.balsoftware.icalendar.components.VComponent;
+
+/**
+ * <p>Push-style parser of UTF-8 iCalendar content that arrives in {@link ByteBuffer} chunks, such as the reads of a
+ * non-blocking socket.  A chunk can end anywhere, including inside a line, a folded line or a multi-byte
+ * character; the unfinished line is kept until the following chunks complete it.  Lines are unfolded according to
+ * the RFC 5545 iCalendar standard.</p>
+ *
+ * <p>The top-level {@link VComponent} elements are delivered to a {@link Subscriber} as soon as their END line is
+ * unfolded, the same components {@link VCalendarReader} returns.  The calendar-level properties are collected into
+ * a {@link VCalendar} that contains no components, available from {@link #getVCalendar()}.</p>
+ *
+ * <p>Delivery is limited by demand, like a reactive-streams subscription: each component uses one unit of demand
+ * requested with {@link #request(long)}.  When a component is complete and there is no demand,
+ * {@link #feed(ByteBuffer)} holds the component and stops consuming bytes, leaving the rest of the chunk in the
+ * buffer.  The caller should stop reading input until more is requested, then feed the rest of the chunk again.
+ * At most one component is held, so memory use is bounded by the largest single component.</p>
+ *
+ * <p>Example:
+ * <pre>
+ * VCalendarPushParser parser = new VCalendarPushParser(vComponent -&gt; ...);
+ * while (channel.read(buffer) != -1)
+ * {
+ *     buffer.flip();
+ *     parser.feed(buffer);
+ *     buffer.compact();
+ * }
+ * parser.close();</pre>
+ *
+ * <p>A parser isn't thread-safe.  Its methods and the subscriber's callbacks must not be called by more than one
+ * thread at a time, as with the completion handlers of one asynchronous channel.</p>
+ *
+ * @author David Bal
+ * @see VCalendarReader
+ */
+public class VCalendarPushParser implements Closeable
+{
+	private static final String BEGIN_VCALENDAR = VElementBase.BEGIN + "VCALENDAR";
+	private static final String END_VCALENDAR = VElementBase.END + "VCALENDAR";
+	private static final byte[] BYTE_ORDER_MARK = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+	/*
+	 * Line states
+	 */
+	private static final int IN_LINE = 0; // reading a line's bytes
+	private static final int AFTER_CR = 1; // read a CR that may be followed by LF
+	private static final int LINE_START = 2; // read a line break, next byte tells if the line continues
+
+	/**
+	 * Receiver of the parsed components
+	 */
+	public interface Subscriber
+	{
+		/** Called with each top-level component, once for each unit of requested demand */
+		void onNext(VComponent component);
+
+		/** Called once, after the last component, when the end of the content is reached */
+		void onComplete(VCalendar vCalendar);
+	}
+
+	private final Subscriber subscriber;
+	private final ParseOptions options;
+	private final VCalendar vCalendar = new VCalendar();
+	private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT);
+
+	private byte[] lineBytes = new byte[256];
+	private int lineLength;
+	private int lineState = LINE_START;
+	private int byteOrderMarkIndex;
+
+	private VComponent component; // component being read, null if none
+	private List<String> componentLines; // unfolded lines after the component's BEGIN line
+	private String skippedComponentEnd; // END line of unknown component being skipped, null if none
+	private int depth;
+
+	private VComponent readyComponent; // completed component waiting for demand
+	private long demand;
+	private boolean isDelivering;
+	private boolean isEndFound;
+	private boolean isFinished;
+	private boolean isCompleted;
+
+	/** Returns a {@link VCalendar} containing the calendar properties parsed so far, without any components */
+	public VCalendar getVCalendar() { return vCalendar; }
+
+	/** Returns the number of components that can be delivered before more must be requested */
+	public long demand() { return demand; }
+
+	/** Returns true if a completed component is waiting for demand, so no more bytes will be consumed */
+	public boolean isWaiting() { return readyComponent != null; }
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	/**
+	 * Creates a parser with no initial demand.  Components are delivered after they are requested with {@link #request(long)}.
+	 *
+	 * @param subscriber - receives the parsed components
+	 */
+	public VCalendarPushParser(Subscriber subscriber)
+	{
+		this(subscriber, ParseOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates a parser with no initial demand that parses with the options
+	 *
+	 * @param subscriber - receives the parsed components
+	 * @param options - options of the parse, such as a {@link ParseProjection}
+	 */
+	public VCalendarPushParser(Subscriber subscriber, ParseOptions options)
+	{
+		if (subscriber == null)
+		{
+			throw new IllegalArgumentException("subscriber can't be null");
+		}
+		this.subscriber = subscriber;
+		this.options = options;
+	}
+
+	/**
+	 * Creates a parser with unbounded demand that passes each component to a callback
+	 *
+	 * @param callback - receives the parsed components
+	 */
+	public VCalendarPushParser(Consumer<VComponent> callback)
+	{
+		this(callback, ParseOptions.DEFAULT);
+	}
+
+	/**
+	 * Creates a parser with unbounded demand that passes each component to a callback and parses with the options
+	 *
+	 * @param callback - receives the parsed components
+	 * @param options - options of the parse, such as a {@link ParseProjection}
+	 */
+	public VCalendarPushParser(Consumer<VComponent> callback, ParseOptions options)
+	{
+		this(new Subscriber()
+		{
+			@Override
+			public void onNext(VComponent component) { callback.accept(component); }
+			@Override
+			public void onComplete(VCalendar vCalendar) { }
+		}, options);
+		demand = Long.MAX_VALUE;
+	}
+
+	/**
+	 * Adds to the number of components the subscriber can receive.  A component waiting for demand is delivered
+	 * immediately.  Can be called from {@link Subscriber#onNext(VComponent)}.
+	 *
+	 * @param n - number of components, {@link Long#MAX_VALUE} for unbounded demand
+	 */
+	public void request(long n)
+	{
+		if (n <= 0)
+		{
+			throw new IllegalArgumentException("number of components requested must be positive:" + n);
+		}
+		demand = (demand + n < 0) ? Long.MAX_VALUE : demand + n; // cap at unbounded
+		deliver();
+	}
+
+	/**
+	 * Parses the bytes from the buffer's position to its limit, advancing its position.  Stops early if a component
+	 * is complete and there is no demand; the bytes after it are left in the buffer to be fed again after
+	 * {@link #request(long)}.
+	 *
+	 * @param buffer - next chunk of UTF-8 content
+	 * @return - true if all the bytes were consumed, false if parsing is waiting for demand
+	 * @throws UncheckedIOException if the bytes aren't valid UTF-8
+	 */
+	public boolean feed(ByteBuffer buffer)
+	{
+		if (isFinished)
+		{
+			throw new IllegalStateException("can't feed a finished parser");
+		}
+		while (buffer.hasRemaining())
+		{
+			if (readyComponent != null)
+			{
+				return false;
+			}
+			byte b = buffer.get(buffer.position());
+			if (byteOrderMarkIndex < BYTE_ORDER_MARK.length)
+			{
+				if (b == BYTE_ORDER_MARK[byteOrderMarkIndex])
+				{
+					byteOrderMarkIndex++;
+					buffer.position(buffer.position() + 1);
+					continue;
+				}
+				// not a byte order mark - its matched bytes are content
+				for (int i=0; i<byteOrderMarkIndex; i++)
+				{
+					append(BYTE_ORDER_MARK[i]);
+				}
+				byteOrderMarkIndex = BYTE_ORDER_MARK.length;
+				if (lineLength > 0)
+				{
+					lineState = IN_LINE;
+				}
+			}
+			if (lineState == AFTER_CR)
+			{
+				lineState = LINE_START;
+				if (b == '\n')
+				{
+					buffer.position(buffer.position() + 1);
+					continue;
+				}
+			}
+			if (lineState == LINE_START)
+			{
+				if ((b == '\n') || (b == '\r'))
+				{ // empty line
+					lineState = (b == '\r') ? AFTER_CR : LINE_START;
+					buffer.position(buffer.position() + 1);
+					continue;
+				} else if ((b == ' ') || (b == '\t'))
+				{ // continuation line - the fold's white space isn't content
+					lineState = IN_LINE;
+					buffer.position(buffer.position() + 1);
+					continue;
+				}
+				// b starts a new line, so the previous line is complete
+				lineState = IN_LINE;
+				if (lineLength > 0)
+				{
+					endLine();
+					continue; // stop before b if the line completed a component without demand
+				}
+			}
+			if (b == '\r')
+			{
+				lineState = AFTER_CR;
+			} else if (b == '\n')
+			{
+				lineState = LINE_START;
+			} else
+			{
+				append(b);
+			}
+			buffer.position(buffer.position() + 1);
+		}
+		return readyComponent == null;
+	}
+
+	/**
+	 * Ends the content.  The last line is parsed and the subscriber is told it's complete, after any waiting
+	 * component has been delivered.  Does nothing if already finished.
+	 *
+	 * @throws UncheckedIOException if the last line isn't valid UTF-8
+	 */
+	public void finish()
+	{
+		if (isFinished)
+		{
+			return;
+		}
+		isFinished = true;
+		if (byteOrderMarkIndex < BYTE_ORDER_MARK.length)
+		{ // partial byte order mark is content
+			for (int i=0; i<byteOrderMarkIndex; i++)
+			{
+				append(BYTE_ORDER_MARK[i]);
+			}
+		}
+		if (lineLength > 0)
+		{
+			endLine();
+		}
+		if (component != null)
+		{ // component without END line has what was read, like VCalendarReader
+			((VParentBase<?>) component).parseContent(componentLines.iterator(), options);
+			readyComponent = component;
+			component = null;
+			componentLines = null;
+		}
+		deliver();
+	}
+
+	/** Same as {@link #finish()} */
+	@Override
+	public void close()
+	{
+		finish();
+	}
+
+	private void append(byte b)
+	{
+		if (lineLength == lineBytes.length)
+		{
+			byte[] newBytes = new byte[lineBytes.length * 2];
+			System.arraycopy(lineBytes, 0, newBytes, 0, lineLength);
+			lineBytes = newBytes;
+		}
+		lineBytes[lineLength++] = b;
+	}
+
+	/* Decodes the unfolded line and parses it */
+	private void endLine()
+	{
+		String unfoldedLine;
+		try
+		{
+			unfoldedLine = decoder.decode(ByteBuffer.wrap(lineBytes, 0, lineLength)).toString();
+		} catch (CharacterCodingException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		lineLength = 0;
+		if (lineBytes.length > 65536)
+		{ // don't keep a buffer grown by one very long line
+			lineBytes = new byte[256];
+		}
+		parseLine(unfoldedLine);
+	}
+
+	/*
+	 * Same handling of lines as VCalendarReader: lines of a top-level component are collected and parsed when its
+	 * END line is found.  Other lines are calendar properties.  Lines after END:VCALENDAR are ignored.
+	 */
+	private void parseLine(String unfoldedLine)
+	{
+		if (isEndFound)
+		{
+			return;
+		} else if (skippedComponentEnd != null)
+		{
+			if (unfoldedLine.equals(skippedComponentEnd))
+			{
+				skippedComponentEnd = null;
+			}
+		} else if (component != null)
+		{
+			componentLines.add(unfoldedLine);
+			if (unfoldedLine.startsWith(VElementBase.BEGIN))
+			{
+				depth++;
+			} else if (unfoldedLine.startsWith(VElementBase.END) && (--depth == 0))
+			{
+				((VParentBase<?>) component).parseContent(componentLines.iterator(), options); // parses through END line
+				readyComponent = component;
+				component = null;
+				componentLines = null;
+				deliver();
+			}
+		} else if (unfoldedLine.isEmpty() || unfoldedLine.startsWith(BEGIN_VCALENDAR))
+		{
+			return;
+		} else if (unfoldedLine.startsWith(END_VCALENDAR))
+		{
+			isEndFound = true;
+		} else if (unfoldedLine.startsWith(VElementBase.BEGIN))
+		{
+			String componentName = unfoldedLine.substring(VElementBase.BEGIN.length());
+			component = options.isComponentSkipped(componentName) ? null
+					: (VComponent) VElementBase.newEmptyVElement(VComponent.class, componentName);
+			if (component == null)
+			{ // unknown or skipped component - skip to its end
+				skippedComponentEnd = VElementBase.END + componentName;
+			} else
+			{
+				componentLines = new ArrayList<>();
+				depth = 1;
+			}
+		} else
+		{ // calendar property
+			vCalendar.parseContent(Collections.singletonList(unfoldedLine).iterator(), options);
+		}
+	}
+
+	/* Delivers the waiting component if there is demand, then completes if finished */
+	private void deliver()
+	{
+		if (isDelivering)
+		{ // called from the subscriber - the outer call delivers
+			return;
+		}
+		isDelivering = true;
+		try
+		{
+			if ((readyComponent != null) && (demand > 0))
+			{
+				VComponent nextComponent = readyComponent;
+				readyComponent = null;
+				if (demand != Long.MAX_VALUE)
+				{
+					demand--;
+				}
+				subscriber.onNext(nextComponent);
+			}
+			if (isFinished && (readyComponent == null) && ! isCompleted)
+			{
+				isCompleted = true;
+				subscriber.onComplete(vCalendar);
+			}
+		} finally
+		{
+			isDelivering = false;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package net.balsoftware.icalendar;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.content.UnfoldingStringIterator;
+
+/**
+ * <p>Pull-style reader that produces the top-level {@link VComponent} elements (e.g. VEVENT, VTODO, VTIMEZONE)
+ * of an iCalendar stream one at a time.  Each component is returned as soon as its END line is read, so memory
+ * use is bounded by the largest single component instead of the size of the whole calendar.</p>
+ *
+ * <p>The calendar-level properties (e.g. VERSION, PRODID, METHOD) are collected into a {@link VCalendar} that
+ * contains no components, available from {@link #getVCalendar()}.  Properties that appear after a component are
+ * only present once iteration has reached them.</p>
+ *
+ * <p>The returned components are not added to the {@link VCalendar} and have no parent.</p>
+ *
+ * <p>Example:
+ * <pre>
+ * try (VCalendarReader reader = new VCalendarReader(Files.newBufferedReader(path)))
+ * {
+ *     while (reader.hasNext())
+ *     {
+ *         VComponent vComponent = reader.next();
+ *         ...
+ *     }
+ * }</pre>
+ *
+ * @author David Bal
+ * @see VCalendar#parse(Reader)
+ */
+public class VCalendarReader implements Iterator<VComponent>, Closeable
+{
+	private static final String BEGIN_VCALENDAR = VElementBase.BEGIN + "VCALENDAR";
+	private static final String END_VCALENDAR = VElementBase.END + "VCALENDAR";
+
+	private final BufferedReader reader;
+	private final Iterator<String> unfoldedLineIterator;
+	private final ParseOptions options;
+	private final VCalendar vCalendar = new VCalendar();
+	private VComponent nextComponent;
+	private boolean isEndFound = false;
+
+	/** Returns a {@link VCalendar} containing the calendar properties read so far, without any components */
+	public VCalendar getVCalendar() { return vCalendar; }
+
+	/*
+	 * CONSTRUCTORS
+	 */
+	/** Creates a reader of the iCalendar content provided by the {@link Reader} parameter */
+	public VCalendarReader(Reader reader)
+	{
+		this(reader, ParseOptions.DEFAULT);
+	}
+
+	/** Creates a reader of the iCalendar content provided by the {@link Reader} parameter, parsing with the options */
+	public VCalendarReader(Reader reader, ParseOptions options)
+	{
+		this.reader = (reader instanceof BufferedReader) ? (BufferedReader) reader : new BufferedReader(reader);
+		unfoldedLineIterator = new UnfoldingStringIterator(this.reader.lines().iterator());
+		this.options = options;
+	}
+
+	/** Creates a reader of an ics file */
+	public VCalendarReader(Path icsFilePath) throws IOException
+	{
+		this(Files.newBufferedReader(icsFilePath));
+	}
+
+	/** Creates a reader of an ics file, parsing with the options */
+	public VCalendarReader(Path icsFilePath, ParseOptions options) throws IOException
+	{
+		this(Files.newBufferedReader(icsFilePath), options);
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		if (nextComponent == null)
+		{
+			nextComponent = readNextComponent();
+		}
+		return nextComponent != null;
+	}
+
+	@Override
+	public VComponent next()
+	{
+		if (! hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		VComponent component = nextComponent;
+		nextComponent = null;
+		return component;
+	}
+
+	/** Returns a sequential stream of the remaining components */
+	public Stream<VComponent> stream()
+	{
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+
+	/*
+	 * Reads lines until a complete component is found.  Calendar properties found along the way
+	 * are added to the VCalendar.  Returns null when END:VCALENDAR or the end of the content is reached.
+	 */
+	private VComponent readNextComponent()
+	{
+		while (! isEndFound && unfoldedLineIterator.hasNext())
+		{
+			String unfoldedLine = unfoldedLineIterator.next();
+			if (unfoldedLine.isEmpty() || unfoldedLine.startsWith(BEGIN_VCALENDAR))
+			{
+				continue;
+			} else if (unfoldedLine.startsWith(END_VCALENDAR))
+			{
+				isEndFound = true;
+			} else if (unfoldedLine.startsWith(VElementBase.BEGIN))
+			{
+				String componentName = unfoldedLine.substring(VElementBase.BEGIN.length());
+				VComponent component = options.isComponentSkipped(componentName) ? null
+						: (VComponent) VElementBase.newEmptyVElement(VComponent.class, componentName);
+				if (component == null)
+				{ // unknown or skipped component - skip to its end
+					skipComponent(componentName);
+				} else
+				{
+					((VParentBase<?>) component).parseContent(unfoldedLineIterator, options); // parses through END line
+					return component;
+				}
+			} else
+			{ // calendar property
+				vCalendar.parseContent(Collections.singletonList(unfoldedLine).iterator(), options);
+			}
+		}
+		return null;
+	}
+
+	private void skipComponent(String componentName)
+	{
+		final String endLine = VElementBase.END + componentName;
+		while (unfoldedLineIterator.hasNext())
+		{
+			if (unfoldedLineIterator.next().equals(endLine)) break;
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+}
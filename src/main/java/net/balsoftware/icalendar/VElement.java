@@ -1,5 +1,6 @@
 package net.balsoftware.icalendar;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -23,6 +24,19 @@ public interface VElement
      */
     String name();
     
+    /**
+     * <p>Writes the element's content lines, the same text as {@link #toString()}, to out.
+     * Elements with children write each child straight to out, so the whole text is never held in memory.</p>
+     * <p>A {@link java.io.Writer} can be used as out.</p>
+     * 
+     * @param out  where to write the content lines
+     * @throws IOException  if out throws IOException
+     */
+    default void write(Appendable out) throws IOException
+    {
+        out.append(toString());
+    }
+    
     /** Parse content line into calendar element.
      * If element contains children {@link #parseContent(String)} is invoked recursively to parse child elements also
      * 
@@ -48,4 +62,13 @@ public interface VElement
      * @return - list of error messages
      */
     List<String> errors();
+    
+    /**
+     * Returns true if the element is shared with a {@link VCalendar#snapshot() snapshot} and can't be changed.
+     * Changing a frozen element throws an IllegalStateException.  Use {@link VParentBase#edit(VChild)} on its
+     * parent to get a copy that can be changed.
+     * 
+     * @return - true if the element can't be changed
+     */
+    default boolean isFrozen() { return false; }
 }
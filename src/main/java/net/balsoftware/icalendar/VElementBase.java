@@ -1,12 +1,13 @@
 package net.balsoftware.icalendar;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VChild;
@@ -20,7 +21,7 @@ import net.balsoftware.icalendar.properties.VProperty;
 import net.balsoftware.icalendar.properties.VPropertyElement;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePart;
-import net.balsoftware.icalendar.utilities.Pair;
+import net.balsoftware.icalendar.utilities.ContentLineTokenizer;
 
 /**
  * Base class for all VCalendar elements. 
@@ -36,13 +37,69 @@ public abstract class VElementBase implements VElement
 	protected static final String END = "END:";
     
     /** Parse content line into calendar element.
-     * If element contains children {@link #parseContent(String)} is invoked recursively to parse child elements also
+     * If element contains children {@link #parseContent(String, ParseOptions)} is invoked recursively to parse child elements also
      * 
      * @param content  calendar content string to parse
+     * @param options  options of the parse, passed to the children
      * @return  log of information and error messages
      * @throws IllegalArgumentException  if calendar content is not valid, such as null
      */
-	abstract protected List<Message> parseContent(String content);
+	abstract protected List<Message> parseContent(String content, ParseOptions options);
+	
+    /** Parse content line into calendar element with the {@link ParseOptions#DEFAULT} options */
+	protected List<Message> parseContent(String content)
+	{
+		return parseContent(content, ParseOptions.DEFAULT);
+	}
+	
+	/*
+	 * FROZEN ELEMENTS
+	 * A VCalendar's children are frozen when a snapshot is taken.  Freezing is O(1): each child of a VCalendar
+	 * holds the calendar's generation when it was added, and a child added before the latest snapshot is frozen.
+	 * Descendants are frozen with the calendar's child they belong to.
+	 */
+	int addedGeneration; // generation of the VCalendar parent when this element was added, see VCalendar#snapshot
+	
+	@Override
+	public boolean isFrozen()
+	{
+		VElement element = this;
+		while (element instanceof VChild)
+		{
+			VParent parent = ((VChild) element).getParent();
+			if (parent instanceof VCalendar)
+			{
+				return ((VCalendar) parent).isFrozen((VElementBase) element);
+			}
+			element = parent;
+		}
+		return false;
+	}
+	
+	/** Throws IllegalStateException if the element is shared with a snapshot.  Called before a change is made. */
+	protected void checkNotFrozen()
+	{
+		if (isFrozen())
+		{
+			throw new IllegalStateException(name() + " is shared with a snapshot and can't be changed.  Change the copy returned by the parent's edit method.");
+		}
+	}
+	
+	/*
+	 * CHANGE NOTIFICATION
+	 */
+	/** Notify the parent, if any, that this element's children or value changed */
+	protected void contentChanged()
+	{
+		if (this instanceof VChild)
+		{
+			VParent parent = ((VChild) this).getParent();
+			if (parent instanceof VParentBase)
+			{
+				((VParentBase<?>) parent).childContentChanged((VChild) this);
+			}
+		}
+	}
 	
 	protected static void throwMessageExceptions(List<Message> messages, VElement element) throws IllegalArgumentException
 	{
@@ -50,6 +107,7 @@ public abstract class VElementBase implements VElement
 		// now throw all messages as errors
 		String error = messages
         	.stream()
+        	.filter(m -> ! m.isReported) // already reported to the diagnostics
         	.filter(m -> ! m.message.startsWith("Unknown"))
 //        	.filter(m -> (m.effect == MessageEffect.THROW_EXCEPTION) || (m.element == element))
         	.map(m -> m.element.name() + ":" + m.message)
@@ -60,89 +118,116 @@ public abstract class VElementBase implements VElement
         }
 	}
 	
-	// All no-arg constructors made from calendar element enums
-	private static final  Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> NO_ARG_CONSTRUCTORS = makeNoArgConstructorMap();
-    private static Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> makeNoArgConstructorMap()
-    {
-    	Map<Pair<Class<? extends VElement>, String>, Constructor<? extends VElement>> map = new HashMap<>();
-
-    	// Add VComponent elements
-    	VComponentElement[] values0 = VComponentElement.values();
-    	Arrays.stream(values0)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VComponent.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add VProperty elements
-    	VPropertyElement[] values1 = VPropertyElement.values();
-    	Arrays.stream(values1)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VProperty.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add VParameter elements
-    	VParameterElement[] values2 = VParameterElement.values();
-    	Arrays.stream(values2)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(VParameter.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
-    	
-    	// Add RRULE parts
-    	RRuleElement[] values3 = RRuleElement.values();
-    	Arrays.stream(values3)
-    		.forEach(v ->
-	    	{
-	    		Pair<Class<? extends VElement>, String> key = new Pair<>(RRulePart.class, v.toString());
-				try {
-					Constructor<? extends VElement> constructor = v.elementClass().getConstructor();
-					map.put(key, constructor);
-				} catch (NoSuchMethodException | SecurityException e) {
-					e.printStackTrace();
-				}
-	    	});
+	/*
+	 * ELEMENT CONSTRUCTORS
+	 * The no-arg constructors of the elements of each calendar element enum, found by name.
+	 * Read-only after class initialization, so they're safe to use on multiple threads without locking
+	 */
+	private static final ElementTable COMPONENTS = new ElementTable(Arrays.stream(VComponentElement.values())
+			.collect(Collectors.toMap(v -> v.toString(), v -> v.constructor())));
+	private static final ElementTable PROPERTIES = new ElementTable(Arrays.stream(VPropertyElement.values())
+			.collect(Collectors.toMap(v -> v.toString(), v -> v.constructor())));
+	private static final ElementTable PARAMETERS = new ElementTable(Arrays.stream(VParameterElement.values())
+			.collect(Collectors.toMap(v -> v.toString(), v -> v.constructor())));
+	private static final ElementTable RRULE_PARTS = new ElementTable(Arrays.stream(RRuleElement.values())
+			.collect(Collectors.toMap(v -> v.toString(), v -> v.constructor())));
 
-        return map;
-    }
-    private static final Set<String> NAMES = NO_ARG_CONSTRUCTORS
-    		.entrySet()
+    private static final Set<String> NAMES = Collections.unmodifiableSet(Arrays.asList(COMPONENTS, PROPERTIES, PARAMETERS, RRULE_PARTS)
     		.stream()
-    		.map(e -> e.getKey().getValue())
-    		.collect(Collectors.toSet());
+    		.flatMap(t -> t.names().stream())
+    		.collect(Collectors.toSet()));
+    // finds names in content without making a String
+    private static final ContentLineTokenizer.Names NAMES_TABLE = new ContentLineTokenizer.Names(NAMES);
 
+	/**
+	 * Make a new empty element
+	 * 
+	 * @param superclass - VComponent, VProperty, VParameter or RRulePart
+	 * @param name - element name, case-insensitive.  Names starting with X- make a non-standard element.
+	 * @return - new element, or null if the name isn't known
+	 */
 	public static VChild newEmptyVElement(Class<? extends VElement> superclass, String name)
 	{
-		try {
-			if (name == null) return null;
-			String name2 = (name.startsWith("X-")) ? "X-" : name;
-			Constructor<? extends VElement> constructor = NO_ARG_CONSTRUCTORS.get(new Pair<>(superclass, name2));
-			if (constructor == null) return null;
-			return (VChild) constructor.newInstance();
-		} catch (InstantiationException | IllegalAccessException | IllegalArgumentException
-				| InvocationTargetException e) {
-			e.printStackTrace();
+		if (name == null) return null;
+		return newEmptyVElement(superclass, name, 0, name.length());
+	}
+	
+	/**
+	 * Make a new empty element named by a region of a line, without making a String
+	 * 
+	 * @param superclass - VComponent, VProperty, VParameter or RRulePart
+	 * @param s - characters containing the name
+	 * @param start - start of name
+	 * @param end - end of name, exclusive
+	 * @return - new element, or null if the name isn't known
+	 */
+	public static VChild newEmptyVElement(Class<? extends VElement> superclass, CharSequence s, int start, int end)
+	{
+		final ElementTable table;
+		if (superclass == VProperty.class)
+		{
+			table = PROPERTIES;
+		} else if (superclass == VParameter.class)
+		{
+			table = PARAMETERS;
+		} else if (superclass == VComponent.class)
+		{
+			table = COMPONENTS;
+		} else if (superclass == RRulePart.class)
+		{
+			table = RRULE_PARTS;
+		} else
+		{
+			return null;
+		}
+		Supplier<? extends VElement> constructor = table.lookup(s, start, end);
+		return (constructor == null) ? null : (VChild) constructor.get();
+	}
+	
+	/*
+	 * Table of element names to constructors.  The names are found with a ContentLineTokenizer.Names, which
+	 * compares the name in place, and the constructors are kept in an array indexed by the name's slot.
+	 * A name starting with X- finds the X- element, if there is one.
+	 */
+	private static final class ElementTable
+	{
+		private static final String NON_STANDARD_PREFIX = "X-";
+		
+		private final Collection<String> names;
+		private final ContentLineTokenizer.Names table;
+		private final Supplier<? extends VElement>[] constructors;
+		private final Supplier<? extends VElement> nonStandardConstructor;
+		
+		ElementTable(Map<String, ? extends Supplier<? extends VElement>> map)
+		{
+			names = Collections.unmodifiableList(new ArrayList<>(map.keySet()));
+			table = new ContentLineTokenizer.Names(names);
+			constructors = newSupplierArray(table.capacity());
+			map.forEach((name, constructor) -> constructors[table.indexOf(name, 0, name.length())] = constructor);
+			nonStandardConstructor = map.get(NON_STANDARD_PREFIX);
+		}
+		
+		@SuppressWarnings("unchecked") // generic array creation
+		private static <T> Supplier<? extends T>[] newSupplierArray(int size)
+		{
+			return (Supplier<? extends T>[]) new Supplier<?>[size];
+		}
+		
+		Collection<String> names()
+		{
+			return names;
+		}
+		
+		Supplier<? extends VElement> lookup(CharSequence s, int start, int end)
+		{
+			if ((nonStandardConstructor != null) && (end - start >= 2)
+					&& ContentLineTokenizer.regionMatchesIgnoreCase(s, start, start+2, NON_STANDARD_PREFIX))
+			{
+				return nonStandardConstructor;
+			}
+			int index = table.indexOf(s, start, end);
+			return (index < 0) ? null : constructors[index];
 		}
-		return null;
 	}
 	
     /**
@@ -153,6 +238,18 @@ public abstract class VElementBase implements VElement
      * @return  the parsed DaylightSavingTime
      */
     protected static <T extends VElementBase> T parse(T element, String valueContent)
+    {
+    	return parse(element, valueContent, ParseOptions.DEFAULT);
+    }
+    
+    /**
+     * Creates a new VElement by parsing a String of iCalendar content text with the options
+     *
+     * @param content  the text to parse, not null
+     * @param options  options of the parse
+     * @return  the parsed element
+     */
+    static <T extends VElementBase> T parse(T element, String valueContent, ParseOptions options)
     {
     	if (valueContent == null) return null;
     	boolean isContentValid = element.isContentValid(valueContent);
@@ -160,7 +257,7 @@ public abstract class VElementBase implements VElement
 		{
     		throw new IllegalArgumentException("Invalid element:" + valueContent);
 		}
-        List<Message> messages = element.parseContent(valueContent);
+        List<Message> messages = element.parseContent(valueContent, options);
         throwMessageExceptions(messages, element);
         return element;
     }
@@ -205,26 +302,63 @@ public abstract class VElementBase implements VElement
 	        {
 	        	return null;
 	        }
-	        String possibleName = content.substring(0, i).toUpperCase();
-	        boolean isNonStandard = (possibleName.startsWith("X-"));
-	        if (isNonStandard) return possibleName;
-	        boolean isStandard = NAMES.contains(possibleName);
-	        if (isStandard) return possibleName;
+	        String standardName = NAMES_TABLE.lookup(content, 0, i);
+	        if (standardName != null) return standardName;
+	        boolean isNonStandard = (i >= 2) && ContentLineTokenizer.regionMatchesIgnoreCase(content, 0, 2, "X-");
+	        if (isNonStandard) return content.substring(0, i).toUpperCase();
 	        return null;
 		}
 	}
 	
+	/**
+	 * Add a parse problem to messages, or report it to the {@link ParseDiagnostics} of the options.
+	 * With diagnostics the message is only made if they need it.  A message with the fixed text
+	 * {@link Message#REPORTED_MESSAGE} is added to messages, so the parser can still tell a problem was found.
+	 * 
+	 * @param messages - messages of the parse
+	 * @param options - options of the parse
+	 * @param element - element with the problem
+	 * @param effect - effect of the problem
+	 * @param message - makes the problem's message
+	 */
+	protected static void addMessage(List<Message> messages, ParseOptions options, VElement element, MessageEffect effect, Supplier<String> message)
+	{
+		ParseDiagnostics diagnostics = options.getDiagnostics();
+		if (diagnostics == null)
+		{
+			messages.add(new Message(element, message.get(), effect));
+		} else
+		{
+			diagnostics.report(element, effect, message);
+			messages.add(new Message(element, effect));
+		}
+	}
+	
 	protected static class Message
 	{
+		/** Text of a message for a problem reported to the {@link ParseDiagnostics} of the parse */
+		public static final String REPORTED_MESSAGE = "Reported to the ParseDiagnostics";
+		
 		public Message(VElement element, String message, MessageEffect effect) {
 			super();
 			this.element = element;
 			this.message = message;
 			this.effect = effect;
+			this.isReported = false;
+		}
+		
+		/* Message for a problem reported to the diagnostics, which made the real message if they needed it */
+		private Message(VElement element, MessageEffect effect) {
+			this.element = element;
+			this.message = REPORTED_MESSAGE;
+			this.effect = effect;
+			this.isReported = true;
 		}
 		public VElement element;
 		public String message;
 		public MessageEffect effect;
+		/* true when the real message went to the diagnostics */
+		final boolean isReported;
 		
 		@Override
 		public String toString() {
@@ -1,5 +1,6 @@
 package net.balsoftware.icalendar;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -8,13 +9,12 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VCalendar;
@@ -24,6 +24,7 @@ import net.balsoftware.icalendar.VElementBase;
 import net.balsoftware.icalendar.VParent;
 import net.balsoftware.icalendar.VParentBase;
 import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.content.ChildAccessor;
 import net.balsoftware.icalendar.content.ContentLineStrategy;
 import net.balsoftware.icalendar.content.Orderer;
 import net.balsoftware.icalendar.content.OrdererBase;
@@ -32,6 +33,7 @@ import net.balsoftware.icalendar.parameters.VParameter;
 import net.balsoftware.icalendar.properties.VProperty;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePart;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import net.balsoftware.icalendar.utilities.ICalendarUtilities;
 
 /**
  * <p>Base class for parent calendar components.</p>
@@ -47,11 +49,38 @@ import net.balsoftware.icalendar.properties.component.recurrence.rrule.Recurrenc
 public abstract class VParentBase<T> extends VElementBase implements VParent
 {
 	/* Setter, getter maps
-	 * The first key is the VParent class
-	 * The second key is the VChild of that VParent
+	 * The ClassValue key is the VParent class
+	 * The map key is the VChild of that VParent
+	 * The accessors are made once per VParent class, avoiding reflection when adding, removing and comparing children.
+	 * ClassValue computes each map atomically on first use and has no locking on later reads, so elements can be
+	 * parsed on many threads at once.
 	 */
-	private static final  Map<Class<? extends VParent>, Map<Class<? extends VChild>, Method>> SETTERS = new HashMap<>();
-	private static final  Map<Class<? extends VParent>, Map<Class<? extends VChild>, Method>> GETTERS = new HashMap<>();
+	private static final ClassValue<Map<Class<? extends VChild>, ChildAccessor>> SETTERS = new ClassValue<Map<Class<? extends VChild>, ChildAccessor>>()
+	{
+		@Override
+		protected Map<Class<? extends VChild>, ChildAccessor> computeValue(Class<?> type)
+		{
+			return Collections.unmodifiableMap(ChildAccessor.ofSetters(collectSetterMap(type)));
+		}
+	};
+	private static final ClassValue<Map<Class<? extends VChild>, ChildAccessor>> GETTERS = new ClassValue<Map<Class<? extends VChild>, ChildAccessor>>()
+	{
+		@Override
+		protected Map<Class<? extends VChild>, ChildAccessor> computeValue(Class<?> type)
+		{
+			return Collections.unmodifiableMap(ChildAccessor.ofGetters(collectGetterMap(type)));
+		}
+	};
+
+	// Getters as an array, for a fast loop in equals and hashCode
+	private static final ClassValue<ChildAccessor[]> GETTER_ARRAYS = new ClassValue<ChildAccessor[]>()
+	{
+		@Override
+		protected ChildAccessor[] computeValue(Class<?> type)
+		{
+			return GETTERS.get(type).values().toArray(new ChildAccessor[0]);
+		}
+	};
 
     /*
      * HANDLE SORT ORDER FOR CHILD ELEMENTS
@@ -62,48 +91,68 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 	@Override
 	public void orderChild(VChild addedChild)
 	{
+		checkNotFrozen();
 		orderer.orderChild(addedChild);
+		contentChanged();
 	}
 	
 	@Override
 	public void orderChild(VChild oldChild, VChild newChild)
 	{
+		checkNotFrozen();
 		orderer.replaceChild(oldChild, newChild);
+		contentChanged();
 	}
 
 	@Override
 	public void orderChild(int index, VChild addedChild)
 	{
+		checkNotFrozen();
 		orderer.orderChild(index, addedChild);
+		contentChanged();
+	}
+	
+	/*
+	 * CHANGE NOTIFICATION
+	 * Changes are passed up the parent chain so a VCalendar can keep its indexes current
+	 * and each parent discards its cached content
+	 */
+	@Override
+	protected void contentChanged()
+	{
+		cachedContent = null;
+		cachedHashCode = 0;
+		super.contentChanged();
+	}
+	
+	/** Called when the content of a child changed.  By default the change is passed up to this element's parent. */
+	protected void childContentChanged(VChild child)
+	{
+		contentChanged();
 	}
 
 	@Override
     public void addChild(VChild child)
     {
-		Method setter = getSetter(child);
-		boolean isList = Collection.class.isAssignableFrom(setter.getParameters()[0].getType());
-		try {
-			if (isList)
+		checkNotFrozen();
+		ChildAccessor setter = getSetter(child);
+		if (setter.isCollection())
+		{
+			ChildAccessor getter = getGetter(child);
+			Collection<VChild> list = (Collection<VChild>) getter.get(this);
+			if (list == null)
 			{
-				Method getter = getGetter(child);
-				Collection<VChild> list = (Collection<VChild>) getter.invoke(this);
-				if (list == null)
-				{
-					list = (getter.getReturnType() == List.class) ? new ArrayList<>() :
-						   (getter.getReturnType() == Set.class) ? new LinkedHashSet<>() : new ArrayList<>();
-					list.add(child);
-					setter.invoke(this, list);
-				} else
-				{
-					list.add(child);
-					orderChild(child);
-				}
+				list = getter.newCollection();
+				list.add(child);
+				setter.set(this, list);
 			} else
 			{
-				setter.invoke(this, child);
+				list.add(child);
+				orderChild(child);
 			}
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
+		} else
+		{
+			setter.set(this, child);
 		}
     }
 	@Override
@@ -115,42 +164,145 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 	@Override
 	public void addChild(String childContent)
 	{
+		checkNotFrozen();
 		parseContent(childContent); // TODO - Do I want this?
 	}
 	@Override
 	public boolean removeChild(VChild child)
 	{
-		Method setter = getSetter(child);
-		boolean isList = List.class.isAssignableFrom(setter.getParameters()[0].getType());
-		try {
-			if (isList)
+		checkNotFrozen();
+		ChildAccessor setter = getSetter(child);
+		boolean isList = List.class.isAssignableFrom(setter.valueType());
+		if (isList)
+		{
+			ChildAccessor getter = getGetter(child);
+			List<VChild> list = (List<VChild>) getter.get(this);
+			if (list == null)
 			{
-				Method getter = getGetter(child);
-				List<VChild> list = (List<VChild>) getter.invoke(this);
-				if (list == null)
-				{
-					return false;
-				} else
-				{
-					boolean result = list.remove(child);
-					orderChild(child, null);
-					// Should I leave empty lists? - below code removes empty lists
-//					if (list.isEmpty())
-//					{
-//						setter.invoke(this, (Object) null);
-//					}
-					return result;
-				}
+				return false;
 			} else
 			{
-				setter.invoke(this, (Object) null);
-				orderChild(child, null);
-				return true;
+				VChild removedChild = removeFromList(list, child);
+				boolean result = removedChild != null;
+				orderChild(result ? removedChild : child, null);
+				// Should I leave empty lists? - below code removes empty lists
+//				if (list.isEmpty())
+//				{
+//					setter.set(this, null);
+//				}
+				return result;
 			}
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
+		} else
+		{
+			setter.set(this, null);
+			orderChild(child, null);
+			return true;
+		}
+	}
+	
+	/*
+	 * Removes child from list and returns the removed element, or null if there isn't one.  The same object is
+	 * looked for before an equal one, so the expensive equals of a parent usually isn't called.
+	 */
+	private static VChild removeFromList(List<VChild> list, VChild child)
+	{
+		int index = indexOfIdentity(list, child);
+		if (index < 0)
+		{
+			index = list.indexOf(child);
+		}
+		return (index < 0) ? null : list.remove(index);
+	}
+	
+	private static int indexOfIdentity(List<VChild> list, VChild child)
+	{
+		for (int i=0; i<list.size(); i++)
+		{
+			if (list.get(i) == child)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Returns a child that can be changed in place of a child that is shared with a {@link VCalendar#snapshot()
+	 * snapshot}.  A frozen child is replaced by a copy, which is returned.  A copied component shares its own
+	 * children with the snapshot, so a change only copies the path from the calendar to the changed element.
+	 * A child that isn't frozen is returned unchanged.
+	 * <pre>
+	 * VEvent vEvent = vCalendar.edit(vCalendar.getVEvents().get(0));
+	 * vEvent.setSummary("Changed");
+	 * </pre>
+	 * 
+	 * @param child - child of this parent
+	 * @return - child that can be changed
+	 * @throws IllegalArgumentException - if child isn't a child of this parent
+	 */
+	@SuppressWarnings("unchecked") // the getter of a collection child returns a list of children
+	public <U extends VChild> U edit(U child)
+	{
+		checkNotFrozen();
+		if (! child.isFrozen())
+		{
+			return child;
+		}
+		ChildAccessor setter = getSetter(child);
+		if (setter.isCollection())
+		{
+			List<VChild> list = (List<VChild>) getGetter(child).get(this);
+			int index = (list == null) ? -1 : indexOfIdentity(list, child);
+			if (index < 0)
+			{
+				throw new IllegalArgumentException(child.name() + " isn't a child of " + name());
+			}
+			U copy = copyForEdit(child);
+			list.set(index, copy);
+			orderChild(child, copy);
+			return copy;
+		} else
+		{
+			if (getGetter(child).get(this) != child)
+			{
+				throw new IllegalArgumentException(child.name() + " isn't a child of " + name());
+			}
+			U copy = copyForEdit(child);
+			setter.set(this, copy);
+			return copy;
+		}
+	}
+	
+	/*
+	 * Copies a frozen child.  A component is copied without copying its children, which stay frozen and keep their
+	 * parent.  Other children are copied with their copy constructor.
+	 */
+	@SuppressWarnings("unchecked") // a copy has the class of child
+	private static <U extends VChild> U copyForEdit(U child)
+	{
+		try
+		{
+			if (child instanceof VComponent)
+			{
+				VParentBase<?> source = (VParentBase<?>) child;
+				VParentBase<?> copy = source.getClass().newInstance();
+				source.copySkippedContentInto(copy, null);
+				for (VChild sourceChild : source.childrenUnmodifiable())
+				{
+					copy.addChild(sourceChild);
+					source.copySkippedContentInto(copy, sourceChild);
+				}
+				return (U) copy;
+			}
+			U copy = (U) child.getClass()
+					.getConstructor(child.getClass())
+					.newInstance(child);
+			copy.setParent(null);
+			return copy;
+		} catch (ReflectiveOperationException e)
+		{
+			throw new IllegalArgumentException("Can't copy " + child.name(), e);
 		}
-		return false;
 	}
 	@Override
 	public boolean removeChild(int index)
@@ -167,7 +319,10 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 	@Override
 	public boolean replaceChild(VChild oldChild, VChild newChild)
 	{
-		return orderer.replaceChild(oldChild, newChild);
+		checkNotFrozen();
+		boolean isReplaced = orderer.replaceChild(oldChild, newChild);
+		contentChanged();
+		return isReplaced;
 	}
 	public T withChild(VChild child)
 	{
@@ -175,47 +330,41 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 		return (T) this;
 	}
 	
-    protected Map<Class<? extends VChild>, Method> getSetters()
+    protected Map<Class<? extends VChild>, ChildAccessor> getSetters()
     {
-    	if (SETTERS.get(getClass()) == null)
-    	{
-    		Map<Class<? extends VChild>, Method> setterMap = collectSetterMap(getClass());
-			SETTERS.put(getClass(), setterMap);
-			return setterMap;
-    	}
     	return SETTERS.get(getClass());
     }
     
-    protected Map<Class<? extends VChild>, Method> getGetters()
+    protected Map<Class<? extends VChild>, ChildAccessor> getGetters()
     {
-    	if (GETTERS.get(getClass()) == null)
-    	{
-    		Map<Class<? extends VChild>, Method> getterMap = collectGetterMap(getClass());
-			GETTERS.put(getClass(), getterMap);
-			return getterMap;
-    	}
     	return GETTERS.get(getClass());
     }
-	protected Method getSetter(VChild child)
+	protected ChildAccessor getSetter(VChild child)
 	{
 		return getSetters().get(child.getClass());
 	}
-	protected Method getGetter(VChild child)
+	protected ChildAccessor getGetter(VChild child)
 	{
 		return getGetters().get(child.getClass());
 	}
 	
     @Override
-	protected List<Message> parseContent(String content)
+	protected List<Message> parseContent(String content, ParseOptions options)
     {
         Iterator<String> i = Arrays.asList(content.split(System.lineSeparator())).iterator();
-        return parseContent(new UnfoldingStringIterator(i));
+        return parseContent(new UnfoldingStringIterator(i), options);
+    }
+
+    /** Parse unfolded content lines with the {@link ParseOptions#DEFAULT} options */
+    protected List<Message> parseContent(Iterator<String> unfoldedLineIterator)
+    {
+    	return parseContent(unfoldedLineIterator, ParseOptions.DEFAULT);
     }
 
     /*
      * NOTE: PARAMETER AND PROPERTY MUST HAVE OVERRIDDEN PARSECONTENT (to handle value part)
      */
-    protected List<Message> parseContent(Iterator<String> unfoldedLineIterator)
+    protected List<Message> parseContent(Iterator<String> unfoldedLineIterator, ParseOptions options)
     {
     	final Class<? extends VElement> multilineChildClass;
     	final Class<? extends VElement> singlelineChildClass;
@@ -241,6 +390,7 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 		}
     	
     	List<Message> messages = new ArrayList<>();
+    	ParseProjection projection = (multilineChildClass == null) ? null : options.getProjection();
         while (unfoldedLineIterator.hasNext())
         {
             String unfoldedLine = unfoldedLineIterator.next();
@@ -249,15 +399,25 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
             if (childName != null) childName = (childName.startsWith("X-")) ? "X-" : childName;
             boolean isMultiLineElement = unfoldedLine.startsWith(BEGIN); // e.g. vcalendar, vcomponent
             boolean isMainComponent = name().equals(childName);
+            if ((projection != null) && ! isMainComponent && (childName != null))
+            {
+            	boolean isSkipped = isMultiLineElement ? ! projection.isComponentIncluded(unfoldedLine.substring(BEGIN.length()))
+            			: (this instanceof VComponent) && ! projection.isPropertyIncluded(childName);
+            	if (isSkipped)
+            	{
+            		skipChild(projection, unfoldedLine, isMultiLineElement, unfoldedLineIterator);
+            		continue;
+            	}
+            }
             final VElementBase child;
 			if (isMultiLineElement)
             {
 				if (! isMainComponent)
 				{
 	                child = (VElementBase) VElementBase.newEmptyVElement(multilineChildClass, childName);
-	                List<Message> myMessages = ((VParentBase<?>) child).parseContent(unfoldedLineIterator); // recursively parse child parent
+	                List<Message> myMessages = ((VParentBase<?>) child).parseContent(unfoldedLineIterator, options); // recursively parse child parent
 	                messages.addAll(myMessages);
-	        		addChildInternal(messages, unfoldedLine, childName, (VChild) child);
+	        		addChildInternal(messages, unfoldedLine, childName, (VChild) child, options);
 				}
             } else
             { // single line element (e.g. property, parameter, rrule value)
@@ -271,96 +431,119 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
             	
                 if (child != null)
                 {
-	                List<Message> myMessages = ((VParentBase<?>) child).parseContent(unfoldedLine); // recursively parse child parent
+	                List<Message> myMessages = ((VParentBase<?>) child).parseContent(unfoldedLine, options); // recursively parse child parent
 	                // don't add single-line children with info or error messages - they have problems and should be ignored
 	                if (myMessages.isEmpty())
 	                {
-	            		addChildInternal(messages, unfoldedLine, childName, (VChild) child);                	
+	            		addChildInternal(messages, unfoldedLine, childName, (VChild) child, options);                	
 	                } else
 	                {
 	                	messages.addAll(myMessages);
 	                }
                 } else
                 {
-                	messages.add(new Message(this,
-                			"Unknown element:" + unfoldedLine,
-                			MessageEffect.MESSAGE_ONLY));
+                	addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Unknown element:" + unfoldedLine);
                 }
             }
         }
         return messages;
     }
 
+    /* Pass over a child the parse projection skips, keeping its content lines if the projection asks */
+    private void skipChild(ParseProjection projection, String firstLine, boolean isMultiLineElement, Iterator<String> unfoldedLineIterator)
+    {
+    	StringBuilder skippedLines = projection.isKeepingSkippedContent() ? new StringBuilder() : null;
+    	if (skippedLines != null) skippedLines.append(ICalendarUtilities.foldLine(firstLine));
+    	int depth = isMultiLineElement ? 1 : 0;
+    	while ((depth > 0) && unfoldedLineIterator.hasNext())
+    	{ // scan to the matching END line
+    		String line = unfoldedLineIterator.next();
+    		if (line.startsWith(BEGIN)) depth++;
+    		else if (line.startsWith(END)) depth--;
+    		if (skippedLines != null) skippedLines.append(System.lineSeparator()).append(ICalendarUtilities.foldLine(line));
+    	}
+    	if (skippedLines != null)
+    	{
+    		orderer.addSkippedContent(skippedLines.toString());
+    	}
+    }
+
     // For Recurrence Rule Value and Properties
 	protected void processInLineChild(
 			List<Message> messages, 
 			String childName, 
 			String content,
-			Class<? extends VElement> singleLineChildClass)
+			Class<? extends VElement> singleLineChildClass,
+			ParseOptions options)
 	{
         VChild newChild = VElementBase.newEmptyVElement(singleLineChildClass, childName);
         if (newChild != null)
         {
-        	List<Message> myMessages = ((VElementBase) newChild).parseContent(childName + "=" + content);
+        	List<Message> myMessages = ((VElementBase) newChild).parseContent(childName + "=" + content, options);
 	        messages.addAll(myMessages);
-			addChildInternal(messages, content, childName, newChild);
+			addChildInternal(messages, content, childName, newChild, options);
         } else
         {
-        	messages.add(new Message(this,
-        			"Unknown element:" + content,
-        			MessageEffect.MESSAGE_ONLY));
+        	addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Unknown element:" + content);
         }
 	}
 	
-	protected boolean checkChild(List<Message> messages, String content, String elementName, VChild newChild)
+	protected boolean checkChild(List<Message> messages, String content, String elementName, VChild newChild, ParseOptions options)
 	{
 		int initialMessageSize = messages.size();
 		if (newChild == null)
 		{
-			Message message = new Message(this,
-					"Ignored invalid element:" + content,
-					MessageEffect.MESSAGE_ONLY);
-			messages.add(message);
+			addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Ignored invalid element:" + content);
 		}
-		Method getter = getGetter(newChild);
+		ChildAccessor getter = getGetter(newChild);
 		boolean isChildAllowed = getter != null;
 		if (! isChildAllowed)
 		{
-			Message message = new Message(this,
-					 elementName + " not allowed in " + name(),
-					MessageEffect.THROW_EXCEPTION);
-			messages.add(message);
+			addMessage(messages, options, this, MessageEffect.THROW_EXCEPTION, () -> elementName + " not allowed in " + name());
 		}
 		final boolean isChildAlreadyPresent;
-		Object currentParameter = null;
-		try {
-			currentParameter = getter.invoke(this);
-		} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-			e.printStackTrace();
-		}
+		Object currentParameter = getter.get(this);
 		if (currentParameter instanceof Collection)
 		{
-			isChildAlreadyPresent = ((Collection<?>) currentParameter).contains(newChild); // TODO contains is expensive - try to find a way to avoid
+			isChildAlreadyPresent = containsEqual((Collection<?>) currentParameter, newChild);
 		} else
 		{
 			isChildAlreadyPresent = currentParameter != null;			
 		}
 		if (isChildAlreadyPresent)
 		{
-			Message message = new Message(this,
-					newChild.getClass().getSimpleName() + " can only occur once in a calendar component.  Ignoring instances beyond first.",
-					MessageEffect.MESSAGE_ONLY);
-			messages.add(message);
+			addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY,
+					() -> newChild.getClass().getSimpleName() + " can only occur once in a calendar component.  Ignoring instances beyond first.");
 		}
 		return messages.size() == initialMessageSize;
 	}
 
-	protected void addChildInternal(List<Message> messages, String content, String elementName, VChild newChild)
+	/* Collection.contains that compares the kept hash codes of parents before calling equals */
+	private static boolean containsEqual(Collection<?> collection, VChild child)
 	{
-		boolean isOK = checkChild(messages, content, elementName, newChild);
+		int hash = child.hashCode();
+		for (Object element : collection)
+		{
+			if ((element != null) && (element.hashCode() == hash) && element.equals(child))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected void addChildInternal(List<Message> messages, String content, String elementName, VChild newChild, ParseOptions options)
+	{
+		boolean isOK = checkChild(messages, content, elementName, newChild, options);
 		if (isOK)
 		{
-			addChild(newChild);
+			try
+			{
+				addChild(newChild);
+			} catch (RuntimeException e)
+			{ // a setter rejected the child, e.g. a negative DURATION, so skip it and keep parsing
+				addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Invalid element:" + content + " (" + e.getMessage() + ")");
+			}
 		}
 	}
 		
@@ -375,6 +558,7 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
     
     public void copyChildrenInto(VParent destination)
     {
+        copySkippedContentInto(destination, null);
         childrenUnmodifiable().forEach((childSource) -> 
         {
         	try {
@@ -386,9 +570,20 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
 			} catch (InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException | NoSuchMethodException | SecurityException e) {
 				e.printStackTrace();
 			}
+            copySkippedContentInto(destination, childSource);
         });
     }
     
+    /* Copy the content lines skipped after sourceChild, to follow the child last added to destination */
+    private void copySkippedContentInto(VParent destination, VChild sourceChild)
+    {
+        String skippedLines = orderer.skippedContentAfter(sourceChild);
+        if ((skippedLines != null) && (destination instanceof VParentBase))
+        {
+            ((VParentBase<?>) destination).orderer.addSkippedContent(skippedLines);
+        }
+    }
+    
     /*
      * CONSTRUCTOR
      */
@@ -413,8 +608,28 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
     }
 
 
+    /*
+     * CACHED CONTENT
+     * The content made by toString is kept until this element or one of its descendants changes, see contentChanged.
+     * Changes made directly to a mutable value, such as adding to a List, aren't detected.  Set the value again
+     * after changing it.
+     */
+    private String cachedContent;
+    
     @Override
     public String toString()
+    {
+        String content = cachedContent;
+        if (content == null)
+        {
+            content = makeContent();
+            cachedContent = content;
+        }
+        return content;
+    }
+    
+    /** Make the content returned by {@link #toString()}, without using the cached content */
+    protected String makeContent()
     {
         if (contentLineGenerator == null)
         {
@@ -423,6 +638,45 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
         return contentLineGenerator.execute();
     }
     
+    /**
+     * Writes the cached content if {@link #toString()} already made it.  Otherwise the content is streamed, child by
+     * child, without filling the cache, so a write of a large calendar doesn't keep a content String for every element.
+     */
+    @Override
+    public void write(Appendable out) throws IOException
+    {
+        String content = cachedContent;
+        if (content != null)
+        {
+            out.append(content);
+        } else
+        {
+            writeContent(out);
+        }
+    }
+    
+    /** Write the content, without using the cached content */
+    protected void writeContent(Appendable out) throws IOException
+    {
+        if (contentLineGenerator == null)
+        { // subclass makes its own content in makeContent
+            out.append(makeContent());
+        } else
+        {
+        	contentLineGenerator.write(out);
+        }
+    }
+    
+    /*
+     * EQUALS AND HASH CODE
+     * The hash code is kept until this element or one of its descendants changes, like the cached content.  A value
+     * changed in place, such as adding to a List, doesn't clear the kept hash code, so equals always compares the
+     * children.  The kept hash code is only used to pick the candidates compared by equals, where a stale hash code
+     * at worst misses a duplicate.  Like String, a hash code of 0 isn't kept, so the hash code is a single field that
+     * threads reading a snapshot can compute at the same time.
+     */
+    private int cachedHashCode; // 0 until computed
+    
     // Note: can't check equals or hashCode of parents - causes stack overflow
     @Override
     public boolean equals(Object obj)
@@ -431,34 +685,37 @@ public abstract class VParentBase<T> extends VElementBase implements VParent
         if((obj == null) || (obj.getClass() != getClass())) {
             return false;
         }
-        VParent testObj = (VParent) obj;
-        
-        // getter version is slower, but will be correct.
-        Map<Class<? extends VChild>, Method> getters = getGetters();
-        return getters.entrySet()
-        	.stream()
-        	.map(e -> e.getValue())
-        	.allMatch(m ->
-        	{
-				try {
-					Object v1 = m.invoke(this);
-	        		Object v2 = m.invoke(testObj);
-	        		return Objects.equals(v1, v2);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e1) {
-					e1.printStackTrace();
-				}
-				return false;
-        	});
+        VParentBase<?> testObj = (VParentBase<?>) obj;
+        for (ChildAccessor getter : GETTER_ARRAYS.get(getClass()))
+        {
+        	if (! Objects.equals(getter.get(this), getter.get(testObj))) return false;
+        }
+        return true;
     }
     
     @Override
-    public int hashCode()
+    public final int hashCode()
+    {
+    	int hash = cachedHashCode;
+    	if (hash == 0)
+    	{
+    		hash = computeHashCode();
+    		cachedHashCode = hash;
+    	}
+    	return hash;
+    }
+    
+    /**
+     * Compute the hash code returned by {@link #hashCode()}, without using the kept hash code.  Uses the same
+     * children as {@link #equals(Object)}.  Subclasses that compare more in equals add it here.
+     */
+    protected int computeHashCode()
     {
         final int prime = 31;
         int result = 1;
-        for (VChild child : childrenUnmodifiable())
+        for (ChildAccessor getter : GETTER_ARRAYS.get(getClass()))
         {
-            result = prime * result + child.hashCode();
+            result = prime * result + Objects.hashCode(getter.get(this));
         }
         return result;
     }
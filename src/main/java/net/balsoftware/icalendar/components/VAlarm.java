@@ -237,7 +237,7 @@ public class VAlarm extends VDescribableBase<VAlarm> implements VDescribable2<VA
     public void setAction(String action) { setAction(Action.parse(action)); }
     public void setAction(Action action)
     {
-    	orderer.replaceChild(this.action, action);
+    	orderChild(this.action, action);
     	this.action = action;
 	}
     public void setAction(ActionType action) { setAction(new Action(action)); }
@@ -317,7 +317,7 @@ public class VAlarm extends VDescribableBase<VAlarm> implements VDescribable2<VA
     @Override
 	public void setDescription(Description description)
     {
-    	orderer.replaceChild(this.description, description);
+    	orderChild(this.description, description);
     	this.description = description;
 	}
     
@@ -335,7 +335,7 @@ public class VAlarm extends VDescribableBase<VAlarm> implements VDescribable2<VA
 	@Override
 	public void setDuration(DurationProp duration)
 	{
-    	orderer.replaceChild(this.duration, duration);
+    	orderChild(this.duration, duration);
 		this.duration = duration;
 	}
     
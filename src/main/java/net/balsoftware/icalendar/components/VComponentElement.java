@@ -2,6 +2,7 @@ package net.balsoftware.icalendar.components;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VCalendar;
@@ -26,14 +27,14 @@ import net.balsoftware.icalendar.components.VTodo;
 public enum VComponentElement
 {
     // MAIN COMPONENTS
-    VEVENT ("VEVENT", VEvent.class),
-    VTODO ("VTODO", VTodo.class),
-    VJOURNAL ("VJOURNAL", VJournal.class),
-    VTIMEZONE ("VTIMEZONE", VTimeZone.class),
-    VFREEBUSY ("VFREEBUSY", VFreeBusy.class),
-    DAYLIGHT_SAVING_TIME ("DAYLIGHT", DaylightSavingTime.class),
-    STANDARD_TIME ("STANDARD", StandardTime.class),
-    VALARM ("VALARM", VAlarm.class)
+    VEVENT ("VEVENT", VEvent.class, VEvent::new),
+    VTODO ("VTODO", VTodo.class, VTodo::new),
+    VJOURNAL ("VJOURNAL", VJournal.class, VJournal::new),
+    VTIMEZONE ("VTIMEZONE", VTimeZone.class, VTimeZone::new),
+    VFREEBUSY ("VFREEBUSY", VFreeBusy.class, VFreeBusy::new),
+    DAYLIGHT_SAVING_TIME ("DAYLIGHT", DaylightSavingTime.class, DaylightSavingTime::new),
+    STANDARD_TIME ("STANDARD", StandardTime.class, StandardTime::new),
+    VALARM ("VALARM", VAlarm.class, VAlarm::new)
     ;
 
     // Map to match up name to enum
@@ -68,6 +69,10 @@ public enum VComponentElement
     private Class<? extends VComponent> myClass;
     public Class<? extends VComponent> elementClass() { return myClass; }
     
+    private Supplier<? extends VComponent> constructor;
+    /** No-arg constructor of the element class */
+    public Supplier<? extends VComponent> constructor() { return constructor; }
+    
     private String name;
     @Override
     public String toString() { return name; }
@@ -75,9 +80,10 @@ public enum VComponentElement
     /*
      * CONSTRUCTOR
      */
-    VComponentElement(String name, Class<? extends VComponent> myClass)
+    VComponentElement(String name, Class<? extends VComponent> myClass, Supplier<? extends VComponent> constructor)
     {
         this.name = name;
         this.myClass = myClass;
+        this.constructor = constructor;
     }
 }
@@ -41,7 +41,6 @@ import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRuleC
 import net.balsoftware.icalendar.properties.component.relationship.Contact;
 import net.balsoftware.icalendar.properties.component.relationship.RecurrenceId;
 import net.balsoftware.icalendar.properties.component.relationship.RelatedTo;
-import net.balsoftware.icalendar.properties.component.relationship.UniqueIdentifier;
 import net.balsoftware.icalendar.properties.component.time.DateTimeStart;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
@@ -650,6 +649,19 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
     @Override
     @Deprecated // need to move to VCalendar
     public Stream<Temporal> streamRecurrences(Temporal start)
+    {
+        return streamRecurrences(start, (VCalendar) getParent());
+    }
+    
+    /**
+     * Produces the recurrence set like {@link #streamRecurrences(Temporal)}, without the occurrences replaced by
+     * the recurrence children found in vCalendar, such as a snapshot this component is shared with.
+     * 
+     * @param start - include recurrences that END before this value
+     * @param vCalendar - calendar with the recurrence children, null for none
+     * @return - stream of start dates or date/times for the recurrence set
+     */
+    public Stream<Temporal> streamRecurrences(Temporal start, VCalendar vCalendar)
     {
         // get stream with recurrence rule (RRULE) and recurrence date (RDATE)
         Stream<Temporal> inStream = VRepeatable.super.streamRecurrences(start);
@@ -659,11 +671,11 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
         
         // Handle Recurrence IDs
         final Stream<Temporal> stream2;
-        List<VDisplayable<?>> children = recurrenceChildren();
+        List<VDisplayable<?>> children = recurrenceChildren(vCalendar);
         if (children != null)
         {
             // If present, remove recurrence ID original values
-            List<Temporal> recurrenceIDTemporals = recurrenceChildren()
+            List<Temporal> recurrenceIDTemporals = children
                     .stream()
                     .map(c -> c.getRecurrenceId().getValue())
                     .collect(Collectors.toList());
@@ -715,14 +727,18 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
      */
     public List<VDisplayable<?>> recurrenceChildren()
     {
-    	if ((getParent() != null) && (getRecurrenceId() == null))
+    	return recurrenceChildren((VCalendar) getParent());
+    }
+    
+    /** Returns the recurrence children of this component found in vCalendar, such as a snapshot this component is shared with */
+    public List<VDisplayable<?>> recurrenceChildren(VCalendar vCalendar)
+    {
+    	if ((vCalendar != null) && (getRecurrenceId() == null))
     	{
-    		UniqueIdentifier myUid = getUniqueIdentifier();
-    		return calendarList()
+    		return vCalendar.findByUniqueIdentifier(this)
     			.stream()
     			.map(c -> (VDisplayable<?>) c)
     			.filter(c -> ! (c == this))
-    			.filter(c -> c.getUniqueIdentifier().equals(myUid))
 				.filter(c -> c.getRecurrenceId() != null)
 				.collect(Collectors.toList());
     	} else
@@ -736,15 +752,19 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
      */
     public VDisplayable<?> recurrenceParent()
     {
-    	if (getParent() != null && (getRecurrenceId() != null))
+    	return recurrenceParent((VCalendar) getParent());
+    }
+    
+    /** Returns the recurrence parent of this component found in vCalendar, such as a snapshot this component is shared with */
+    public VDisplayable<?> recurrenceParent(VCalendar vCalendar)
+    {
+    	if (vCalendar != null && (getRecurrenceId() != null))
     	{
-    		UniqueIdentifier myUid = getUniqueIdentifier();
     		@SuppressWarnings("rawtypes")
-			Optional<VDisplayable> recurrenceParent = calendarList()
+			Optional<VDisplayable> recurrenceParent = vCalendar.findByUniqueIdentifier(this)
     			.stream()
     			.map(c -> (VDisplayable) c)
     			.filter(c -> ! (c == this))
-    			.filter(c -> c.getUniqueIdentifier().equals(myUid))
 				.filter(c -> c.getRecurrenceId() == null)
 				.findAny();
     		return (recurrenceParent.isPresent()) ? recurrenceParent.get() : null;
@@ -764,11 +784,9 @@ public abstract class VDisplayable<T> extends VPersonal<T> implements VRepeatabl
             VCalendar vCalendar = (VCalendar) getParent();
             if (vCalendar != null)
             {
-                final UniqueIdentifier uid = getUniqueIdentifier();
-                return calendarList()
+                return vCalendar.findByUniqueIdentifier(this)
                         .stream()
                         .map(v -> (VDisplayable<?>) v)
-                        .filter(v -> v.getUniqueIdentifier().equals(uid))
                         .filter(v -> v.getRecurrenceId() != null)
                         .filter(v -> 
                         {
@@ -334,9 +334,9 @@ public abstract class VLocatable<T> extends VDisplayable<T> implements VDescriba
     }
     
     @Override // include VAlarms
-    public int hashCode()
+    protected int computeHashCode()
     {
-        int hash = super.hashCode();
+        int hash = super.computeHashCode();
         if (getVAlarms() != null)
         {
             Iterator<VAlarm> i = getVAlarms().iterator();
@@ -23,6 +23,7 @@ import net.balsoftware.icalendar.properties.component.recurrence.PropertyBaseRec
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceDates;
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRule;
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRuleCache;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceIterator;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.properties.component.time.DateTimeStart;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
@@ -261,13 +262,15 @@ public interface VRepeatable<T> extends VComponent
             stream1 = Arrays.asList(getDateTimeStart().getValue()).stream();
         } else
         {
-        	if (getRecurrenceRule().getValue().getCount() == null)
+            // skip whole periods before start when they can be computed directly
+            RecurrenceIterator iterator = getRecurrenceRule().getValue().iterator(getDateTimeStart().getValue(), start);
+        	if ((iterator.skippedPeriods() == 0) && (getRecurrenceRule().getValue().getCount() == null))
         	{
 	            Temporal cacheStart = recurrenceCache().getClosestStart(start);
 	            stream1 = getRecurrenceRule().getValue().streamRecurrences(cacheStart);
         	} else
-        	{ // if RRULE has COUNT must start at DTSTART
-        		stream1 = getRecurrenceRule().getValue().streamRecurrences(getDateTimeStart().getValue());
+        	{ // if RRULE has COUNT must start at DTSTART, unless periods are skipped
+        		stream1 = StreamSupport.stream(iterator.spliterator(), false);
         	}
         }
         
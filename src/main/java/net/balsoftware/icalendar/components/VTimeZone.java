@@ -1,6 +1,5 @@
 package net.balsoftware.icalendar.components;
 
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -10,6 +9,7 @@ import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.VChild;
+import net.balsoftware.icalendar.content.ChildAccessor;
 import net.balsoftware.icalendar.components.DaylightSavingTime;
 import net.balsoftware.icalendar.components.StandardOrDaylight;
 import net.balsoftware.icalendar.components.StandardTime;
@@ -444,9 +444,9 @@ public class VTimeZone extends VCommon<VTimeZone> implements VLastModified<VTime
     }
     
 	@Override
-	protected Method getSetter(VChild child)
+	protected ChildAccessor getSetter(VChild child)
 	{
-		Method setter = getSetters().get(child.getClass());
+		ChildAccessor setter = getSetters().get(child.getClass());
 		if ((setter == null) && (StandardOrDaylight.class.isAssignableFrom(child.getClass())))
 		{
 			setter = getSetters().get(StandardOrDaylight.class);
@@ -454,9 +454,9 @@ public class VTimeZone extends VCommon<VTimeZone> implements VLastModified<VTime
 		return setter;
 	}
 	@Override
-	protected Method getGetter(VChild child)
+	protected ChildAccessor getGetter(VChild child)
 	{
-		Method getter = getGetters().get(child.getClass());
+		ChildAccessor getter = getGetters().get(child.getClass());
 		if ((getter == null) && (StandardOrDaylight.class.isAssignableFrom(child.getClass())))
 		{
 			getter = getGetters().get(StandardOrDaylight.class);
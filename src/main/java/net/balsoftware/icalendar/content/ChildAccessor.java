@@ -0,0 +1,182 @@
+package net.balsoftware.icalendar.content;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import net.balsoftware.icalendar.VChild;
+import net.balsoftware.icalendar.VParent;
+
+/**
+ * <p>Precomputed getter or setter for a {@link VChild} of a {@link VParent}.</p>
+ *
+ * <p>The accessor is made once per parent class from the {@link Method} found by reflection.  The method is
+ * converted into a lambda with {@link LambdaMetafactory}, so calling it costs the same as a direct method call
+ * instead of {@link Method#invoke(Object, Object...)} with its access checks, argument array and exception
+ * wrapping.  If the lambda can't be made (e.g. the parent class is in a class loader that can't be seen from here)
+ * a {@link MethodHandle} is used instead.</p>
+ *
+ * @author David Bal
+ * @see OrdererBase
+ */
+public class ChildAccessor
+{
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private final Function<Object, Object> getter;
+	private final BiConsumer<Object, Object> setter;
+	private final Class<?> valueType;
+	private final boolean isCollection;
+
+    /** Returns the return type of the getter or the parameter type of the setter */
+	public Class<?> valueType() { return valueType; }
+	/** Returns true if the value is a {@link Collection} of children, false for a single child */
+	public boolean isCollection() { return isCollection; }
+
+    /*
+     * CONSTRUCTOR
+     */
+	private ChildAccessor(Function<Object, Object> getter, BiConsumer<Object, Object> setter, Class<?> valueType)
+	{
+		this.getter = getter;
+		this.setter = setter;
+		this.valueType = valueType;
+		isCollection = Collection.class.isAssignableFrom(valueType);
+	}
+
+	/** Make accessor for a no-argument getter method */
+	public static ChildAccessor ofGetter(Method method)
+	{
+		return new ChildAccessor(makeGetter(method), null, method.getReturnType());
+	}
+
+	/** Make accessor for a one-argument setter method */
+	public static ChildAccessor ofSetter(Method method)
+	{
+		return new ChildAccessor(null, makeSetter(method), method.getParameterTypes()[0]);
+	}
+
+	/** Convert a map of getter methods, as made by {@link net.balsoftware.icalendar.VParentBase#collectGetterMap(Class)}, to accessors */
+	public static Map<Class<? extends VChild>, ChildAccessor> ofGetters(Map<Class<? extends VChild>, Method> getters)
+	{
+		return getters.entrySet()
+				.stream()
+				.collect(Collectors.toMap(e -> e.getKey(), e -> ofGetter(e.getValue())));
+	}
+
+	/** Convert a map of setter methods, as made by {@link net.balsoftware.icalendar.VParentBase#collectSetterMap(Class)}, to accessors */
+	public static Map<Class<? extends VChild>, ChildAccessor> ofSetters(Map<Class<? extends VChild>, Method> setters)
+	{
+		return setters.entrySet()
+				.stream()
+				.collect(Collectors.toMap(e -> e.getKey(), e -> ofSetter(e.getValue())));
+	}
+
+	/** Returns the value from the getter */
+	public Object get(VParent parent)
+	{
+		return getter.apply(parent);
+	}
+
+	/** Calls the setter with value */
+	public void set(VParent parent, Object value)
+	{
+		setter.accept(parent, value);
+	}
+
+	/** Returns a new empty collection matching the getter's return type */
+	public <U> Collection<U> newCollection()
+	{
+		return (valueType == Set.class) ? new LinkedHashSet<>() : new ArrayList<>();
+	}
+
+	/*
+	 * LAMBDA MAKERS
+	 */
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> makeGetter(Method method)
+	{
+		MethodHandle handle = unreflect(method);
+		try
+		{
+			CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+					"apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					handle,
+					handle.type());
+			return (Function<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable e)
+		{
+			MethodHandle genericHandle = handle.asType(MethodType.methodType(Object.class, Object.class));
+			return p ->
+			{
+				try
+				{
+					return genericHandle.invokeExact(p);
+				} catch (RuntimeException | Error e2)
+				{
+					throw e2;
+				} catch (Throwable e2)
+				{
+					throw new RuntimeException(e2);
+				}
+			};
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> makeSetter(Method method)
+	{
+		MethodHandle handle = unreflect(method);
+		try
+		{
+			CallSite site = LambdaMetafactory.metafactory(LOOKUP,
+					"accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					handle,
+					handle.type().changeReturnType(void.class));
+			return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+		} catch (Throwable e)
+		{
+			MethodHandle genericHandle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			return (p, v) ->
+			{
+				try
+				{
+					genericHandle.invokeExact(p, v);
+				} catch (RuntimeException | Error e2)
+				{
+					throw e2;
+				} catch (Throwable e2)
+				{
+					throw new RuntimeException(e2);
+				}
+			};
+		}
+	}
+
+	private static MethodHandle unreflect(Method method)
+	{
+		try
+		{
+			return LOOKUP.unreflect(method);
+		} catch (IllegalAccessException e)
+		{
+			throw new IllegalArgumentException("Can't access " + method, e);
+		}
+	}
+}
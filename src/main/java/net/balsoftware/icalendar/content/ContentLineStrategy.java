@@ -1,5 +1,7 @@
 package net.balsoftware.icalendar.content;
 
+import java.io.IOException;
+
 import net.balsoftware.icalendar.VElement;
 
 /** Interface for delegated content line generators */
@@ -7,4 +9,10 @@ public interface ContentLineStrategy
 {
     /** Produce output for {@link VElement#toString()} */
     String execute();
+    
+    /** Write output for {@link VElement#write(Appendable)} */
+    default void write(Appendable out) throws IOException
+    {
+        out.append(execute());
+    }
 }
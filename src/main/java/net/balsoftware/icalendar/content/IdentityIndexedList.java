@@ -0,0 +1,290 @@
+package net.balsoftware.icalendar.content;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import net.balsoftware.icalendar.VChild;
+
+/**
+ * Ordered list of children that finds a child by identity, for {@link OrdererBase}.
+ *
+ * Children are kept in an array with a map from each child to its slot, so appending, removing and replacing a
+ * child are O(1) and never call equals, which is reflective and slow for parents.  A removed child leaves an empty
+ * slot.  The empty slots are squeezed out when there are more empty slots than children, so the cost is amortized
+ * over the removals.  Inserting at an index is O(n), like an ArrayList.
+ *
+ * Reading never changes the list.  A child read by index while there are empty slots is found in a packed copy of
+ * the children, kept until the list changes.  A list that is no longer changed, such as one shared with a
+ * snapshot, can be read by many threads.
+ *
+ * The list is unmodifiable through the {@link java.util.List} methods.  A child can only be in the list once.
+ *
+ * @author David Bal
+ */
+final class IdentityIndexedList extends AbstractList<VChild> implements RandomAccess
+{
+    private VChild[] slots = new VChild[8];
+    private int end; // number of slots used, including empty slots
+    private int size;
+    private final IdentityHashMap<VChild, Integer> slotIndex;
+    private Packed packed; // children without the empty slots, made by get
+    
+    /* Packed children and the modCount they were made at.  Replaced as a whole, so a thread reading
+     * a shared list sees a complete copy. */
+    private static final class Packed
+    {
+        private final VChild[] children;
+        private final int modCount;
+        
+        private Packed(VChild[] children, int modCount)
+        {
+            this.children = children;
+            this.modCount = modCount;
+        }
+    }
+    
+    IdentityIndexedList()
+    {
+        slotIndex = new IdentityHashMap<>();
+    }
+    
+    /** Copy of source, without its empty slots */
+    IdentityIndexedList(IdentityIndexedList source)
+    {
+        slots = new VChild[Math.max(8, source.size)];
+        slotIndex = new IdentityHashMap<>(source.size);
+        for (int i=0; i<source.end; i++)
+        {
+            VChild child = source.slots[i];
+            if (child != null)
+            {
+                slotIndex.put(child, end);
+                slots[end++] = child;
+            }
+        }
+        size = end;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public VChild get(int index)
+    {
+        if ((index < 0) || (index >= size))
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (end == size)
+        {
+            return slots[index];
+        }
+        Packed myPacked = packed;
+        if ((myPacked == null) || (myPacked.modCount != modCount))
+        {
+            VChild[] children = new VChild[size];
+            int next = 0;
+            for (int i=0; i<end; i++)
+            {
+                if (slots[i] != null)
+                {
+                    children[next++] = slots[i];
+                }
+            }
+            myPacked = new Packed(children, modCount);
+            packed = myPacked;
+        }
+        return myPacked.children[index];
+    }
+
+    /** Returns true if the child is in the list.  Compares by identity. */
+    boolean containsIdentity(VChild child)
+    {
+        return slotIndex.containsKey(child);
+    }
+
+    /** Returns the last child, or null if the list is empty */
+    VChild last()
+    {
+        return (end == 0) ? null : slots[end-1]; // removeIdentity leaves no empty slot at the end
+    }
+
+    /** Returns the child before child, or null if child is first or isn't in the list */
+    VChild previous(VChild child)
+    {
+        Integer slot = slotIndex.get(child);
+        if (slot != null)
+        {
+            for (int i=slot-1; i>=0; i--)
+            {
+                if (slots[i] != null)
+                {
+                    return slots[i];
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Adds the child to the end.  Does nothing and returns false if the child is already in the list. */
+    boolean append(VChild child)
+    {
+        if (slotIndex.containsKey(child))
+        {
+            return false;
+        }
+        if (end == slots.length)
+        {
+            if (end - size > size / 2)
+            {
+                compact();
+            } else
+            {
+                VChild[] newSlots = new VChild[slots.length * 2];
+                System.arraycopy(slots, 0, newSlots, 0, end);
+                slots = newSlots;
+            }
+        }
+        slotIndex.put(child, end);
+        slots[end++] = child;
+        size++;
+        modCount++;
+        return true;
+    }
+
+    /** Removes the child, compared by identity.  Returns false if it isn't in the list. */
+    boolean removeIdentity(VChild child)
+    {
+        Integer slot = slotIndex.remove(child);
+        if (slot == null)
+        {
+            return false;
+        }
+        slots[slot] = null;
+        size--;
+        modCount++;
+        while ((end > 0) && (slots[end-1] == null))
+        {
+            end--;
+        }
+        if (end - size > Math.max(16, size))
+        {
+            compact();
+        }
+        return true;
+    }
+
+    /** Puts newChild in oldChild's place.  Returns false if oldChild, compared by identity, isn't in the list. */
+    boolean replaceIdentity(VChild oldChild, VChild newChild)
+    {
+        if (oldChild == newChild)
+        {
+            return slotIndex.containsKey(oldChild);
+        }
+        if (! slotIndex.containsKey(oldChild))
+        {
+            return false;
+        }
+        removeIdentity(newChild); // can only be in the list once
+        int slot = slotIndex.remove(oldChild); // after removeIdentity, which can move oldChild
+        slots[slot] = newChild;
+        slotIndex.put(newChild, slot);
+        modCount++;
+        return true;
+    }
+
+    /** Inserts the child at index, moving it there if it's already in the list.  The index is counted without the child. */
+    void insert(int index, VChild child)
+    {
+        removeIdentity(child);
+        if ((index < 0) || (index > size))
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        compact();
+        if (end == slots.length)
+        {
+            VChild[] newSlots = new VChild[slots.length * 2];
+            System.arraycopy(slots, 0, newSlots, 0, end);
+            slots = newSlots;
+        }
+        System.arraycopy(slots, index, slots, index+1, end-index);
+        slots[index] = child;
+        end++;
+        size++;
+        for (int i=index; i<end; i++)
+        {
+            slotIndex.put(slots[i], i);
+        }
+        modCount++;
+    }
+
+    /* Squeeze out the empty slots */
+    private void compact()
+    {
+        if (end == size)
+        {
+            return;
+        }
+        int next = 0;
+        for (int i=0; i<end; i++)
+        {
+            VChild child = slots[i];
+            if (child != null)
+            {
+                if (i != next)
+                {
+                    slots[next] = child;
+                    slotIndex.put(child, next);
+                }
+                next++;
+            }
+        }
+        for (int i=next; i<end; i++)
+        {
+            slots[i] = null;
+        }
+        end = next;
+    }
+
+    @Override
+    public Iterator<VChild> iterator()
+    {
+        return new Iterator<VChild>()
+        {
+            private int slot;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                while ((slot < end) && (slots[slot] == null))
+                {
+                    slot++;
+                }
+                return slot < end;
+            }
+
+            @Override
+            public VChild next()
+            {
+                if (expectedModCount != modCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                if (! hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                return slots[slot++];
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package net.balsoftware.icalendar.content;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.stream.Collectors;
 
+import net.balsoftware.icalendar.VChild;
+
 public class MultiLineContent extends ContentLineBase
 {
     final private String firstContentLine;
@@ -25,6 +29,18 @@ public class MultiLineContent extends ContentLineBase
     {
         StringBuilder builder = new StringBuilder(builderSize);
         builder.append(firstContentLine + System.lineSeparator());
+        if (orderer.hasSkippedContent())
+        {
+            try
+            {
+                writeChildrenAndSkippedContent(builder);
+            } catch (IOException e)
+            {
+                throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
+            }
+            builder.append(lastContentLine);
+            return builder.toString();
+        }
         String content = orderer.childrenUnmodifiable().stream()
                 .map(c -> c.toString())
                 .collect(Collectors.joining(System.lineSeparator()));
@@ -35,4 +51,45 @@ public class MultiLineContent extends ContentLineBase
         builder.append(lastContentLine);
         return builder.toString();
     }
+    
+    @Override
+    public void write(Appendable out) throws IOException
+    {
+        out.append(firstContentLine);
+        out.append(System.lineSeparator());
+        if (orderer.hasSkippedContent())
+        {
+            writeChildrenAndSkippedContent(out);
+        } else
+        {
+            for (VChild child : orderer.childrenUnmodifiable())
+            {
+                child.write(out);
+                out.append(System.lineSeparator());
+            }
+        }
+        out.append(lastContentLine);
+    }
+    
+    /* Write the children with the content lines of skipped children where they were */
+    private void writeChildrenAndSkippedContent(Appendable out) throws IOException
+    {
+        writeSkippedContent(out, null);
+        for (VChild child : orderer.childrenUnmodifiable())
+        {
+            child.write(out);
+            out.append(System.lineSeparator());
+            writeSkippedContent(out, child);
+        }
+    }
+    
+    private void writeSkippedContent(Appendable out, VChild previousChild) throws IOException
+    {
+        String skippedLines = orderer.skippedContentAfter(previousChild);
+        if (skippedLines != null)
+        {
+            out.append(skippedLines);
+            out.append(System.lineSeparator());
+        }
+    }
 }
@@ -30,4 +30,40 @@ public interface Orderer
 	 * @return true if success, false if failure
 	 * */
 	boolean replaceChild(VChild oldChild, VChild newChild);
+
+	/**
+	 * Keep the content lines of children skipped by parsing.  The lines are kept with the child ordered last, and
+	 * are written after it, so they stay in place when other children are added or removed.  Lines skipped before
+	 * the first child are written first.  If the child they follow is removed, they follow the child before it.
+	 * 
+	 * Orderers that don't keep skipped content throw UnsupportedOperationException.
+	 */
+	default void addSkippedContent(String contentLines)
+	{
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " doesn't keep skipped content");
+	}
+
+	/** Returns true if content lines of skipped children are kept */
+	default boolean hasSkippedContent()
+	{
+		return false;
+	}
+
+	/** Content lines of skipped children written after child, or before the first child if child is null.  Null if there are none. */
+	default String skippedContentAfter(VChild child)
+	{
+		return null;
+	}
+
+	/**
+	 * Orderer for the snapshot of this orderer's parent.  The returned orderer has the same children without
+	 * copying them.  This orderer copies the children the first time it changes them, so the snapshot's children
+	 * don't change.
+	 * 
+	 * Orderers that can't be shared throw UnsupportedOperationException.
+	 */
+	default Orderer share(VParent snapshotParent)
+	{
+		throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be shared with a snapshot");
+	}
 }
@@ -1,11 +1,9 @@
 package net.balsoftware.icalendar.content;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -23,6 +21,15 @@ import net.balsoftware.icalendar.properties.component.recurrence.rrule.Recurrenc
  *
  *  Individual children are added automatically, list-based children are added through calling
  *  {@link #addChild(VChild) addChild} method.
+ *  
+ *  Children are found by identity, so adding, removing and replacing a child doesn't depend on the number of
+ *  children or call equals.
+ *  
+ *  The children of a VCalendar are shared with its snapshot's orderer, see {@link #share(VParent)}.  The
+ *  shared children are copied the first time the VCalendar changes them.
+ *  
+ *  Content lines skipped by parsing are kept by the child they follow, see {@link #addSkippedContent(String)}.  A child that is frozen, because it is
+ *  shared with a snapshot, keeps its parent when it is added to the copy of a parent.
  * 
  * @see VParent
  * @see VCalendar
@@ -33,15 +40,18 @@ import net.balsoftware.icalendar.properties.component.recurrence.rrule.Recurrenc
 public class OrdererBase implements Orderer
 {
 	final private VParent parent;
-    final private Map<Class<? extends VChild>, Method> childGetters;
+    final private Map<Class<? extends VChild>, ChildAccessor> childGetters;
     
-    private List<VChild> orderedChildren = new ArrayList<>();
+    private IdentityIndexedList orderedChildren = new IdentityIndexedList();
+    // content lines skipped by parsing, by the child they follow, null key for lines before the first child.  Null until content is skipped.
+    private Map<VChild, String> skippedContent;
+    private boolean isShared; // orderedChildren and skippedContent are shared with another orderer, copy before changing
 
     /*
      * CONSTRUCTOR
      */
     /** Create an {@link OrdererBase} for the {@link VParent} parameter */
-    public OrdererBase(VParent aParent, Map<Class<? extends VChild>, Method> map)
+    public OrdererBase(VParent aParent, Map<Class<? extends VChild>, ChildAccessor> map)
     {
         this.parent = aParent;
         this.childGetters = map;
@@ -53,20 +63,13 @@ public class OrdererBase implements Orderer
 		return orderedChildren;
 	}
 	
-    private List<VChild> allUnorderedChildren(VParent parent, Map<Class<? extends VChild>, Method> childGetters2)
+    private List<VChild> allUnorderedChildren(VParent parent, Map<Class<? extends VChild>, ChildAccessor> childGetters2)
     {
     	return Collections.unmodifiableList(childGetters2
 			.entrySet()
     		.stream()
     		.map(e -> e.getValue())
-    		.map(m -> {
-				try {
-					return m.invoke(parent);
-				} catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-					e.printStackTrace();
-				}
-				return null;
-			})
+    		.map(a -> a.get(parent))
     		.filter(p -> p != null)
     		.flatMap(p -> 
     		{
@@ -86,8 +89,18 @@ public class OrdererBase implements Orderer
 	public void orderChild(VChild newChild)
 	{
 		if (newChild == parent) throw new RuntimeException("Can't add you to yourself!");
-		orderedChildren.add(newChild);
-		newChild.setParent(parent);
+		unshare();
+		orderedChildren.append(newChild);
+		setParent(newChild);
+	}
+	
+	// A frozen child is shared with a snapshot and keeps its parent
+	private void setParent(VChild child)
+	{
+		if (! child.isFrozen())
+		{
+			child.setParent(parent);
+		}
 	}
 	
 	/* Remove orphans matching newChild's class type
@@ -102,7 +115,7 @@ public class OrdererBase implements Orderer
 				.filter(c -> c.getClass().equals(newChild.getClass()))
 				.filter(c -> ! allUnorderedChildren.contains(c))
 				.collect(Collectors.toList());
-		orphans.forEach(c -> orderedChildren.remove(c));
+		orphans.forEach(c -> orderedChildren.removeIdentity(c));
 	}
 
 	@Override
@@ -110,32 +123,113 @@ public class OrdererBase implements Orderer
 	{
 		if (newChild != null)
 		{
-			orderedChildren.remove(newChild);
-			orderedChildren.add(index, newChild);
-			newChild.setParent(parent);
+			unshare();
+			orderedChildren.insert(index, newChild);
+			setParent(newChild);
 		}
 	}
 	
 	@Override
 	public boolean replaceChild(VChild oldChild, VChild newChild)
 	{
+		unshare();
 		if (newChild == null)
 		{
 			if (oldChild != null)
 			{
-				return orderedChildren.remove(oldChild);
+				VChild removedChild = orderedChild(oldChild);
+				if ((skippedContent != null) && skippedContent.containsKey(removedChild))
+				{ // skipped lines stay where they were, after the previous child
+					addSkippedContent(orderedChildren.previous(removedChild), skippedContent.remove(removedChild));
+				}
+				return orderedChildren.removeIdentity(removedChild);
 			}
 		} else if (oldChild == null)
 		{
 			orderChild(newChild);
 		} else
 		{
-			int index = orderedChildren.indexOf(oldChild);
-			VChild result = orderedChildren.set(index, newChild);
-			return result.equals(oldChild);
+			VChild replacedChild = orderedChild(oldChild);
+			boolean isReplaced = orderedChildren.replaceIdentity(replacedChild, newChild);
+			if (! isReplaced)
+			{
+				orderedChildren.append(newChild);
+			} else if ((skippedContent != null) && skippedContent.containsKey(replacedChild))
+			{
+				addSkippedContent(newChild, skippedContent.remove(replacedChild));
+			}
+			setParent(newChild);
+			return isReplaced;
 		}
 		return false;
 	}
+	
+	/*
+	 * Returns the ordered child that is the same object as child.  A child that isn't in the list is found by
+	 * equals, so an equal copy still finds the ordered child.
+	 */
+	private VChild orderedChild(VChild child)
+	{
+		if (orderedChildren.containsIdentity(child))
+		{
+			return child;
+		}
+		int index = orderedChildren.indexOf(child);
+		return (index < 0) ? child : orderedChildren.get(index);
+	}
+
+	@Override
+	public void addSkippedContent(String contentLines)
+	{
+		unshare();
+		addSkippedContent(orderedChildren.last(), contentLines);
+	}
+	
+	private void addSkippedContent(VChild previousChild, String contentLines)
+	{
+		if (skippedContent == null)
+		{
+			skippedContent = new IdentityHashMap<>();
+		}
+		skippedContent.merge(previousChild, contentLines, (a, b) -> a + System.lineSeparator() + b);
+	}
+
+	@Override
+	public boolean hasSkippedContent()
+	{
+		return (skippedContent != null) && ! skippedContent.isEmpty();
+	}
+
+	@Override
+	public String skippedContentAfter(VChild child)
+	{
+		return (skippedContent == null) ? null : skippedContent.get(child);
+	}
+
+	@Override
+	public Orderer share(VParent snapshotParent)
+	{
+		OrdererBase snapshotOrderer = new OrdererBase(snapshotParent, childGetters);
+		snapshotOrderer.orderedChildren = orderedChildren;
+		snapshotOrderer.skippedContent = skippedContent;
+		snapshotOrderer.isShared = true;
+		isShared = true;
+		return snapshotOrderer;
+	}
+	
+	// Copy the children shared with another orderer, before they are changed
+	private void unshare()
+	{
+		if (isShared)
+		{
+			orderedChildren = new IdentityIndexedList(orderedChildren);
+			if (skippedContent != null)
+			{
+				skippedContent = new IdentityHashMap<>(skippedContent);
+			}
+			isShared = false;
+		}
+	}
 
     @Override
 	public String toString()
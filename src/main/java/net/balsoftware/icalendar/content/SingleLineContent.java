@@ -1,7 +1,10 @@
 package net.balsoftware.icalendar.content;
 
+import java.io.IOException;
 import java.util.stream.Collectors;
 
+import net.balsoftware.icalendar.VChild;
+
 import net.balsoftware.icalendar.utilities.Callback;
 
 public class SingleLineContent extends ContentLineBase
@@ -33,4 +36,15 @@ public class SingleLineContent extends ContentLineBase
         }
         return builder.toString();
     }
+    
+    @Override
+    public void write(Appendable out) throws IOException
+    {
+        out.append(nameCallback.call(null));
+        for (VChild child : orderer.childrenUnmodifiable())
+        {
+            out.append(';');
+            child.write(out);
+        }
+    }
 }
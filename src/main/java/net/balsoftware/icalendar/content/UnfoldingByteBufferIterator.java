@@ -0,0 +1,229 @@
+package net.balsoftware.icalendar.content;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@code Iterator<String>} of unfolded content lines read from UTF-8 bytes, such as a memory-mapped ics file.
+ * Lines are unfolded according to the RFC 5545 iCalendar standard.
+ *
+ * Line breaks (CRLF, LF or CR) and continuation lines are found by scanning the bytes, and each unfolded line is
+ * decoded once into a reused char buffer, so no String is made for the physical lines.  ASCII bytes are copied
+ * without a decoder.  From the first non-ASCII byte, the bytes of the unfolded line are joined and decoded
+ * together, so a line folded inside a multi-byte UTF-8 sequence is restored.  Empty lines are skipped, like
+ * {@link UnfoldingStringIterator}.
+ *
+ * {@link #nextLine()} returns the unfolded line as a view of the char buffer, which is only valid until the next
+ * line is read.  {@link #next()} returns it as a String.
+ *
+ * @author David Bal
+ * @see UnfoldingStringIterator
+ */
+public class UnfoldingByteBufferIterator implements Iterator<String>
+{
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private char[] chars = new char[256];
+    private int length;
+    private byte[] bytes = new byte[256]; // bytes of the unfolded line from its first non-ASCII byte
+    private int byteLength;
+    private final CharSequence line = new LineView();
+
+    /**
+     * Constructor.
+     *
+     * @param buffer  UTF-8 bytes from the buffer's position to its limit.  The buffer's position isn't changed.
+     */
+    public UnfoldingByteBufferIterator(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+        limit = buffer.limit();
+        position = buffer.position();
+        // skip byte order mark
+        if ((limit - position >= 3) && (buffer.get(position) == (byte) 0xEF) && (buffer.get(position+1) == (byte) 0xBB) && (buffer.get(position+2) == (byte) 0xBF))
+        {
+            position += 3;
+        }
+        position = skipEmptyLines(position);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return position < limit;
+    }
+
+    @Override
+    public String next()
+    {
+        return nextLine().toString();
+    }
+
+    /**
+     * Returns the next unfolded line as a view that is only valid until the next line is read
+     *
+     * @return  next unfolded line
+     * @throws UncheckedIOException  if the bytes aren't valid UTF-8
+     */
+    public CharSequence nextLine()
+    {
+        if (! hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        length = 0;
+        byteLength = 0;
+        int start = position;
+        while (true)
+        {
+            int end = start;
+            while ((end < limit) && (buffer.get(end) != '\n') && (buffer.get(end) != '\r'))
+            {
+                end++;
+            }
+            if (byteLength == 0)
+            {
+                start = copyAscii(start, end);
+            }
+            appendBytes(start, end);
+            int next = skipEmptyLines(end);
+            if ((next < limit) && ((buffer.get(next) == ' ') || (buffer.get(next) == '\t')))
+            { // continuation line
+                start = next + 1;
+            } else
+            {
+                decodeBytes();
+                position = next;
+                return line;
+            }
+        }
+    }
+
+    /* Returns index of first byte after the line breaks starting at index */
+    private int skipEmptyLines(int index)
+    {
+        while ((index < limit) && ((buffer.get(index) == '\n') || (buffer.get(index) == '\r')))
+        {
+            index++;
+        }
+        return index;
+    }
+
+    /* Append chars of the ASCII bytes from start, up to end or the first non-ASCII byte.  Returns the index after
+     * the copied bytes. */
+    private int copyAscii(int start, int end)
+    {
+        ensureCharCapacity(end - start);
+        for (int i=start; i<end; i++)
+        {
+            byte b = buffer.get(i);
+            if (b < 0)
+            { // not ASCII
+                return i;
+            }
+            chars[length++] = (char) b;
+        }
+        return end;
+    }
+
+    /* Keep bytes start to end, decoded with the rest of the line by decodeBytes */
+    private void appendBytes(int start, int end)
+    {
+        int count = end - start;
+        if (count == 0)
+        {
+            return;
+        }
+        if (byteLength + count > bytes.length)
+        {
+            byte[] newBytes = new byte[Math.max(bytes.length * 2, byteLength + count)];
+            System.arraycopy(bytes, 0, newBytes, 0, byteLength);
+            bytes = newBytes;
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.limit(end);
+        in.position(start);
+        in.get(bytes, byteLength, count);
+        byteLength += count;
+    }
+
+    /* Append chars decoded from the kept bytes */
+    private void decodeBytes()
+    {
+        if (byteLength == 0)
+        {
+            return;
+        }
+        ensureCharCapacity(byteLength); // a byte decodes to at most one char
+        CharBuffer out = CharBuffer.wrap(chars, length, chars.length - length);
+        decoder.reset();
+        CoderResult result = decoder.decode(ByteBuffer.wrap(bytes, 0, byteLength), out, true);
+        if (! result.isError())
+        {
+            result = decoder.flush(out);
+        }
+        if (result.isError())
+        {
+            try
+            {
+                result.throwException();
+            } catch (CharacterCodingException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        length = out.position();
+    }
+
+    private void ensureCharCapacity(int count)
+    {
+        if (length + count > chars.length)
+        {
+            char[] newChars = new char[Math.max(chars.length * 2, length + count)];
+            System.arraycopy(chars, 0, newChars, 0, length);
+            chars = newChars;
+        }
+    }
+
+    /* View of the current line's chars */
+    private class LineView implements CharSequence
+    {
+        @Override
+        public int length()
+        {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index)
+        {
+            if (index >= length) throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end)
+        {
+            if (end > length) throw new IndexOutOfBoundsException("end " + end + ", length " + length);
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString()
+        {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -6,12 +6,14 @@ import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.components.VComponent;
 import net.balsoftware.icalendar.components.VDisplayable;
 import net.balsoftware.icalendar.parameters.Range.RangeType;
+import net.balsoftware.icalendar.properties.component.recurrence.ExceptionDates;
 import net.balsoftware.icalendar.properties.component.relationship.RecurrenceId;
 import net.balsoftware.icalendar.properties.component.relationship.UniqueIdentifier;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
@@ -146,10 +148,9 @@ public class ProcessCancel implements Processable
                 VDisplayable<?> vDisplayable = ((VDisplayable<?>) c);
                 int newSequence = (vDisplayable.getSequence() == null) ? 0 : vDisplayable.getSequence().getValue();
                 UniqueIdentifier uid = vDisplayable.getUniqueIdentifier();
-                List<VDisplayable<?>> relatedVComponents = mainVCalendar.getVComponents(vDisplayable)
+                List<VDisplayable<?>> relatedVComponents = mainVCalendar.findByUniqueIdentifier(vDisplayable)
                 		.stream()
                 		.map(v -> (VDisplayable<?>) v)
-                		.filter(v -> v.getUniqueIdentifier().equals(uid))
                 		.collect(Collectors.toList());
                 RecurrenceId recurrenceID = vDisplayable.getRecurrenceId();
 
@@ -178,8 +179,7 @@ public class ProcessCancel implements Processable
                             int oldSequence = (matchingVComponent.getSequence() == null) ? 0 : matchingVComponent.getSequence().getValue();
                             if (newSequence >= oldSequence)
                             {
-                                List<? extends VComponent> myVComponents = vDisplayable.calendarList();
-                                myVComponents.remove(matchingVComponent);
+                                mainVCalendar.removeChild(matchingVComponent);
                                 log.add("SUCCESS: canceled " + c.getClass().getSimpleName() + " with UID:" + vDisplayable.getUniqueIdentifier().getValue());
                             } else
                             {
@@ -218,7 +218,10 @@ public class ProcessCancel implements Processable
                                             parentVComponent.withExceptionDates(recurrenceID.getValue());
                                         } else
                                         {
-                                            parentVComponent.getExceptionDates().get(0).getValue().add(recurrenceID.getValue());
+                                            ExceptionDates exceptionDates = parentVComponent.getExceptionDates().get(0);
+                                            Set<Temporal> exceptions = exceptionDates.getValue();
+                                            exceptions.add(recurrenceID.getValue());
+                                            exceptionDates.setValue(exceptions); // notifies parent of change
                                             log.add("SUCCESS: canceled " + recurrenceID.getValue() + " for "+ parentVComponent.getClass().getSimpleName() + " with UID:" + vDisplayable.getUniqueIdentifier().getValue());
 //                                            parentVComponent.getExceptionDates().add(new ExceptionDates(recurrenceID.getValue()));
                                         }
@@ -242,7 +245,7 @@ public class ProcessCancel implements Processable
                                         List<VDisplayable<?>> orphanedChildren = parentVComponent.orphanedRecurrenceChildren();
                                         if (! orphanedChildren.isEmpty())
                                         {
-                                        	mainVCalendar.getVComponents(vDisplayable).removeAll(orphanedChildren);
+                                        	orphanedChildren.forEach(orphan -> mainVCalendar.removeChild(orphan));
                                         }                                        
                                     } else
                                     {
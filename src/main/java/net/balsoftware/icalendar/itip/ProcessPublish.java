@@ -14,7 +14,6 @@ import net.balsoftware.icalendar.components.VTimeZone;
 import net.balsoftware.icalendar.properties.calendar.Method.MethodType;
 import net.balsoftware.icalendar.properties.component.relationship.Attendee;
 import net.balsoftware.icalendar.properties.component.relationship.Organizer;
-import net.balsoftware.icalendar.properties.component.relationship.UniqueIdentifier;
 
 /** 
  * 
@@ -123,26 +122,16 @@ public class ProcessPublish implements Processable
                 if (! hasNoAttendees) log.add("WARNING: According to RFC 5546, a PUBLISH MUST NOT contain the ATTENDEE property yet it's exists. " + c.getClass().getSimpleName() + " with UID:" + vDisplayable.getUniqueIdentifier().getValue() + " is being processed anyway.");
                 final int newSequence = (vDisplayable.getSequence() == null) ? 0 : vDisplayable.getSequence().getValue();
                 boolean isNewSequenceHigher = true;
-                UniqueIdentifier uid = vDisplayable.getUniqueIdentifier();
                 
-                final List<VDisplayable<?>> relatedVComponents;
-                List<? extends VComponent> list = mainVCalendar.getVComponents(vDisplayable);
-                if (list == null)
-                {
-                	relatedVComponents = null;
-                } else
-                {
-	                relatedVComponents = mainVCalendar.getVComponents(vDisplayable)
+                final List<VDisplayable<?>> relatedVComponents = mainVCalendar.findByUniqueIdentifier(vDisplayable)
 	                	.stream()
 	                	.filter(v -> v instanceof VDisplayable)
 	            		.map(v -> (VDisplayable<?>) v)
-	            		.filter(v -> v.getUniqueIdentifier().equals(uid))
 	            		.collect(Collectors.toList());
-                }
                 final Temporal recurrenceID = (vDisplayable.getRecurrenceId() != null) ? vDisplayable.getRecurrenceId().getValue() : null;
 
                 // check for previous match to remove it
-                if (relatedVComponents != null)
+                if (! relatedVComponents.isEmpty())
                 {
                     /* if new has recurrence id:
                      *      if old has matching recurrence-id then replace it
@@ -179,7 +168,7 @@ public class ProcessPublish implements Processable
                 List<VDisplayable<?>> orphanedChildren = vDisplayable.orphanedRecurrenceChildren();
                 if (! orphanedChildren.isEmpty())
                 {
-                    vDisplayable.calendarList().removeAll(orphanedChildren);
+                    orphanedChildren.forEach(orphan -> mainVCalendar.removeChild(orphan));
                 }
             } else if (c instanceof VTimeZone)
             {
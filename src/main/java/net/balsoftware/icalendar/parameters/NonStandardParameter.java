@@ -3,6 +3,7 @@ package net.balsoftware.icalendar.parameters;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.parameters.NonStandardParameter;
 import net.balsoftware.icalendar.parameters.VParameterBase;
 import net.balsoftware.icalendar.utilities.StringConverter;
@@ -50,7 +51,7 @@ public class NonStandardParameter extends VParameterBase<NonStandardParameter, S
 	}
 
     @Override
-	protected List<Message> parseContent(String content)
+	protected List<Message> parseContent(String content, ParseOptions options)
     {
     	construct(content);
     	return Collections.EMPTY_LIST;
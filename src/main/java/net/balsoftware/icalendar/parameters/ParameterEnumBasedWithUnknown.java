@@ -3,6 +3,7 @@ package net.balsoftware.icalendar.parameters;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.parameters.ParameterEnumBasedWithUnknown;
 import net.balsoftware.icalendar.parameters.VParameterBase;
 import net.balsoftware.icalendar.utilities.StringConverter;
@@ -38,9 +39,9 @@ public abstract class ParameterEnumBasedWithUnknown<U,T> extends VParameterBase<
     }
     
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
-        super.parseContent(content);
+        super.parseContent(content, options);
         if (getValue().toString().equals("UNKNOWN"))
         {
             String valueString = VParameterBase.extractValue(content);
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.VElementBase;
 import net.balsoftware.icalendar.VParent;
 import net.balsoftware.icalendar.parameters.VParameter;
@@ -40,7 +41,9 @@ abstract public class VParameterBase<U,T> extends VElementBase implements VParam
     @Override
     public void setValue(T value)
     {
+        checkNotFrozen();
         this.value = value;
+        contentChanged();
     }
     public void setValue(CharSequence value)
     {
@@ -65,10 +68,10 @@ abstract public class VParameterBase<U,T> extends VElementBase implements VParam
     }
     
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
         String valueString = extractValue(content);
-        T value = getConverter().fromString(valueString);
+        T value = options.canonical(getConverter().fromString(valueString));
         setValue(value);
         return Collections.EMPTY_LIST;
     }
@@ -117,7 +120,7 @@ abstract public class VParameterBase<U,T> extends VElementBase implements VParam
     @Override // Note: can't check hashCode of parents - causes stack overflow
     public int hashCode()
     {
-        int hash = super.hashCode();
+        int hash = 1; // not Object's hash code, equal parameters must have equal hash codes
         final int prime = 31;
         hash = prime * hash + getValue().hashCode();
         return hash;
@@ -1,8 +1,10 @@
 package net.balsoftware.icalendar.parameters;
 
 import java.time.ZoneId;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 
 import net.balsoftware.icalendar.VElement;
 import net.balsoftware.icalendar.parameters.AlarmTriggerRelationship;
@@ -56,7 +58,7 @@ import net.balsoftware.icalendar.utilities.StringConverters;
 public enum VParameterElement
 {
     // in properties COMMENT, CONTACT, DESCRIPTION, LOCATION, RESOURCES
-    ALTERNATE_TEXT_REPRESENTATION ("ALTREP", AlternateText.class) {
+    ALTERNATE_TEXT_REPRESENTATION ("ALTREP", AlternateText.class, AlternateText::new) {
         
         @Override
         public <T> StringConverter<T> getConverter()
@@ -65,7 +67,7 @@ public enum VParameterElement
         }
     },
     // in properties ATTENDEE, ORGANIZER
-    COMMON_NAME ("CN", CommonName.class) {
+    COMMON_NAME ("CN", CommonName.class, CommonName::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -73,7 +75,7 @@ public enum VParameterElement
         }
     },
     // in property ATTENDEE
-    CALENDAR_USER_TYPE ("CUTYPE", CalendarUser.class) {
+    CALENDAR_USER_TYPE ("CUTYPE", CalendarUser.class, CalendarUser::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -94,7 +96,7 @@ public enum VParameterElement
         }
     },
     // in property ATTENDEE
-    DELEGATORS ("DELEGATED-FROM", Delegators.class) {
+    DELEGATORS ("DELEGATED-FROM", Delegators.class, Delegators::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -102,7 +104,7 @@ public enum VParameterElement
         }
     },
     // in property ATTENDEE
-    DELEGATEES ("DELEGATED-TO", Delegatees.class) {
+    DELEGATEES ("DELEGATED-TO", Delegatees.class, Delegatees::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -110,7 +112,7 @@ public enum VParameterElement
         }
     },
     // in properties ATTENDEE, ORGANIZER
-    DIRECTORY_ENTRY_REFERENCE ("DIR", DirectoryEntry.class) {
+    DIRECTORY_ENTRY_REFERENCE ("DIR", DirectoryEntry.class, DirectoryEntry::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -118,7 +120,7 @@ public enum VParameterElement
         }
     },
     // in property ATTACHMENT
-    INLINE_ENCODING ("ENCODING", Encoding.class) {
+    INLINE_ENCODING ("ENCODING", Encoding.class, Encoding::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -139,7 +141,7 @@ public enum VParameterElement
         }
     },
     // in property ATTACHMENT
-    FORMAT_TYPE ("FMTTYPE", FormatType.class) {
+    FORMAT_TYPE ("FMTTYPE", FormatType.class, FormatType::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -147,7 +149,7 @@ public enum VParameterElement
         }
     },
     // in property FREEBUSY
-    FREE_BUSY_TIME_TYPE ("FBTYPE", FreeBusyType.class) {
+    FREE_BUSY_TIME_TYPE ("FBTYPE", FreeBusyType.class, FreeBusyType::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -168,14 +170,14 @@ public enum VParameterElement
         }
     },
     // in properties CATEGORIES, COMMENT, CONTACT, DESCRIPTION, LOCATION, RESOURCES, TZNAME
-    LANGUAGE ("LANGUAGE", Language.class) {
+    LANGUAGE ("LANGUAGE", Language.class, Language::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
             return (StringConverter<T>) StringConverters.defaultStringConverterWithQuotes();
         }
     },
-    GROUP_OR_LIST_MEMBERSHIP ("MEMBER", GroupMembership.class) {
+    GROUP_OR_LIST_MEMBERSHIP ("MEMBER", GroupMembership.class, GroupMembership::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -183,14 +185,14 @@ public enum VParameterElement
         }
     },
     NON_STANDARD ("X-", // parameter name begins with X- prefix
-            NonStandardParameter.class) {
+            NonStandardParameter.class, NonStandardParameter::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
             return (StringConverter<T>) StringConverters.defaultStringConverterWithQuotes();
         }
     },
-    PARTICIPATION_STATUS ("PARTSTAT", ParticipationStatus.class) {
+    PARTICIPATION_STATUS ("PARTSTAT", ParticipationStatus.class, ParticipationStatus::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -210,7 +212,7 @@ public enum VParameterElement
             };
         }
     },
-    RECURRENCE_IDENTIFIER_RANGE ("RANGE", Range.class) {
+    RECURRENCE_IDENTIFIER_RANGE ("RANGE", Range.class, Range::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -230,7 +232,7 @@ public enum VParameterElement
             };
         }
     },
-    ALARM_TRIGGER_RELATIONSHIP ("RELATED", AlarmTriggerRelationship.class) {
+    ALARM_TRIGGER_RELATIONSHIP ("RELATED", AlarmTriggerRelationship.class, AlarmTriggerRelationship::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -250,7 +252,7 @@ public enum VParameterElement
             };
         }
     },
-    RELATIONSHIP_TYPE ("RELTYPE", Relationship.class) {
+    RELATIONSHIP_TYPE ("RELTYPE", Relationship.class, Relationship::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -270,7 +272,7 @@ public enum VParameterElement
             };
         }
     },
-    PARTICIPATION_ROLE ("ROLE", ParticipationRole.class) {
+    PARTICIPATION_ROLE ("ROLE", ParticipationRole.class, ParticipationRole::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -290,21 +292,21 @@ public enum VParameterElement
             };
         }
     },
-    RSVP_EXPECTATION ("RSVP", RSVP.class) {
+    RSVP_EXPECTATION ("RSVP", RSVP.class, RSVP::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
             return (StringConverter<T>) StringConverters.booleanConverter();
         }
     },
-    SENT_BY ("SENT-BY", SentBy.class) {
+    SENT_BY ("SENT-BY", SentBy.class, SentBy::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
             return (StringConverter<T>) StringConverters.uriConverterWithQuotes();
         }
     },
-    TIME_ZONE_IDENTIFIER ("TZID", TimeZoneIdentifierParameter.class) {
+    TIME_ZONE_IDENTIFIER ("TZID", TimeZoneIdentifierParameter.class, TimeZoneIdentifierParameter::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -324,7 +326,7 @@ public enum VParameterElement
             };
         }
     },
-    VALUE_DATA_TYPES ("VALUE", ValueParameter.class) {
+    VALUE_DATA_TYPES ("VALUE", ValueParameter.class, ValueParameter::new) {
         @Override
         public <T> StringConverter<T> getConverter()
         {
@@ -346,8 +348,9 @@ public enum VParameterElement
 
     };
     
+    // Maps are read-only after class initialization, safe to share between threads
     // Map to match up name to enum
-    private static Map<String, VParameterElement> enumFromNameMap = makeEnumFromNameMap();
+    private static final Map<String, VParameterElement> enumFromNameMap = makeEnumFromNameMap();
     private static Map<String, VParameterElement> makeEnumFromNameMap()
     {
         Map<String, VParameterElement> map = new HashMap<>();
@@ -356,7 +359,7 @@ public enum VParameterElement
         {
             map.put(values[i].toString(), values[i]);
         }
-        return map;
+        return Collections.unmodifiableMap(map);
     }
     public static VParameterElement enumFromName(String parameterName)
     {
@@ -375,7 +378,7 @@ public enum VParameterElement
     }
     
     // Map to match up class to enum
-    private static Map<Class<? extends VParameter<?>>, VParameterElement> enumFromClassMap = makeEnumFromClassMap();
+    private static final Map<Class<? extends VParameter<?>>, VParameterElement> enumFromClassMap = makeEnumFromClassMap();
     private static Map<Class<? extends VParameter<?>>, VParameterElement> makeEnumFromClassMap()
     {
         Map<Class<? extends VParameter<?>>, VParameterElement> map = new HashMap<>();
@@ -384,7 +387,7 @@ public enum VParameterElement
         {
             map.put(values[i].myClass, values[i]);
         }
-        return map;
+        return Collections.unmodifiableMap(map);
     }
     /** get enum from map */
     public static VParameterElement enumFromClass(Class<? extends VElement> myClass)
@@ -402,11 +405,16 @@ public enum VParameterElement
     private Class<? extends VParameter<?>> myClass;
 	public Class<? extends VParameter<?>> elementClass() { return myClass; }
 
+    private Supplier<? extends VParameter<?>> constructor;
+    /** No-arg constructor of the element class */
+	public Supplier<? extends VParameter<?>> constructor() { return constructor; }
+
     @Override  public String toString() { return name; }
-    VParameterElement(String name, Class<? extends VParameter<?>> myClass)
+    VParameterElement(String name, Class<? extends VParameter<?>> myClass, Supplier<? extends VParameter<?>> constructor)
     {
         this.name = name;
         this.myClass = myClass;
+        this.constructor = constructor;
     }
 
     /*
@@ -1,5 +1,7 @@
 package net.balsoftware.icalendar.properties;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.time.DateTimeException;
 import java.util.ArrayList;
@@ -8,19 +10,24 @@ import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.VElement;
 import net.balsoftware.icalendar.VParent;
 import net.balsoftware.icalendar.VParentBase;
 import net.balsoftware.icalendar.content.SingleLineContent;
 import net.balsoftware.icalendar.parameters.NonStandardParameter;
 import net.balsoftware.icalendar.parameters.VParameter;
+import net.balsoftware.icalendar.parameters.VParameterElement;
 import net.balsoftware.icalendar.parameters.ValueParameter;
 import net.balsoftware.icalendar.properties.calendar.CalendarScale;
 import net.balsoftware.icalendar.properties.calendar.ProductIdentifier;
 import net.balsoftware.icalendar.properties.calendar.Version;
 import net.balsoftware.icalendar.properties.component.misc.NonStandardProperty;
 import net.balsoftware.icalendar.properties.component.relationship.UniqueIdentifier;
+import net.balsoftware.icalendar.utilities.ContentLineTokenizer;
+import net.balsoftware.icalendar.utilities.FoldingAppendable;
 import net.balsoftware.icalendar.utilities.ICalendarUtilities;
+import net.balsoftware.icalendar.utilities.InternPool;
 import net.balsoftware.icalendar.utilities.StringConverter;
 
 /**
@@ -63,13 +70,21 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     @Override
     public T getValue()
     {
+    	if (isValueEncoded)
+    	{
+    		decodeValue();
+    	}
     	return value;
 	}
     private T value; // initialized in constructor
     @Override
     public void setValue(T value)
     {
+        checkNotFrozen();
+        isValueEncoded = false;
+        isOriginalText = false;
         this.value = value;
+        contentChanged();
     }
     public U withValue(T value)
     {
@@ -78,10 +93,14 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
 	} // in constructor
 
     /** The propery's value converted by string converted to content string */
-    protected String valueContent()
+    public String valueContent()
     {
         /* default code below works for all properties with a single value.  Properties with multiple embedded values,
          * such as RequestStatus, require an overridden method */
+    	if (isOriginalText)
+    	{ // lazily decoded value that hasn't been set, write original text
+    		return actualValueContent;
+    	}
     	String value = null;
     	if (getValue() == null)
 		{
@@ -215,6 +234,8 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
                 String modifiedValue = modifiedValue();
 				T newPropValue = getConverter().fromString(modifiedValue);
                 this.value = newPropValue;
+                isValueEncoded = false;
+                isOriginalText = false;
             }
         }
         
@@ -305,6 +326,87 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     // property value as string - kept if string converter changes the value can change
     // needed to make subsequent conversions if value type changes.
     protected String actualValueContent = null;
+    
+    /*
+     * LAZY DECODING
+     * A value parsed with ParseOptions#isLazyDecoding is kept as text and converted by the property's StringConverter
+     * the first time getValue is called.
+     */
+    // true if value hasn't been converted from actualValueContent yet.  Volatile, with decodeValue synchronized, so
+    // threads reading a snapshot can decode the value at the same time.
+    private volatile boolean isValueEncoded;
+    private boolean isDecoding; // decodeValue is running, getValue called while decoding returns the value so far
+    private InternPool decodingPool; // pool of the parse options when the encoded value was parsed, null after decoding
+    // true if actualValueContent is written instead of the converted value, until the value is set
+    private boolean isOriginalText;
+    
+    // Properties that don't override setValue don't need it called to stay consistent
+    private static final ClassValue<Boolean> IS_SET_VALUE_INHERITED = new ClassValue<Boolean>()
+    {
+        @Override
+        protected Boolean computeValue(Class<?> type)
+        {
+            try
+            {
+                return type.getMethod("setValue", Object.class).getDeclaringClass() == VPropertyBase.class;
+            } catch (NoSuchMethodException e)
+            {
+                return false;
+            }
+        }
+    };
+    
+    /**
+     * Returns true if the value can be converted when first accessed, instead of when parsed.  By default, only
+     * properties that don't override {@link #setValue(Object)} are decoded lazily, because an overridden setValue
+     * can update other fields, such as the parts of a GeographicPosition.  A property whose setValue only affects
+     * the value can override this method, and {@link #valueDecoded(Object)} if needed.
+     */
+    protected boolean isValueDecodedLazily()
+    {
+        return IS_SET_VALUE_INHERITED.get(getClass());
+    }
+    
+    /** Hook called after the value is converted lazily.  Unlike {@link #setValue(Object)}, no change is reported */
+    protected void valueDecoded(T value)
+    {
+        // do nothing - hook to override in subclass
+    }
+    
+    // convert actualValueContent to value on first access
+    @SuppressWarnings("unchecked") // converter matches T
+    private synchronized void decodeValue()
+    {
+        if (! isValueEncoded || isDecoding)
+        {
+            return;
+        }
+        isDecoding = true;
+        try
+        {
+            Object result = getConverter().tryFromString(modifiedValue());
+            if (result == StringConverter.INVALID)
+            {
+                setUnknownValue(actualValueContent);
+                return;
+            }
+            T value = (decodingPool == null) ? (T) result : decodingPool.intern((T) result);
+            this.value = value;
+            if ((value == null) || (value.toString() == "UNKNOWN")) // enum name indicating unknown value
+            {
+                setUnknownValue(actualValueContent);
+            }
+            if (value != null)
+            {
+                valueDecoded(value);
+            }
+        } finally
+        {
+            isDecoding = false;
+            decodingPool = null;
+            isValueEncoded = false; // after the value is set, so other threads see it
+        }
+    }
     // Note: in subclasses additional text can be concatenated to string (e.g. ZonedDateTime classes add time zone as prefix)
     protected String modifiedValue()
     {
@@ -412,26 +514,32 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
         // do nothing - hook to override in subclass for functionality
     }
     
+    // finds parameter names in content lines without making a String
+    private static final ContentLineTokenizer.Names PARAMETER_NAMES = new ContentLineTokenizer.Names(Arrays
+    		.stream(VParameterElement.values())
+    		.map(v -> v.toString())
+    		.collect(Collectors.toList()));
+
     /**
      * Handle non-standard property name
      */
     @Override
-	protected List<Message> parseContent(String unfoldedContent)
+	protected List<Message> parseContent(String unfoldedContent, ParseOptions options)
     {
     	List<Message> messages = new ArrayList<>();
     	String propertyName = elementName(unfoldedContent);
     	boolean isNameless = propertyName == null;
     	if (isNameless)
-    	{
-    		unfoldedContent = ICalendarUtilities.PROPERTY_VALUE_KEY + unfoldedContent; // add delimiter to designate content as value
+    	{ // content is all value
+    		String value = (unfoldedContent.isEmpty()) ? null : unfoldedContent;
+    		processValue(messages, value, options.withLazyDecoding(false)); // value from an API call, such as withComments(String), isn't lazy
+    		return messages;
     	} else if (propertyName.startsWith(VPropertyElement.NON_STANDARD_PROPERTY.toString()))
         {
             ((NonStandardProperty) this).setPropertyName(propertyName);
         }
-    	ICalendarUtilities.parseInlineElementsToListPair(unfoldedContent)
-	        .stream()
-//	        .peek(System.out::println)
-	        .forEach(entry -> processInLineChild(messages, entry.getKey(), entry.getValue(), VParameter.class));
+    	ICalendarUtilities.parseInlineElements(unfoldedContent, PARAMETER_NAMES,
+    			(name, value) -> processInLineChild(messages, name, value, VParameter.class, options));
 
     	return messages;
     }
@@ -441,39 +549,66 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
 			List<Message> messages, 
 			String childName, 
 			String content,
-			Class<? extends VElement> singleLineChildClass)
+			Class<? extends VElement> singleLineChildClass,
+			ParseOptions options)
 	{
     	if (childName == ICalendarUtilities.PROPERTY_VALUE_KEY)
     	{
-    		if (content != null)
-    		{
-	            try {
-	            	actualValueContent = content;
-	            	T value = getConverter().fromString(modifiedValue());
-	                if (value == null)
-	                {
-	                    setUnknownValue(content);
-	                } else
-	                {
-	                    setValue(value);
-	                    if (value.toString() == "UNKNOWN") // enum name indicating unknown value
-	                    {
-	                        setUnknownValue(content);
-	                    }
-	                }
-	            } catch (IllegalArgumentException | DateTimeException e)
-	            {
-	    			Message message = new Message(this,
-	    					"Invalid element:" + e.getMessage() + modifiedValue(),
-	    					MessageEffect.MESSAGE_ONLY);
-	    			messages.add(message);
-	            }
-    		}
+    		processValue(messages, content, options);
     	} else
     	{
-    		super.processInLineChild(messages, childName, content, singleLineChildClass);
+    		super.processInLineChild(messages, childName, content, singleLineChildClass, options);
     	}
 	}
+
+	// convert value content, or keep it for lazy decoding
+	@SuppressWarnings("unchecked") // converter matches T
+	private void processValue(List<Message> messages, String content, ParseOptions options)
+	{
+		if (content != null)
+		{
+			if (options.isLazyDecoding() && isValueDecodedLazily())
+			{
+				actualValueContent = options.canonical(content);
+				decodingPool = options.getInternPool();
+				isValueEncoded = true;
+				isOriginalText = true;
+				contentChanged();
+				return;
+			}
+            try {
+            	actualValueContent = options.canonical(content);
+            	final T value;
+            	if (options.getDiagnostics() == null)
+            	{
+            		value = options.canonical(getConverter().fromString(modifiedValue()));
+            	} else
+            	{ // exception-free path
+            		Object result = getConverter().tryFromString(modifiedValue());
+            		if (result == StringConverter.INVALID)
+            		{
+            			addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Invalid element:" + modifiedValue());
+            			return;
+            		}
+            		value = options.canonical((T) result);
+            	}
+                if (value == null)
+                {
+                    setUnknownValue(content);
+                } else
+                {
+                    setValue(value);
+                    if (value.toString() == "UNKNOWN") // enum name indicating unknown value
+                    {
+                        setUnknownValue(content);
+                    }
+                }
+            } catch (IllegalArgumentException | DateTimeException e)
+            {
+    			addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY, () -> "Invalid element:" + e.getMessage() + modifiedValue());
+            }
+		}
+	}
     
     @Override
     public List<String> errors()
@@ -518,12 +653,28 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     }
 
     @Override
-    public String toString()
+    protected String makeContent()
+    {
+        StringBuilder builder = new StringBuilder(50);
+        try
+        {
+            writeContent(builder);
+        } catch (IOException e)
+        {
+            throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
+        }
+        return builder.toString();
+    }
+    
+    /** Writes the folded content line */
+    @Override
+    protected void writeContent(Appendable out) throws IOException
     {
-        StringBuilder builder = new StringBuilder(super.toString());
-        builder.append(":" + valueContent());
-        // return folded line
-        return ICalendarUtilities.foldLine(builder).toString();
+        FoldingAppendable folder = new FoldingAppendable(out);
+        super.writeContent(folder);
+        folder.append(':');
+        folder.append(valueContent());
+        folder.endLine();
     }
     
     @Override // Note: can't check equality of parents - causes stack overflow
@@ -539,15 +690,12 @@ public abstract class VPropertyBase<T,U> extends VParentBase<U> implements VProp
     }
 
     @Override // Note: can't check hashCode of parents - causes stack overflow
-    public int hashCode()
+    protected int computeHashCode()
     {
-        int hash = super.hashCode();
+        int hash = super.computeHashCode();
         final int prime = 31;
-        hash = prime * hash + ((converter == null) ? 0 : converter.hashCode());
-        hash = prime * hash + ((propertyName == null) ? 0 : propertyName.hashCode());
-        hash = prime * hash + ((actualValueContent == null) ? 0 : actualValueContent.hashCode());
-        hash = prime * hash + ((unknownValue == null) ? 0 : unknownValue.hashCode());
-        hash = prime * hash + ((value == null) ? 0 : value.hashCode());
+        hash = prime * hash + name().hashCode();
+        hash = prime * hash + ((getValue() == null) ? 0 : getValue().hashCode());
         return hash;
     }
 }
@@ -2,9 +2,11 @@ package net.balsoftware.icalendar.properties;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VElement;
@@ -60,56 +62,56 @@ import net.balsoftware.icalendar.properties.component.timezone.TimeZoneURL;
 
 public enum VPropertyElement
 {
-	ACTION ("ACTION", Action.class, Arrays.asList(ValueType.TEXT)),
-    ATTACHMENT ("ATTACH", Attachment.class, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER, ValueType.BINARY)),
-    ATTENDEE ("ATTENDEE", Attendee.class, Arrays.asList(ValueType.CALENDAR_USER_ADDRESS)),
-    CALENDAR_SCALE ("CALSCALE", CalendarScale.class, Arrays.asList(ValueType.TEXT)),
-    CATEGORIES ("CATEGORIES", Categories.class, Arrays.asList(ValueType.TEXT)),
-    CLASSIFICATION ("CLASS", Classification.class, Arrays.asList(ValueType.TEXT)),
-    COMMENT ("COMMENT", Comment.class, Arrays.asList(ValueType.TEXT)),
-    CONTACT ("CONTACT", Contact.class, Arrays.asList(ValueType.TEXT)),
-    DATE_TIME_COMPLETED ("COMPLETED", DateTimeCompleted.class, Arrays.asList(ValueType.DATE_TIME)),
-    DATE_TIME_CREATED ("CREATED",  DateTimeCreated.class, Arrays.asList(ValueType.DATE_TIME)),
-    DATE_TIME_DUE ("DUE", DateTimeDue.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
-    DATE_TIME_END ("DTEND", DateTimeEnd.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
-    DATE_TIME_STAMP ("DTSTAMP", DateTimeStamp.class, Arrays.asList(ValueType.DATE_TIME)),
-    DATE_TIME_START ("DTSTART", DateTimeStart.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
-    DESCRIPTION ("DESCRIPTION", Description.class, Arrays.asList(ValueType.TEXT)),
-    DURATION ("DURATION", DurationProp.class, Arrays.asList(ValueType.DURATION)),
-    EXCEPTION_DATE_TIMES ("EXDATE", ExceptionDates.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
-    FREE_BUSY_TIME ("FREEBUSY", FreeBusyTime.class, Arrays.asList(ValueType.PERIOD)),
-    GEOGRAPHIC_POSITION ("GEO", GeographicPosition.class, Arrays.asList(ValueType.TEXT)), // TODO - SHOULD BE FLOAT - TWO OF THEM
-    LAST_MODIFIED ("LAST-MODIFIED", LastModified.class, Arrays.asList(ValueType.DATE_TIME)),
-    LOCATION ("LOCATION", Location.class, Arrays.asList(ValueType.TEXT)),
-    METHOD ("METHOD", net.balsoftware.icalendar.properties.calendar.Method.class, Arrays.asList(ValueType.TEXT)),
-    NON_STANDARD_PROPERTY ("X-", NonStandardProperty.class, Arrays.asList(ValueType.values())),
-    ORGANIZER ("ORGANIZER", Organizer.class, Arrays.asList(ValueType.CALENDAR_USER_ADDRESS)),
-    PERCENT_COMPLETE ("PERCENT-COMPLETE", PercentComplete.class, Arrays.asList(ValueType.INTEGER)),
-    PRIORITY ("PRIORITY", Priority.class, Arrays.asList(ValueType.INTEGER)),
-    PRODUCT_IDENTIFIER ("PRODID", ProductIdentifier.class, Arrays.asList(ValueType.TEXT)),
-    RECURRENCE_DATE_TIMES ("RDATE", RecurrenceDates.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE, ValueType.PERIOD)),
-    RECURRENCE_IDENTIFIER ("RECURRENCE-ID", RecurrenceId.class, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
-    RECURRENCE_RULE ("RRULE", RecurrenceRule.class, Arrays.asList(ValueType.RECURRENCE_RULE)),
-    RELATED_TO ("RELATED-TO", RelatedTo.class, Arrays.asList(ValueType.TEXT)),
-    REPEAT_COUNT ("REPEAT", RepeatCount.class, Arrays.asList(ValueType.INTEGER)),
-    REQUEST_STATUS ("REQUEST-STATUS", RequestStatus.class, Arrays.asList(ValueType.TEXT)),
-    RESOURCES ("RESOURCES", Resources.class, Arrays.asList(ValueType.TEXT)),
-    SEQUENCE ("SEQUENCE", Sequence.class, Arrays.asList(ValueType.INTEGER)),
-    STATUS ("STATUS", Status.class, Arrays.asList(ValueType.TEXT)),
-    SUMMARY ("SUMMARY", Summary.class, Arrays.asList(ValueType.TEXT)),
-    TIME_TRANSPARENCY ("TRANSP", TimeTransparency.class, Arrays.asList(ValueType.TEXT)),
-    TIME_ZONE_IDENTIFIER_PROPERTY ("TZID", TimeZoneIdentifier.class, Arrays.asList(ValueType.TEXT)),
-    TIME_ZONE_NAME ("TZNAME", TimeZoneName.class, Arrays.asList(ValueType.TEXT)),
-    TIME_ZONE_OFFSET_FROM ("TZOFFSETFROM", TimeZoneOffsetFrom.class, Arrays.asList(ValueType.UTC_OFFSET)),
-    TIME_ZONE_OFFSET_TO ("TZOFFSETTO", TimeZoneOffsetTo.class, Arrays.asList(ValueType.UTC_OFFSET)),
-    TIME_ZONE_URL ("TZURL", TimeZoneURL.class, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER)),
-    TRIGGER ("TRIGGER", Trigger.class, Arrays.asList(ValueType.DURATION, ValueType.DATE_TIME)),
-    UNIQUE_IDENTIFIER ("UID", UniqueIdentifier.class, Arrays.asList(ValueType.TEXT)),
-    UNIFORM_RESOURCE_LOCATOR ("URL", UniformResourceLocator.class, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER)),
-    VERSION ("VERSION", Version.class, Arrays.asList(ValueType.TEXT))
+	ACTION ("ACTION", Action.class, Action::new, Arrays.asList(ValueType.TEXT)),
+    ATTACHMENT ("ATTACH", Attachment.class, Attachment::new, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER, ValueType.BINARY)),
+    ATTENDEE ("ATTENDEE", Attendee.class, Attendee::new, Arrays.asList(ValueType.CALENDAR_USER_ADDRESS)),
+    CALENDAR_SCALE ("CALSCALE", CalendarScale.class, CalendarScale::new, Arrays.asList(ValueType.TEXT)),
+    CATEGORIES ("CATEGORIES", Categories.class, Categories::new, Arrays.asList(ValueType.TEXT)),
+    CLASSIFICATION ("CLASS", Classification.class, Classification::new, Arrays.asList(ValueType.TEXT)),
+    COMMENT ("COMMENT", Comment.class, Comment::new, Arrays.asList(ValueType.TEXT)),
+    CONTACT ("CONTACT", Contact.class, Contact::new, Arrays.asList(ValueType.TEXT)),
+    DATE_TIME_COMPLETED ("COMPLETED", DateTimeCompleted.class, DateTimeCompleted::new, Arrays.asList(ValueType.DATE_TIME)),
+    DATE_TIME_CREATED ("CREATED",  DateTimeCreated.class, DateTimeCreated::new, Arrays.asList(ValueType.DATE_TIME)),
+    DATE_TIME_DUE ("DUE", DateTimeDue.class, DateTimeDue::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
+    DATE_TIME_END ("DTEND", DateTimeEnd.class, DateTimeEnd::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
+    DATE_TIME_STAMP ("DTSTAMP", DateTimeStamp.class, DateTimeStamp::new, Arrays.asList(ValueType.DATE_TIME)),
+    DATE_TIME_START ("DTSTART", DateTimeStart.class, DateTimeStart::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
+    DESCRIPTION ("DESCRIPTION", Description.class, Description::new, Arrays.asList(ValueType.TEXT)),
+    DURATION ("DURATION", DurationProp.class, DurationProp::new, Arrays.asList(ValueType.DURATION)),
+    EXCEPTION_DATE_TIMES ("EXDATE", ExceptionDates.class, ExceptionDates::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
+    FREE_BUSY_TIME ("FREEBUSY", FreeBusyTime.class, FreeBusyTime::new, Arrays.asList(ValueType.PERIOD)),
+    GEOGRAPHIC_POSITION ("GEO", GeographicPosition.class, GeographicPosition::new, Arrays.asList(ValueType.TEXT)), // TODO - SHOULD BE FLOAT - TWO OF THEM
+    LAST_MODIFIED ("LAST-MODIFIED", LastModified.class, LastModified::new, Arrays.asList(ValueType.DATE_TIME)),
+    LOCATION ("LOCATION", Location.class, Location::new, Arrays.asList(ValueType.TEXT)),
+    METHOD ("METHOD", net.balsoftware.icalendar.properties.calendar.Method.class, net.balsoftware.icalendar.properties.calendar.Method::new, Arrays.asList(ValueType.TEXT)),
+    NON_STANDARD_PROPERTY ("X-", NonStandardProperty.class, NonStandardProperty::new, Arrays.asList(ValueType.values())),
+    ORGANIZER ("ORGANIZER", Organizer.class, Organizer::new, Arrays.asList(ValueType.CALENDAR_USER_ADDRESS)),
+    PERCENT_COMPLETE ("PERCENT-COMPLETE", PercentComplete.class, PercentComplete::new, Arrays.asList(ValueType.INTEGER)),
+    PRIORITY ("PRIORITY", Priority.class, Priority::new, Arrays.asList(ValueType.INTEGER)),
+    PRODUCT_IDENTIFIER ("PRODID", ProductIdentifier.class, ProductIdentifier::new, Arrays.asList(ValueType.TEXT)),
+    RECURRENCE_DATE_TIMES ("RDATE", RecurrenceDates.class, RecurrenceDates::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE, ValueType.PERIOD)),
+    RECURRENCE_IDENTIFIER ("RECURRENCE-ID", RecurrenceId.class, RecurrenceId::new, Arrays.asList(ValueType.DATE_TIME, ValueType.DATE)),
+    RECURRENCE_RULE ("RRULE", RecurrenceRule.class, RecurrenceRule::new, Arrays.asList(ValueType.RECURRENCE_RULE)),
+    RELATED_TO ("RELATED-TO", RelatedTo.class, RelatedTo::new, Arrays.asList(ValueType.TEXT)),
+    REPEAT_COUNT ("REPEAT", RepeatCount.class, RepeatCount::new, Arrays.asList(ValueType.INTEGER)),
+    REQUEST_STATUS ("REQUEST-STATUS", RequestStatus.class, RequestStatus::new, Arrays.asList(ValueType.TEXT)),
+    RESOURCES ("RESOURCES", Resources.class, Resources::new, Arrays.asList(ValueType.TEXT)),
+    SEQUENCE ("SEQUENCE", Sequence.class, Sequence::new, Arrays.asList(ValueType.INTEGER)),
+    STATUS ("STATUS", Status.class, Status::new, Arrays.asList(ValueType.TEXT)),
+    SUMMARY ("SUMMARY", Summary.class, Summary::new, Arrays.asList(ValueType.TEXT)),
+    TIME_TRANSPARENCY ("TRANSP", TimeTransparency.class, TimeTransparency::new, Arrays.asList(ValueType.TEXT)),
+    TIME_ZONE_IDENTIFIER_PROPERTY ("TZID", TimeZoneIdentifier.class, TimeZoneIdentifier::new, Arrays.asList(ValueType.TEXT)),
+    TIME_ZONE_NAME ("TZNAME", TimeZoneName.class, TimeZoneName::new, Arrays.asList(ValueType.TEXT)),
+    TIME_ZONE_OFFSET_FROM ("TZOFFSETFROM", TimeZoneOffsetFrom.class, TimeZoneOffsetFrom::new, Arrays.asList(ValueType.UTC_OFFSET)),
+    TIME_ZONE_OFFSET_TO ("TZOFFSETTO", TimeZoneOffsetTo.class, TimeZoneOffsetTo::new, Arrays.asList(ValueType.UTC_OFFSET)),
+    TIME_ZONE_URL ("TZURL", TimeZoneURL.class, TimeZoneURL::new, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER)),
+    TRIGGER ("TRIGGER", Trigger.class, Trigger::new, Arrays.asList(ValueType.DURATION, ValueType.DATE_TIME)),
+    UNIQUE_IDENTIFIER ("UID", UniqueIdentifier.class, UniqueIdentifier::new, Arrays.asList(ValueType.TEXT)),
+    UNIFORM_RESOURCE_LOCATOR ("URL", UniformResourceLocator.class, UniformResourceLocator::new, Arrays.asList(ValueType.UNIFORM_RESOURCE_IDENTIFIER)),
+    VERSION ("VERSION", Version.class, Version::new, Arrays.asList(ValueType.TEXT))
 	;
     
-    // Map to match up class to enum
+    // Map to match up class to enum - read-only after class initialization, safe to share between threads
     private final static Map<Class<? extends VElement>, VPropertyElement> CLASS_MAP = makeEnumFromClassMap();
     private static Map<Class<? extends VElement>, VPropertyElement> makeEnumFromClassMap()
     {
@@ -119,7 +121,7 @@ public enum VPropertyElement
         {
             map.put(values[i].myClass, values[i]);
         }
-        return map;
+        return Collections.unmodifiableMap(map);
     }
 	public static VPropertyElement fromClass(Class<? extends VElement> vElementClass)
 	{
@@ -135,28 +137,33 @@ public enum VPropertyElement
     private Class<? extends VProperty> myClass;
 	public Class<? extends VProperty> elementClass() { return myClass; }
 
+    private Supplier<? extends VProperty<?>> constructor;
+    /** No-arg constructor of the element class */
+	public Supplier<? extends VProperty<?>> constructor() { return constructor; }
+
     private List<ValueType> valueTypes;
     public List<ValueType> allowedValueTypes() { return valueTypes; }
     public ValueType defaultValueType() { return valueTypes.get(0); }
     
-    VPropertyElement(String name, Class<? extends VProperty> myClass, List<ValueType> valueTypes)
+    VPropertyElement(String name, Class<? extends VProperty> myClass, Supplier<? extends VProperty<?>> constructor, List<ValueType> valueTypes)
     {
         this.name = name;
         this.valueTypes = valueTypes;
         this.myClass = myClass;
+        this.constructor = constructor;
     }
 	
-	public static List<String> names = Arrays
+	public static final List<String> names = Collections.unmodifiableList(Arrays
 			.stream(values())
 			.map(v -> v.name)
-			.collect(Collectors.toList());
+			.collect(Collectors.toList()));
 	
     private static final Map<Class<? extends VProperty>, List<ValueType>> ALLOWED_VALUE_TYPES_MAP = 
-    		 Arrays.stream(VPropertyElement.values())
+    		 Collections.unmodifiableMap(Arrays.stream(VPropertyElement.values())
  			.collect(Collectors.toMap(
  					v -> v.elementClass(),
  					v -> v.allowedValueTypes()
- 					));
+ 					)));
 	public static Collection<ValueType> propertyAllowedValueTypes(Class<? extends VProperty> class1)
 	{
 		return ALLOWED_VALUE_TYPES_MAP.get(class1);
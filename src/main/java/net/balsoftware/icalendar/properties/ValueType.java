@@ -90,6 +90,13 @@ public enum ValueType
                 {
                      return (T) LocalDate.parse(string, DateTimeUtilities.LOCAL_DATE_FORMATTER);
                 }
+
+                @Override
+                public Object tryFromString(String string)
+                {
+                    Temporal temporal = DateTimeUtilities.tryTemporalFromString(string);
+                    return (temporal instanceof LocalDate) ? temporal : INVALID;
+                }
             };
         }
     },
@@ -111,6 +118,13 @@ public enum ValueType
                 {
                     return (T) DateTimeUtilities.temporalFromString(string);
                 }
+
+                @Override
+                public Object tryFromString(String string)
+                {
+                    Temporal temporal = DateTimeUtilities.tryTemporalFromString(string);
+                    return (temporal == null) ? INVALID : temporal;
+                }
             };
         }
     },
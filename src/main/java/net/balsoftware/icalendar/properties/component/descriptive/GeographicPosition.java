@@ -73,7 +73,7 @@ public class GeographicPosition extends VPropertyBase<String, GeographicPosition
      * This leaves the semicolon delimiters unescaped
      */
     @Override
-    protected String valueContent()
+    public String valueContent()
     {
         StringBuilder builder = new StringBuilder(20);
         builder.append(DECIMAL_FORMAT.format(getLatitude()) + ";");
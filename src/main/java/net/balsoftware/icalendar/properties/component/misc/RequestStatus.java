@@ -98,7 +98,7 @@ public class RequestStatus extends PropBaseLanguage<String, RequestStatus>
      * This leaves the semicolon delimiters unescaped
      */
     @Override
-    protected String valueContent()
+    public String valueContent()
     {
         StringBuilder builder = new StringBuilder(100);
         builder.append(DECIMAL_FORMAT.format(getStatusCode()) + ";");
@@ -260,6 +260,7 @@ public abstract class UnknownProperty<T,U> extends PropertyBaseAttendee<T,U> imp
         if (name.substring(0, 2).toUpperCase().equals("X-"))
         {
             propertyName = name;
+            contentChanged();
         } else
         {
             throw new RuntimeException("Non-standard properties must begin with X-");                
@@ -6,6 +6,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.Temporal;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -54,6 +55,22 @@ public abstract class PropertyBaseRecurrence<U> extends PropBaseDateTime<Set<Tem
             treeSet.addAll(set);
             return set;
         }
+
+        @Override
+        public Object tryFromString(String string)
+        {
+            Set<Temporal> set = new HashSet<>();
+            for (String s : string.split(","))
+            {
+                Temporal temporal = DateTimeUtilities.tryTemporalFromString(s);
+                if (temporal == null)
+                {
+                    return INVALID;
+                }
+                set.add(temporal);
+            }
+            return set;
+        }
     };
     
     /*
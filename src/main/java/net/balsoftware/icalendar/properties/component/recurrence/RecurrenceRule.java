@@ -43,6 +43,29 @@ public class RecurrenceRule extends VPropertyBase<RecurrenceRuleValue, Recurrenc
         super(source);
     }
 
+    @Override
+    public void setValue(RecurrenceRuleValue value)
+    {
+        super.setValue(value);
+        if (value != null)
+        {
+            value.setParent(this); // changes to rule parts are passed up to the component
+        }
+    }
+
+    // setValue only connects the value to this property, which valueDecoded also does
+    @Override
+    protected boolean isValueDecodedLazily()
+    {
+        return true;
+    }
+
+    @Override
+    protected void valueDecoded(RecurrenceRuleValue value)
+    {
+        value.setParent(this);
+    }
+
     @Override
     protected RecurrenceRuleValue copyValue(RecurrenceRuleValue source)
     {
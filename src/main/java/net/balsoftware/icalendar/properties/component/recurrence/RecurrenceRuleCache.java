@@ -1,39 +1,88 @@
 package net.balsoftware.icalendar.properties.component.recurrence;
 
 import java.time.temporal.Temporal;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.components.VRepeatable;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 
 /**
- * Handles caching an array of Temporal date/time values to speed up producing a stream
+ * Handles caching Temporal date/time values to speed up producing a stream
  * of recurrence instances for a recurrence rule (RRULE).
  * RFC 5545 3.8.5.2, page 121
  * The recurrence set is the complete set of recurrence instances for a calendar component.
  * 
+ * <p>While recurrences are streamed, every density-th value after a cached value is saved as a checkpoint.
+ * Checkpoints are kept sorted in a concurrent skip list, so the closest checkpoint to a target is found in O(log n)
+ * time and the cache can be read and filled by many threads at once.  The checkpoints are discarded when DTSTART or
+ * the RRULE changes.</p>
+ * 
+ * <p>Each cache holds up to capacity checkpoints.  All caches also share a {@link Budget} of checkpoints, which drops
+ * the checkpoints of the least recently used caches when it is exceeded.</p>
+ * 
  * @author David Bal
  *
  */
 public class RecurrenceRuleCache
 {
-    // Variables for start date or date/time cache used as starting Temporal for stream
-    private static final int CACHE_RANGE = 51; // number of values in cache
-    private static final int CACHE_SKIP = 21; // store every nth value in the cache
-    private int skipCounter = 0; // counter that increments up to CACHE_SKIP, indicates time to record a value, then resets to 0
-    public Temporal[] temporalCache; // the start date or date/time cache
-    private Temporal dateTimeStartLast; // last dateTimeStart, when changes indicates clearing the cache is necessary
-    private RecurrenceRuleValue rRuleLast; // last rRule, when changes indicates clearing the cache is necessary
-    public int cacheStart = 0; // start index where cache values are stored (starts in middle)
-    public int cacheEnd = 0; // end index where cache values are stored
-    private VRepeatable<?> component; // the VComponent
+    /** Default number of recurrences between saved checkpoints */
+    public static final int DEFAULT_DENSITY = 21;
+    /** Default maximum number of checkpoints saved for one component */
+    public static final int DEFAULT_CAPACITY = 51;
+    /** Default maximum number of checkpoints saved for all components */
+    public static final long DEFAULT_BUDGET = 1_000_000;
+
+    private static volatile Budget budget = new Budget(DEFAULT_BUDGET);
+    /** Shared budget of checkpoints for all caches */
+    public static Budget getBudget() { return budget; }
+    /** Replace the shared budget of checkpoints.  Checkpoints saved in the previous budget aren't counted in the new one. */
+    public static void setBudget(Budget budget)
+    {
+        if (budget == null) throw new IllegalArgumentException("Budget must not be null");
+        RecurrenceRuleCache.budget = budget;
+    }
+
+    private final VRepeatable<?> component; // the VComponent
+    private final int density;
+    /** Number of recurrences between saved checkpoints */
+    public int getDensity() { return density; }
+    private final int capacity;
+    /** Maximum number of checkpoints saved for this component */
+    public int getCapacity() { return capacity; }
+    private volatile Checkpoints checkpoints; // checkpoints for the current DTSTART and RRULE
     
+    /*
+     * CONSTRUCTORS
+     */
     public RecurrenceRuleCache(VRepeatable<?> component)
     {
+        this(component, DEFAULT_DENSITY, DEFAULT_CAPACITY);
+    }
+
+    public RecurrenceRuleCache(VRepeatable<?> component, int density, int capacity)
+    {
+        if (density < 1) throw new IllegalArgumentException("Density must be at least 1: " + density);
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
         this.component = component;
+        this.density = density;
+        this.capacity = capacity;
+    }
+
+    /** Number of checkpoints saved for the current DTSTART and RRULE */
+    public int size()
+    {
+        Checkpoints c = checkpoints;
+        return (c == null) ? 0 : c.values.size();
     }
 
     /**
@@ -44,25 +93,10 @@ public class RecurrenceRuleCache
      */
     public Temporal previousValue(Temporal value)
     {
-        final Temporal start; 
-        if (cacheEnd == 0)
-        {
-            start = component.getDateTimeStart().getValue();
-        } else
-        { // try to get start from cache
-            Temporal m  = null;
-            for (int i=cacheEnd; i>cacheStart; i--)
-            {
-                if (DateTimeUtilities.isBefore(temporalCache[i], value))
-                {
-                    m = temporalCache[i];
-                    break;
-                }
-            }
-            start = (m != null) ? m : component.getDateTimeStart().getValue();
-        }
+        Checkpoints c = currentCheckpoints();
+        Temporal m = (c == null) ? null : c.values.lower(value);
+        final Temporal start = (m != null) ? m : component.getDateTimeStart().getValue();
         Iterator<Temporal> i = component.streamRecurrences(start).iterator();
-//        Iterator<Temporal> i = streamNoCache(start).iterator();
         Temporal lastT = null;
         while (i.hasNext())
         {
@@ -84,156 +118,219 @@ public class RecurrenceRuleCache
      */
     public Temporal getClosestStart(Temporal targetStart)
     {
-        final Temporal match;
-        final Temporal dateTimeStart;
-        final RecurrenceRuleValue recurrenceRule;
-        
-        dateTimeStart = component.getDateTimeStart().getValue();
-        
-        recurrenceRule = (component.getRecurrenceRule() != null) ? component.getRecurrenceRule().getValue() : null;
-
-        // adjust start to ensure its not before dateTimeStart
-        final Temporal start2 = (DateTimeUtilities.isBefore(targetStart, dateTimeStart)) ? dateTimeStart : targetStart;
-        final Temporal latestCacheValue;
-
-        
-        if (recurrenceRule == null)
+        Checkpoints c = currentCheckpoints();
+        if (c == null)
         { // if individual event
             return null;
         }
+        Temporal match = c.values.floor(targetStart);
+        if (match == null)
+        { // target is before DTSTART, or its checkpoints were evicted
+            c.add(c.dateTimeStart);
+            return c.dateTimeStart;
+        }
+        c.owner.touch(c);
+        return match;
+    }
+    
+    /** add to cache while streaming recurrences */
+    public Stream<Temporal> makeCache(Stream<Temporal> inStream)
+    {
+        Checkpoints c = currentCheckpoints();
+        if (c == null)
+        {
+            return inStream;
+        }
+        int[] counter = new int[1]; // values since last checkpoint, one counter for each stream
+        return inStream
+                .peek(t ->
+                { // save every density-th new value in cache
+                    if (c.values.contains(t))
+                    {
+                        counter[0] = 0;
+                    } else if (++counter[0] >= density)
+                    {
+                        c.add(t);
+                        counter[0] = 0;
+                    }
+                });
+    }
 
-        // check if cache needs to be cleared (changes to RRULE or DTSTART)
-        if ((dateTimeStartLast != null) && (rRuleLast != null))
+    /* Returns checkpoints for the current DTSTART and RRULE, replacing them if either has changed.  Null if there's no RRULE */
+    private Checkpoints currentCheckpoints()
+    {
+        if ((component.getRecurrenceRule() == null) || (component.getDateTimeStart() == null))
+        {
+            return null;
+        }
+        RecurrenceRuleValue recurrenceRule = component.getRecurrenceRule().getValue();
+        Temporal dateTimeStart = component.getDateTimeStart().getValue();
+        // the plan is replaced whenever a part of the RRULE changes
+        RecurrencePlan plan = recurrenceRule.plan();
+        Checkpoints c = checkpoints;
+        if ((c == null) || (c.plan != plan) || ! c.dateTimeStart.equals(dateTimeStart))
         {
-            boolean startChanged = ! dateTimeStart.equals(dateTimeStartLast);
-            boolean rRuleChanged = ! recurrenceRule.equals(rRuleLast);
-            if (startChanged || rRuleChanged)
+            if (c != null)
             {
-                temporalCache = null;
-                cacheStart = 0;
-                cacheEnd = 0;
-                skipCounter = 0;
-                dateTimeStartLast = dateTimeStart;
-                rRuleLast = recurrenceRule;
+                c.owner.remove(c);
             }
-        } else
-        { // save current DTSTART and RRULE for next time
-            dateTimeStartLast = dateTimeStart;
-            rRuleLast = recurrenceRule;
+            c = new Checkpoints(dateTimeStart, plan, capacity, budget);
+            c.add(dateTimeStart);
+            checkpoints = c;
         }
-        
-        // use cache if available to find matching start date or date/time
-        if (temporalCache != null)
+        return c;
+    }
+
+    /* Sorted checkpoints for one DTSTART and RRULE.  Doesn't refer to the component, so the budget doesn't keep it reachable. */
+    private static final class Checkpoints
+    {
+        private final Temporal dateTimeStart;
+        private final RecurrencePlan plan;
+        private final int capacity;
+        private final Budget owner;
+        private final NavigableSet<Temporal> values = new ConcurrentSkipListSet<>(DateTimeUtilities.TEMPORAL_COMPARATOR);
+        // read or filled since the budget last ordered its caches
+        private volatile boolean isAccessed;
+        // in the budget's order of caches, guarded by the budget
+        private volatile boolean isTracked;
+
+        private Checkpoints(Temporal dateTimeStart, RecurrencePlan plan, int capacity, Budget owner)
         {
-            // Reorder cache to maintain centered and sorted
-            final int len = temporalCache.length;
-            final Temporal[] p1;
-            final Temporal[] p2;
-            if (cacheEnd < cacheStart) // high values have wrapped from end to beginning
-            {
-                p1 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                p2 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-            } else if (cacheEnd > cacheStart) // low values have wrapped from beginning to end
-            {
-                p2 = Arrays.copyOfRange(temporalCache, cacheStart, len);
-                p1 = Arrays.copyOfRange(temporalCache, 0, Math.min(cacheEnd+1,len));
-            } else
+            this.dateTimeStart = dateTimeStart;
+            this.plan = plan;
+            this.capacity = capacity;
+            this.owner = owner;
+        }
+
+        private void add(Temporal t)
+        {
+            if (values.add(t))
             {
-                p1 = null;
-                p2 = null;
-            }
-            if (p1 != null)
-            { // copy elements to accommodate wrap and restore sort order
-                int p1Index = 0;
-                int p2Index = 0;
-                for (int i=0; i<len; i++)
-                {
-                    if (p1Index < p1.length)
-                    {
-                        temporalCache[i] = p1[p1Index];
-                        p1Index++;
-                    } else if (p2Index < p2.length)
+                if (values.size() > capacity)
+                { // drop checkpoint at the opposite end from the new one
+                    Temporal removed = t.equals(values.last()) ? values.pollFirst() : values.pollLast();
+                    if (removed != null)
                     {
-                        temporalCache[i] = p2[p2Index];
-                        p2Index++;
-                    } else
-                    {
-                        cacheEnd = i;
-                        break;
+                        owner.touch(this);
+                        return;
                     }
                 }
+                owner.added(this, 1);
             }
+        }
 
-            // Find match in cache
-            latestCacheValue = temporalCache[cacheEnd];
-            if ((! DateTimeUtilities.isBefore(start2, temporalCache[cacheStart])))
+        /* Removes checkpoints one at a time, so each one is subtracted from the budget exactly once */
+        private int clear()
+        {
+            int size = 0;
+            while (values.pollFirst() != null)
             {
-                Temporal m = latestCacheValue;
-                for (int i=cacheStart; i<cacheEnd+1; i++)
-                {
-                    if (DateTimeUtilities.isAfter(temporalCache[i], start2))
-                    {
-                        m = temporalCache[i-1];
-                        break;
-                    }
-                }
-                match = m;
-            } else
-            { // all cached values too late - start over
-                cacheStart = 0;
-                cacheEnd = 0;
-                temporalCache[cacheStart] = dateTimeStart;
-                match = dateTimeStart;
+                size++;
             }
-        } else
-        { // no previous cache.  initialize new array with dateTimeStart as first value.
-            temporalCache = new Temporal[CACHE_RANGE];
-            temporalCache[cacheStart] = dateTimeStart;
-            match = dateTimeStart;
+            return size;
         }
-        return match;
     }
-    
-    
-    /** add to cache while streaming recurrences */
-    public Stream<Temporal> makeCache(Stream<Temporal> inStream)
+
+    /**
+     * Maximum number of checkpoints saved by all the caches that use it.  When the budget is exceeded, the checkpoints
+     * of the least recently used caches are dropped.  A subclass can choose other caches to drop by overriding
+     * {@link #evict(long)}.
+     * 
+     * Reading a cache doesn't lock the budget, it only marks the cache as accessed.  The marks are drained in a batch
+     * when the budget evicts: a marked cache gets a second chance and moves to the most recently used end, so the
+     * order is close to, but not exactly, least recently used.  The size is one atomic counter that every added and
+     * removed checkpoint updates once.
+     * 
+     * The budget holds the checkpoints, not the components, so components can still be garbage collected.  The
+     * checkpoints of a discarded component are dropped when they become the least recently used.
+     */
+    public static class Budget
     {
-        Temporal earliestCacheValue = temporalCache[cacheStart];
-        Temporal latestCacheValue = temporalCache[cacheEnd];
-//        System.out.println("makeCache:" + earliestCacheValue + " " + latestCacheValue + " " + component.getRecurrences());
-        Stream<Temporal> outStream = inStream
-                .peek(t ->
-                { // save new values in cache
-                    if (component.getRecurrenceRule() != null)
+        private final long maxCheckpoints;
+        /** Maximum number of checkpoints saved for all caches */
+        public long getMaxCheckpoints() { return maxCheckpoints; }
+        private final AtomicLong size = new AtomicLong();
+        /** Number of checkpoints saved for all caches */
+        public long size() { return size.get(); }
+        // caches in least recently used order, apart from accessed marks not drained yet
+        private final Map<Checkpoints, Boolean> lruCheckpoints = new LinkedHashMap<>();
+
+        public Budget(long maxCheckpoints)
+        {
+            if (maxCheckpoints < 1) throw new IllegalArgumentException("Budget must be at least 1: " + maxCheckpoints);
+            this.maxCheckpoints = maxCheckpoints;
+        }
+
+        /**
+         * Drops the checkpoints of least recently used caches until at most maxSize checkpoints are saved
+         * 
+         * @param maxSize - number of checkpoints to keep
+         */
+        protected synchronized void evict(long maxSize)
+        {
+            // two passes: the first drains the accessed marks, the second drops caches even if they were marked again
+            for (int pass=0; (pass<2) && (size.get() > maxSize); pass++)
+            {
+                List<Checkpoints> accessed = new ArrayList<>();
+                Iterator<Checkpoints> i = lruCheckpoints.keySet().iterator();
+                while ((size.get() > maxSize) && i.hasNext())
+                {
+                    Checkpoints c = i.next();
+                    i.remove();
+                    if ((pass == 0) && c.isAccessed)
+                    { // second chance
+                        c.isAccessed = false;
+                        accessed.add(c);
+                    } else
                     {
-                        if (DateTimeUtilities.isBefore(t, earliestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheStart--;
-                                if (cacheStart < 0) cacheStart = CACHE_RANGE - 1;
-                                if (cacheStart == cacheEnd) cacheEnd--; // just overwrote oldest value - push cacheEnd down
-                                temporalCache[cacheStart] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        if (DateTimeUtilities.isAfter(t, latestCacheValue))
-                        {
-                            if (skipCounter == CACHE_SKIP)
-                            {
-                                cacheEnd++;
-                                if (cacheEnd == CACHE_RANGE) cacheEnd = 0;
-                                if (cacheStart == cacheEnd) cacheStart++; // just overwrote oldest value - push cacheStart up
-                                temporalCache[cacheEnd] = t;
-                                skipCounter = 0;
-                            } else skipCounter++;
-                        }
-                        // check if start or end needs to wrap
-                        if (cacheEnd < 0) cacheEnd = CACHE_RANGE - 1;
-                        if (cacheStart == CACHE_RANGE) cacheStart = 0;
+                        c.isTracked = false;
+                        size.addAndGet(- c.clear());
                     }
-                });
-        return outStream;
+                }
+                accessed.forEach(c -> lruCheckpoints.put(c, Boolean.TRUE));
+            }
+        }
+
+        /* Checkpoints were read, mark them for moving to most recently used.  Doesn't lock. */
+        private void touch(Checkpoints c)
+        {
+            if (! c.isAccessed)
+            {
+                c.isAccessed = true;
+            }
+            if (! c.isTracked)
+            { // new, or refilled after being evicted
+                track(c);
+            }
+        }
+
+        private synchronized void track(Checkpoints c)
+        {
+            if (! c.isTracked)
+            {
+                c.isTracked = true;
+                lruCheckpoints.put(c, Boolean.TRUE);
+            }
+        }
+
+        private void added(Checkpoints c, int delta)
+        {
+            touch(c);
+            if (size.addAndGet(delta) > maxCheckpoints)
+            {
+                evict(maxCheckpoints);
+            }
+        }
+
+        /* Checkpoints are no longer used */
+        private synchronized void remove(Checkpoints c)
+        {
+            if (lruCheckpoints.remove(c) != null)
+            {
+                c.isTracked = false;
+            }
+            size.addAndGet(- c.clear());
+        }
     }
 
 //    /** Stream of date/times that indicate the start of the event(s).
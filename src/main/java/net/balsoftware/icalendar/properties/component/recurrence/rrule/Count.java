@@ -3,6 +3,7 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Count;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
 
@@ -47,7 +48,7 @@ public class Count extends RRulePartBase<Integer, Count>
     }
 
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         setValue(Integer.parseInt(valueString));
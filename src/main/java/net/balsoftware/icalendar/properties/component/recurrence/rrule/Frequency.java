@@ -6,6 +6,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Frequency;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.FrequencyType;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
@@ -105,7 +106,7 @@ public class Frequency extends RRulePartBase<FrequencyType, Frequency>
     }
 
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         setValue(FrequencyType.valueOf(valueString.toUpperCase()));
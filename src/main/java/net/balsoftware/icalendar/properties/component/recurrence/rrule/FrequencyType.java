@@ -1,6 +1,13 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule;
 
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +30,108 @@ public enum FrequencyType
     }
     public ChronoUnit getChronoUnit() { return chronoUnit; }
 
+    /**
+     * Number of whole frequency periods, each interval units long, that can be skipped from start without
+     * reaching past target.  The recurrence stream makes each period start by adding interval units to the previous one,
+     * so the count is reduced to the periods whose starts are the same when computed directly from start by
+     * {@link #periodStart(Temporal, long, int)}.  That isn't true when a day of month past the 28th or February 29th
+     * is clamped, or when a period start falls in a time zone gap.
+     * 
+     * @param start - start of the first period (e.g. DTSTART)
+     * @param target - date/time to skip towards, must be the same type as start
+     * @param interval - INTERVAL value
+     * @return - number of periods that can be skipped, 0 if none
+     */
+    public long periodsBetween(Temporal start, Temporal target, int interval)
+    {
+        if (! start.isSupported(chronoUnit))
+        {
+            return 0;
+        }
+        long periods = chronoUnit.between(start, target) / interval;
+        if (periods <= 0)
+        {
+            return 0;
+        }
+        switch (this)
+        {
+        case YEARLY:
+            if ((start.get(ChronoField.MONTH_OF_YEAR) == Month.FEBRUARY.getValue()) && (start.get(ChronoField.DAY_OF_MONTH) == 29))
+            {
+                return 0;
+            }
+            break;
+        case MONTHLY:
+            if (start.get(ChronoField.DAY_OF_MONTH) > 28)
+            {
+                return 0;
+            }
+            break;
+        default:
+            break;
+        }
+        if ((start instanceof ZonedDateTime) && chronoUnit.isDateBased())
+        {
+            periods = Math.min(periods, periodsBeforeGap((ZonedDateTime) start, periods, interval));
+        }
+        return periods;
+    }
+
+    /*
+     * Adding date-based units to a ZonedDateTime that falls in a gap moves the local time forward, and all
+     * later period starts keep the moved time.  Returns the number of periods before the first one that falls in a gap.
+     */
+    private long periodsBeforeGap(ZonedDateTime start, long periods, int interval)
+    {
+        ZoneRules rules = start.getZone().getRules();
+        LocalDateTime localStart = start.toLocalDateTime();
+        LocalDateTime localEnd = localStart.plus(periods * interval, chronoUnit);
+        ZoneOffsetTransition transition = rules.nextTransition(start.toInstant());
+        while ((transition != null) && ! transition.getDateTimeBefore().isAfter(localEnd))
+        {
+            if (transition.isGap())
+            {
+                long period = chronoUnit.between(localStart, transition.getDateTimeBefore()) / interval;
+                for (long p = period; p <= period+1; p++)
+                {
+                    LocalDateTime periodStart = localStart.plus(p * interval, chronoUnit);
+                    if (! periodStart.isBefore(transition.getDateTimeBefore()) && periodStart.isBefore(transition.getDateTimeAfter()))
+                    {
+                        return Math.max(0, p - 1);
+                    }
+                }
+            }
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return periods;
+    }
+
+    /**
+     * Start of the period after the given number of periods, each interval units long.  For a number of periods
+     * returned by {@link #periodsBetween(Temporal, Temporal, int)} it is the same as adding interval units to start
+     * that many times, but takes constant time.
+     * 
+     * @param start - start of the first period (e.g. DTSTART)
+     * @param periods - number of periods to skip
+     * @param interval - INTERVAL value
+     * @return - start of the period
+     */
+    public Temporal periodStart(Temporal start, long periods, int interval)
+    {
+        if (periods == 0)
+        {
+            return start;
+        }
+        if ((start instanceof ZonedDateTime) && chronoUnit.isDateBased())
+        { // adding one period at a time keeps the previous period's offset when the local time is in an overlap
+            ZonedDateTime zonedStart = (ZonedDateTime) start;
+            LocalDateTime localStart = zonedStart.toLocalDateTime();
+            ZonedDateTime previous = ZonedDateTime.ofLocal(localStart.plus((periods-1) * interval, chronoUnit), zonedStart.getZone(), zonedStart.getOffset());
+            return ZonedDateTime.ofLocal(localStart.plus(periods * interval, chronoUnit), zonedStart.getZone(), previous.getOffset());
+        }
+        return start.plus(periods * interval, chronoUnit);
+    }
+
     // Map to match up string name to enum
     private static Map<String, FrequencyType> propertyFromNameMap = makePropertiesFromNameMap();
     private static Map<String, FrequencyType> makePropertiesFromNameMap()
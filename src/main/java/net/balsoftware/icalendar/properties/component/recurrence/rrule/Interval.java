@@ -3,6 +3,7 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Interval;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
 
@@ -41,7 +42,7 @@ public class Interval extends RRulePartBase<Integer, Interval>
     }
 
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         setValue(Integer.parseInt(valueString));
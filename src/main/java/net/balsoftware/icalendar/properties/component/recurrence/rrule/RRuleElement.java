@@ -3,6 +3,7 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.VElement;
@@ -26,20 +27,20 @@ import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByY
 
 public enum RRuleElement
 {
-    FREQUENCY ("FREQ", Frequency.class, null),
-    INTERVAL ("INTERVAL", Interval.class, null),
-    UNTIL ("UNTIL", Until.class, null),
-    COUNT ("COUNT", Count.class, null),
-    WEEK_START ("WKST", WeekStart.class, null),
-    BY_MONTH ("BYMONTH", ByMonth.class, ChronoUnit.MONTHS),
-    BY_WEEK_NUMBER ("BYWEEKNO", ByWeekNumber.class, ChronoUnit.DAYS),
-    BY_YEAR_DAY ("BYYEARDAY", ByYearDay.class, ChronoUnit.DAYS),
-    BY_MONTH_DAY ("BYMONTHDAY", ByMonthDay.class, ChronoUnit.DAYS),
-    BY_DAY ("BYDAY", ByDay.class, ChronoUnit.DAYS),
-    BY_HOUR ("BYHOUR", ByHour.class, ChronoUnit.HOURS),
-    BY_MINUTE ("BYMINUTE", ByMinute.class, ChronoUnit.MINUTES),
-    BY_SECOND ("BYSECOND", BySecond.class, ChronoUnit.SECONDS),
-    BY_SET_POSITION ("BYSETPOS", BySetPosition.class, null)
+    FREQUENCY ("FREQ", Frequency.class, Frequency::new, null),
+    INTERVAL ("INTERVAL", Interval.class, Interval::new, null),
+    UNTIL ("UNTIL", Until.class, Until::new, null),
+    COUNT ("COUNT", Count.class, Count::new, null),
+    WEEK_START ("WKST", WeekStart.class, WeekStart::new, null),
+    BY_MONTH ("BYMONTH", ByMonth.class, ByMonth::new, ChronoUnit.MONTHS),
+    BY_WEEK_NUMBER ("BYWEEKNO", ByWeekNumber.class, ByWeekNumber::new, ChronoUnit.DAYS),
+    BY_YEAR_DAY ("BYYEARDAY", ByYearDay.class, ByYearDay::new, ChronoUnit.DAYS),
+    BY_MONTH_DAY ("BYMONTHDAY", ByMonthDay.class, ByMonthDay::new, ChronoUnit.DAYS),
+    BY_DAY ("BYDAY", ByDay.class, ByDay::new, ChronoUnit.DAYS),
+    BY_HOUR ("BYHOUR", ByHour.class, ByHour::new, ChronoUnit.HOURS),
+    BY_MINUTE ("BYMINUTE", ByMinute.class, ByMinute::new, ChronoUnit.MINUTES),
+    BY_SECOND ("BYSECOND", BySecond.class, BySecond::new, ChronoUnit.SECONDS),
+    BY_SET_POSITION ("BYSETPOS", BySetPosition.class, BySetPosition::new, null)
     ;
     
     // Map to match up name to enum
@@ -75,13 +76,18 @@ public enum RRuleElement
     private Class<? extends RRulePart<?>> myClass;
 	public Class<? extends RRulePart<?>> elementClass() { return myClass; }
     
+    private Supplier<? extends RRulePart<?>> constructor;
+    /** No-arg constructor of the element class */
+	public Supplier<? extends RRulePart<?>> constructor() { return constructor; }
+    
     private ChronoUnit chronoUnit;
     public ChronoUnit getChronoUnit() { return chronoUnit; }
 
-    RRuleElement(String name, Class<? extends RRulePart<?>> myClass, ChronoUnit chronoUnit)
+    RRuleElement(String name, Class<? extends RRulePart<?>> myClass, Supplier<? extends RRulePart<?>> constructor, ChronoUnit chronoUnit)
     {
         this.name = name;
         this.myClass = myClass;
+        this.constructor = constructor;
         this.chronoUnit = chronoUnit;
     }
 }
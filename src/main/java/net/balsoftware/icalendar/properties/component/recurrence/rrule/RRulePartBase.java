@@ -24,13 +24,27 @@ abstract public class RRulePartBase<T, U> extends VElementBase implements RRuleP
     public T getValue() { return value; }
     private T value;
     @Override
-    public void setValue(T value) { this.value = value; }
+    public void setValue(T value)
+    {
+        checkNotFrozen();
+        this.value = value;
+        valueChanged();
+    }
     public U withValue(T value)
     {
     	setValue(value);
     	return (U) this;
 	}
     
+    /** Notify the parent {@link RecurrenceRuleValue}, if any, that the value changed so its {@link RecurrencePlan} is made again */
+    protected void valueChanged()
+    {
+        if (getParent() instanceof RecurrenceRuleValue)
+        {
+            ((RecurrenceRuleValue) getParent()).contentChanged();
+        }
+    }
+    
     final protected RRuleElement elementType;
     @Override
     public String name()
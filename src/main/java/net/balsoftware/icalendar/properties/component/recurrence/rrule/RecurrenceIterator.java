@@ -0,0 +1,251 @@
+package net.balsoftware.icalendar.properties.component.recurrence.rrule;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
+
+/**
+ * <p>Iterator of the start date/times made by a {@link RecurrenceRuleValue}.</p>
+ *
+ * <p>The frequency makes one date/time per period (e.g. one date/time per year for FREQ=YEARLY).  The steps of the
+ * rule's {@link RecurrencePlan}, one for each BYxxx rule, are applied to each period to make the date/times of the
+ * period.  The date/times of each period are made in two lists that are reused for every period.</p>
+ *
+ * <p>All the expansion state is in the iterator, so many iterators can expand the same rule on different threads at
+ * once, as long as the rule isn't changed.  An iterator itself must only be used by one thread.</p>
+ *
+ * <p>An iterator can start by skipping the periods before a target date/time, see {@link RecurrenceRuleValue#iterator(Temporal, Temporal)}.
+ * The periods are skipped with {@link FrequencyType#periodsBetween(Temporal, Temporal, int)} without being expanded.
+ * For a rule with a COUNT the recurrences of the skipped periods are counted with {@link RecurrencePlan#occurrencesPerPeriod(boolean)}.
+ * The remaining date/times are the same as those made without skipping.</p>
+ *
+ * <p>Besides {@link #next()}, the date/times are available as a {@link Spliterator}, see {@link #spliterator()},
+ * and as seconds from the epoch, see {@link #epochSeconds()}.</p>
+ *
+ * @author David Bal
+ * @see RecurrenceRuleValue#iterator(Temporal)
+ */
+public class RecurrenceIterator implements Iterator<Temporal>
+{
+	/* Number of periods at the start that are expanded when periods of a rule with a COUNT are skipped.  Their
+	 * date/times can be before DTSTART, so they can have fewer recurrences than later periods. */
+	private static final int COUNTED_PERIODS = 2;
+
+	private final Temporal start;
+	private final ChronoUnit frequencyUnit;
+	private final int interval;
+	private final RecurrencePlan.Step[] steps;
+	private final int count;
+	private final Temporal until;
+
+	private Temporal periodStart;
+	private List<Temporal> periodRecurrences = new ArrayList<>();
+	private List<Temporal> workRecurrences = new ArrayList<>();
+	private int periodIndex;
+	private int returnedCount;
+	private Temporal next;
+	private boolean isDone;
+
+	private long skippedPeriods;
+	/** Number of frequency periods skipped without being expanded */
+	public long skippedPeriods() { return skippedPeriods; }
+
+    /*
+     * CONSTRUCTOR
+     */
+	/**
+	 * @param plan - compiled recurrence rule to expand
+	 * @param start - starting point of iterator (MUST be a valid occurrence date/time)
+	 */
+	RecurrenceIterator(RecurrencePlan plan, Temporal start)
+	{
+		this.start = start;
+		frequencyUnit = plan.frequencyUnit();
+		interval = plan.interval();
+		steps = plan.steps();
+		count = plan.count();
+		if (plan.until() != null)
+		{
+            ZoneId zone = (start instanceof ZonedDateTime) ? ((ZonedDateTime) start).getZone() : null;
+            until = DateTimeType.of(start).from(plan.until(), zone);
+		} else
+		{
+			until = null;
+		}
+		periodStart = start;
+	}
+
+	/**
+	 * @param plan - compiled recurrence rule to expand
+	 * @param start - starting point of iterator (MUST be a valid occurrence date/time)
+	 * @param target - periods that end before target are skipped, when they can be computed arithmetically
+	 */
+	RecurrenceIterator(RecurrencePlan plan, Temporal start, Temporal target)
+	{
+		this(plan, start);
+		skippedPeriods = skipPeriods(plan, target);
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		if ((next == null) && ! isDone)
+		{
+			next = findNext();
+		}
+		return next != null;
+	}
+
+	@Override
+	public Temporal next()
+	{
+		if (! hasNext())
+		{
+			throw new NoSuchElementException();
+		}
+		Temporal t = next;
+		next = null;
+		returnedCount++;
+		return t;
+	}
+
+	/** Returns the next date/time as the seconds from the epoch of 1970-01-01T00:00:00Z
+	 * @see DateTimeUtilities#toEpochSecond(Temporal) */
+	public long nextEpochSecond()
+	{
+		return DateTimeUtilities.toEpochSecond(next());
+	}
+
+	/** Returns a cursor of the remaining date/times as seconds from the epoch of 1970-01-01T00:00:00Z, without boxing.
+	 * The cursor shares its position with this iterator. */
+	public PrimitiveIterator.OfLong epochSeconds()
+	{
+		return new PrimitiveIterator.OfLong()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return RecurrenceIterator.this.hasNext();
+			}
+
+			@Override
+			public long nextLong()
+			{
+				return nextEpochSecond();
+			}
+		};
+	}
+
+	/** Returns an ordered Spliterator of the remaining date/times.  It shares its position with this iterator. */
+	public Spliterator<Temporal> spliterator()
+	{
+		long estimatedSize = (count >= 0) ? count - returnedCount : Long.MAX_VALUE;
+		return new Spliterators.AbstractSpliterator<Temporal>(estimatedSize, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE)
+		{
+			@Override
+			public boolean tryAdvance(Consumer<? super Temporal> action)
+			{
+				if (hasNext())
+				{
+					action.accept(next());
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/* Returns next date/time, making more periods as needed, or null if there are no more */
+	private Temporal findNext()
+	{
+		if ((count >= 0) && (returnedCount >= count))
+		{
+			isDone = true;
+			return null;
+		}
+		while (true)
+		{
+			while (periodIndex < periodRecurrences.size())
+			{
+				Temporal t = periodRecurrences.get(periodIndex++);
+				// must filter out too early recurrences
+				if (DateTimeUtilities.isBefore(t, start)) continue;
+				if ((until != null) && DateTimeUtilities.isAfter(t, until))
+				{
+					isDone = true;
+					return null;
+				}
+				return t;
+			}
+			makeNextPeriod();
+		}
+	}
+
+	/* Skip the periods before target, returns the number of periods skipped */
+	private long skipPeriods(RecurrencePlan plan, Temporal target)
+	{
+		long periods = plan.frequency().periodsBetween(start, target, interval);
+		if (periods == 0)
+		{
+			return 0;
+		}
+		if (count >= 0)
+		{
+			int occurrencesPerPeriod = plan.occurrencesPerPeriod(! start.isSupported(ChronoField.HOUR_OF_DAY));
+			if ((occurrencesPerPeriod < 0) || (periods <= COUNTED_PERIODS))
+			{
+				return 0;
+			}
+			long skippedCount = 0;
+			for (int i=0; i<COUNTED_PERIODS; i++)
+			{
+				makeNextPeriod();
+				for (Temporal t : periodRecurrences)
+				{
+					if (! DateTimeUtilities.isBefore(t, start)) skippedCount++;
+				}
+			}
+			skippedCount += (periods - COUNTED_PERIODS) * occurrencesPerPeriod;
+			if (skippedCount >= count)
+			{
+				isDone = true;
+				return periods;
+			}
+			returnedCount = (int) skippedCount;
+			periodRecurrences.clear();
+			periodIndex = 0;
+		}
+		periodStart = plan.frequency().periodStart(start, periods, interval);
+		return periods;
+	}
+
+	/* Apply the compiled BYxxx rules to the next frequency date/time */
+	private void makeNextPeriod()
+	{
+		periodRecurrences.clear();
+		periodRecurrences.add(periodStart);
+		for (int i=0; i<steps.length; i++)
+		{
+			workRecurrences.clear();
+			steps[i].apply(periodRecurrences, workRecurrences, start);
+			List<Temporal> swap = periodRecurrences;
+			periodRecurrences = workRecurrences;
+			workRecurrences = swap;
+		}
+		periodIndex = 0;
+		periodStart = periodStart.plus(interval, frequencyUnit);
+	}
+}
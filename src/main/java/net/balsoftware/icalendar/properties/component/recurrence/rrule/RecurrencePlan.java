@@ -0,0 +1,165 @@
+package net.balsoftware.icalendar.properties.component.recurrence.rrule;
+
+import java.time.DayOfWeek;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.util.List;
+
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByHour;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMinute;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonth;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonthDay;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRule;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleAbstract;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.BySecond;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByYearDay;
+
+/**
+ * <p>Immutable expansion plan compiled from a {@link RecurrenceRuleValue}.  It contains the FREQ ChronoUnit, INTERVAL,
+ * COUNT and UNTIL, and one {@link Step} for each BYxxx rule, in the order required by RFC 5545.  Each step is made by
+ * {@link ByRule#compile(ChronoUnit, DayOfWeek)} for the ChronoUnit of the modification before it and the WKST,
+ * so work that doesn't depend on the date/time being expanded, such as validating values, making {@link java.time.temporal.WeekFields}
+ * and resolving BYMONTHDAY, BYWEEKNO and BYYEARDAY values for each kind of month or year, is done once.</p>
+ *
+ * <p>The plan is cached by the rule, see {@link RecurrenceRuleValue#plan()}, and is discarded when any of the rule's
+ * parts are changed through their setters.  Because a plan is immutable it can be used by many {@link RecurrenceIterator}s
+ * on many threads at once.</p>
+ *
+ * @author David Bal
+ * @see RecurrenceIterator
+ */
+public final class RecurrencePlan
+{
+	/** A BYxxx rule compiled for one ChronoUnit and WKST */
+	@FunctionalInterface
+	public interface Step
+	{
+		/**
+		 * Apply rule to all the date/times of one frequency period, adding the resulting date/times to outList
+		 *
+		 * @param inList - date/times of the period made by the frequency and earlier steps
+		 * @param outList - empty list to add resulting date/times to
+		 * @param dateTimeStart - start Temporal (date or date/time)
+		 * @see ByRule#applyToPeriod(List, List, ChronoUnit, Temporal)
+		 */
+		void apply(List<Temporal> inList, List<Temporal> outList, Temporal dateTimeStart);
+	}
+
+	private final FrequencyType frequency;
+	/** FREQ value */
+	FrequencyType frequency() { return frequency; }
+
+	private final ChronoUnit frequencyUnit;
+	/** ChronoUnit of the FREQ rule part */
+	ChronoUnit frequencyUnit() { return frequencyUnit; }
+
+	private final int interval;
+	/** INTERVAL value, or the default of 1 */
+	int interval() { return interval; }
+
+	private final Step[] steps;
+	/** Compiled BYxxx rules, in the order they are applied */
+	Step[] steps() { return steps; }
+
+	private final int count;
+	/** COUNT value, or -1 if there is no COUNT */
+	int count() { return count; }
+
+	private final Temporal until;
+	/** UNTIL value, or null if there is no UNTIL or there is a COUNT */
+	Temporal until() { return until; }
+
+	private final int occurrencesPerPeriod;
+	private final int occurrencesPerPeriodForDate;
+	/**
+	 * Number of date/times the steps make from every frequency period, or -1 if it depends on the period (e.g.
+	 * the number of Mondays in a month).  Used to skip periods of a rule with a COUNT without expanding them.
+	 * Periods near DTSTART can make fewer recurrences, because date/times before DTSTART are removed.
+	 *
+	 * @param isDate - true if DTSTART is a date, which the BYHOUR, BYMINUTE and BYSECOND rules ignore
+	 */
+	int occurrencesPerPeriod(boolean isDate) { return isDate ? occurrencesPerPeriodForDate : occurrencesPerPeriod; }
+
+    /*
+     * CONSTRUCTOR
+     */
+	private RecurrencePlan(RecurrenceRuleValue rule)
+	{
+		frequency = rule.getFrequency().getValue();
+		frequencyUnit = frequency.getChronoUnit();
+		interval = (rule.getInterval() == null) ? Interval.DEFAULT_INTERVAL : rule.getInterval().getValue();
+		DayOfWeek weekStart = (rule.getWeekStart() == null) ? WeekStart.DEFAULT_WEEK_START : rule.getWeekStart().getValue();
+
+		ByRule<?>[] byRules = (rule.getByRules() == null) ? new ByRule<?>[0] : rule.getByRules()
+				.stream()
+				.sorted()
+				.toArray(size -> new ByRule<?>[size]);
+		steps = new Step[byRules.length];
+		ChronoUnit chronoUnit = frequencyUnit;
+		int occurrences = 1;
+		int occurrencesForDate = 1;
+		for (int i=0; i<byRules.length; i++)
+		{
+			steps[i] = byRules[i].compile(chronoUnit, weekStart);
+			int ruleOccurrences = occurrences(byRules[i], chronoUnit);
+			boolean isTimeRule = (byRules[i] instanceof ByHour) || (byRules[i] instanceof ByMinute) || (byRules[i] instanceof BySecond);
+			occurrences = ((occurrences < 0) || (ruleOccurrences < 0)) ? -1 : occurrences * ruleOccurrences;
+			occurrencesForDate = ((occurrencesForDate < 0) || (ruleOccurrences < 0)) ? -1 : occurrencesForDate * (isTimeRule ? 1 : ruleOccurrences);
+			chronoUnit = ((ByRuleAbstract<?, ?>) byRules[i]).elementType.getChronoUnit();
+		}
+		occurrencesPerPeriod = occurrences;
+		occurrencesPerPeriodForDate = occurrencesForDate;
+
+		count = (rule.getCount() == null) ? -1 : rule.getCount().getValue();
+		until = ((rule.getCount() == null) && (rule.getUntil() != null)) ? rule.getUntil().getValue() : null;
+	}
+
+	/*
+	 * Number of date/times byRule makes from each date/time for the ChronoUnit, or -1 if it depends on the date/time.
+	 * Filters, and expansions by values that aren't in every month or year, depend on the date/time.
+	 */
+	private static int occurrences(ByRule<?> byRule, ChronoUnit chronoUnit)
+	{
+		int size = ((List<?>) byRule.getValue()).size();
+		if (byRule instanceof ByMonth)
+		{
+			return (chronoUnit == ChronoUnit.YEARS) ? size : -1;
+		} else if (byRule instanceof ByMonthDay)
+		{
+			boolean isInEveryMonth = ((ByMonthDay) byRule).getValue()
+					.stream()
+					.allMatch(d -> Math.abs(d) <= 28);
+			if (! isInEveryMonth)
+			{
+				return -1;
+			}
+			return (chronoUnit == ChronoUnit.YEARS) ? 12 * size : (chronoUnit == ChronoUnit.MONTHS) ? size : -1;
+		} else if (byRule instanceof ByYearDay)
+		{
+			boolean isInEveryYear = ((ByYearDay) byRule).getValue()
+					.stream()
+					.allMatch(d -> Math.abs(d) <= 365);
+			return ((chronoUnit == ChronoUnit.YEARS) && isInEveryYear) ? size : -1;
+		} else if (byRule instanceof ByDay)
+		{
+			return (chronoUnit == ChronoUnit.WEEKS) ? size : -1;
+		} else if (byRule instanceof ByHour)
+		{
+			return (chronoUnit.compareTo(ChronoUnit.DAYS) >= 0) ? size : -1;
+		} else if (byRule instanceof ByMinute)
+		{
+			return (chronoUnit.compareTo(ChronoUnit.HOURS) >= 0) ? size : -1;
+		} else if (byRule instanceof BySecond)
+		{
+			return (chronoUnit.compareTo(ChronoUnit.MINUTES) >= 0) ? size : -1;
+		}
+		return -1; // BYWEEKNO and BYSETPOS
+	}
+
+	/** Compile the rule into a new plan */
+	static RecurrencePlan compile(RecurrenceRuleValue rule)
+	{
+		return new RecurrencePlan(rule);
+	}
+}
@@ -1,10 +1,6 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule;
 
-import java.lang.reflect.Method;
 import java.time.DayOfWeek;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,16 +9,15 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.function.Consumer;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.VChild;
 import net.balsoftware.icalendar.VParent;
 import net.balsoftware.icalendar.VParentBase;
+import net.balsoftware.icalendar.content.ChildAccessor;
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRule;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Count;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Frequency;
@@ -41,9 +36,9 @@ import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByR
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleAbstract;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.BySecond;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByYearDay;
+import net.balsoftware.icalendar.utilities.ContentLineTokenizer;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 import net.balsoftware.icalendar.utilities.ICalendarUtilities;
-import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
 
 /**
  * RRULE
@@ -320,9 +315,9 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
      * @see net.balsoftware.icalendar.VParentBase#getSetter(net.balsoftware.icalendar.VChild)
      */
 	@Override
-	protected Method getSetter(VChild child)
+	protected ChildAccessor getSetter(VChild child)
 	{
-		Method setter = getSetters().get(child.getClass());
+		ChildAccessor setter = getSetters().get(child.getClass());
 		if ((setter == null) && (ByRule.class.isAssignableFrom(child.getClass())))
 		{
 			setter = getSetters().get(ByRule.class);
@@ -330,9 +325,9 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
 		return setter;
 	}
 	@Override
-	protected Method getGetter(VChild child)
+	protected ChildAccessor getGetter(VChild child)
 	{
-		Method getter = getGetters().get(child.getClass());
+		ChildAccessor getter = getGetters().get(child.getClass());
 		if ((getter == null) && (ByRule.class.isAssignableFrom(child.getClass())))
 		{
 			getter = getGetters().get(ByRule.class);
@@ -358,15 +353,20 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     
     /** Parse component from content line */
     @Override
-    protected List<Message> parseContent(String contentLine)
+    protected List<Message> parseContent(String contentLine, ParseOptions options)
     {
     	List<Message> messages = new ArrayList<>();
-    	ICalendarUtilities.parseInlineElementsToListPair(contentLine)
-    		.stream()
-    		.forEach(entry -> processInLineChild(messages, entry.getKey(), entry.getValue(), RRulePart.class));
+    	ICalendarUtilities.parseInlineElements(contentLine, RRULE_PART_NAMES,
+    			(name, value) -> processInLineChild(messages, name, value, RRulePart.class, options));
         return messages;
     }
 
+    // finds rule part names in content lines without making a String
+    private static final ContentLineTokenizer.Names RRULE_PART_NAMES = new ContentLineTokenizer.Names(Arrays
+    		.stream(RRuleElement.values())
+    		.map(v -> v.toString())
+    		.collect(Collectors.toList()));
+
     /**
      * STREAM RECURRENCES
      * 
@@ -381,43 +381,67 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
      */
     public Stream<Temporal> streamRecurrences(Temporal start)
     {
-        int interval = (getInterval() == null) ? Interval.DEFAULT_INTERVAL : getInterval().getValue();
-        Stream<Temporal> frequencyStream = getFrequency().streamRecurrences(start, interval);
-        
-        Stream<Temporal> recurrenceStream = frequencyStream
-                .flatMap(value ->
-                {
-                    // process byRules
-                    chronoUnit = getFrequency().getValue().getChronoUnit(); // initial chronoUnit from Frequency
-                    myStream = Arrays.asList(value).stream();
-                    if (getByRules() != null)
-                    {
-	                    getByRules().stream()
-	                            .sorted()
-	                            .forEach(rule ->
-	                            {
-	                                myStream = rule.streamRecurrences(myStream, chronoUnit, start);
-//	                                chronoUnit = RRuleElement.fromClass(rule.getClass()).getChronoUnit();
-	                                chronoUnit = ((ByRuleAbstract<?, ?>) rule).elementType.getChronoUnit();
-	                            });
-                    }
-                    // must filter out too early recurrences
-                    return myStream.filter(r -> ! DateTimeUtilities.isBefore(r, start));
-                });
-        
-        if (getCount() != null)
-        {
-            return recurrenceStream.limit(getCount().getValue());
-        } else if (getUntil() != null)
+        return StreamSupport.stream(iterator(start).spliterator(), false);
+    }
+    
+    /**
+     * ITERATOR
+     * 
+     * Iterator of the same start date/times as {@link #streamRecurrences(Temporal)}.  It also provides
+     * the start date/times as a {@link Spliterator} and as epoch-seconds.
+     * 
+     * Each iterator has its own expansion state, so one rule can be iterated on many threads at once,
+     * as long as the rule isn't changed.
+     * 
+     * @param start - starting point of iterator (MUST be a valid occurrence date/time)
+     * @return
+     */
+    public RecurrenceIterator iterator(Temporal start)
+    {
+        return new RecurrenceIterator(plan(), start);
+    }
+    
+    /**
+     * Iterator of the start date/times of the series beginning at dateTimeStart, that skips the frequency periods
+     * before target when their starts can be computed directly, instead of expanding them.  For a rule with a COUNT,
+     * periods are only skipped when each makes the same number of recurrences.  The remaining date/times are the same
+     * as those of {@link #iterator(Temporal)}, and can include some date/times before target.
+     * 
+     * @param dateTimeStart - first date/time of the series (DTSTART)
+     * @param target - date/time to skip towards
+     * @return
+     * @see RecurrenceIterator#skippedPeriods()
+     */
+    public RecurrenceIterator iterator(Temporal dateTimeStart, Temporal target)
+    {
+        return new RecurrenceIterator(plan(), dateTimeStart, target);
+    }
+    
+    /**
+     * Returns the compiled form of this rule used to make recurrences.  The plan is made on first use
+     * and kept until a rule part is changed.  Changes made by modifying a BYxxx value list in place
+     * (e.g. adding to {@code getByRules().get(0).getValue()}) are not detected.
+     * 
+     * @return - immutable plan of this rule
+     */
+    public RecurrencePlan plan()
+    {
+        RecurrencePlan myPlan = plan;
+        if (myPlan == null)
         {
-            ZoneId zone = (start instanceof ZonedDateTime) ? ((ZonedDateTime) start).getZone() : null;
-            Temporal convertedUntil = DateTimeType.of(start).from(getUntil().getValue(), zone);
-            return takeWhile(recurrenceStream, a -> ! DateTimeUtilities.isAfter(a, convertedUntil));
+            myPlan = RecurrencePlan.compile(this);
+            plan = myPlan;
         }
-        return recurrenceStream;
+        return myPlan;
+    }
+    private volatile RecurrencePlan plan;
+    
+    @Override
+    protected void contentChanged()
+    {
+        plan = null;
+        super.contentChanged();
     }
-    private ChronoUnit chronoUnit; // must be field instead of local variable due to use in lambda expression
-    private Stream<Temporal> myStream; // must be field instead of local variable due to use in lambda expression
     
     /**
      * Determines if recurrence set is goes on forever
@@ -430,33 +454,8 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     }
     
     
-    // takeWhile - From http://stackoverflow.com/questions/20746429/limit-a-stream-by-a-predicate
-    static <T> Spliterator<T> takeWhile(Spliterator<T> splitr, Predicate<? super T> predicate)
-    {
-      return new Spliterators.AbstractSpliterator<T>(splitr.estimateSize(), 0) {
-        boolean stillGoing = true;
-        @Override public boolean tryAdvance(Consumer<? super T> consumer) {
-          if (stillGoing) {
-            boolean hadNext = splitr.tryAdvance(elem -> {
-              if (predicate.test(elem)) {
-                consumer.accept(elem);
-              } else {
-                stillGoing = false;
-              }
-            });
-            return hadNext && stillGoing;
-          }
-          return false;
-        }
-      };
-    }
-
-    static <T> Stream<T> takeWhile(Stream<T> stream, Predicate<? super T> predicate) {
-       return StreamSupport.stream(takeWhile(stream.spliterator(), predicate), false);
-    }
-    
     @Override
-    public String toString()
+    protected String makeContent()
     {
         return childrenUnmodifiable().stream()
                 .map(c -> c.toString())
@@ -494,26 +493,20 @@ public class RecurrenceRuleValue extends VParentBase<RecurrenceRuleValue> implem
     }
     
 	@Override
-	protected boolean checkChild(List<Message> messages, String content, String elementName, VChild newChild)
+	protected boolean checkChild(List<Message> messages, String content, String elementName, VChild newChild, ParseOptions options)
 	{
-		boolean isSuperOk = super.checkChild(messages, content, elementName, newChild);
+		boolean isSuperOk = super.checkChild(messages, content, elementName, newChild, options);
 		if (newChild instanceof ByRule)
 		{
-			List<ByRule<?>> byRules = (getByRules() == null) ? new ArrayList<>() : new ArrayList<>(getByRules());
-			byRules.add((ByRule<?>) newChild);
-//			System.out.println("byRules:" + byRules + " " + newChild);
-			List<Message> duplicateByRuleMessages = byRules.stream()
-				.collect(Collectors.groupingBy(ByRule::getClass, Collectors.counting()))
-				.entrySet()
-				.stream()
-				.filter(e -> e.getValue() > 1)
-				.map(e -> new Message(this,
-						newChild.getClass().getSimpleName() + " can only occur once in a calendar component.",
-						MessageEffect.MESSAGE_ONLY))
-				.collect(Collectors.toList());
-			boolean isDuplicateByRulePresent = duplicateByRuleMessages.isEmpty();
-			messages.addAll(duplicateByRuleMessages);
-			return isSuperOk && isDuplicateByRulePresent;
+			boolean isDuplicateByRule = (getByRules() != null) && getByRules()
+					.stream()
+					.anyMatch(r -> r.getClass() == newChild.getClass());
+			if (isDuplicateByRule)
+			{
+				addMessage(messages, options, this, MessageEffect.MESSAGE_ONLY,
+						() -> newChild.getClass().getSimpleName() + " can only occur once in a calendar component.");
+			}
+			return isSuperOk && ! isDuplicateByRule;
 		}
 		return isSuperOk;
 	}
@@ -5,6 +5,7 @@ import java.time.temporal.Temporal;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.Until;
@@ -78,7 +79,7 @@ public class Until extends RRulePartBase<Temporal, Until>
     }
 
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         setValue(DateTimeUtilities.temporalFromString(valueString));
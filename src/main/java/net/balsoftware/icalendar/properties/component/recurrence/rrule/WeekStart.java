@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.WeekStart;
@@ -53,7 +54,7 @@ public class WeekStart extends RRulePartBase<DayOfWeek, WeekStart>
     }
 
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         DayOfWeek dayOfWeek = Arrays.stream(DayOfWeek.values())
@@ -20,9 +20,10 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.WeekStart;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
@@ -63,6 +64,7 @@ import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
 {   
     private final static int MIN_DAYS_IN_WEEK = 4;
+    private final static Pattern DAY_PAIR_PATTERN = Pattern.compile("(-?[0-9]+)?([A-Z]{2})");
     /** Start of week - default start of week is Monday */
     private DayOfWeek getWeekStart()
     {
@@ -140,6 +142,7 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
         if (! isPresent)
         {
             getValue().add(new ByDayPair(dayOfWeek, 0));
+            valueChanged();
             return true;
         }
         return false;
@@ -159,6 +162,7 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
         if (p != null)
         {
             getValue().remove(p);
+            valueChanged();
             return true;
         }
         return false;
@@ -183,6 +187,7 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
             int ordinal = p.getOrdinal();
             getValue().remove(p);
             getValue().add(new ByDayPair(replacemenDayOfWeekt, ordinal));
+            valueChanged();
             return true;
         }
         return false;
@@ -212,7 +217,7 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal date, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         /* TODO - according to iCalendar standard a ByDay rule doesn't need any specified days - should use day from DTSTART,
          * this is not implemented yet.  When implemented this line should be removed. */
@@ -222,109 +227,168 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
         case MINUTES:
         case SECONDS:
         case DAYS:
-        {
-            boolean isValid = getValue().stream().allMatch(v -> v.getOrdinal() == 0);
-            if (! isValid)
+        { // filter out all but qualifying days
+            checkNoOrdinals(chronoUnit, "");
+            DayOfWeek myDayOfWeek = DayOfWeek.from(date);
+            for (ByDayPair byDayPair : getValue())
             {
-                throw new IllegalArgumentException("Numberic ordinal day values can't be set for FREQ as" + chronoUnit);
-            }
-            return inStream.filter(t ->
-            { // filter out all but qualifying days
-                DayOfWeek myDayOfWeek = DayOfWeek.from(t);
-                for (ByDayPair byDayPair : getValue())
+                if (byDayPair.dayOfWeek == myDayOfWeek)
                 {
-                    if (byDayPair.dayOfWeek == myDayOfWeek) return true;
+                    outList.add(date);
+                    return;
                 }
-                return false;
-            });
+            }
+            return;
         }
         case WEEKS:
-        {
-            boolean isValid = getValue().stream().allMatch(v -> v.getOrdinal() == 0);
-            if (! isValid)
-            {
-                throw new IllegalArgumentException("Numberic ordinal day values can't be set for FREQ as " + chronoUnit);
-            }
+        { // Expand to be byDayPairs days in current week
+            checkNoOrdinals(chronoUnit, " ");
             WeekFields weekFields = WeekFields.of(getWeekStart(), MIN_DAYS_IN_WEEK);
-            TemporalField dayOfWeekField = weekFields.dayOfWeek();
-            return inStream.flatMap(t -> 
-            { // Expand to be byDayPairs days in current week
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
-                {
-                    int defaultFirstDayOfWeekValue = DayOfWeek.MONDAY.getValue();
-                    int myFirstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
-                    int dayOfWeekAdjustment = defaultFirstDayOfWeekValue - myFirstDayOfWeekValue + DayOfWeek.values().length;
-                    int dayOfWeekValue = byDayPair.dayOfWeek.getValue() + dayOfWeekAdjustment;
-                    dayOfWeekValue = (dayOfWeekValue > 7) ? dayOfWeekValue-7 : dayOfWeekValue;
-                    Temporal newTemporal = t.with(dayOfWeekField, dayOfWeekValue);
-                    dates.add(newTemporal);
-                }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            });
+            addDaysOfWeek(date, weekFields.dayOfWeek(), dayOfWeekValues(weekFields), outList);
+            return;
         }
         case MONTHS:
-            return inStream.flatMap(date -> 
+        {
+            int firstIndex = outList.size();
+            Month myMonth = Month.from(date);
+            for (ByDayPair byDayPair : getValue())
             {
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
-                {
-                    if (byDayPair.ordinal == 0)
-                    { // add every matching day of week in month
-                        Month myMonth = Month.from(date);
-                        for (int weekNum=1; weekNum<=5; weekNum++)
-                        {
-                            Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(weekNum, byDayPair.dayOfWeek));
-                            if (Month.from(newTemporal) == myMonth)
-                            {
-                                dates.add(newTemporal);
-                            }
-                        }
-                    } else
+                if (byDayPair.ordinal == 0)
+                { // add every matching day of week in month
+                    for (int weekNum=1; weekNum<=5; weekNum++)
                     {
-                        Month myMonth = Month.from(date);
-                        Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(byDayPair.ordinal, byDayPair.dayOfWeek));
-
+                        Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(weekNum, byDayPair.dayOfWeek));
                         if (Month.from(newTemporal) == myMonth)
                         {
-                            dates.add(newTemporal);
+                            outList.add(newTemporal);
                         }
                     }
+                } else
+                {
+                    Temporal newTemporal = date.with(TemporalAdjusters.dayOfWeekInMonth(byDayPair.ordinal, byDayPair.dayOfWeek));
+                    if (Month.from(newTemporal) == myMonth)
+                    {
+                        outList.add(newTemporal);
+                    }
                 }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            });
+            }
+            if (getValue().size() > 1) outList.subList(firstIndex, outList.size()).sort(DateTimeUtilities.TEMPORAL_COMPARATOR);
+            return;
+        }
         case YEARS:
-            return inStream.flatMap(date -> 
+        {
+            int firstIndex = outList.size();
+            Year myYear = Year.from(date);
+            for (ByDayPair byDayPair : getValue())
             {
-                List<Temporal> dates = new ArrayList<>();
-                for (ByDayPair byDayPair : getValue())
-                {
-                    if (byDayPair.ordinal == 0)
-                    { // add every matching day of week in year
-                        Temporal newDate = date
-                                .with(TemporalAdjusters.firstDayOfYear())
-                                .with(TemporalAdjusters.nextOrSame(byDayPair.dayOfWeek));
-                        while (Year.from(newDate).equals(Year.from(date)))
-                        {
-                            dates.add(newDate);
-                            newDate = newDate.plus(1, ChronoUnit.WEEKS);
-                        }
-                    } else
-                    { // if never any ordinal numbers then sort is not required
-                        Temporal newDate = date.with(dayOfWeekInYear(byDayPair.ordinal, byDayPair.dayOfWeek));
-                        dates.add(newDate);
+                if (byDayPair.ordinal == 0)
+                { // add every matching day of week in year
+                    Temporal newDate = date
+                            .with(TemporalAdjusters.firstDayOfYear())
+                            .with(TemporalAdjusters.nextOrSame(byDayPair.dayOfWeek));
+                    while (Year.from(newDate).equals(myYear))
+                    {
+                        outList.add(newDate);
+                        newDate = newDate.plus(1, ChronoUnit.WEEKS);
                     }
+                } else
+                { // if never any ordinal numbers then sort is not required
+                    Temporal newDate = date.with(dayOfWeekInYear(byDayPair.ordinal, byDayPair.dayOfWeek));
+                    outList.add(newDate);
                 }
-                if (getValue().size() > 1) Collections.sort(dates, DateTimeUtilities.TEMPORAL_COMPARATOR);
-                return dates.stream();
-            }); 
+            }
+            if (getValue().size() > 1) outList.subList(firstIndex, outList.size()).sort(DateTimeUtilities.TEMPORAL_COMPARATOR);
+            return;
+        }
         default:
             throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit);
         }
     }
 
+    /** For DAILY and shorter frequencies the matching days of week, and for WEEKLY the WeekFields and
+     * day of week values, are found once */
+    @Override
+    public RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart)
+    {
+        switch (chronoUnit)
+        {
+        case HOURS:
+        case MINUTES:
+        case SECONDS:
+        case DAYS:
+        {
+            checkNoOrdinals(chronoUnit, "");
+            boolean[] isMatchingDayOfWeek = new boolean[8];
+            getValue().forEach(p -> isMatchingDayOfWeek[p.dayOfWeek.getValue()] = true);
+            return (inList, outList, dateTimeStart) ->
+            { // filter out all but qualifying days
+                for (int i=0; i<inList.size(); i++)
+                {
+                    Temporal date = inList.get(i);
+                    if (isMatchingDayOfWeek[date.get(DAY_OF_WEEK)])
+                    {
+                        outList.add(date);
+                    }
+                }
+            };
+        }
+        case WEEKS:
+        {
+            checkNoOrdinals(chronoUnit, " ");
+            WeekFields weekFields = WeekFields.of(weekStart, MIN_DAYS_IN_WEEK);
+            TemporalField dayOfWeekField = weekFields.dayOfWeek();
+            int[] dayOfWeekValues = dayOfWeekValues(weekFields);
+            return (inList, outList, dateTimeStart) ->
+            {
+                for (int i=0; i<inList.size(); i++)
+                {
+                    addDaysOfWeek(inList.get(i), dayOfWeekField, dayOfWeekValues, outList);
+                }
+            };
+        }
+        default:
+            return super.compile(chronoUnit, weekStart);
+        }
+    }
+    
+    /* Ordinals are only allowed for MONTHLY and YEARLY frequencies */
+    private void checkNoOrdinals(ChronoUnit chronoUnit, String separator)
+    {
+        for (ByDayPair byDayPair : getValue())
+        {
+            if (byDayPair.ordinal != 0)
+            {
+                throw new IllegalArgumentException("Numberic ordinal day values can't be set for FREQ as" + separator + chronoUnit);
+            }
+        }
+    }
+    
+    /* Values of the days of week of the WeekFields' dayOfWeek field, in value order */
+    private int[] dayOfWeekValues(WeekFields weekFields)
+    {
+        int defaultFirstDayOfWeekValue = DayOfWeek.MONDAY.getValue();
+        int myFirstDayOfWeekValue = weekFields.getFirstDayOfWeek().getValue();
+        int dayOfWeekAdjustment = defaultFirstDayOfWeekValue - myFirstDayOfWeekValue + DayOfWeek.values().length;
+        return getValue()
+                .stream()
+                .mapToInt(byDayPair ->
+                {
+                    int dayOfWeekValue = byDayPair.dayOfWeek.getValue() + dayOfWeekAdjustment;
+                    return (dayOfWeekValue > 7) ? dayOfWeekValue-7 : dayOfWeekValue;
+                })
+                .toArray();
+    }
+    
+    private static void addDaysOfWeek(Temporal date, TemporalField dayOfWeekField, int[] dayOfWeekValues, List<Temporal> outList)
+    {
+        int firstIndex = outList.size();
+        for (int dayOfWeekValue : dayOfWeekValues)
+        {
+            outList.add(date.with(dayOfWeekField, dayOfWeekValue));
+        }
+        if (dayOfWeekValues.length > 1) outList.subList(firstIndex, outList.size()).sort(DateTimeUtilities.TEMPORAL_COMPARATOR);
+    }
+    
     /** Finds nth occurrence of a week in a year.
      * Based on TemporalAdjusters.dayOfWeekInMonth */
     private TemporalAdjuster dayOfWeekInYear(int ordinal, DayOfWeek dayOfWeek)
@@ -396,30 +460,16 @@ public class ByDay extends ByRuleAbstract<ByDayPair, ByDay>
     }
     
     @Override
-    protected List<Message> parseContent(String dayPairs)
+    protected List<Message> parseContent(String dayPairs, ParseOptions options)
     {
     	String valueString = extractValue(dayPairs);
         List<ByDayPair> dayPairsList = new ArrayList<ByDayPair>();
-        Pattern p = Pattern.compile("(-?[0-9]+)?([A-Z]{2})");
-        Matcher m = p.matcher(valueString);
+        Matcher m = DAY_PAIR_PATTERN.matcher(valueString);
         while (m.find())
         {
-            String token = m.group();
-            if (token.matches("^(-?[0-9]+.*)")) // start with ordinal number
-            {
-                Matcher m2 = p.matcher(token);
-                if (m2.find())
-                {
-//                    DayOfWeek dayOfWeek = ICalendarDayOfWeek.valueOf(m2.group(2)).getDayOfWeek();
-                    DayOfWeek dayOfWeek = DateTimeUtilities.dayOfWeekFromAbbreviation(m2.group(2));
-                    int ordinal = Integer.parseInt(m2.group(1));
-                    dayPairsList.add(new ByDayPair(dayOfWeek, ordinal));
-                }
-            } else
-            { // has no ordinal number
-                DayOfWeek dayOfWeek = DateTimeUtilities.dayOfWeekFromAbbreviation(token);
-                dayPairsList.add(new ByDayPair(dayOfWeek, 0));
-            }
+            DayOfWeek dayOfWeek = DateTimeUtilities.dayOfWeekFromAbbreviation(m.group(2));
+            int ordinal = (m.group(1) == null) ? 0 : Integer.parseInt(m.group(1)); // start with ordinal number
+            dayPairsList.add(new ByDayPair(dayOfWeek, ordinal));
         }
         setValue(dayPairsList);
 //        return errors()  // Too slow - is it OK to ignore?
@@ -3,10 +3,8 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByHour;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -52,7 +50,7 @@ public class ByHour extends ByRuleIntegerAbstract<ByHour>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal d, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.HOUR_OF_DAY))
         {
@@ -61,41 +59,38 @@ public class ByHour extends ByRuleIntegerAbstract<ByHour>
             case HOURS:
             case MINUTES:
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int myHourOfDay = d.get(ChronoField.HOUR_OF_DAY);
-                            for (int hourOfDay : getValue())
-                            {
-                                if (hourOfDay > 0)
-                                {
-                                    if (hourOfDay == myHourOfDay) return true;
-                                }
-                            }
-                            return false;
-                        });
+            { // filter out all but qualifying hours of day
+                int myHourOfDay = d.get(ChronoField.HOUR_OF_DAY);
+                for (int hourOfDay : getValue())
+                {
+                    if (hourOfDay > 0)
+                    {
+                        if (hourOfDay == myHourOfDay)
+                        {
+                            outList.add(d);
+                            return;
+                        }
+                    }
+                }
+                return;
+            }
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int hourOfDay : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.HOUR_OF_DAY, hourOfDay);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+            { // Expand to be include all hours of day
+                for (int hourOfDay : getValue())
+                {
+                    outList.add(d.with(ChronoField.HOUR_OF_DAY, hourOfDay));
+                }
+                return;
+            }
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            outList.add(d); // ignore rule when not supported (RFC 5545 requirement)
         }
     }
     
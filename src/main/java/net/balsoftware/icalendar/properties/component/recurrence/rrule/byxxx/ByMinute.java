@@ -3,10 +3,8 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMinute;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -52,7 +50,7 @@ public class ByMinute extends ByRuleIntegerAbstract<ByMinute>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal d, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.MINUTE_OF_HOUR))
         {
@@ -60,42 +58,39 @@ public class ByMinute extends ByRuleIntegerAbstract<ByMinute>
             {
             case MINUTES:
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int myMinuteOfHour = d.get(ChronoField.MINUTE_OF_HOUR);
-                            for (int minuteOfHour : getValue())
-                            {
-                                if (minuteOfHour > 0)
-                                {
-                                    if (minuteOfHour == myMinuteOfHour) return true;
-                                }
-                            }
-                            return false;
-                        });
+            { // filter out all but qualifying minutes of hour
+                int myMinuteOfHour = d.get(ChronoField.MINUTE_OF_HOUR);
+                for (int minuteOfHour : getValue())
+                {
+                    if (minuteOfHour > 0)
+                    {
+                        if (minuteOfHour == myMinuteOfHour)
+                        {
+                            outList.add(d);
+                            return;
+                        }
+                    }
+                }
+                return;
+            }
             case HOURS:
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int minuteOfHour : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.MINUTE_OF_HOUR, minuteOfHour);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+            { // Expand to be include all minutes of hour
+                for (int minuteOfHour : getValue())
+                {
+                    outList.add(d.with(ChronoField.MINUTE_OF_HOUR, minuteOfHour));
+                }
+                return;
+            }
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            outList.add(d); // ignore rule when not supported (RFC 5545 requirement)
         }
     }
 
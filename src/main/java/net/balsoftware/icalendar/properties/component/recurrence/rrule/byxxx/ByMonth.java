@@ -4,13 +4,12 @@ import static java.time.temporal.ChronoUnit.MONTHS;
 import java.time.Month;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonth;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleAbstract;
@@ -67,7 +66,7 @@ public class ByMonth extends ByRuleAbstract<Month, ByMonth>
     }
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal startTemporal)
+    void apply(Temporal temporal, List<Temporal> outList, ChronoUnit chronoUnit, Temporal startTemporal)
     {
         switch (chronoUnit)
         {
@@ -77,39 +76,36 @@ public class ByMonth extends ByRuleAbstract<Month, ByMonth>
         case DAYS:
         case WEEKS:
         case MONTHS:
-            return inStream.filter(t ->
-            { // filter out all but qualifying months
-                Month myMonth = Month.from(t);
-                for (Month month : getValue())
+        { // filter out all but qualifying months
+            Month myMonth = Month.from(temporal);
+            for (Month month : getValue())
+            {
+                if (month == myMonth)
                 {
-                    if (month == myMonth) return true;
+                    outList.add(temporal);
+                    return;
                 }
-                return false;
-            });
+            }
+            return;
+        }
         case YEARS:
-            return inStream.flatMap(t -> 
-            { // Expand to include matching all matching months
-                List<Temporal> dates = new ArrayList<>();
-                int monthNum = Month.from(t).getValue();
-                for (Month month : getValue())
-                {
-                    int myMonthNum = month.getValue();
-                    int monthShift = myMonthNum - monthNum;
-                    Temporal newTemporal = t.plus(monthShift, MONTHS);
-//                    if (! DateTimeUtilities.isBefore(newTemporal, startTemporal))
-//                    {
-                        dates.add(newTemporal);
-//                    }
-                }
-                return dates.stream();
-            });
+        { // Expand to include matching all matching months
+            int monthNum = Month.from(temporal).getValue();
+            for (Month month : getValue())
+            {
+                int myMonthNum = month.getValue();
+                int monthShift = myMonthNum - monthNum;
+                outList.add(temporal.plus(monthShift, MONTHS));
+            }
+            return;
+        }
         default:
             throw new RuntimeException("Not implemented ChronoUnit: " + chronoUnit); // probably same as DAILY
         }
     }
     
     @Override
-    protected List<Message> parseContent(String content)
+    protected List<Message> parseContent(String content, ParseOptions options)
     {
     	String valueString = extractValue(content);
         Month[] monthArray = Arrays.asList(valueString.split(","))
@@ -1,16 +1,16 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.Year;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonthDay;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities;
@@ -65,7 +65,7 @@ public class ByMonthDay extends ByRuleIntegerAbstract<ByMonthDay>
      * Return stream of valid dates made by rule (infinite if COUNT or UNTIL not present)
      */
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal temporal, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         switch (chronoUnit)
         {
@@ -73,36 +73,39 @@ public class ByMonthDay extends ByRuleIntegerAbstract<ByMonthDay>
         case MINUTES:
         case SECONDS:
         case DAYS:
-            return inStream.filter(d ->
-                    { // filter out all but qualifying days
-                        int myDay = d.get(ChronoField.DAY_OF_MONTH);
-                        int myDaysInMonth = LocalDate.from(d).lengthOfMonth();
-                        for (int day : getValue())
-                        {
-                            if (myDay == day) return true;
-                            // negative daysOfMonth (-3 = 3rd to last day of month)
-                            if ((day < 0) && (myDay == myDaysInMonth + day + 1)) return true;
-                        }
-                        return false;
-                    });
-        case YEARS:
-            return inStream.flatMap(d -> 
-            { // Expand to be daysOfMonth days in current month
-                List<Temporal> dates = new ArrayList<>();
-                for (Month month : Month.values())
+        { // filter out all but qualifying days
+            int myDay = temporal.get(ChronoField.DAY_OF_MONTH);
+            int myDaysInMonth = LocalDate.from(temporal).lengthOfMonth();
+            for (int day : getValue())
+            {
+                // negative daysOfMonth (-3 = 3rd to last day of month)
+                if ((myDay == day) || ((day < 0) && (myDay == myDaysInMonth + day + 1)))
                 {
-                    Temporal monthAdjustedTemporal = d.with(ChronoField.MONTH_OF_YEAR, month.getValue());
-                    dates.addAll(extracted(monthAdjustedTemporal, dateTimeStart));
+                    outList.add(temporal);
+                    return;
                 }
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
+            }
+            return;
+        }
+        case YEARS:
+        { // Expand to be daysOfMonth days in current month
+            int firstIndex = outList.size();
+            int year = temporal.get(ChronoField.YEAR);
+            for (Month month : Month.values())
+            {
+                Temporal monthAdjustedTemporal = temporal.with(ChronoField.MONTH_OF_YEAR, month.getValue());
+                addMonthDays(monthAdjustedTemporal, resolveMonthDays(lengthOfMonth(year, month), lengthOfPreviousMonth(year, month)), outList);
+            }
+            outList.subList(firstIndex, outList.size()).sort(DateTimeUtilities.TEMPORAL_COMPARATOR);
+            return;
+        }
         case MONTHS:
-            return inStream.flatMap(d -> 
-            { // Expand to be daysOfMonth days in current month
-                List<Temporal> dates = new ArrayList<>();
-                dates.addAll(extracted(d, dateTimeStart));
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
+        { // Expand to be daysOfMonth days in current month
+            int year = temporal.get(ChronoField.YEAR);
+            Month month = Month.from(temporal);
+            addMonthDays(temporal, resolveMonthDays(lengthOfMonth(year, month), lengthOfPreviousMonth(year, month)), outList);
+            return;
+        }
         case WEEKS:
             throw new IllegalArgumentException(name().toString() + " is not available for " + chronoUnit + " frequency."); // Not available
         default:
@@ -110,42 +113,102 @@ public class ByMonthDay extends ByRuleIntegerAbstract<ByMonthDay>
         }
     }
 
-    /* process dayOfMonth for YEARS and MONTHS */
-    private List<Temporal> extracted(Temporal initialTemporal, Temporal dateTimeStart)
+    /** For FREQ=YEARLY and FREQ=MONTHLY, resolved days of month are looked up from a table for each combination of month length
+     * and previous month length */
+    @Override
+    public RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart)
     {
-        List<Temporal> dates = new ArrayList<>();
-        for (int dayOfMonth : getValue())
-        {           
-            final Temporal correctMonthTemporal = (dayOfMonth > 0) ? initialTemporal : initialTemporal.minus(1, ChronoUnit.MONTHS);
-            int daysInMonth = (int) ChronoUnit.DAYS.between(correctMonthTemporal.with(TemporalAdjusters.firstDayOfMonth()),
-                                                            correctMonthTemporal.with(TemporalAdjusters.firstDayOfNextMonth()));
-            int finalDayOfMonth = 0;
-            if (dayOfMonth > 0)
+        if ((chronoUnit != ChronoUnit.YEARS) && (chronoUnit != ChronoUnit.MONTHS))
+        {
+            return super.compile(chronoUnit, weekStart);
+        }
+        int[][][] monthDaysTable = new int[4][4][];
+        for (int i=0; i<4; i++)
+        {
+            for (int j=0; j<4; j++)
             {
-                if (dayOfMonth <= daysInMonth)
+                monthDaysTable[i][j] = resolveMonthDays(i + 28, j + 28);
+            }
+        }
+        if (chronoUnit == ChronoUnit.MONTHS)
+        {
+            return (inList, outList, dateTimeStart) ->
+            {
+                for (int i=0; i<inList.size(); i++)
                 {
-                    finalDayOfMonth = dayOfMonth;
+                    Temporal temporal = inList.get(i);
+                    int year = temporal.get(ChronoField.YEAR);
+                    Month month = Month.from(temporal);
+                    addMonthDays(temporal, monthDaysTable[lengthOfMonth(year, month) - 28][lengthOfPreviousMonth(year, month) - 28], outList);
                 }
-            } else if (dayOfMonth < 0)
+            };
+        }
+        return (inList, outList, dateTimeStart) ->
+        {
+            for (int i=0; i<inList.size(); i++)
             {
-                int newDayOfMonth = daysInMonth + dayOfMonth + 1;
-                if (newDayOfMonth > 0)
+                Temporal temporal = inList.get(i);
+                int firstIndex = outList.size();
+                int year = temporal.get(ChronoField.YEAR);
+                for (Month month : MONTHS)
                 {
-                    finalDayOfMonth = newDayOfMonth;
+                    Temporal monthAdjustedTemporal = temporal.with(ChronoField.MONTH_OF_YEAR, month.getValue());
+                    addMonthDays(monthAdjustedTemporal, monthDaysTable[lengthOfMonth(year, month) - 28][lengthOfPreviousMonth(year, month) - 28], outList);
                 }
-            } else
-            {
-                throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
-            }
-            Temporal newTemporal = (finalDayOfMonth != 0) ? correctMonthTemporal.with(ChronoField.DAY_OF_MONTH, finalDayOfMonth) : null;
-            
-            // ensure day of month hasn't changed.  If it changed the date was invalid and should be ignored.
-            if (newTemporal != null)
-            {
-                dates.add(newTemporal);
+                outList.subList(firstIndex, outList.size()).sort(DateTimeUtilities.TEMPORAL_COMPARATOR);
             }
+        };
+    }
+    private static final Month[] MONTHS = Month.values();
+
+    /*
+     * Resolve days of month, in date order, for a month and its previous month.
+     * Positive result is day of the month, negative result is day of the previous month.
+     * Negative values are counted back from the end of the previous month.
+     */
+    private int[] resolveMonthDays(int daysInMonth, int daysInPreviousMonth)
+    {
+        return getValue()
+                .stream()
+                .mapToInt(dayOfMonth ->
+                {
+                    if (dayOfMonth > 0)
+                    {
+                        return (dayOfMonth <= daysInMonth) ? dayOfMonth : 0;
+                    } else if (dayOfMonth < 0)
+                    {
+                        int newDayOfMonth = daysInPreviousMonth + dayOfMonth + 1;
+                        return (newDayOfMonth > 0) ? -newDayOfMonth : 0;
+                    } else
+                    {
+                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
+                    }
+                })
+                .filter(dayOfMonth -> dayOfMonth != 0)
+                .boxed()
+                .sorted((d1, d2) -> (Integer.signum(d1) == Integer.signum(d2)) ? Math.abs(d1) - Math.abs(d2) : d1 - d2)
+                .mapToInt(d -> d)
+                .toArray();
+    }
+    
+    private static void addMonthDays(Temporal temporal, int[] monthDays, List<Temporal> outList)
+    {
+        for (int dayOfMonth : monthDays)
+        {
+            Temporal newTemporal = (dayOfMonth > 0) ? temporal.with(ChronoField.DAY_OF_MONTH, dayOfMonth) :
+                temporal.minus(1, ChronoUnit.MONTHS).with(ChronoField.DAY_OF_MONTH, -dayOfMonth);
+            outList.add(newTemporal);
         }
-        return dates;
+    }
+    
+    private static int lengthOfMonth(int year, Month month)
+    {
+        return month.length(Year.isLeap(year));
+    }
+    
+    private static int lengthOfPreviousMonth(int year, Month month)
+    {
+        return (month == Month.JANUARY) ? Month.DECEMBER.length(false) : month.minus(1).length(Year.isLeap(year));
     }
     
     public static ByMonthDay parse(String content)
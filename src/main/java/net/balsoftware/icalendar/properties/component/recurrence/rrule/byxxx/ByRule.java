@@ -1,10 +1,13 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 
+import java.time.DayOfWeek;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
+import java.util.List;
 import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePart;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByHour;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMinute;
@@ -45,4 +48,31 @@ public interface ByRule<T> extends Comparable<ByRule<T>>, RRulePart<T>
      * @return
      */
     Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart);
+    
+    /**
+     * Apply rule to all the date/times of one frequency period, such as one year for FREQ=YEARLY.  The
+     * date/times made by the rule, that either filters out some date/times or adds additional date/times,
+     * are added to outList.
+     * 
+     * Used by steps made by {@link #compile(ChronoUnit, DayOfWeek)}.  The lists
+     * are buffers reused for every period, so they must not be kept.  The rule must not change any of its own fields
+     * so one rule can be expanded on many threads at once.
+     * 
+     * @param inList - date/times of the period made by the frequency and earlier rules
+     * @param outList - empty list to add resulting date/times to
+     * @param chronoUnit - ChronoUnit of last modification to inList
+     * @param dateTimeStart - start Temporal (date or date/time)
+     */
+    void applyToPeriod(List<Temporal> inList, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart);
+    
+    /**
+     * Make a step of a {@link RecurrencePlan} that applies this rule after chronoUnit.  Work that doesn't
+     * depend on the date/times being expanded is done here, once, instead of for every period.
+     * The step must not change, so it can be used on many threads at once.
+     * 
+     * @param chronoUnit - ChronoUnit of last modification to the date/times the step is applied to
+     * @param weekStart - start of week from WKST, or the default of Monday
+     * @return - immutable step
+     */
+    RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart);
 }
@@ -1,5 +1,6 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 
+import java.time.DayOfWeek;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.ArrayList;
@@ -8,6 +9,7 @@ import java.util.List;
 import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePartBase;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByHour;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMinute;
@@ -63,7 +65,42 @@ public abstract class ByRuleAbstract<T, U> extends RRulePartBase<List<T>, U> imp
     
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart) { throw new RuntimeException("not implemented"); }
+    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        return inStream.flatMap(t ->
+        {
+            List<Temporal> dates = new ArrayList<>();
+            apply(t, dates, chronoUnit, dateTimeStart);
+            return dates.stream();
+        });
+    }
+    
+    @Override
+    public void applyToPeriod(List<Temporal> inList, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        for (int i=0; i<inList.size(); i++)
+        {
+            apply(inList.get(i), outList, chronoUnit, dateTimeStart);
+        }
+    }
+    
+    /** Default step applies this rule as it is when the step is applied */
+    @Override
+    public RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart)
+    {
+        return (inList, outList, dateTimeStart) -> applyToPeriod(inList, outList, chronoUnit, dateTimeStart);
+    }
+    
+    /**
+     * Add date/times made by applying rule to one date/time to outList.  A filtering rule adds
+     * the date/time only if it matches, an expanding rule adds all the matching date/times.
+     * 
+     * @param temporal - date/time to apply rule to
+     * @param outList - list to add resulting date/times to
+     * @param chronoUnit - ChronoUnit of last modification to temporal
+     * @param dateTimeStart - start Temporal (date or date/time)
+     */
+    abstract void apply(Temporal temporal, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart);
     
     /*
      * Constructors
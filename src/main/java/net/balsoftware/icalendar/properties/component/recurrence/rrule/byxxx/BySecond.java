@@ -3,10 +3,8 @@ package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMinute;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
@@ -36,50 +34,47 @@ public class BySecond extends ByRuleIntegerAbstract<BySecond>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal d, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         if (dateTimeStart.isSupported(ChronoField.SECOND_OF_MINUTE))
         {
             switch (chronoUnit)
             {
             case SECONDS:
-                return inStream.filter(d ->
-                        { // filter out all but qualifying hours
-                            int mySecondOfMinute = d.get(ChronoField.SECOND_OF_MINUTE);
-                            for (int secondOfMinute : getValue())
-                            {
-                                if (secondOfMinute > 0)
-                                {
-                                    if (secondOfMinute == mySecondOfMinute) return true;
-                                }
-                            }
-                            return false;
-                        });
+            { // filter out all but qualifying seconds of minute
+                int mySecondOfMinute = d.get(ChronoField.SECOND_OF_MINUTE);
+                for (int secondOfMinute : getValue())
+                {
+                    if (secondOfMinute > 0)
+                    {
+                        if (secondOfMinute == mySecondOfMinute)
+                        {
+                            outList.add(d);
+                            return;
+                        }
+                    }
+                }
+                return;
+            }
             case HOURS:
             case MINUTES:
             case DAYS:
             case WEEKS:
             case MONTHS:
             case YEARS:
-                return inStream.flatMap(d -> 
-                { // Expand to be include all hours of day
-                    List<Temporal> dates = new ArrayList<>();
-                    for (int minuteOfHour : getValue())
-                    {
-                        Temporal newTemporal = d.with(ChronoField.SECOND_OF_MINUTE, minuteOfHour);
-//                        if (! DateTimeUtilities.isBefore(newTemporal, dateTimeStart))
-//                        {
-                            dates.add(newTemporal);
-//                        }
-                    }
-                    return dates.stream();
-                });
+            { // Expand to be include all seconds of minute
+                for (int secondOfMinute : getValue())
+                {
+                    outList.add(d.with(ChronoField.SECOND_OF_MINUTE, secondOfMinute));
+                }
+                return;
+            }
             default:
                 throw new IllegalArgumentException("Not implemented: " + chronoUnit);
             }
         } else
         {
-            return inStream; // ignore rule when not supported (RFC 5545 requirement)
+            outList.add(d); // ignore rule when not supported (RFC 5545 requirement)
         }
     }
 
@@ -51,6 +51,29 @@ public class BySetPosition extends ByRuleIntegerAbstract<BySetPosition>
         }
         return outList.stream();
     }
+    
+    /** Select date/times by position in the whole period.  Can't be applied to individual date/times. */
+    @Override
+    public void applyToPeriod(List<Temporal> inList, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        for (int setPosition : getValue())
+        {
+            if (setPosition > 0)
+            {
+                outList.add(inList.get(setPosition-1));                
+            } else if (setPosition < 0)
+            {
+                outList.add(inList.get(inList.size() + setPosition));                
+            }
+        }
+    }
+    
+    /** Not used, a position only has meaning in the whole period.  See {@link #applyToPeriod}. */
+    @Override
+    void apply(Temporal temporal, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    {
+        throw new UnsupportedOperationException("BYSETPOS can only be applied to a whole period");
+    }
 
     public static BySetPosition parse(String content)
     {
@@ -1,7 +1,9 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.Year;
+import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjusters;
@@ -9,14 +11,12 @@ import java.time.temporal.WeekFields;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.IntStream;
-import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.WeekStart;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByWeekNumber;
-import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 
 /** 
  * By Week Number
@@ -82,69 +82,16 @@ public class ByWeekNumber extends ByRuleIntegerAbstract<ByWeekNumber>
     }
     
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart )
+    void apply(Temporal date, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
-
         switch (chronoUnit)
         {
         case YEARS:
+        { // Expand to include all days matching week numbers
             WeekFields weekFields = WeekFields.of(getWeekStart(), MIN_DAYS_IN_WEEK);
-            Stream<Temporal> outStream = inStream.flatMap(date -> 
-            { // Expand to include all days matching week numbers
-                List<Temporal> dates = new ArrayList<>();
-                for (int weekNumber : getValue())
-                {
-                    Temporal correctYearTemporal = (weekNumber > 0) ? date : date.minus(1, ChronoUnit.YEARS);
-                    correctYearTemporal = correctYearTemporal
-                            .with(TemporalAdjusters.firstDayOfYear())
-                            .with(TemporalAdjusters.nextOrSame(weekFields.getFirstDayOfWeek())); // get first week entirely in correct year
-                    Year correctYear = Year.from(correctYearTemporal);
-                    long between = 0;
-                    int finalWeekNumber;
-                    if (weekNumber > 0)
-                    {
-                        finalWeekNumber = weekNumber;
-                    } else if (weekNumber < 0)
-                    {
-                        int weeksInYear = 53;
-                        Temporal startWeek53 = correctYearTemporal.with(weekFields.weekOfWeekBasedYear(), weeksInYear);
-                        Temporal lastDayOfYear = correctYearTemporal.with(TemporalAdjusters.lastDayOfYear());
-                         between = ChronoUnit.DAYS.between(startWeek53, lastDayOfYear);
-                         int adjustment = (between >= 3) ? 1 : 0;
-                        finalWeekNumber = weeksInYear + weekNumber + adjustment;
-                    } else
-                    {
-                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
-                    }
-                    
-                    final Temporal startDate;
-                    if (finalWeekNumber > 0)
-                    {
-                        startDate = correctYearTemporal
-                                .with(weekFields.weekOfWeekBasedYear(), finalWeekNumber);
-                    } else if (between < 0)
-                    {
-                        startDate = correctYearTemporal.minus(1, ChronoUnit.WEEKS);
-                    } else
-                    {
-                        startDate = null;
-                    }
-                    if (startDate != null)
-                    {
-                        IntStream.range(0,7).forEach(days -> 
-                        {
-                            Temporal newTemporal = startDate.plus(days, ChronoUnit.DAYS);
-                            Year myYear = Year.from(newTemporal);
-                            if (myYear.equals(correctYear))
-                            {
-                                dates.add(newTemporal);
-                            }
-                        });
-                    }
-                }
-                return dates.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR);
-            });
-            return outStream;
+            addWeekNumberDays(date, resolveWeekNumberDays(date.get(ChronoField.YEAR), weekFields), outList);
+            return;
+        }
         case DAYS:
         case WEEKS:
         case MONTHS:
@@ -155,7 +102,118 @@ public class ByWeekNumber extends ByRuleIntegerAbstract<ByWeekNumber>
         default:
             break;
         }
-        return null;    
+    }
+
+    /** For FREQ=YEARLY, resolved days are looked up from a table for each kind of year.  The kind of year is
+     * the day of week of January 1st, if it is a leap year, and if the previous year is a leap year. */
+    @Override
+    public RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart)
+    {
+        if (chronoUnit != ChronoUnit.YEARS)
+        {
+            return super.compile(chronoUnit, weekStart);
+        }
+        WeekFields weekFields = WeekFields.of(weekStart, MIN_DAYS_IN_WEEK);
+        int[][] weekNumberDaysTable = new int[28][];
+        for (int year=2000; year<2400; year++) // all kinds of year occur in a 400 year cycle
+        {
+            int kind = kindOfYear(LocalDate.of(year, 1, 1));
+            if (weekNumberDaysTable[kind] == null)
+            {
+                weekNumberDaysTable[kind] = resolveWeekNumberDays(year, weekFields);
+            }
+        }
+        return (inList, outList, dateTimeStart) ->
+        {
+            for (int i=0; i<inList.size(); i++)
+            {
+                Temporal date = inList.get(i);
+                addWeekNumberDays(date, weekNumberDaysTable[kindOfYear(date)], outList);
+            }
+        };
+    }
+    
+    /* Index of day of week of January 1st, leap year and previous leap year combination */
+    private static int kindOfYear(Temporal date)
+    {
+        int year = date.get(ChronoField.YEAR);
+        int firstDayOfWeek = Math.floorMod(date.get(ChronoField.DAY_OF_WEEK) - date.get(ChronoField.DAY_OF_YEAR), 7);
+        return (firstDayOfWeek * 4) + (Year.isLeap(year) ? 2 : 0) + (Year.isLeap(year-1) ? 1 : 0);
+    }
+
+    /*
+     * Resolve days matching week numbers, in date order, for a year.
+     * Positive result is day of the year, negative result is day of the previous year.
+     * Negative week numbers are counted back from the end of the previous year.
+     */
+    private int[] resolveWeekNumberDays(int year, WeekFields weekFields)
+    {
+        LocalDate date = LocalDate.of(year, 1, 1);
+        List<LocalDate> dates = new ArrayList<>();
+        for (int weekNumber : getValue())
+        {
+            LocalDate correctYearTemporal = (weekNumber > 0) ? date : date.minus(1, ChronoUnit.YEARS);
+            correctYearTemporal = correctYearTemporal
+                    .with(TemporalAdjusters.firstDayOfYear())
+                    .with(TemporalAdjusters.nextOrSame(weekFields.getFirstDayOfWeek())); // get first week entirely in correct year
+            Year correctYear = Year.from(correctYearTemporal);
+            long between = 0;
+            int finalWeekNumber;
+            if (weekNumber > 0)
+            {
+                finalWeekNumber = weekNumber;
+            } else if (weekNumber < 0)
+            {
+                int weeksInYear = 53;
+                LocalDate startWeek53 = correctYearTemporal.with(weekFields.weekOfWeekBasedYear(), weeksInYear);
+                LocalDate lastDayOfYear = correctYearTemporal.with(TemporalAdjusters.lastDayOfYear());
+                 between = ChronoUnit.DAYS.between(startWeek53, lastDayOfYear);
+                 int adjustment = (between >= 3) ? 1 : 0;
+                finalWeekNumber = weeksInYear + weekNumber + adjustment;
+            } else
+            {
+                throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
+            }
+            
+            final LocalDate startDate;
+            if (finalWeekNumber > 0)
+            {
+                startDate = correctYearTemporal
+                        .with(weekFields.weekOfWeekBasedYear(), finalWeekNumber);
+            } else if (between < 0)
+            {
+                startDate = correctYearTemporal.minus(1, ChronoUnit.WEEKS);
+            } else
+            {
+                startDate = null;
+            }
+            if (startDate != null)
+            {
+                for (int days=0; days<7; days++)
+                {
+                    LocalDate newTemporal = startDate.plus(days, ChronoUnit.DAYS);
+                    Year myYear = Year.from(newTemporal);
+                    if (myYear.equals(correctYear))
+                    {
+                        dates.add(newTemporal);
+                    }
+                }
+            }
+        }
+        return dates.stream()
+                .sorted()
+                .mapToInt(d -> (d.getYear() == year) ? d.getDayOfYear() : -d.getDayOfYear())
+                .toArray();
+    }
+    
+    private static void addWeekNumberDays(Temporal date, int[] weekNumberDays, List<Temporal> outList)
+    {
+        for (int dayOfYear : weekNumberDays)
+        {
+            Temporal newTemporal = (dayOfYear > 0) ? date.with(ChronoField.DAY_OF_YEAR, dayOfYear) :
+                date.minus(1, ChronoUnit.YEARS).with(ChronoField.DAY_OF_YEAR, -dayOfYear);
+            outList.add(newTemporal);
+        }
     }
 
     public static ByWeekNumber parse(String content)
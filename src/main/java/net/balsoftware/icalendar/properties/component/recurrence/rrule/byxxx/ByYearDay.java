@@ -1,16 +1,17 @@
 package net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Period;
+import java.time.Year;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.time.temporal.TemporalAdjusters;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.stream.Stream;
 
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRuleIntegerAbstract;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByYearDay;
 
@@ -53,66 +54,43 @@ public class ByYearDay extends ByRuleIntegerAbstract<ByYearDay>
     }
 
     @Override
-    public Stream<Temporal> streamRecurrences(Stream<Temporal> inStream, ChronoUnit chronoUnit, Temporal dateTimeStart)
+    void apply(Temporal d, List<Temporal> outList, ChronoUnit chronoUnit, Temporal dateTimeStart)
     {
         switch (chronoUnit)
         {
         case HOURS:
         case MINUTES:
         case SECONDS:
-            return inStream.filter(d ->
-                    { // filter out all but qualifying days
-                        int myDayOfYear = d.get(ChronoField.DAY_OF_YEAR);
-                        for (int dayOfYear : getValue())
-                        {
-                            if (dayOfYear > 0)
-                            {
-                                if (dayOfYear == myDayOfYear) return true;
-                            } else
-                            { // handle negative days of year
-                                Temporal firstDayOfNextYear = d.with(TemporalAdjusters.firstDayOfNextYear());
-                                Period myNegativeDayOfYear = Period.between(LocalDate.from(firstDayOfNextYear), LocalDate.from(d));
-                                if (Period.ofDays(dayOfYear).equals(myNegativeDayOfYear)) return true;
-                            }
-                        }
-                        return false;
-                    });
-        case YEARS:
-            return inStream.flatMap(d -> 
-            { // Expand to be include all days of year
-                List<Temporal> dates = new ArrayList<>();
-                for (int dayOfYear : getValue())
+        { // filter out all but qualifying days
+            int myDayOfYear = d.get(ChronoField.DAY_OF_YEAR);
+            for (int dayOfYear : getValue())
+            {
+                if (dayOfYear > 0)
                 {
-                    final Temporal correctYearTemporal = (dayOfYear > 0) ? d : d.minus(1, ChronoUnit.YEARS);
-                    int daysInYear = (int) ChronoUnit.DAYS.between(correctYearTemporal.with(TemporalAdjusters.firstDayOfYear()),
-                                                                   correctYearTemporal.with(TemporalAdjusters.firstDayOfNextYear()));
-                    int finalDayOfYear = 0;
-                    if (dayOfYear > 0)
-                    {
-                        if (dayOfYear <= daysInYear)
-                        {
-                            finalDayOfYear = dayOfYear;
-                        }
-                    } else if (dayOfYear < 0)
-                    {
-                        int newDayOfYear = daysInYear + dayOfYear + 1;
-                        if (newDayOfYear > 0)
-                        {
-                            finalDayOfYear = newDayOfYear;
-                        }
-                    } else
+                    if (dayOfYear == myDayOfYear)
                     {
-                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
+                        outList.add(d);
+                        return;
                     }
-                    Temporal newTemporal = (finalDayOfYear != 0) ? correctYearTemporal.with(ChronoField.DAY_OF_YEAR, finalDayOfYear) : null;
-
-                    if (newTemporal != null)
+                } else
+                { // handle negative days of year
+                    Temporal firstDayOfNextYear = d.with(TemporalAdjusters.firstDayOfNextYear());
+                    Period myNegativeDayOfYear = Period.between(LocalDate.from(firstDayOfNextYear), LocalDate.from(d));
+                    if (Period.ofDays(dayOfYear).equals(myNegativeDayOfYear))
                     {
-                        dates.add(newTemporal);
+                        outList.add(d);
+                        return;
                     }
                 }
-                return dates.stream();
-            });       
+            }
+            return;
+        }
+        case YEARS:
+        { // Expand to be include all days of year
+            int year = d.get(ChronoField.YEAR);
+            addYearDays(d, resolveYearDays(Year.isLeap(year), Year.isLeap(year-1)), outList);
+            return;
+        }
         case DAYS:
         case WEEKS:
         case MONTHS:
@@ -122,6 +100,73 @@ public class ByYearDay extends ByRuleIntegerAbstract<ByYearDay>
         }
     }
     
+    /** For FREQ=YEARLY, resolved days of year are looked up from a table for each combination of leap and previous leap year */
+    @Override
+    public RecurrencePlan.Step compile(ChronoUnit chronoUnit, DayOfWeek weekStart)
+    {
+        if (chronoUnit != ChronoUnit.YEARS)
+        {
+            return super.compile(chronoUnit, weekStart);
+        }
+        int[][][] yearDaysTable = new int[2][2][];
+        for (int isLeap=0; isLeap<2; isLeap++)
+        {
+            for (int isPreviousLeap=0; isPreviousLeap<2; isPreviousLeap++)
+            {
+                yearDaysTable[isLeap][isPreviousLeap] = resolveYearDays(isLeap == 1, isPreviousLeap == 1);
+            }
+        }
+        return (inList, outList, dateTimeStart) ->
+        {
+            for (int i=0; i<inList.size(); i++)
+            {
+                Temporal d = inList.get(i);
+                int year = d.get(ChronoField.YEAR);
+                int[] yearDays = yearDaysTable[Year.isLeap(year) ? 1 : 0][Year.isLeap(year-1) ? 1 : 0];
+                addYearDays(d, yearDays, outList);
+            }
+        };
+    }
+
+    /*
+     * Resolve days of year, in value order, for a year and its previous year.
+     * Positive result is day of the year, negative result is day of the previous year.
+     * Negative values are counted back from the end of the previous year.
+     */
+    private int[] resolveYearDays(boolean isLeap, boolean isPreviousLeap)
+    {
+        int daysInYear = isLeap ? 366 : 365;
+        int daysInPreviousYear = isPreviousLeap ? 366 : 365;
+        return getValue()
+                .stream()
+                .mapToInt(dayOfYear ->
+                {
+                    if (dayOfYear > 0)
+                    {
+                        return (dayOfYear <= daysInYear) ? dayOfYear : 0;
+                    } else if (dayOfYear < 0)
+                    {
+                        int newDayOfYear = daysInPreviousYear + dayOfYear + 1;
+                        return (newDayOfYear > 0) ? -newDayOfYear : 0;
+                    } else
+                    {
+                        throw new IllegalArgumentException(name().toString() + " can't have a value of zero");
+                    }
+                })
+                .filter(dayOfYear -> dayOfYear != 0)
+                .toArray();
+    }
+    
+    private static void addYearDays(Temporal d, int[] yearDays, List<Temporal> outList)
+    {
+        for (int dayOfYear : yearDays)
+        {
+            Temporal newTemporal = (dayOfYear > 0) ? d.with(ChronoField.DAY_OF_YEAR, dayOfYear) :
+                d.minus(1, ChronoUnit.YEARS).with(ChronoField.DAY_OF_YEAR, -dayOfYear);
+            outList.add(newTemporal);
+        }
+    }
+    
     public static ByYearDay parse(String content)
     {
     	return ByYearDay.parse(new ByYearDay(), content);
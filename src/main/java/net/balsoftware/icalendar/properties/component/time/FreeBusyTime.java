@@ -100,7 +100,7 @@ public class FreeBusyTime extends VPropertyBase<List<Pair<ZonedDateTime, Tempora
     @Override
     public void setFreeBusyType(FreeBusyType freeBusyType)
     {
-    	orderer.orderChild(freeBusyType);
+    	orderChild(freeBusyType);
     	this.freeBusyType = freeBusyType;
 	}
     public void setFreeBusyType(FreeBusyTypeEnum type) { setFreeBusyType(new FreeBusyType(type)); }
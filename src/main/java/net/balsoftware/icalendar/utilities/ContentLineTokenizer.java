@@ -0,0 +1,249 @@
+package net.balsoftware.icalendar.utilities;
+
+import java.util.Collection;
+
+/**
+ * Splits an unfolded content line into its name, parameters and value.
+ * RFC 5545, 3.1 Content Lines, page 9
+ *
+ * <pre>contentline   = name *(";" param ) ":" value CRLF</pre>
+ *
+ * The tokenizer reports each part as start and end offsets into the line, so no Strings are made until a
+ * caller needs one.  Parameter values can be quoted; a ';' or ':' inside quotes doesn't end the value.  Names
+ * can be compared to upper-case names in place with {@link #regionMatchesIgnoreCase(CharSequence, int, int, String)},
+ * or looked up in a {@link Names} table.
+ *
+ * A line without a name, such as a RRULE value (e.g. FREQ=DAILY;COUNT=3), starts with a parameter.  A line without
+ * any delimiters is all value.
+ *
+ * A tokenizer can be reset and reused for many lines, but must only be used by one thread.
+ *
+ * @author David Bal
+ * @see ICalendarUtilities#parseInlineElements(CharSequence, Names, java.util.function.BiConsumer)
+ */
+public final class ContentLineTokenizer
+{
+	private CharSequence line;
+	private int length;
+	private int nameEnd;
+	private int position; // start of next part
+	private char delimiter; // delimiter before next part, ';' for parameter, ':' for value, 0 for none
+	private int parameterNameStart;
+	private int parameterNameEnd;
+	private int parameterValueStart;
+	private int parameterValueEnd;
+
+	/** Line being tokenized */
+	public CharSequence line() { return line; }
+	/** End of the name, exclusive, or -1 if the line has no name.  The name starts at 0. */
+	public int nameEnd() { return nameEnd; }
+	/** Start of the current parameter's name */
+	public int parameterNameStart() { return parameterNameStart; }
+	/** End of the current parameter's name, exclusive */
+	public int parameterNameEnd() { return parameterNameEnd; }
+	/** Start of the current parameter's value, including any quotes, or -1 if the parameter has no value */
+	public int parameterValueStart() { return parameterValueStart; }
+	/** End of the current parameter's value, exclusive, or -1 if the parameter has no value */
+	public int parameterValueEnd() { return parameterValueEnd; }
+	/** Start of the value, or -1 if there is no value.  Only available after {@link #nextParameter()} returns false.
+	 * The value continues to the end of the line. */
+	public int valueStart() { return (delimiter == ':') ? position : -1; }
+
+	/**
+	 * Start tokenizing a new line.  The name is found immediately.
+	 *
+	 * @param line - unfolded content line
+	 * @return - this tokenizer
+	 */
+	public ContentLineTokenizer reset(CharSequence line)
+	{
+		this.line = line;
+		length = line.length();
+		parameterNameStart = -1;
+		parameterNameEnd = -1;
+		parameterValueStart = -1;
+		parameterValueEnd = -1;
+		for (int i=0; i<length; i++)
+		{
+			char c = line.charAt(i);
+			if ((c == ';') || (c == ':'))
+			{
+				nameEnd = i;
+				delimiter = c;
+				position = i+1;
+				return this;
+			} else if (c == '=')
+			{ // line doesn't contain a name, starts with a parameter
+				nameEnd = -1;
+				delimiter = ';';
+				position = 0;
+				return this;
+			}
+		}
+		// no delimiters, contains only a value
+		nameEnd = -1;
+		delimiter = ':';
+		position = 0;
+		return this;
+	}
+
+	/**
+	 * Advance to the next parameter
+	 *
+	 * @return - true if there is another parameter, false if the value, if any, is next
+	 */
+	public boolean nextParameter()
+	{
+		if (delimiter != ';')
+		{
+			return false;
+		}
+		if (position >= length)
+		{ // ends with delimiter
+			delimiter = 0;
+			return false;
+		}
+		int i = position;
+		char c = 0;
+		while (i < length)
+		{
+			c = line.charAt(i);
+			if ((c == '=') || (c == ';') || (c == ':')) break;
+			i++;
+		}
+		parameterNameStart = position;
+		parameterNameEnd = i;
+		if ((i < length) && (c == '='))
+		{
+			boolean isQuoted = false;
+			for (i++; i < length; i++)
+			{
+				c = line.charAt(i);
+				if (c == '\"')
+				{
+					isQuoted = ! isQuoted;
+				} else if (! isQuoted && ((c == ';') || (c == ':')))
+				{
+					break;
+				}
+			}
+			parameterValueStart = parameterNameEnd+1;
+			parameterValueEnd = i;
+		} else
+		{ // parameter has no value
+			parameterValueStart = -1;
+			parameterValueEnd = -1;
+		}
+		if (i < length)
+		{
+			delimiter = line.charAt(i);
+			position = i+1;
+		} else
+		{
+			delimiter = 0;
+			position = length;
+		}
+		return true;
+	}
+
+	/** Returns true if the characters from start to end match upperCaseName, ignoring the case of ASCII letters */
+	public static boolean regionMatchesIgnoreCase(CharSequence s, int start, int end, String upperCaseName)
+	{
+		if ((end - start) != upperCaseName.length())
+		{
+			return false;
+		}
+		for (int i=start; i<end; i++)
+		{
+			if (toUpperCase(s.charAt(i)) != upperCaseName.charAt(i-start))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static char toUpperCase(char c)
+	{
+		return ((c >= 'a') && (c <= 'z')) ? (char) (c - ('a' - 'A')) : c;
+	}
+
+	/**
+	 * Immutable table of upper-case names, such as property or parameter names, that returns the table's String for
+	 * a region of a line matched case-insensitively, without making a new String.  Each name has a fixed slot, so a
+	 * caller can keep values for the names in an array of {@link #capacity()} indexed by {@link #indexOf}.
+	 */
+	public static final class Names
+	{
+		private final String[] table;
+		private final int mask;
+
+		public Names(Collection<String> names)
+		{
+			int size = Integer.highestOneBit(Math.max(names.size(), 1) * 4);
+			table = new String[size];
+			mask = size - 1;
+			for (String name : names)
+			{
+				int index = hash(name, 0, name.length()) & mask;
+				while ((table[index] != null) && ! table[index].equals(name))
+				{
+					index = (index + 1) & mask;
+				}
+				table[index] = name;
+			}
+		}
+
+		/**
+		 * Find name in the table
+		 *
+		 * @param s - characters to search
+		 * @param start - start of name
+		 * @param end - end of name, exclusive
+		 * @return - upper-case name from the table, or null if it isn't in the table
+		 */
+		public String lookup(CharSequence s, int start, int end)
+		{
+			int index = indexOf(s, start, end);
+			return (index < 0) ? null : table[index];
+		}
+
+		/**
+		 * Find the slot of name in the table
+		 *
+		 * @param s - characters to search
+		 * @param start - start of name
+		 * @param end - end of name, exclusive
+		 * @return - slot of the name, less than {@link #capacity()}, or -1 if it isn't in the table
+		 */
+		public int indexOf(CharSequence s, int start, int end)
+		{
+			int index = hash(s, start, end) & mask;
+			while (table[index] != null)
+			{
+				if (regionMatchesIgnoreCase(s, start, end, table[index]))
+				{
+					return index;
+				}
+				index = (index + 1) & mask;
+			}
+			return -1;
+		}
+
+		/** @return - number of slots, one more than the largest slot {@link #indexOf} returns */
+		public int capacity()
+		{
+			return table.length;
+		}
+
+		private static int hash(CharSequence s, int start, int end)
+		{
+			int h = 0;
+			for (int i=start; i<end; i++)
+			{
+				h = 31 * h + toUpperCase(s.charAt(i));
+			}
+			return h ^ (h >>> 16);
+		}
+	}
+}
@@ -12,7 +12,9 @@ import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.Period;
+import java.time.YearMonth;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
@@ -28,6 +30,8 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import net.balsoftware.icalendar.components.VEvent;
@@ -142,6 +146,31 @@ public final class DateTimeUtilities
         }
     }
     
+    /** Returns the seconds from the epoch of 1970-01-01T00:00:00Z without making a new Temporal.
+     * Uses the same rules as {@link DateTimeType#DATE_WITH_UTC_TIME}: LocalDate is start of day in UTC, LocalDateTime
+     * is in the system default ZoneId
+     *
+     * @param t LocalDate, LocalDateTime or ZonedDateTime
+     * @return epoch-second of t
+     */
+    public static long toEpochSecond(Temporal t)
+    {
+        if (t instanceof LocalDate)
+        {
+            return ((LocalDate) t).toEpochDay() * 86400L;
+        } else if (t instanceof LocalDateTime)
+        {
+            LocalDateTime localDateTime = (LocalDateTime) t;
+            return localDateTime.toEpochSecond(DEFAULT_ZONE.getRules().getOffset(localDateTime));
+        } else if (t instanceof ZonedDateTime)
+        {
+            return ((ZonedDateTime) t).toEpochSecond();
+        } else
+        {
+            throw new DateTimeException("Unsupported Temporal type:" + t.getClass().getSimpleName());
+        }
+    }
+
     /** Determines if Temporal is before t2
      * Works for LocalDate, LocalDateTime and ZonedDateTime
      * 
@@ -422,6 +451,8 @@ public final class DateTimeUtilities
      * produced ISO.8601 date and date-time string for given Temporal of type
      * LocalDate, LocalDateTime or ZonedDateTime
      * 
+     * Years from 0 to 9999 are written directly, other years use the DateTimeFormatters.
+     * 
      * @param temporal
      * @return
      */
@@ -433,17 +464,28 @@ public final class DateTimeUtilities
             ZoneId z = value.getZone();
             if (z.normalized().equals(ZoneOffset.UTC))
             {
-                return DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(value);
+                return (isFourDigitYear(value.getYear())) ? dateTimeToString(value.toLocalDate(), value.toLocalTime(), true) :
+                    DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER.format(value);
             } else
             {
-                return DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(value); // Time zone is added through TimeZoneIdentifier parameter
+                // Time zone is added through TimeZoneIdentifier parameter
+                return (isFourDigitYear(value.getYear())) ? dateTimeToString(value.toLocalDate(), value.toLocalTime(), false) :
+                    DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(value);
             }
         } else if (temporal instanceof LocalDateTime)
         {
             LocalDateTime value = (LocalDateTime) temporal;
-            return DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(value);
+            return (isFourDigitYear(value.getYear())) ? dateTimeToString(value.toLocalDate(), value.toLocalTime(), false) :
+                DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER.format(value);
         } else if (temporal instanceof LocalDate)
         {
+            LocalDate value = (LocalDate) temporal;
+            if (isFourDigitYear(value.getYear()))
+            {
+                char[] chars = new char[8];
+                writeDate(chars, value);
+                return new String(chars);
+            }
             return DateTimeUtilities.LOCAL_DATE_FORMATTER.format(temporal);
         } else if (temporal != null)
         {
@@ -452,14 +494,255 @@ public final class DateTimeUtilities
         return null;
     }
     
+    private static boolean isFourDigitYear(int year)
+    {
+        return (year >= 0) && (year <= 9999);
+    }
+    
+    /* Format as yyyyMMdd'T'HHmmss, with a Z if isUTC */
+    private static String dateTimeToString(LocalDate date, LocalTime time, boolean isUTC)
+    {
+        char[] chars = new char[isUTC ? 16 : 15];
+        writeDate(chars, date);
+        chars[8] = 'T';
+        writeTwoDigits(chars, 9, time.getHour());
+        writeTwoDigits(chars, 11, time.getMinute());
+        writeTwoDigits(chars, 13, time.getSecond());
+        if (isUTC)
+        {
+            chars[15] = 'Z';
+        }
+        return new String(chars);
+    }
+    
+    private static void writeDate(char[] chars, LocalDate date)
+    {
+        int year = date.getYear();
+        writeTwoDigits(chars, 0, year / 100);
+        writeTwoDigits(chars, 2, year % 100);
+        writeTwoDigits(chars, 4, date.getMonthValue());
+        writeTwoDigits(chars, 6, date.getDayOfMonth());
+    }
+    
+    private static void writeTwoDigits(char[] chars, int index, int value)
+    {
+        chars[index] = (char) ('0' + value / 10);
+        chars[index+1] = (char) ('0' + value % 10);
+    }
+    
+    /*
+     * Forms of date and date-time strings for the DateTimeFormatters, only used when the string isn't parsed directly
+     */
+    private static final Pattern DATE_FORM = Pattern.compile("^[0-9]{8}");
+    private static final Pattern DATE_WITH_LOCAL_TIME_FORM = Pattern.compile("^[0-9]{8}T([0-9]{6})");
+    private static final Pattern DATE_WITH_UTC_TIME_FORM = Pattern.compile("^[0-9]{8}T([0-9]{6})Z");
+    private static final Pattern DATE_WITH_TIME_ZONE_FORM = Pattern.compile("^(\\[.*/.*\\])[0-9]{8}T([0-9]{6}Z?)");
+    
+    /* ZoneIds by their TZID, so ZoneId.of isn't called for every date-time */
+    private static final Map<String, ZoneId> ZONE_CACHE = new ConcurrentHashMap<>();
+    /* Most recently used ZoneId, compared to the TZID in place without making a String */
+    private static volatile ZoneId lastZone = ZoneOffset.UTC;
+    
     /**
      * Parse ISO.8601 string into LocalDate, LocalDateTime or ZonedDateTime Temporal object.
+     * 
+     * The string can be one of these forms:
+     * <ul>
+     * <li>DATE - 19970714
+     * <li>DATE_WITH_LOCAL_TIME - 19970714T133000
+     * <li>DATE_WITH_UTC_TIME - 19970714T173000Z
+     * <li>DATE_WITH_LOCAL_TIME_AND_TIME_ZONE - [America/New_York]19970714T133000 or TZID=America/New_York:19970714T133000
+     * </ul>
+     * 
+     * The digits are read in one pass and the Temporal is made directly.  The ZoneIds are cached.
+     * Strings that aren't in one of the forms with valid field values, such as a time of 240000, are parsed by
+     * the DateTimeFormatters.
      */ 
     public static Temporal temporalFromString(String string)
+    {
+        Temporal temporal = parseTemporal(string);
+        return (temporal != null) ? temporal : temporalFromStringWithFormatters(string);
+    }
+    
+    /**
+     * Parse ISO.8601 string like {@link #temporalFromString(String)}, but return null instead of throwing an exception
+     * if the string isn't a valid DATE or DATE-TIME.  Only a string in one of the forms that isn't parsed directly is
+     * parsed by the DateTimeFormatters, so most invalid strings are found without an exception.
+     * 
+     * @param string - DATE or DATE-TIME string
+     * @return - the Temporal, or null if the string isn't valid
+     */
+    public static Temporal tryTemporalFromString(String string)
+    {
+        Temporal temporal = parseTemporal(string);
+        if ((temporal != null) || ! isFormatterForm(string))
+        {
+            return temporal;
+        }
+        try
+        {
+            return temporalFromStringWithFormatters(string);
+        } catch (DateTimeException | IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+    
+    /* Parse the forms that are parsed directly, returns null for other strings */
+    private static Temporal parseTemporal(String string)
+    {
+        int length = string.length();
+        int start = 0;
+        int zoneStart = -1;
+        int zoneEnd = -1;
+        boolean isParameter = false;
+        if ((length > 0) && (string.charAt(0) == '['))
+        { // time zone from modifiedValue, e.g. [America/New_York]19970714T133000
+            zoneEnd = string.indexOf(']');
+            if (zoneEnd < 0)
+            {
+                return null;
+            }
+            zoneStart = 1;
+            start = zoneEnd + 1;
+        } else if ((length > 8) && ! isDigit(string.charAt(0)))
+        { // parameters, e.g. TZID=America/New_York:19970714T133000
+            isParameter = true;
+            ContentLineTokenizer tokenizer = new ContentLineTokenizer().reset(string);
+            while (tokenizer.nextParameter())
+            {
+                if (ContentLineTokenizer.regionMatchesIgnoreCase(string, tokenizer.parameterNameStart(), tokenizer.parameterNameEnd(),
+                        VParameterElement.TIME_ZONE_IDENTIFIER.toString()) && (tokenizer.parameterValueStart() >= 0))
+                {
+                    zoneStart = tokenizer.parameterValueStart();
+                    zoneEnd = tokenizer.parameterValueEnd();
+                }
+            }
+            start = tokenizer.valueStart();
+            if (start < 0)
+            {
+                return null;
+            }
+        }
+        
+        int valueLength = length - start;
+        if ((valueLength != 8) && (valueLength != 15) && (valueLength != 16))
+        {
+            return null;
+        }
+        int year = digits(string, start, 4);
+        int month = digits(string, start+4, 2);
+        int day = digits(string, start+6, 2);
+        if ((year < 0) || (month < 1) || (month > 12) || (day < 1) || (day > 28 && day > YearMonth.of(year, month).lengthOfMonth()))
+        {
+            return null;
+        }
+        if (valueLength == 8)
+        {
+            if (zoneStart >= 0)
+            { // DATE can't have a time zone
+                return null;
+            }
+            return LocalDate.of(year, month, day);
+        }
+        
+        if (string.charAt(start+8) != 'T')
+        {
+            return null;
+        }
+        int hour = digits(string, start+9, 2);
+        int minute = digits(string, start+11, 2);
+        int second = digits(string, start+13, 2);
+        if ((hour < 0) || (hour > 23) || (minute < 0) || (minute > 59) || (second < 0) || (second > 59))
+        {
+            return null;
+        }
+        LocalDateTime localDateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+        boolean isUTC = (valueLength == 16);
+        if (isUTC && (string.charAt(start+15) != 'Z'))
+        {
+            return null;
+        }
+        if ((zoneStart < 0) || (isUTC && isParameter))
+        { // no time zone, or a UTC value that overrides a TZID parameter
+            return (isUTC) ? ZonedDateTime.of(localDateTime, ZoneOffset.UTC) : localDateTime;
+        }
+        ZoneId zone = zone(string, zoneStart, zoneEnd);
+        if (zone == null)
+        {
+            return null;
+        }
+        return ZonedDateTime.of(localDateTime, zone); // a Z after a [zone] is ignored
+    }
+    
+    /* Returns value of count digits starting at index, or -1 if they aren't all digits */
+    private static int digits(String string, int index, int count)
+    {
+        int value = 0;
+        for (int i=index; i<index+count; i++)
+        {
+            char c = string.charAt(i);
+            if (! isDigit(c))
+            {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+    
+    private static boolean isDigit(char c)
+    {
+        return (c >= '0') && (c <= '9');
+    }
+
+    /* Returns cached ZoneId of TZID from start to end, or null if it isn't a valid region id */
+    private static ZoneId zone(String string, int start, int end)
+    {
+        ZoneId zone = lastZone;
+        String id = zone.getId();
+        if ((id.length() == end - start) && string.regionMatches(start, id, 0, id.length()))
+        {
+            return zone;
+        }
+        id = string.substring(start, end);
+        if (id.indexOf('/') < 0)
+        { // same restriction as DATE_WITH_TIME_ZONE_FORM
+            return null;
+        }
+        zone = ZONE_CACHE.get(id);
+        if (zone == null)
+        {
+            try
+            {
+                zone = ZoneId.of(id);
+            } catch (DateTimeException e)
+            {
+                return null;
+            }
+            ZONE_CACHE.put(id, zone);
+        }
+        lastZone = zone;
+        return zone;
+    }
+
+    /* Returns true if the string, with any time zone, might be parsed by the DateTimeFormatters */
+    private static boolean isFormatterForm(String string)
+    {
+        int i = (string.indexOf(':') >= 0) ? string.lastIndexOf(':') + 1 : 0; // value after any parameters
+        if ((i == 0) && (string.length() > 0) && (string.charAt(0) == '['))
+        {
+            i = string.indexOf(']') + 1;
+        }
+        String value = string.substring(i);
+        return DATE_FORM.matcher(value).lookingAt();
+    }
+
+    /* Parse with DateTimeFormatters - for strings that aren't parsed directly */
+    private static Temporal temporalFromStringWithFormatters(String string)
     {
         List<Pair<String, String>> list = ICalendarUtilities.parseInlineElementsToListPair(string);
         Map<String, String> map = list.stream().collect(Collectors.toMap(p -> p.getKey(), p -> p.getValue()));
-//        Map<String, String> map = ICalendarUtilities.propertyLineToParameterMap(string);
         StringBuilder builder = new StringBuilder(50);
         String value = map.get(ICalendarUtilities.PROPERTY_VALUE_KEY);
         if (map.get(VParameterElement.TIME_ZONE_IDENTIFIER.toString()) != null)
@@ -474,20 +757,16 @@ public final class DateTimeUtilities
         builder.append(value);
         String string2 = builder.toString();
 
-        final String form0 = "^[0-9]{8}";
-        final String form1 = "^[0-9]{8}T([0-9]{6})";
-        final String form2 = "^[0-9]{8}T([0-9]{6})Z";
-        final String form3 = "^(\\[.*/.*\\])[0-9]{8}T([0-9]{6}Z?)";
-        if (string2.matches(form0))
+        if (DATE_FORM.matcher(string2).matches())
         {
             return LocalDate.parse(string2, DateTimeUtilities.LOCAL_DATE_FORMATTER);                                                
-        } else if (string2.matches(form1))
+        } else if (DATE_WITH_LOCAL_TIME_FORM.matcher(string2).matches())
         {
             return LocalDateTime.parse(string2, DateTimeUtilities.LOCAL_DATE_TIME_FORMATTER);                                                
-        } else if (string2.matches(form2))
+        } else if (DATE_WITH_UTC_TIME_FORM.matcher(string2).matches())
         {
             return ZonedDateTime.parse(string2, DateTimeUtilities.ZONED_DATE_TIME_UTC_FORMATTER);                                                
-        } else if (string2.matches(form3))
+        } else if (DATE_WITH_TIME_ZONE_FORM.matcher(string2).matches())
         {
             return ZonedDateTime.parse(string2, DateTimeUtilities.ZONED_DATE_TIME_FORMATTER);                                                
         } else
@@ -563,7 +842,7 @@ public final class DateTimeUtilities
             @Override
             public Temporal parse(String temporalString, ZoneId zone)
             {
-                if (temporalString.matches(getPattern()))
+                if (matches(temporalString))
                 {
                     return LocalDate.parse(temporalString, LOCAL_DATE_FORMATTER);                    
                 }
@@ -605,7 +884,7 @@ public final class DateTimeUtilities
             public Temporal parse(String temporalString, ZoneId zone)
             {
                 boolean isTzidEmpty = zone == null;
-                boolean isPatternMatch = temporalString.matches(getPattern());
+                boolean isPatternMatch = matches(temporalString);
                 if (isTzidEmpty && isPatternMatch)
                 {
                     return LocalDateTime.parse(temporalString, LOCAL_DATE_TIME_FORMATTER);
@@ -653,7 +932,7 @@ public final class DateTimeUtilities
             @Override
             public Temporal parse(String temporalString, ZoneId zone)
             {
-                boolean isPatternMatch = temporalString.matches(getPattern());
+                boolean isPatternMatch = matches(temporalString);
                 if (isPatternMatch)
                 {
                     return ZonedDateTime.parse(temporalString, ZONED_DATE_TIME_UTC_FORMATTER);
@@ -696,7 +975,7 @@ public final class DateTimeUtilities
             public Temporal parse(String temporalString, ZoneId zone)
             {
                 boolean isTzidEmpty = zone == null;
-                boolean isPatternMatch = temporalString.matches(getPattern());
+                boolean isPatternMatch = matches(temporalString);
                 if (! isTzidEmpty && isPatternMatch)
                 {
                     LocalDateTime localDateTime = LocalDateTime.parse(temporalString, LOCAL_DATE_TIME_FORMATTER);
@@ -708,10 +987,14 @@ public final class DateTimeUtilities
         
         private String pattern;
         public String getPattern() { return pattern; }
+        private final Pattern compiledPattern;
+        /* Returns true if temporalString matches the pattern */
+        boolean matches(String temporalString) { return compiledPattern.matcher(temporalString).matches(); }
 
         DateTimeType(String pattern)
         {
             this.pattern = pattern;
+            compiledPattern = Pattern.compile(pattern);
         }
 
         /** Find DateTimeType of Temporal parameter temporal */
@@ -0,0 +1,107 @@
+package net.balsoftware.icalendar.utilities;
+
+import java.io.IOException;
+
+/**
+ * Appendable that folds one content line as it is written to another Appendable.
+ * Follows rules in RFC 5545, 3.1 Content Lines, page 9.
+ *
+ * Lines are folded before they exceed 75 octets of UTF-8, not counting the line break.  A space is added to the
+ * first character of the subsequent lines.  An escaped character (e.g. \,) or a surrogate pair isn't broken up.
+ *
+ * Only the current character pair is held, so any length of line can be written with constant memory.
+ * Call {@link #endLine()} after the last character of the line.
+ *
+ * @author David Bal
+ * @see ICalendarUtilities#foldLine(CharSequence)
+ */
+public class FoldingAppendable implements Appendable
+{
+    /** Maximum octets in a line, not counting the line break */
+    public static final int MAX_LINE_OCTETS = 75;
+
+    private final Appendable out;
+    private int lineOctets;
+    private char pending; // escape character or high surrogate held until the next character, 0 if none
+
+    public FoldingAppendable(Appendable out)
+    {
+        this.out = out;
+    }
+
+    @Override
+    public FoldingAppendable append(CharSequence csq) throws IOException
+    {
+        CharSequence s = (csq == null) ? "null" : csq;
+        return append(s, 0, s.length());
+    }
+
+    @Override
+    public FoldingAppendable append(CharSequence csq, int start, int end) throws IOException
+    {
+        CharSequence s = (csq == null) ? "null" : csq;
+        for (int i=start; i<end; i++)
+        {
+            append(s.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public FoldingAppendable append(char c) throws IOException
+    {
+        if (pending != 0)
+        {
+            char first = pending;
+            pending = 0;
+            int octets = (Character.isHighSurrogate(first) && Character.isLowSurrogate(c)) ? 4 : octets(first) + octets(c);
+            write(first, c, octets);
+        } else if ((c == '\\') || Character.isHighSurrogate(c))
+        {
+            pending = c;
+        } else
+        {
+            write(c, (char) 0, octets(c));
+        }
+        return this;
+    }
+
+    /**
+     * Writes any held character and starts counting a new line.  The line break between content lines isn't
+     * written, so the caller can choose where it goes.
+     */
+    public void endLine() throws IOException
+    {
+        if (pending != 0)
+        {
+            char first = pending;
+            pending = 0;
+            write(first, (char) 0, octets(first));
+        }
+        lineOctets = 0;
+    }
+
+    private void write(char first, char second, int octets) throws IOException
+    {
+        if ((lineOctets > 1) && (lineOctets + octets > MAX_LINE_OCTETS))
+        {
+            out.append(System.lineSeparator());
+            out.append(' ');
+            lineOctets = 1;
+        }
+        out.append(first);
+        if (second != 0)
+        {
+            out.append(second);
+        }
+        lineOctets += octets;
+    }
+
+    /* UTF-8 octets of one char.  A lone surrogate is counted as a replacement character. */
+    private static int octets(char c)
+    {
+        if (c < 0x80) return 1;
+        if (c < 0x800) return 2;
+        return 3;
+    }
+}
@@ -1,9 +1,12 @@
 package net.balsoftware.icalendar.utilities;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -32,145 +35,83 @@ public final class ICalendarUtilities
      * 
      * @param propertyLine - name-stripped property line
      * @return - map where key=parameter names as, value=parameter value
+     * @see #parseInlineElements(CharSequence, ContentLineTokenizer.Names, BiConsumer)
      */
-    // TODO - CONSIDER USING STREAMTOKENIZER instead
     public static List<Pair<String,String>> parseInlineElementsToListPair(String propertyLine)
     {
         List<Pair<String,String>> parameters = new ArrayList<>();
-       // find start of parameters (go past property name)
-       int parameterStart=0;
-       for (parameterStart = 0; parameterStart < propertyLine.length(); parameterStart++)
-       {
-           if ((propertyLine.charAt(parameterStart) == ';') || (propertyLine.charAt(parameterStart) == ':'))
-           {
-               break;
-           } else if (propertyLine.charAt(parameterStart) == '=') // propertyLine doesn't contain the property name, start searching for parameters at beginning
-           {
-               parameterStart = -1;
-               break;
-           }
-       }
-       
-       // make adjustments before processing
-       char firstCharacter;      
-       if (parameterStart == propertyLine.length())
-       { // contains no property name, only value
-           parameterStart = 0; // reset to front of line because it only contains a value
-           firstCharacter = ':';
-       } else if (parameterStart == propertyLine.length()-1)
-       { // contains only property name, has no value, return empty value 
-           parameters.add(new Pair<>(PROPERTY_VALUE_KEY, null));
-           return parameters;
-       } else if (parameterStart < 0)
-       { // doesn't contain the property name, but has parameters
-           firstCharacter = ';';
-           parameterStart = 0;
-       } else if (parameterStart == 0)
-       { // has parameter or value at start (first character is a ';' or ':')
-           firstCharacter = propertyLine.charAt(parameterStart);
-           parameterStart = 1;
-       } else
-       { // contains a property name and parameters and/or value
-           firstCharacter = propertyLine.charAt(parameterStart);
-           parameterStart++;
-       }
-       
-       // find parameters
-       int parameterEnd = parameterStart;
-       boolean quoteOn = false;
-       while (parameterEnd < propertyLine.length())
-       {
-           final String name;
-           final String value;
-           if (firstCharacter == ':')
-           { // found property value.  It continues to end of the string.
-               parameterEnd = propertyLine.length();
-               name = PROPERTY_VALUE_KEY;
-               value = propertyLine.substring(parameterStart, parameterEnd);
-           } else if (firstCharacter == ';')
-           { // found parameter/value pair.
-               int equalsPosition = propertyLine.indexOf('=', parameterStart);
-               int nextSemicolonPosition = propertyLine.indexOf(';', parameterStart);
-               if ((nextSemicolonPosition> 0) && (nextSemicolonPosition < equalsPosition))
-               { // parameter has no value
-                   value = null;
-                   name = propertyLine.substring(parameterStart, nextSemicolonPosition).toUpperCase();
-                   parameterEnd = nextSemicolonPosition;
-//                   System.out.println("parameter no value:" + name);
-               } else
-               {
-                   name = propertyLine.substring(parameterStart, equalsPosition).toUpperCase();
-                   for (parameterEnd = equalsPosition+1; parameterEnd < propertyLine.length(); parameterEnd++)
-                   {
-                       if (propertyLine.charAt(parameterEnd) == '\"')
-                       {
-                           quoteOn = ! quoteOn;
-                       }
-                       if (! quoteOn) // can't end while quote is on
-                       {
-                           if ((propertyLine.charAt(parameterEnd) == ';') || (propertyLine.charAt(parameterEnd) == ':'))
-                           {
-                               break;
-                           }
-                       }
-                   }
-                   value = propertyLine.substring(equalsPosition+1, parameterEnd);
-//                  System.out.println("parameter:" + value);
-               }
-           } else
-           {
-               throw new IllegalArgumentException("Invalid property line:" + propertyLine);
-           }
-           parameters.add(new Pair<>(name, value));
-           if (parameterEnd < propertyLine.length())
-           {
-               parameterStart = parameterEnd+1;
-               firstCharacter = propertyLine.charAt(parameterStart-1);
-           }
-       }
-       return parameters;
+        parseInlineElements(propertyLine, null, (name, value) -> parameters.add(new Pair<>(name, value)));
+        return parameters;
+    }
+
+    /**
+     * Parse the parameters and value of a content line, passing each name and value to action without
+     * collecting them.  The value's name is {@link #PROPERTY_VALUE_KEY}.  A parameter without a value, or a
+     * line that ends with its name, has a null value.
+     * 
+     * Parameter names found in names are passed as the table's String.  Other names are converted to
+     * upper case.
+     * 
+     * @param propertyLine - content line, with or without the property name
+     * @param names - table of known upper-case parameter names, can be null
+     * @param action - called with each parameter name and value, and then the property value
+     */
+    public static void parseInlineElements(CharSequence propertyLine, ContentLineTokenizer.Names names, BiConsumer<String, String> action)
+    {
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer().reset(propertyLine);
+        int length = propertyLine.length();
+        if ((tokenizer.nameEnd() >= 0) && (tokenizer.nameEnd() == length-1))
+        { // contains only property name, has no value, return empty value
+            action.accept(PROPERTY_VALUE_KEY, null);
+            return;
+        }
+        while (tokenizer.nextParameter())
+        {
+            int nameStart = tokenizer.parameterNameStart();
+            int nameEnd = tokenizer.parameterNameEnd();
+            String name = (names == null) ? null : names.lookup(propertyLine, nameStart, nameEnd);
+            if (name == null)
+            {
+                name = propertyLine.subSequence(nameStart, nameEnd).toString().toUpperCase();
+            }
+            String value = (tokenizer.parameterValueStart() < 0) ? null :
+                propertyLine.subSequence(tokenizer.parameterValueStart(), tokenizer.parameterValueEnd()).toString();
+            action.accept(name, value);
+        }
+        int valueStart = tokenizer.valueStart();
+        if ((valueStart >= 0) && (valueStart < length))
+        { // found property value.  It continues to end of the string.
+            action.accept(PROPERTY_VALUE_KEY, propertyLine.subSequence(valueStart, length).toString());
+        }
     }
     
     /**
-     * Folds lines at character 75 into multiple lines.  Follows rules in
+     * Folds lines at octet 75 into multiple lines.  Follows rules in
      * RFC 5545, 3.1 Content Lines, page 9.
      * A space is added to the first character of the subsequent lines.
      * doesn't break lines at escape characters
      * 
      * @param line - content line
      * @return - folded content line
+     * @see FoldingAppendable
      */
     public static CharSequence foldLine(CharSequence line)
     {
-        // first position is 0
-        final int maxLineLength = 75;
-        if (line.length() <= maxLineLength)
+        // a char is at most 3 octets
+        if (line.length() * 3 <= FoldingAppendable.MAX_LINE_OCTETS)
         {
             return line;
         } else
         {
             StringBuilder builder = new StringBuilder(line.length()+20);
-            int leadingSpaceAdjustment = 0;
-            String leadingSpace = "";
-            int startIndex = 0;
-            while (startIndex < line.length())
+            try
+            {
+                FoldingAppendable folder = new FoldingAppendable(builder);
+                folder.append(line);
+                folder.endLine();
+            } catch (IOException e)
             {
-                int endIndex = Math.min(startIndex+maxLineLength-leadingSpaceAdjustment, line.length());
-                if (endIndex < line.length())
-                {
-                    // ensure escaped characters are not broken up
-                    if (line.charAt(endIndex-1) == '\\')
-                    {
-                        endIndex = endIndex-1; 
-                    }
-                    builder.append(leadingSpace + line.subSequence(startIndex, endIndex) + System.lineSeparator());
-                } else
-                {                    
-                    builder.append(leadingSpace + line.subSequence(startIndex, endIndex));
-                }
-                startIndex = endIndex;
-                leadingSpaceAdjustment = 1;
-                leadingSpace = " ";
+                throw new UncheckedIOException(e); // StringBuilder doesn't throw IOException
             }
             return builder;
         }
@@ -24,6 +24,38 @@ public class IntegerStringConverter implements StringConverter<Integer> {
         return Integer.valueOf(value);
     }
 
+    /** {@inheritDoc} */
+    @Override public Object tryFromString(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        value = value.trim();
+
+        if (value.length() < 1) {
+            return null;
+        }
+
+        boolean isNegative = value.charAt(0) == '-';
+        int start = (isNegative || (value.charAt(0) == '+')) ? 1 : 0;
+        if ((value.length() == start) || (value.length() - start > 10)) {
+            return INVALID;
+        }
+        long result = 0;
+        for (int i=start; i<value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0') || (c > '9')) {
+                return INVALID;
+            }
+            result = result * 10 + (c - '0');
+        }
+        result = (isNegative) ? -result : result;
+        if ((result < Integer.MIN_VALUE) || (result > Integer.MAX_VALUE)) {
+            return INVALID;
+        }
+        return Integer.valueOf((int) result);
+    }
+
     /** {@inheritDoc} */
     @Override public String toString(Integer value) {
         // If the specified value is null, return a zero-length String
@@ -0,0 +1,155 @@
+package net.balsoftware.icalendar.utilities;
+
+import java.net.URI;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded pool of canonical values for parsing.  Large calendars repeat the same TZIDs, mailto: URIs, categories,
+ * locations and parameter values many times.  When a pool is active, each parsed parameter value and property value
+ * is replaced by an equal value already in the pool, so the calendar keeps one copy of each.
+ *
+ * Strings, URIs and ZoneIds are pooled, and so are the elements of a modifiable List of them.  Other values, such as
+ * enums and date-times, are returned unchanged.  When the pool is full new values aren't added, but the values
+ * already in the pool are still used.
+ *
+ * A pool is used by a parse through its {@link net.balsoftware.icalendar.ParseOptions}:
+ * <pre>
+ * InternPool pool = new InternPool();
+ * vCalendar = VCalendar.parse(icsFilePath, ParseOptions.DEFAULT.withInternPool(pool));
+ * System.out.println(pool.bytesSaved());
+ * </pre>
+ * A pool can be used for one parse or shared by many parses on many threads.
+ *
+ * @author David Bal
+ */
+public class InternPool
+{
+    /** Default maximum number of values in a pool */
+    public static final int DEFAULT_CAPACITY = 100_000;
+
+    private final int capacity;
+    private final ConcurrentHashMap<Object, Object> values = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /** Number of values that were replaced by a pooled value */
+    public long hits() { return hits.sum(); }
+    /** Approximate number of bytes of the values that were replaced by a pooled value, as estimated for a 64-bit JVM with compressed references */
+    public long bytesSaved() { return bytesSaved.sum(); }
+    /** Number of values in the pool */
+    public int size() { return values.size(); }
+    /** Maximum number of values in the pool */
+    public int capacity() { return capacity; }
+
+    /*
+     * CONSTRUCTORS
+     */
+    public InternPool()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity - maximum number of values in the pool
+     */
+    public InternPool(int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("capacity can't be negative:" + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the pooled value equal to value, adding value to the pool if there isn't one and the pool isn't full.
+     * A modifiable List has its elements replaced by pooled values.
+     *
+     * @param value - value to canonicalize, can be null
+     * @return - canonical value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T value)
+    {
+        if (value instanceof List)
+        {
+            try
+            {
+                ((List<Object>) value).replaceAll(this::internElement);
+            } catch (UnsupportedOperationException e)
+            {
+                // unmodifiable list is left unchanged
+            }
+            return value;
+        }
+        return (T) internElement(value);
+    }
+
+    private Object internElement(Object value)
+    {
+        if (! ((value instanceof String) || (value instanceof URI) || (value instanceof ZoneId)))
+        {
+            return value;
+        }
+        Object pooledValue = values.get(value);
+        if (pooledValue == null)
+        {
+            if (values.size() >= capacity)
+            {
+                return value;
+            }
+            pooledValue = values.putIfAbsent(value, value);
+            if (pooledValue == null)
+            {
+                return value;
+            }
+        }
+        if (pooledValue != value)
+        {
+            hits.increment();
+            bytesSaved.add(estimateBytes(value));
+        }
+        return pooledValue;
+    }
+
+    /** Remove all values from the pool and reset the counts */
+    public void clear()
+    {
+        values.clear();
+        hits.reset();
+        bytesSaved.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return getClass().getSimpleName() + "[size=" + size() + ", hits=" + hits() + ", bytesSaved=" + bytesSaved() + "]";
+    }
+
+    /*
+     * Approximate retained size: a String is a 24 byte object and a char[] with a 16 byte header, a URI is an 80 byte
+     * object whose components are about the size of its String again, and a ZoneId region is a 24 byte object and its id.
+     */
+    static long estimateBytes(Object value)
+    {
+        if (value instanceof String)
+        {
+            return 24 + align(16 + 2L * ((String) value).length());
+        } else if (value instanceof URI)
+        {
+            return 80 + 2 * estimateBytes(value.toString());
+        } else if (value instanceof ZoneId)
+        {
+            return 24 + estimateBytes(((ZoneId) value).getId());
+        }
+        return 0;
+    }
+
+    private static long align(long bytes)
+    {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -1,5 +1,7 @@
 package net.balsoftware.icalendar.utilities;
 
+import java.time.DateTimeException;
+
 /**
  * Converts an object to a string and back to the object.
  * 
@@ -22,4 +24,29 @@ public interface StringConverter<T>
     * @return an object representation of the string passed in.
     */
     T fromString(String string);
+    
+    /** Returned by {@link #tryFromString(String)} when the string can't be converted */
+    Object INVALID = new Object()
+    {
+        @Override
+        public String toString() { return "INVALID"; }
+    };
+
+    /**
+    * Converts the string provided like {@link #fromString(String)}, but returns {@link #INVALID} instead of
+    * throwing an exception if the string can't be converted.
+    * The default catches the exception.  Converters of values that are often invalid in real-world calendars, such as
+    * date-times, override it to check the string without an exception.
+    * @return an object representation of the string passed in, or {@link #INVALID}.
+    */
+    default Object tryFromString(String string)
+    {
+        try
+        {
+            return fromString(string);
+        } catch (IllegalArgumentException | DateTimeException e)
+        {
+            return INVALID;
+        }
+    }
 }
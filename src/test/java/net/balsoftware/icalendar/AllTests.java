@@ -7,9 +7,11 @@ import org.junit.runners.Suite.SuiteClasses;
 import net.balsoftware.icalendar.calendar.CalendarScaleTest;
 import net.balsoftware.icalendar.calendar.CopyCalendarTest;
 import net.balsoftware.icalendar.calendar.GeneralCalendarTest;
+import net.balsoftware.icalendar.calendar.OccurrenceIndexTest;
 import net.balsoftware.icalendar.calendar.ParseCalendarTest;
 import net.balsoftware.icalendar.calendar.ReadICSFileTest;
 import net.balsoftware.icalendar.calendar.RecurrenceIDParentValidTest;
+import net.balsoftware.icalendar.calendar.VCalendarReaderTest;
 import net.balsoftware.icalendar.calendar.VCalendarRecurrenceIDTest;
 import net.balsoftware.icalendar.component.BaseTest;
 import net.balsoftware.icalendar.component.ComponentStatusTest;
@@ -140,9 +142,11 @@ import net.balsoftware.icalendar.property.component.UniqueIdentifierTest;
         CopyCalendarTest.class,
         GeneralCalendarTest.class,
         OrdererTest.class,
+        OccurrenceIndexTest.class,
         ParseCalendarTest.class,
         ReadICSFileTest.class,
         RecurrenceIDParentValidTest.class,
+        VCalendarReaderTest.class,
         VCalendarRecurrenceIDTest.class,
                 
         //component tests
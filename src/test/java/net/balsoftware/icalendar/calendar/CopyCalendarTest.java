@@ -2,10 +2,25 @@ package net.balsoftware.icalendar.calendar;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
 import net.balsoftware.icalendar.ICalendarTestAbstract;
+import net.balsoftware.icalendar.OccurrenceIndex.Occurrence;
 import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.components.VEvent;
 import net.balsoftware.icalendar.components.VTodo;
@@ -43,4 +58,181 @@ public class CopyCalendarTest extends ICalendarTestAbstract
 		VEvent yearly2 = new VEvent(yearly1);
 		assertEquals(c, yearly2.getParent());
     }
+    
+    private VCalendar makeCalendar()
+    {
+        return new VCalendar()
+                .withProductIdentifier(new ProductIdentifier())
+                .withVersion(new Version())
+                .withVTodos(new VTodo()
+                        .withDateTimeCompleted("COMPLETED:19960401T150000Z")
+                        .withPercentComplete(35))
+                .withVEvents(getYearly1())
+                .withVEvents(getMonthly6());
+    }
+    
+    @Test
+    public void canTakeSnapshot()
+    {
+        VCalendar c = makeCalendar();
+        VCalendar snapshot = c.snapshot();
+        String expectedContent = c.toString();
+        assertEquals(expectedContent, snapshot.toString());
+        assertSame(snapshot, c.snapshot());
+        
+        VEvent yearly1 = c.getVEvents().get(0);
+        VEvent editedYearly1 = c.edit(yearly1);
+        assertNotSame(yearly1, editedYearly1);
+        assertSame(editedYearly1, c.edit(editedYearly1));
+        editedYearly1.setSummary("Changed Summary");
+        c.addChild(getDaily1());
+        c.removeChild(c.getVTodos().get(0));
+        
+        assertEquals(expectedContent, snapshot.toString());
+        assertEquals(2, snapshot.getVEvents().size());
+        assertSame(yearly1, snapshot.getVEvents().get(0));
+        assertEquals("Yearly1 Summary", yearly1.getSummary().getValue());
+        
+        VCalendar snapshot2 = c.snapshot();
+        assertNotSame(snapshot, snapshot2);
+        assertEquals(c.toString(), snapshot2.toString());
+        assertTrue(snapshot2.toString().contains("SUMMARY:Changed Summary"));
+        // unchanged elements are shared
+        assertSame(snapshot.getVEvents().get(1), snapshot2.getVEvents().get(1));
+        assertSame(yearly1.getDateTimeStart(), editedYearly1.getDateTimeStart());
+        assertSame(yearly1, yearly1.getDateTimeStart().getParent());
+    }
+    
+    @Test
+    public void canNotChangeSnapshot()
+    {
+        VCalendar c = makeCalendar();
+        VCalendar snapshot = c.snapshot();
+        VEvent yearly1 = snapshot.getVEvents().get(0);
+        assertTrue(snapshot.isFrozen());
+        assertTrue(yearly1.isFrozen());
+        assertTrue(yearly1.getSummary().isFrozen());
+        assertFalse(c.isFrozen());
+        try
+        {
+            yearly1.setSummary("Changed Summary");
+            fail();
+        } catch (IllegalStateException e) { }
+        try
+        {
+            yearly1.getSummary().setValue("Changed Summary");
+            fail();
+        } catch (IllegalStateException e) { }
+        try
+        {
+            snapshot.addChild(getDaily1());
+            fail();
+        } catch (IllegalStateException e) { }
+        try
+        {
+            snapshot.getVEvents().clear();
+            fail();
+        } catch (UnsupportedOperationException e) { }
+        assertEquals("Yearly1 Summary", yearly1.getSummary().getValue());
+        assertEquals(2, snapshot.getVEvents().size());
+        
+        // a component added after the snapshot can be changed until the next snapshot
+        VEvent daily1 = getDaily1();
+        c.addChild(daily1);
+        assertFalse(daily1.isFrozen());
+        daily1.setSummary("Changed Summary");
+        c.snapshot();
+        assertTrue(daily1.isFrozen());
+    }
+    
+    @Test
+    public void canNotChangeSnapshotThroughEarlierList()
+    {
+        VCalendar c = makeCalendar();
+        List<VEvent> vEvents = c.getVEvents(); // list from before the snapshot
+        VCalendar snapshot = c.snapshot();
+        vEvents.add(getDaily1());
+        c.orderChild(vEvents.get(2));
+        assertEquals(2, snapshot.getVEvents().size());
+        assertEquals(3, c.getVEvents().size());
+    }
+    
+    @Test
+    public void canFindRecurrencesInSnapshot()
+    {
+        VCalendar c = new VCalendar();
+        VEvent parent = getYearly1();
+        c.addChild(parent);
+        VCalendar snapshot = c.snapshot();
+        assertEquals(1, c.getVEvents().size());
+        assertSame(snapshot, c.snapshot()); // getters don't change the calendar
+        
+        VEvent child = getRecurrenceForYearly1();
+        c.getVEvents().add(child);
+        c.orderChild(child);
+        assertEquals(1, snapshot.getVEvents().size());
+        assertEquals(0, parent.recurrenceChildren(snapshot).size());
+        assertEquals(1, parent.recurrenceChildren().size());
+        
+        // the snapshot's occurrences don't use the recurrence child added to the calendar
+        LocalDateTime start = LocalDateTime.of(2016, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2017, 1, 1, 0, 0);
+        List<Occurrence> occurrences = snapshot.occurrences(start, end);
+        assertEquals(1, occurrences.size());
+        assertEquals(LocalDateTime.of(2016, 11, 9, 10, 0), occurrences.get(0).getStart());
+        assertSame(parent, occurrences.get(0).getComponent());
+        assertEquals(0, c.occurrences(start, end).size());
+        assertNotSame(snapshot, c.snapshot());
+    }
+    
+    @Test
+    public void canReadSnapshotsWhileWriting() throws Exception
+    {
+        VCalendar c = makeCalendar();
+        c.getVEvents().forEach(v -> v.setSummary("Summary"));
+        AtomicReference<VCalendar> published = new AtomicReference<>(c.snapshot());
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int i=0; i<4; i++)
+            {
+                readers.add(executor.submit(() ->
+                {
+                    int reads = 0;
+                    while (isWriting.get() || (reads == 0))
+                    {
+                        VCalendar snapshot = published.get();
+                        // both events are changed together, so a snapshot always has the same summaries
+                        String summary1 = snapshot.getVEvents().get(0).getSummary().getValue();
+                        String summary2 = snapshot.getVEvents().get(1).getSummary().getValue();
+                        assertEquals(summary1, summary2);
+                        String content = snapshot.toString();
+                        assertTrue(content.contains("SUMMARY:" + summary1));
+                        assertEquals(snapshot, snapshot.snapshot());
+                        reads++;
+                    }
+                    return reads;
+                }));
+            }
+            for (int i=0; i<500; i++)
+            {
+                for (int j=0; j<2; j++)
+                {
+                    c.edit(c.getVEvents().get(j)).setSummary("Summary " + i);
+                }
+                published.set(c.snapshot());
+            }
+            isWriting.set(false);
+            for (Future<Integer> reader : readers)
+            {
+                assertTrue(reader.get(30, TimeUnit.SECONDS) > 0);
+            }
+        } finally
+        {
+            executor.shutdownNow();
+        }
+        assertEquals(c.toString(), published.get().toString());
+    }
 }
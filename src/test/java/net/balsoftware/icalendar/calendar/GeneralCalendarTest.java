@@ -1,13 +1,21 @@
 package net.balsoftware.icalendar.calendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.Test;
 
 import net.balsoftware.icalendar.ICalendarTestAbstract;
 import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.components.VAlarm;
+import net.balsoftware.icalendar.components.VEvent;
 import net.balsoftware.icalendar.components.VTodo;
+import net.balsoftware.icalendar.parameters.ParticipationStatus.ParticipationStatusType;
 import net.balsoftware.icalendar.properties.calendar.CalendarScale;
 import net.balsoftware.icalendar.properties.calendar.ProductIdentifier;
 import net.balsoftware.icalendar.properties.calendar.Version;
@@ -173,4 +181,76 @@ public class GeneralCalendarTest extends ICalendarTestAbstract
         assertEquals(content, vCalendar.toString());
     }
 
+    
+    @Test
+    public void canReuseCachedContent() throws IOException
+    {
+        String content = 
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "UID:event1@example.com" + System.lineSeparator() +
+                "ATTENDEE;PARTSTAT=NEEDS-ACTION:mailto:joe@example.com" + System.lineSeparator() +
+                "SUMMARY:First" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "UID:event2@example.com" + System.lineSeparator() +
+                "SUMMARY:Second" + System.lineSeparator() +
+                "RRULE:FREQ=DAILY;COUNT=3" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(content);
+        assertEquals(content, vCalendar.toString());
+        assertSame(vCalendar.toString(), vCalendar.toString());
+        VEvent vEvent1 = vCalendar.getVEvents().get(0);
+        VEvent vEvent2 = vCalendar.getVEvents().get(1);
+        String vEvent1Content = vEvent1.toString();
+        
+        // change property value
+        vEvent2.setSummary("Changed");
+        assertEquals(content.replace("SUMMARY:Second", "SUMMARY:Changed"), vCalendar.toString());
+        assertSame(vEvent1Content, vEvent1.toString()); // unchanged component isn't made again
+        
+        // change parameter value
+        vEvent1.getAttendees().get(0).getParticipationStatus().setValue(ParticipationStatusType.ACCEPTED);
+        assertEquals("ATTENDEE;PARTSTAT=ACCEPTED:mailto:joe@example.com", vEvent1.getAttendees().get(0).toString());
+        assertNotSame(vEvent1Content, vEvent1.toString());
+        
+        // change RRULE part
+        vEvent2.getRecurrenceRule().getValue().setCount(5);
+        StringWriter writer = new StringWriter();
+        vCalendar.write(writer);
+        assertEquals(vCalendar.toString(), writer.toString());
+        assertTrue(writer.toString().contains("RRULE:FREQ=DAILY;COUNT=5"));
+        assertTrue(writer.toString().contains("PARTSTAT=ACCEPTED"));
+    }
+    
+    @Test
+    public void canWriteWithoutCachedContent() throws IOException
+    {
+        String content = 
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "UID:event1@example.com" + System.lineSeparator() +
+                "SUMMARY:First" + System.lineSeparator() +
+                "BEGIN:VALARM" + System.lineSeparator() +
+                "ACTION:DISPLAY" + System.lineSeparator() +
+                "TRIGGER;RELATED=START:-PT30M" + System.lineSeparator() +
+                "END:VALARM" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(content);
+        StringWriter writer = new StringWriter();
+        vCalendar.write(writer); // streamed, nothing cached yet
+        assertEquals(content, writer.toString());
+        
+        // write again after a descendant changes, mixing cached and streamed content
+        VEvent vEvent = vCalendar.getVEvents().get(0);
+        String vEventContent = vEvent.toString();
+        vEvent.getVAlarms().get(0).setDescription("Reminder");
+        writer = new StringWriter();
+        vCalendar.write(writer);
+        assertEquals(vCalendar.toString(), writer.toString());
+        assertTrue(writer.toString().contains("DESCRIPTION:Reminder"));
+        assertNotSame(vEventContent, vEvent.toString());
+    }
 }
@@ -0,0 +1,197 @@
+package net.balsoftware.icalendar.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZonedDateTime;
+import java.time.temporal.Temporal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import net.balsoftware.icalendar.ICalendarTestAbstract;
+import net.balsoftware.icalendar.OccurrenceIndex.Occurrence;
+import net.balsoftware.icalendar.VCalendar;
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.components.VRepeatable;
+import net.balsoftware.icalendar.properties.component.recurrence.ExceptionDates;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.FrequencyType;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
+
+public class OccurrenceIndexTest extends ICalendarTestAbstract
+{
+    @Test
+    public void canFindOccurrencesInRange()
+    {
+        VCalendar c = new VCalendar()
+                .withVEvents(getDaily1(), getDaily2(), getDaily6(), getIndividual1(), getIndividual2(),
+                        getIndividualZoned(), getWeeklyZoned(), getYearly1());
+        Temporal start = LocalDateTime.of(2015, 11, 10, 0, 0);
+        Temporal end = LocalDateTime.of(2015, 12, 20, 0, 0);
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+
+        // later range extends infinite series
+        Temporal start2 = LocalDateTime.of(2016, 11, 1, 0, 0);
+        Temporal end2 = LocalDateTime.of(2016, 12, 1, 0, 0);
+        assertEquals(expectedOccurrences(c, start2, end2), occurrenceStrings(c.occurrences(start2, end2)));
+
+        // earlier range is unchanged
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+    }
+
+    @Test
+    public void canMoveWindowOfInfiniteSeries()
+    {
+        VCalendar c = new VCalendar()
+                .withVEvents(getDaily1(), getWeeklyZoned(), getIndividual1());
+        // forward in overlapping steps, which drops the earlier occurrences of infinite series
+        for (int month=0; month<24; month++)
+        {
+            Temporal start = LocalDateTime.of(2015, 11, 15, 0, 0).plusMonths(month);
+            Temporal end = start.plus(Period.ofDays(45));
+            assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+        }
+
+        // back to before the dropped occurrences
+        Temporal start = LocalDateTime.of(2015, 11, 1, 0, 0);
+        Temporal end = LocalDateTime.of(2016, 1, 1, 0, 0);
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+
+        // component added while the window is set
+        c.addChild(getDaily1().withSummary("added"));
+        Temporal start2 = LocalDateTime.of(2015, 12, 1, 0, 0);
+        assertEquals(expectedOccurrences(c, start2, end), occurrenceStrings(c.occurrences(start2, end)));
+    }
+
+    @Test
+    public void canStartWindowFarFromDateTimeStart()
+    {
+        VCalendar c = new VCalendar()
+                .withVEvents(getDaily1(), getWeeklyZoned(), getDailyUTC(), getDailyJapanZone(), getWholeDayDaily1(),
+                        getMonthly1(), getYearly1());
+        // the first window starts decades after DTSTART, each series resumes from the window start
+        Temporal start = LocalDateTime.of(2040, 3, 10, 12, 0);
+        Temporal end = LocalDateTime.of(2040, 5, 1, 0, 0);
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+
+        // back to an earlier window, also after DTSTART
+        Temporal start2 = LocalDateTime.of(2030, 1, 1, 0, 0);
+        Temporal end2 = LocalDateTime.of(2030, 2, 1, 0, 0);
+        assertEquals(expectedOccurrences(c, start2, end2), occurrenceStrings(c.occurrences(start2, end2)));
+    }
+
+    @Test
+    public void canKeepIndexCurrent()
+    {
+        VEvent daily = getDaily2(); // FREQ=DAILY;INVERVAL=3;COUNT=6
+        VCalendar c = new VCalendar()
+                .withVEvents(daily);
+        Temporal start = LocalDateTime.of(2015, 11, 1, 0, 0);
+        Temporal end = LocalDateTime.of(2015, 12, 1, 0, 0);
+        assertEquals(6, c.occurrences(start, end).size());
+
+        // add component
+        VEvent individual = getIndividual1();
+        c.addChild(individual);
+        assertEquals(7, c.occurrences(start, end).size());
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+
+        // remove component
+        c.removeChild(individual);
+        assertEquals(6, c.occurrences(start, end).size());
+
+        // change recurrence rule
+        daily.setRecurrenceRule(new RecurrenceRuleValue()
+                .withCount(3)
+                .withFrequency(FrequencyType.DAILY));
+        assertEquals(3, c.occurrences(start, end).size());
+
+        // change a rule part
+        daily.getRecurrenceRule().getValue().setCount(4);
+        assertEquals(4, c.occurrences(start, end).size());
+
+        // add exceptions
+        daily.setExceptionDates(Arrays.asList(new ExceptionDates(LocalDateTime.of(2015, 11, 10, 10, 0))));
+        List<Temporal> expectedStarts = Arrays.asList(
+                LocalDateTime.of(2015, 11, 9, 10, 0),
+                LocalDateTime.of(2015, 11, 11, 10, 0),
+                LocalDateTime.of(2015, 11, 12, 10, 0));
+        assertEquals(expectedStarts, c.occurrences(start, end).stream().map(o -> o.getStart()).collect(Collectors.toList()));
+
+        // change DTSTART
+        daily.setDateTimeStart(LocalDateTime.of(2015, 11, 20, 10, 0));
+        expectedStarts = Arrays.asList(
+                LocalDateTime.of(2015, 11, 20, 10, 0),
+                LocalDateTime.of(2015, 11, 21, 10, 0),
+                LocalDateTime.of(2015, 11, 22, 10, 0),
+                LocalDateTime.of(2015, 11, 23, 10, 0));
+        assertEquals(expectedStarts, c.occurrences(start, end).stream().map(o -> o.getStart()).collect(Collectors.toList()));
+
+        // modify EXDATE in place needs refresh
+        daily.getExceptionDates().get(0).getValue().add(LocalDateTime.of(2015, 11, 21, 10, 0));
+        c.refreshOccurrenceIndex(daily);
+        assertEquals(3, c.occurrences(start, end).size());
+    }
+
+    @Test
+    public void canReplaceOccurrenceWithRecurrenceChild()
+    {
+        VEvent parent = getYearly1();
+        VCalendar c = new VCalendar()
+                .withVEvents(parent);
+        Temporal start = LocalDateTime.of(2015, 1, 1, 0, 0);
+        Temporal end = LocalDateTime.of(2018, 1, 1, 0, 0);
+        assertEquals(3, c.occurrences(start, end).size());
+
+        VEvent child = getRecurrenceForYearly1();
+        c.addChild(child);
+        List<Occurrence> occurrences = c.occurrences(start, end);
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(occurrences));
+        assertTrue(occurrences.stream().anyMatch(o -> o.getComponent() == child));
+
+        c.removeChild(child);
+        assertEquals(expectedOccurrences(c, start, end), occurrenceStrings(c.occurrences(start, end)));
+        assertEquals(3, c.occurrences(start, end).size());
+    }
+
+    /* Brute-force results from each component's recurrence stream */
+    private static List<String> expectedOccurrences(VCalendar c, Temporal start, Temporal end)
+    {
+        ZonedDateTime startInstant = (ZonedDateTime) DateTimeType.DATE_WITH_UTC_TIME.from(start);
+        ZonedDateTime endInstant = (ZonedDateTime) DateTimeType.DATE_WITH_UTC_TIME.from(end);
+        return c.childrenUnmodifiable()
+                .stream()
+                .filter(v -> v instanceof VRepeatable)
+                .map(v -> (VRepeatable<?>) v)
+                .flatMap(v -> v.streamRecurrences()
+                        .map(t -> (ZonedDateTime) DateTimeType.DATE_WITH_UTC_TIME.from(t))
+                        .filter(t -> ! t.isBefore(startInstant))
+                        .limit(1000) // bound infinite series
+                        .filter(t -> t.isBefore(endInstant))
+                        .map(t -> t + " " + ((VComponent) v).name() + " " + ((VEvent) v).getSummary()))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> occurrenceStrings(List<Occurrence> occurrences)
+    {
+        List<String> strings = occurrences
+                .stream()
+                .map(o -> DateTimeType.DATE_WITH_UTC_TIME.from(o.getStart()) + " " + o.getComponent().name() + " " + ((VEvent) o.getComponent()).getSummary())
+                .collect(Collectors.toList());
+        // must be in start order
+        List<ZonedDateTime> starts = occurrences
+                .stream()
+                .map(o -> (ZonedDateTime) DateTimeType.DATE_WITH_UTC_TIME.from(o.getStart()))
+                .collect(Collectors.toList());
+        assertEquals(starts.stream().sorted(DateTimeUtilities.TEMPORAL_COMPARATOR).collect(Collectors.toList()), starts);
+        return strings.stream().sorted().collect(Collectors.toList());
+    }
+}
@@ -1,23 +1,50 @@
 package net.balsoftware.icalendar.calendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 import org.junit.Test;
 
+import net.balsoftware.icalendar.CalendarSnapshot;
+import net.balsoftware.icalendar.ParseDiagnostics;
+import net.balsoftware.icalendar.ParseOptions;
+import net.balsoftware.icalendar.ParseProjection;
 import net.balsoftware.icalendar.VCalendar;
+import net.balsoftware.icalendar.VChild;
+import net.balsoftware.icalendar.components.VComponentElement;
+import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.content.UnfoldingByteBufferIterator;
 import net.balsoftware.icalendar.content.UnfoldingStringIterator;
+import net.balsoftware.icalendar.properties.VPropertyElement;
+import net.balsoftware.icalendar.properties.component.descriptive.Comment;
+import net.balsoftware.icalendar.properties.component.relationship.UniqueIdentifier;
+import net.balsoftware.icalendar.utilities.InternPool;
 
 public class ReadICSFileTest
 {
@@ -77,4 +104,400 @@ public class ReadICSFileTest
         assertEquals(expectedUnfoldedContent, unfoldedContent);
         assertEquals(13217, expectedLines.size());
     }
+    
+    @Test
+    public void canReadICSFileParallel() throws IOException
+    {
+        for (String fileName : Arrays.asList("Yahoo_Sample_Calendar.ics", "mathBirthdays.ics"))
+        {
+            URL url = getClass().getResource(fileName);
+            Path icsFilePath = Paths.get(url.getFile());
+            VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+            
+            VCalendar vCalendar = VCalendar.parseParallel(icsFilePath);
+            assertEquals(expectedVCalendar.toString(), vCalendar.toString());
+            assertEquals(expectedVCalendar, vCalendar);
+            
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            VCalendar vCalendar2 = VCalendar.parse(Files.newBufferedReader(icsFilePath), executor);
+            executor.shutdown();
+            assertEquals(expectedVCalendar.toString(), vCalendar2.toString());
+        }
+    }
+    
+    @Test
+    public void canReadICSFileMapped() throws IOException
+    {
+        for (String fileName : Arrays.asList("Yahoo_Sample_Calendar.ics", "mathBirthdays.ics"))
+        {
+            URL url = getClass().getResource(fileName);
+            Path icsFilePath = Paths.get(url.getFile());
+            VCalendar expectedVCalendar = VCalendar.parse(Files.newBufferedReader(icsFilePath));
+            
+            VCalendar vCalendar = VCalendar.parse(icsFilePath);
+            assertEquals(expectedVCalendar.toString(), vCalendar.toString());
+            assertEquals(expectedVCalendar, vCalendar);
+        }
+    }
+    
+    @Test
+    public void canReadSnapshot() throws IOException
+    {
+        for (String fileName : Arrays.asList("Yahoo_Sample_Calendar.ics", "mathBirthdays.ics"))
+        {
+            URL url = getClass().getResource(fileName);
+            Path icsFilePath = Paths.get(url.getFile());
+            VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+            
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            CalendarSnapshot.write(expectedVCalendar, out);
+            assertTrue(out.size() < Files.size(icsFilePath));
+            VCalendar vCalendar = CalendarSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+            assertEquals(expectedVCalendar.toString(), vCalendar.toString());
+            assertEquals(expectedVCalendar, vCalendar);
+        }
+    }
+    
+    @Test
+    public void canReadSnapshot2() throws IOException
+    {
+        String content = "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "VERSION:2.0" + System.lineSeparator() +
+                "PRODID:-//Example Corp.//CalDAV Client//EN" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "DTSTART;TZID=America/New_York:20151109T100000" + System.lineSeparator() +
+                "DTEND;TZID=America/New_York:20151109T110000" + System.lineSeparator() +
+                "RRULE:FREQ=WEEKLY;UNTIL=20160104T150000Z;BYDAY=MO,WE" + System.lineSeparator() +
+                "EXDATE;TZID=America/New_York:20151111T100000" + System.lineSeparator() +
+                "EXDATE;TZID=America/New_York:20151116T100000" + System.lineSeparator() +
+                "ATTENDEE;ROLE=REQ-PARTICIPANT;X-EXAMPLE=1:mailto:jsmith@example.com" + System.lineSeparator() +
+                "DESCRIPTION:Weekly status\\, with notes" + System.lineSeparator() +
+                "X-EXAMPLE-PROPERTY:some value" + System.lineSeparator() +
+                "UID:20151109T082900-107@example.com" + System.lineSeparator() +
+                "BEGIN:VALARM" + System.lineSeparator() +
+                "ACTION:DISPLAY" + System.lineSeparator() +
+                "DESCRIPTION:Reminder" + System.lineSeparator() +
+                "TRIGGER:-PT15M" + System.lineSeparator() +
+                "END:VALARM" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "BEGIN:VTODO" + System.lineSeparator() +
+                "DTSTART;VALUE=DATE:20151112" + System.lineSeparator() +
+                "DUE:20151113T090000" + System.lineSeparator() +
+                "UID:20151109T082900-108@example.com" + System.lineSeparator() +
+                "END:VTODO" + System.lineSeparator() +
+                "END:VCALENDAR";
+        VCalendar expectedVCalendar = VCalendar.parse(content);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CalendarSnapshot.write(expectedVCalendar, out);
+        VCalendar vCalendar = CalendarSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(expectedVCalendar.toString(), vCalendar.toString());
+        assertEquals(expectedVCalendar, vCalendar);
+        assertEquals(expectedVCalendar.getVEvents().get(0).getRecurrenceRule().getValue().getUntil().getValue(),
+                vCalendar.getVEvents().get(0).getRecurrenceRule().getValue().getUntil().getValue());
+        assertEquals(content, vCalendar.toString());
+    }
+    
+    @Test (expected = IOException.class)
+    public void canCatchInvalidSnapshot() throws IOException
+    {
+        CalendarSnapshot.read(new ByteArrayInputStream("BEGIN:VCALENDAR".getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    @Test
+    public void canReadICSFileWithInternPool() throws IOException
+    {
+        String fileName = "Yahoo_Sample_Calendar.ics";
+        URL url = getClass().getResource(fileName);
+        Path icsFilePath = Paths.get(url.getFile());
+        VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+        
+        InternPool pool = new InternPool();
+        ParseOptions options = ParseOptions.DEFAULT.withInternPool(pool);
+        VCalendar vCalendar = VCalendar.parse(icsFilePath, options);
+        VCalendar vCalendar2 = VCalendar.parseParallel(icsFilePath, options);
+        assertEquals(expectedVCalendar, vCalendar);
+        assertEquals(expectedVCalendar.toString(), vCalendar2.toString());
+        assertTrue(pool.hits() > 0);
+        assertTrue(pool.bytesSaved() > 0);
+        // organizer of both parses is one instance
+        URI organizer = vCalendar.getVEvents().get(0).getOrganizer().getValue();
+        URI organizer2 = vCalendar2.getVEvents().get(0).getOrganizer().getValue();
+        assertEquals(organizer, organizer2);
+        assertSame(organizer, organizer2);
+        assertNotSame(organizer, expectedVCalendar.getVEvents().get(0).getOrganizer().getValue());
+    }
+    
+    @Test
+    public void canLimitInternPoolCapacity()
+    {
+        InternPool pool = new InternPool(1);
+        String s1 = new String("mailto:a@example.com");
+        String s2 = new String("mailto:b@example.com");
+        assertSame(s1, pool.intern(s1));
+        assertEquals(0, pool.bytesSaved());
+        assertSame(s1, pool.intern(new String(s1)));
+        long savedByOneDuplicate = pool.bytesSaved();
+        assertTrue(savedByOneDuplicate > 0);
+        assertSame(s2, pool.intern(s2));
+        assertNotSame(s2, pool.intern(new String(s2))); // pool is full
+        assertEquals(1, pool.size());
+        assertEquals(pool.capacity(), pool.size());
+        assertEquals(1, pool.hits());
+        assertEquals(savedByOneDuplicate, pool.bytesSaved()); // a value not pooled saves nothing
+        
+        // each duplicate saves the same amount again
+        assertSame(s1, pool.intern(new String(s1)));
+        assertEquals(2, pool.hits());
+        assertEquals(2 * savedByOneDuplicate, pool.bytesSaved());
+        
+        List<String> list = new ArrayList<>(Arrays.asList(new String(s1), "other"));
+        assertSame(list, pool.intern(list));
+        assertSame(s1, list.get(0));
+    }
+    
+    @Test
+    public void canUnfoldBytes()
+    {
+        String content = 
+                "\uFEFFBEGIN:VEVENT\r\n" +
+                "SUMMARY:Caf\u00e9 \r\n" +
+                " au lait \u2603\r\n" +
+                "\r\n" +
+                "\tand more\n" +
+                "DESCRIPTION:\uD83D\uDE00\r" +
+                "END:VEVENT";
+        Iterator<String> expectedIterator = new UnfoldingStringIterator(new BufferedReader(new StringReader(content)).lines().iterator());
+        List<String> expectedLines = new ArrayList<>();
+        expectedIterator.forEachRemaining(line -> expectedLines.add(line));
+        expectedLines.set(0, expectedLines.get(0).substring(1)); // byte order mark
+        
+        UnfoldingByteBufferIterator iterator = new UnfoldingByteBufferIterator(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+        List<String> lines = new ArrayList<>();
+        iterator.forEachRemaining(line -> lines.add(line));
+        assertEquals(expectedLines, lines);
+        assertEquals("SUMMARY:Caf\u00e9 au lait \u2603and more", lines.get(1));
+    }
+    
+    @Test
+    public void canUnfoldBytesFoldedInsideCharacter()
+    {
+        byte[] content = { 'X', '-', 'N', 'O', 'T', 'E', ':', 'c', 'a', 'f', (byte) 0xC3, '\r', '\n', ' ', (byte) 0xA9,
+                '\r', '\n', 'X', '-', 'A', ':', (byte) 0xE2, (byte) 0x98, '\r', '\n', '\t', (byte) 0x83, '!' };
+        UnfoldingByteBufferIterator iterator = new UnfoldingByteBufferIterator(ByteBuffer.wrap(content));
+        List<String> lines = new ArrayList<>();
+        iterator.forEachRemaining(line -> lines.add(line));
+        assertEquals(Arrays.asList("X-NOTE:caf\u00e9", "X-A:\u2603!"), lines);
+    }
+    
+    @Test
+    public void canParseParallelWithCalendarPropertiesBetweenComponents() throws IOException
+    {
+        String content = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+       "BEGIN:VTODO" + System.lineSeparator() +
+       "UID:20070313T123432Z-456553@example.com" + System.lineSeparator() +
+       "END:VTODO" + System.lineSeparator() +
+       "X-CUSTOM-PROP:value" + System.lineSeparator() +
+       "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(new StringReader(content), ForkJoinPool.commonPool());
+        assertEquals(content, vCalendar.toString());
+        assertEquals(VCalendar.parse(content), vCalendar);
+    }
+    
+    @Test
+    public void canCollectParallelParseMessages()
+    {
+        String content = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "SUMMARY:Second Summary" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+       "BEGIN:VTODO" + System.lineSeparator() +
+       "UID:20070313T123432Z-456553@example.com" + System.lineSeparator() +
+       "DTSTART:not a date" + System.lineSeparator() +
+       "END:VTODO" + System.lineSeparator() +
+       "END:VCALENDAR";
+        List<String> expectedMessages = new MessageCalendar().parseMessages(content, null);
+        assertEquals(2, expectedMessages.size());
+        assertEquals(expectedMessages, new MessageCalendar().parseMessages(content, ForkJoinPool.commonPool()));
+    }
+    
+    @Test
+    public void canReadMessagesWithDiagnostics()
+    {
+        String content = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "SUMMARY:Second Summary" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "END:VCALENDAR";
+        ParseDiagnostics.Collecting collecting = ParseDiagnostics.collecting();
+        List<String> messages = new MessageCalendar().parseMessages(content, null, ParseOptions.DEFAULT.withDiagnostics(collecting));
+        List<String> expectedMessages = Arrays.asList("VEVENT:Reported to the ParseDiagnostics:MESSAGE_ONLY");
+        assertEquals(expectedMessages, messages);
+        assertEquals(1, collecting.messages().size());
+    }
+    
+    /* Returns the parse messages, which the public parse methods don't return */
+    private static class MessageCalendar extends VCalendar
+    {
+        List<String> parseMessages(String content, Executor executor)
+        {
+            return parseMessages(content, executor, ParseOptions.DEFAULT);
+        }
+        
+        List<String> parseMessages(String content, Executor executor, ParseOptions options)
+        {
+            Iterator<String> lines = new UnfoldingStringIterator(Arrays.asList(content.split(System.lineSeparator())).iterator());
+            List<Message> messages = (executor == null) ? parseContent(lines, options) : parseContent(lines, executor, options);
+            return messages.stream()
+                    .map(m -> m.element.name() + ":" + m.message + ":" + m.effect)
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    @Test
+    public void canParseWithProjection() throws IOException
+    {
+        String fileName = "Yahoo_Sample_Calendar.ics";
+        URL url = getClass().getResource(fileName);
+        Path icsFilePath = Paths.get(url.getFile());
+        VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+        
+        EnumSet<VPropertyElement> properties = EnumSet.of(VPropertyElement.UNIQUE_IDENTIFIER, VPropertyElement.DATE_TIME_START,
+                VPropertyElement.DATE_TIME_END, VPropertyElement.RECURRENCE_RULE);
+        ParseProjection projection = ParseProjection.including(EnumSet.of(VComponentElement.VEVENT), properties);
+        ParseOptions options = ParseOptions.DEFAULT.withProjection(projection);
+        VCalendar vCalendar = VCalendar.parse(icsFilePath, options);
+        VCalendar vCalendarParallel = VCalendar.parseParallel(icsFilePath, options);
+        assertEquals(7, vCalendar.getVEvents().size());
+        assertNull(vCalendar.getVTimeZones());
+        assertEquals(expectedVCalendar.getVersion(), vCalendar.getVersion()); // calendar properties are parsed
+        for (int i=0; i<7; i++)
+        {
+            VEvent expectedVEvent = expectedVCalendar.getVEvents().get(i);
+            VEvent vEvent = vCalendar.getVEvents().get(i);
+            assertEquals(expectedVEvent.getUniqueIdentifier(), vEvent.getUniqueIdentifier());
+            assertEquals(expectedVEvent.getDateTimeStart(), vEvent.getDateTimeStart());
+            assertEquals(expectedVEvent.getRecurrenceRule(), vEvent.getRecurrenceRule());
+            assertNull(vEvent.getSummary());
+            assertNull(vEvent.getVAlarms());
+            for (VChild child : vEvent.childrenUnmodifiable())
+            {
+                assertTrue(properties.contains(VPropertyElement.fromClass(child.getClass())));
+            }
+        }
+        assertEquals(vCalendar.toString(), vCalendarParallel.toString());
+    }
+    
+    @Test
+    public void canKeepContentSkippedByProjection() throws IOException
+    {
+        ParseProjection projection = ParseProjection.including(
+                EnumSet.of(VComponentElement.VEVENT),
+                EnumSet.of(VPropertyElement.UNIQUE_IDENTIFIER, VPropertyElement.DATE_TIME_START))
+                .keepingSkippedContent();
+        for (String fileName : Arrays.asList("Yahoo_Sample_Calendar.ics", "mathBirthdays.ics"))
+        {
+            URL url = getClass().getResource(fileName);
+            Path icsFilePath = Paths.get(url.getFile());
+            VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+            ParseOptions options = ParseOptions.DEFAULT.withProjection(projection);
+            VCalendar vCalendar = VCalendar.parse(icsFilePath, options);
+            VCalendar vCalendarParallel = VCalendar.parseParallel(icsFilePath, options);
+            assertEquals(vCalendar.toString(), vCalendarParallel.toString());
+            // kept content includes repeated properties a full parse ignores, so compare the parsed output
+            assertEquals(expectedVCalendar, VCalendar.parse(new StringReader(vCalendar.toString())));
+        }
+    }
+    
+    @Test
+    public void canKeepSkippedContentInPlace()
+    {
+        String content = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+       "DESCRIPTION:A long description" + System.lineSeparator() +
+       "DTSTART:19970714T170000Z" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "END:VCALENDAR";
+        ParseProjection projection = ParseProjection.excluding(null, EnumSet.of(VPropertyElement.DESCRIPTION))
+                .keepingSkippedContent();
+        VCalendar vCalendar = VCalendar.parse(content, ParseOptions.DEFAULT.withProjection(projection));
+        assertEquals(content, vCalendar.toString());
+        
+        // the skipped DESCRIPTION follows UID, then the child before UID when UID is removed
+        VEvent vEvent = vCalendar.getVEvents().get(0);
+        vEvent.addChild(0, Comment.parse("COMMENT:first"));
+        assertEquals(content.replace("BEGIN:VEVENT" + System.lineSeparator(),
+                "BEGIN:VEVENT" + System.lineSeparator() + "COMMENT:first" + System.lineSeparator()), vCalendar.toString());
+        vEvent.setUniqueIdentifier((UniqueIdentifier) null);
+        String expectedContent = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "COMMENT:first" + System.lineSeparator() +
+       "DESCRIPTION:A long description" + System.lineSeparator() +
+       "DTSTART:19970714T170000Z" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "END:VCALENDAR";
+        assertEquals(expectedContent, vCalendar.toString());
+        
+        // copies keep the skipped content
+        assertEquals(expectedContent, new VCalendar(vCalendar).toString());
+    }
+    
+    @Test
+    public void canExcludeWithProjection()
+    {
+        String content = 
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+       "DESCRIPTION:A long description" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "X-CUSTOM-PROP:value" + System.lineSeparator() +
+       "BEGIN:VALARM" + System.lineSeparator() +
+       "ACTION:DISPLAY" + System.lineSeparator() +
+       "DESCRIPTION:Reminder" + System.lineSeparator() +
+       "TRIGGER;RELATED=START:-PT30M" + System.lineSeparator() +
+       "END:VALARM" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "END:VCALENDAR";
+        ParseProjection projection = ParseProjection.excluding(
+                EnumSet.of(VComponentElement.VALARM),
+                EnumSet.of(VPropertyElement.DESCRIPTION, VPropertyElement.NON_STANDARD_PROPERTY));
+        VCalendar vCalendar = VCalendar.parse(content, ParseOptions.DEFAULT.withProjection(projection));
+        String expectedContent = 
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "VERSION:2.0" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+                "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR";
+        assertEquals(expectedContent, vCalendar.toString());
+        
+        vCalendar = VCalendar.parse(content, ParseOptions.DEFAULT.withProjection(projection.keepingSkippedContent()));
+        assertNull(vCalendar.getVEvents().get(0).getVAlarms());
+        assertEquals(content, vCalendar.toString());
+    }
 }
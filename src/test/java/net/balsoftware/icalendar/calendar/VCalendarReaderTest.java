@@ -0,0 +1,203 @@
+package net.balsoftware.icalendar.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import net.balsoftware.icalendar.VCalendar;
+import net.balsoftware.icalendar.VCalendarPushParser;
+import net.balsoftware.icalendar.VCalendarReader;
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.components.VTimeZone;
+
+public class VCalendarReaderTest
+{
+    @Test
+    public void canStreamComponents() throws IOException
+    {
+        String content =
+       "BEGIN:VCALENDAR" + System.lineSeparator() +
+       "VERSION:2.0" + System.lineSeparator() +
+       "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+       "BEGIN:VEVENT" + System.lineSeparator() +
+       "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+       "DTSTAMP:19970610T172345Z" + System.lineSeparator() +
+       "DTSTART:19970714T170000Z" + System.lineSeparator() +
+       "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+       "BEGIN:VALARM" + System.lineSeparator() +
+       "ACTION:DISPLAY" + System.lineSeparator() +
+       "DESCRIPTION:Reminder" + System.lineSeparator() +
+       "TRIGGER;RELATED=START:-PT30M" + System.lineSeparator() +
+       "END:VALARM" + System.lineSeparator() +
+       "END:VEVENT" + System.lineSeparator() +
+       "BEGIN:X-UNKNOWN" + System.lineSeparator() +
+       "SUMMARY:ignored" + System.lineSeparator() +
+       "END:X-UNKNOWN" + System.lineSeparator() +
+       "METHOD:PUBLISH" + System.lineSeparator() +
+       "BEGIN:VTODO" + System.lineSeparator() +
+       "UID:20070313T123432Z-456553@example.com" + System.lineSeparator() +
+       "SUMMARY:Submit Quebec Income Tax Return for 2006" + System.lineSeparator() +
+       "END:VTODO" + System.lineSeparator() +
+       "END:VCALENDAR";
+
+        VCalendarReader reader = new VCalendarReader(new StringReader(content));
+        assertNull(reader.getVCalendar().getMethod());
+
+        VComponent vEvent = reader.next();
+        assertEquals(VEvent.class, vEvent.getClass());
+        assertEquals(1, ((VEvent) vEvent).getVAlarms().size());
+        String expectedVEvent =
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "UID:19970610T172345Z-AF23B2@example.com" + System.lineSeparator() +
+                "DTSTAMP:19970610T172345Z" + System.lineSeparator() +
+                "DTSTART:19970714T170000Z" + System.lineSeparator() +
+                "SUMMARY:Bastille Day Party" + System.lineSeparator() +
+                "BEGIN:VALARM" + System.lineSeparator() +
+                "ACTION:DISPLAY" + System.lineSeparator() +
+                "DESCRIPTION:Reminder" + System.lineSeparator() +
+                "TRIGGER;RELATED=START:-PT30M" + System.lineSeparator() +
+                "END:VALARM" + System.lineSeparator() +
+                "END:VEVENT";
+        assertEquals(expectedVEvent, vEvent.toString());
+        String expectedCalendar =
+                "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "VERSION:2.0" + System.lineSeparator() +
+                "PRODID:-//hacksw/handcal//NONSGML v1.0//EN" + System.lineSeparator() +
+                "END:VCALENDAR";
+        assertEquals(expectedCalendar, reader.getVCalendar().toString());
+
+        VComponent vTodo = reader.next();
+        assertEquals("VTODO", vTodo.name());
+        assertEquals("PUBLISH", reader.getVCalendar().getMethod().getValue().toString());
+        assertFalse(reader.hasNext());
+        reader.close();
+    }
+
+    @Test
+    public void canStreamICSFile() throws IOException
+    {
+        String fileName = "Yahoo_Sample_Calendar.ics";
+        URL url = getClass().getResource(fileName);
+        Path icsFilePath = Paths.get(url.getFile());
+
+        VCalendar vCalendar = VCalendar.parse(icsFilePath);
+        try (VCalendarReader reader = new VCalendarReader(icsFilePath))
+        {
+            List<VComponent> components = reader.stream().collect(Collectors.toList());
+            assertEquals(8, components.size());
+            assertEquals(7, components.stream().filter(c -> c instanceof VEvent).count());
+            assertEquals(vCalendar.getVEvents(), components.subList(0, 7));
+            assertEquals(VTimeZone.class, components.get(7).getClass());
+            assertEquals(vCalendar.getVTimeZones().get(0), components.get(7));
+            assertEquals(vCalendar.getVersion(), reader.getVCalendar().getVersion());
+            assertEquals(vCalendar.getProductIdentifier(), reader.getVCalendar().getProductIdentifier());
+        }
+    }
+
+    @Test
+    public void canPushChunksSplitAnywhere() throws IOException
+    {
+        for (String fileName : new String[] { "Yahoo_Sample_Calendar.ics", "mathBirthdays.ics" })
+        {
+            URL url = getClass().getResource(fileName);
+            Path icsFilePath = Paths.get(url.getFile());
+            byte[] bytes = Files.readAllBytes(icsFilePath);
+            VCalendar expectedVCalendar = VCalendar.parse(icsFilePath);
+            List<VComponent> expectedComponents;
+            try (VCalendarReader reader = new VCalendarReader(icsFilePath))
+            {
+                expectedComponents = reader.stream().collect(Collectors.toList());
+            }
+
+            // chunk sizes from one byte, splitting every line, fold and multi-byte character, to random sizes
+            Random random = new Random(1);
+            for (int maxChunkSize : new int[] { 1, 3, 4096 })
+            {
+                List<VComponent> components = new ArrayList<>();
+                VCalendarPushParser parser = new VCalendarPushParser(components::add);
+                int position = 0;
+                while (position < bytes.length)
+                {
+                    int chunkSize = Math.min(bytes.length - position, 1 + random.nextInt(maxChunkSize));
+                    ByteBuffer chunk = ByteBuffer.wrap(bytes, position, chunkSize).slice();
+                    assertTrue(parser.feed(chunk));
+                    assertFalse(chunk.hasRemaining());
+                    position += chunkSize;
+                }
+                parser.close();
+                assertEquals(expectedComponents, components);
+                assertEquals(expectedVCalendar.getVersion(), parser.getVCalendar().getVersion());
+            }
+        }
+    }
+
+    @Test
+    public void canPushFoldedLinesWithBackpressure()
+    {
+        String content =
+       "\uFEFFBEGIN:VCALENDAR\r\n" +
+       "VERSION:2.0\r\n" +
+       "BEGIN:VEVENT\r\n" +
+       "UID:1@example.com\r\n" +
+       "SUMMARY:Caf\u00E9 \r\n" +
+       " meeting\r\n" +
+       "END:VEVENT\r\n" +
+       "BEGIN:VTODO\r\n" +
+       "UID:2@example.com\r\n" +
+       "END:VTODO\r\n" +
+       "METHOD:PUBLISH\r\n" +
+       "BEGIN:VJOURNAL\r\n" +
+       "UID:3@example.com\r\n" +
+       "END:VJOURNAL\r\n" +
+       "END:VCALENDAR\r\n";
+        List<VComponent> components = new ArrayList<>();
+        List<VCalendar> completed = new ArrayList<>();
+        VCalendarPushParser parser = new VCalendarPushParser(new VCalendarPushParser.Subscriber()
+        {
+            @Override
+            public void onNext(VComponent component) { components.add(component); }
+            @Override
+            public void onComplete(VCalendar vCalendar) { completed.add(vCalendar); }
+        });
+        ByteBuffer chunk = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+
+        // without demand, parsing stops after the first component
+        assertFalse(parser.feed(chunk));
+        assertTrue(parser.isWaiting());
+        assertTrue(chunk.hasRemaining());
+        assertEquals(0, components.size());
+
+        parser.request(1);
+        assertEquals(1, components.size());
+        assertEquals("Caf\u00E9 meeting", ((VEvent) components.get(0)).getSummary().getValue());
+        assertFalse(parser.feed(chunk));
+        assertEquals(1, components.size());
+
+        parser.request(2);
+        assertEquals("VTODO", components.get(1).name());
+        assertTrue(parser.feed(chunk));
+        assertFalse(chunk.hasRemaining());
+        parser.finish();
+        assertEquals(3, components.size());
+        assertEquals(0, parser.demand());
+        assertEquals(1, completed.size());
+        assertEquals("PUBLISH", completed.get(0).getMethod().getValue().toString());
+    }
+}
@@ -1,6 +1,8 @@
 package net.balsoftware.icalendar.calendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDateTime;
 import java.time.temporal.Temporal;
@@ -109,5 +111,74 @@ public class VCalendarRecurrenceIDTest extends ICalendarTestAbstract
             assertEquals(expectedRecurrences, madeRecurrences);
         }
     }
+    
+    @Test
+    public void canFindByUniqueIdentifier()
+    {
+        VEvent parent = getYearly1();
+        VEvent child = getRecurrenceForYearly1();
+        VCalendar c = new VCalendar()
+                .withVEvents(parent, child);
+        String uid = parent.getUniqueIdentifier().getValue();
+        assertEquals(Arrays.asList(parent, child), c.findByUniqueIdentifier(uid));
+        assertEquals(parent, child.recurrenceParent());
+
+        // change UID
+        child.setUniqueIdentifier("new-uid@example.com");
+        assertEquals(Arrays.asList(parent), c.findByUniqueIdentifier(uid));
+        assertEquals(Arrays.asList(child), c.findByUniqueIdentifier("new-uid@example.com"));
+        assertEquals(0, parent.recurrenceChildren().size());
+        assertNull(child.recurrenceParent());
+
+        // change back
+        child.getUniqueIdentifier().setValue(uid);
+        assertEquals(1, parent.recurrenceChildren().size());
+        assertTrue(c.findByUniqueIdentifier("new-uid@example.com").isEmpty());
+
+        // remove
+        c.removeChild(child);
+        assertEquals(Arrays.asList(parent), c.findByUniqueIdentifier(uid));
+        assertEquals(0, parent.recurrenceChildren().size());
+    }
+    
+    @Test
+    public void canFindByUniqueIdentifierAfterListChanges()
+    {
+        VEvent parent = getYearly1();
+        VEvent child = getRecurrenceForYearly1();
+        VCalendar c = new VCalendar()
+                .withVEvents(parent);
+        String uid = parent.getUniqueIdentifier().getValue();
+        assertEquals(Arrays.asList(parent), c.findByUniqueIdentifier(uid));
 
+        // add one and remove another directly on the list, registering both with orderChild
+        c.getVEvents().add(child);
+        c.orderChild(child);
+        c.getVEvents().remove(parent);
+        c.orderChild(parent, null);
+        assertEquals(Arrays.asList(child), c.findByUniqueIdentifier(uid));
+    }
+    
+    @Test
+    public void canFindByUniqueIdentifierAfterSameSizeReplacement()
+    {
+        VEvent parent = getYearly1();
+        VEvent other = getYearly1()
+                .withUniqueIdentifier("other-uid@example.com");
+        VCalendar c = new VCalendar()
+                .withVEvents(parent);
+        String uid = parent.getUniqueIdentifier().getValue();
+        assertEquals(Arrays.asList(parent), c.findByUniqueIdentifier(uid));
+
+        // replace directly on the list, without orderChild, keeping the same number of components
+        c.getVEvents().set(0, other);
+        assertTrue(c.findByUniqueIdentifier(uid).isEmpty());
+        assertEquals(Arrays.asList(other), c.findByUniqueIdentifier("other-uid@example.com"));
+
+        // add and remove directly on the list
+        c.getVEvents().add(parent);
+        c.getVEvents().remove(other);
+        assertEquals(Arrays.asList(parent), c.findByUniqueIdentifier(uid));
+        assertTrue(c.findByUniqueIdentifier("other-uid@example.com").isEmpty());
+    }
 }
@@ -1,17 +1,31 @@
 package net.balsoftware.icalendar.component;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
+import net.balsoftware.icalendar.ParseDiagnostics;
+import net.balsoftware.icalendar.ParseOptions;
+import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.properties.ValueType;
 import net.balsoftware.icalendar.properties.component.recurrence.ExceptionDates;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 import net.balsoftware.icalendar.utilities.DateTimeUtilities.DateTimeType;
+import net.balsoftware.icalendar.utilities.IntegerStringConverter;
+import net.balsoftware.icalendar.utilities.StringConverter;
 
 public class ErrorCatchTest
 {
@@ -69,6 +83,92 @@ public class ErrorCatchTest
             assertEquals(expected, v);
     }
     
+    @Test
+    public void canReportParseProblemsToDiagnostics()
+    {
+            String content = "BEGIN:VEVENT" + System.lineSeparator() +
+            "SUMMARY:#1" + System.lineSeparator() +
+            "DTSTART;TZID=America/Los_Angeles:20160207T123000" + System.lineSeparator() +
+            "DTSTAMP:2016XX07T123000Z" + System.lineSeparator() + // invalid value
+            "PRIORITY:high" + System.lineSeparator() + // invalid value
+            "SEQUENCE:2" + System.lineSeparator() +
+            "SUMMARY:#2" + System.lineSeparator() + // duplicate
+            "IGNORE THIS LINE" + System.lineSeparator() +
+            "END:VEVENT";
+            VEvent expected = new VEvent()
+                    .withSummary("#1")
+                    .withDateTimeStart(ZonedDateTime.of(LocalDateTime.of(2016, 2, 7, 12, 30), ZoneId.of("America/Los_Angeles")))
+                    .withSequence(2);
+            
+            ParseDiagnostics.Counting counting = ParseDiagnostics.counting();
+            VEvent v = ParseOptions.DEFAULT.withDiagnostics(counting).parse(new VEvent(), content);
+            assertEquals(expected, v);
+            assertEquals(4, counting.count());
+            
+            ParseDiagnostics.Collecting collecting = ParseDiagnostics.collecting();
+            v = ParseOptions.DEFAULT.withDiagnostics(collecting).parse(new VEvent(), content);
+            assertEquals(expected, v);
+            List<String> expectedMessages = Arrays.asList(
+                    "DTSTAMP:Invalid element:2016XX07T123000Z",
+                    "PRIORITY:Invalid element:high",
+                    "VEVENT:Summary can only occur once in a calendar component.  Ignoring instances beyond first.",
+                    "VEVENT:Unknown element:IGNORE THIS LINE");
+            assertEquals(expectedMessages, collecting.messages());
+            
+            v = ParseOptions.DEFAULT.withDiagnostics(ParseDiagnostics.none()).parse(new VEvent(), content);
+            assertEquals(expected, v);
+    }
+    
+    @Test
+    public void canSkipChildRejectedBySetter() throws IOException
+    {
+        String content = "BEGIN:VCALENDAR" + System.lineSeparator() +
+            "VERSION:2.0" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "SUMMARY:#1" + System.lineSeparator() +
+            "DTSTART:20160207T123000" + System.lineSeparator() +
+            "DURATION:-P2D" + System.lineSeparator() + // rejected by setDuration
+            "END:VEVENT" + System.lineSeparator() +
+            "BEGIN:VEVENT" + System.lineSeparator() +
+            "SUMMARY:#2" + System.lineSeparator() +
+            "END:VEVENT" + System.lineSeparator() +
+            "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(new StringReader(content));
+        assertEquals(2, vCalendar.getVEvents().size());
+        assertNull(vCalendar.getVEvents().get(0).getDuration());
+        assertEquals("#2", vCalendar.getVEvents().get(1).getSummary().getValue());
+        
+        ParseDiagnostics.Collecting collecting = ParseDiagnostics.collecting();
+        VCalendar.parse(new StringReader(content), ParseOptions.DEFAULT.withDiagnostics(collecting));
+        assertEquals(1, collecting.messages().size());
+        assertTrue(collecting.messages().get(0).startsWith("VEVENT:Invalid element:DURATION:-P2D"));
+    }
+    
+    @Test (expected=IllegalArgumentException.class)
+    public void canFailFastWithDiagnostics()
+    {
+            String content = "BEGIN:VEVENT" + System.lineSeparator() +
+            "SUMMARY:#1" + System.lineSeparator() +
+            "PRIORITY:high" + System.lineSeparator() +
+            "END:VEVENT";
+            ParseOptions.DEFAULT.withDiagnostics(ParseDiagnostics.failFast()).parse(new VEvent(), content);
+    }
+    
+    @Test
+    public void canConvertWithoutException()
+    {
+        assertNull(DateTimeUtilities.tryTemporalFromString("not a date"));
+        assertNull(DateTimeUtilities.tryTemporalFromString("20161301"));
+        assertEquals(LocalDate.of(2016, 2, 7), DateTimeUtilities.tryTemporalFromString("20160207"));
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 2, 7, 12, 30), ZoneId.of("America/Los_Angeles")),
+                DateTimeUtilities.tryTemporalFromString("TZID=America/Los_Angeles:20160207T123000"));
+        StringConverter<Integer> converter = new IntegerStringConverter();
+        assertEquals(-12, converter.tryFromString(" -12 "));
+        assertSame(StringConverter.INVALID, converter.tryFromString("12a"));
+        assertSame(StringConverter.INVALID, converter.tryFromString("3000000000"));
+        assertSame(StringConverter.INVALID, ValueType.DATE.getConverter().tryFromString("20160207T123000"));
+    }
+    
     @Test
     public void canCatchParseWithBadLine()
     {
@@ -1,8 +1,13 @@
 package net.balsoftware.icalendar.component;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.Test;
 
@@ -10,6 +15,7 @@ import net.balsoftware.icalendar.ICalendarStaticComponents;
 import net.balsoftware.icalendar.components.VAlarm;
 import net.balsoftware.icalendar.components.VEvent;
 import net.balsoftware.icalendar.properties.component.descriptive.Categories;
+import net.balsoftware.icalendar.properties.component.descriptive.Comment;
 import net.balsoftware.icalendar.properties.component.descriptive.Description;
 import net.balsoftware.icalendar.properties.component.descriptive.Classification.ClassificationType;
 import net.balsoftware.icalendar.properties.component.time.DateTimeStart;
@@ -135,4 +141,90 @@ public class GeneralComponentTest
 //        VEventNew e = vCalendar.getVEvents().get(1);
 //        e.getNonStandardProperties().stream().forEach(System.out::println);
     }
+    
+    @Test
+    public void canKeepHashCodeUntilChanged()
+    {
+        VEvent v1 = VEvent.parse("BEGIN:VEVENT" + System.lineSeparator() +
+                "SUMMARY;LANGUAGE=en:test" + System.lineSeparator() +
+                "UID:20150110T080000-004@jfxtras.org" + System.lineSeparator() +
+                "COMMENT:first" + System.lineSeparator() +
+                "END:VEVENT");
+        VEvent v2 = VEvent.parse("BEGIN:VEVENT" + System.lineSeparator() +
+                "COMMENT:first" + System.lineSeparator() +
+                "UID:20150110T080000-004@jfxtras.org" + System.lineSeparator() +
+                "SUMMARY;LANGUAGE=en:test" + System.lineSeparator() +
+                "END:VEVENT");
+        // child order doesn't matter, like equals
+        assertEquals(v1, v2);
+        assertEquals(v1.hashCode(), v2.hashCode());
+        
+        int hash = v1.hashCode();
+        v1.setSummary("changed");
+        assertNotEquals(hash, v1.hashCode());
+        assertNotEquals(v1, v2);
+        v1.getSummary().setValue("test");
+        v1.getSummary().setLanguage("en");
+        assertEquals(hash, v1.hashCode());
+        assertEquals(v1, v2);
+        
+        // a changed descendant changes the hash code
+        v2.getComments().get(0).setValue("second");
+        assertNotEquals(hash, v2.hashCode());
+        assertNotEquals(v1, v2);
+    }
+    
+    @Test
+    public void canCompareLargeComponents()
+    {
+        List<Comment> comments = new ArrayList<>();
+        for (int i=0; i<3000; i++)
+        {
+            comments.add(Comment.parse("comment " + i));
+        }
+        VEvent v1 = new VEvent().withSummary("large").withComments(copy(comments));
+        VEvent v2 = new VEvent().withSummary("large").withComments(copy(comments));
+        VEvent v3 = new VEvent().withSummary("large").withComments(copy(comments));
+        v3.getComments().get(2999).setValue("different");
+        assertEquals(v1, v2);
+        assertEquals(v1.hashCode(), v2.hashCode());
+        assertNotEquals(v1, v3);
+        
+        // changing a child clears the kept hash code
+        int hash = v3.hashCode();
+        v3.getComments().get(2999).setValue("comment 2999");
+        assertNotEquals(hash, v3.hashCode());
+        assertEquals(v1.hashCode(), v3.hashCode());
+        assertEquals(v1, v3);
+        
+        // adding a child compares it to the other children of its type
+        VEvent v4 = new VEvent();
+        for (Comment comment : comments)
+        {
+            v4.addChild(new Comment(comment));
+        }
+        assertEquals(3000, v4.getComments().size());
+    }
+    
+    @Test
+    public void canCompareAfterValueChangedInPlace()
+    {
+        Categories x = Categories.parse("CATEGORIES:A");
+        Categories y = Categories.parse("CATEGORIES:A,B");
+        VEvent v1 = new VEvent().withCategories(x);
+        VEvent v2 = new VEvent().withCategories(y);
+        v1.hashCode();
+        v2.hashCode();
+        assertNotEquals(v1, v2);
+        // the kept hash codes aren't cleared by a change in place, but equals still compares the values
+        x.getValue().add("B");
+        assertEquals(v1, v2);
+    }
+    
+    private static List<Comment> copy(List<Comment> comments)
+    {
+        List<Comment> copies = new ArrayList<>();
+        comments.forEach(c -> copies.add(new Comment(c)));
+        return copies;
+    }
 }
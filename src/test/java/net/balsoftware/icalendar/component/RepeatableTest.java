@@ -20,6 +20,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.junit.Test;
@@ -35,6 +36,7 @@ import net.balsoftware.icalendar.components.VRepeatable;
 import net.balsoftware.icalendar.components.VTodo;
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceDates;
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRule;
+import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRuleCache;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.FrequencyType;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
@@ -1350,6 +1352,105 @@ public class RepeatableTest //extends Application
         assertEquals(LocalDate.of(2015, 11, 24), e2.recurrenceCache().previousValue(LocalDate.of(2015, 12, 31)));
     }
     
+    @Test
+    public void canLimitCacheCapacity()
+    {
+        VEvent e = new VEvent()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 7, 10, 0))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.DAILY));
+        RecurrenceRuleCache cache = new RecurrenceRuleCache(e, 10, 5);
+        cache.makeCache(e.streamRecurrences()).limit(100).count();
+        assertEquals(5, cache.size());
+        // oldest checkpoints are dropped
+        assertEquals(LocalDateTime.of(2016, 1, 26, 10, 0), cache.getClosestStart(LocalDateTime.of(2016, 1, 30, 10, 0)));
+        assertEquals(LocalDateTime.of(2015, 11, 7, 10, 0), cache.getClosestStart(LocalDateTime.of(2015, 11, 30, 10, 0)));
+
+        // changed RRULE discards checkpoints
+        e.getRecurrenceRule().getValue().setInterval(2);
+        assertEquals(LocalDateTime.of(2015, 11, 7, 10, 0), cache.getClosestStart(LocalDateTime.of(2016, 1, 30, 10, 0)));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void canEvictLeastRecentlyUsedCache()
+    {
+        RecurrenceRuleCache.Budget defaultBudget = RecurrenceRuleCache.getBudget();
+        RecurrenceRuleCache.setBudget(new RecurrenceRuleCache.Budget(8));
+        try
+        {
+            VEvent e1 = new VEvent()
+                    .withDateTimeStart(LocalDateTime.of(2015, 11, 7, 10, 0))
+                    .withRecurrenceRule(new RecurrenceRuleValue()
+                            .withFrequency(FrequencyType.DAILY));
+            VEvent e2 = new VEvent(e1);
+            RecurrenceRuleCache cache1 = new RecurrenceRuleCache(e1, 10, 50);
+            RecurrenceRuleCache cache2 = new RecurrenceRuleCache(e2, 10, 50);
+            cache1.makeCache(e1.streamRecurrences()).limit(50).count();
+            assertEquals(5, cache1.size());
+            cache2.makeCache(e2.streamRecurrences()).limit(50).count();
+            assertEquals(0, cache1.size());
+            assertEquals(5, cache2.size());
+            assertTrue(RecurrenceRuleCache.getBudget().size() <= 8);
+            
+            // evicted cache still finds a start
+            assertEquals(LocalDateTime.of(2015, 11, 7, 10, 0), cache1.getClosestStart(LocalDateTime.of(2015, 12, 20, 10, 0)));
+        } finally
+        {
+            RecurrenceRuleCache.setBudget(defaultBudget);
+        }
+    }
+    
+    @Test
+    public void canCountBudgetInParallel()
+    {
+        RecurrenceRuleCache.Budget defaultBudget = RecurrenceRuleCache.getBudget();
+        RecurrenceRuleCache.setBudget(new RecurrenceRuleCache.Budget(40));
+        try
+        {
+            VEvent e = new VEvent()
+                    .withDateTimeStart(LocalDateTime.of(2015, 11, 7, 10, 0))
+                    .withRecurrenceRule(new RecurrenceRuleValue()
+                            .withFrequency(FrequencyType.DAILY));
+            List<RecurrenceRuleCache> caches = IntStream.range(0, 16)
+                    .mapToObj(i -> new RecurrenceRuleCache(new VEvent(e), 3, 20))
+                    .collect(Collectors.toList());
+            IntStream.range(0, 2000).parallel().forEach(i ->
+            {
+                RecurrenceRuleCache cache = caches.get(i % caches.size());
+                cache.makeCache(e.getRecurrenceRule().getValue().streamRecurrences(cache.getClosestStart(LocalDateTime.of(2016, 1, 1 + i % 28, 10, 0))))
+                        .limit(30)
+                        .count();
+            });
+            int cached = caches.stream().mapToInt(c -> c.size()).sum();
+            assertEquals(cached, RecurrenceRuleCache.getBudget().size());
+            assertTrue(cached <= 40);
+        } finally
+        {
+            RecurrenceRuleCache.setBudget(defaultBudget);
+        }
+    }
+
+    @Test
+    public void canShareCacheAcrossThreads()
+    {
+        VEvent e = new VEvent()
+                .withDateTimeStart(LocalDateTime.of(2015, 11, 7, 10, 0))
+                .withRecurrenceRule(new RecurrenceRuleValue()
+                        .withFrequency(FrequencyType.WEEKLY)
+                        .withByRules(new ByDay(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY)));
+        List<Temporal> expectedRecurrences = e.streamRecurrences().limit(1000).collect(Collectors.toList());
+        IntStream.range(0, 200)
+                .parallel()
+                .forEach(i ->
+                {
+                    Temporal start = expectedRecurrences.get((i * 37) % 900);
+                    List<Temporal> recurrences = e.streamRecurrences(start).limit(100).collect(Collectors.toList());
+                    int startIndex = expectedRecurrences.indexOf(start);
+                    assertEquals(expectedRecurrences.subList(startIndex, startIndex + 100), recurrences);
+                });
+    }
+    
     // Tests added components with recurrence ID to parent's list of recurrences
     @Test
     public void canHandleRecurrenceID()
@@ -6,13 +6,16 @@ import static org.junit.Assert.assertTrue;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.Month;
 import java.time.Period;
 
 import org.junit.Test;
 
 import net.balsoftware.icalendar.ICalendarStaticComponents;
 import net.balsoftware.icalendar.components.VAlarm;
+import net.balsoftware.icalendar.components.StandardTime;
 import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.components.VTimeZone;
 import net.balsoftware.icalendar.parameters.Language;
 import net.balsoftware.icalendar.properties.component.alarm.Action;
 import net.balsoftware.icalendar.properties.component.alarm.RepeatCount;
@@ -21,6 +24,8 @@ import net.balsoftware.icalendar.properties.component.alarm.Action.ActionType;
 import net.balsoftware.icalendar.properties.component.descriptive.Categories;
 import net.balsoftware.icalendar.properties.component.descriptive.Comment;
 import net.balsoftware.icalendar.properties.component.descriptive.Summary;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonth;
 import net.balsoftware.icalendar.properties.component.relationship.Attendee;
 import net.balsoftware.icalendar.properties.component.time.DateTimeStart;
 
@@ -89,4 +94,26 @@ public class AddAndRemoveChildrenTests
         v.removeChild(category);
         assertTrue(v.getCategories().isEmpty());
     }
+    
+    @Test
+    public void canAddAndRemoveSubclassChildren()
+    {
+        RecurrenceRuleValue rrule = RecurrenceRuleValue.parse("FREQ=YEARLY");
+        ByMonth byMonth = new ByMonth(Month.MARCH);
+        rrule.addChild(byMonth);
+        assertEquals("FREQ=YEARLY;BYMONTH=3", rrule.toString());
+        rrule.removeChild(byMonth);
+        assertTrue(rrule.getByRules().isEmpty());
+        
+        VTimeZone vTimeZone = new VTimeZone();
+        StandardTime standard = StandardTime.parse("BEGIN:STANDARD" + System.lineSeparator() +
+                "DTSTART:19671029T020000" + System.lineSeparator() +
+                "TZOFFSETFROM:-0400" + System.lineSeparator() +
+                "TZOFFSETTO:-0500" + System.lineSeparator() +
+                "END:STANDARD");
+        vTimeZone.addChild(standard);
+        assertEquals(1, vTimeZone.getStandardOrDaylight().size());
+        vTimeZone.removeChild(standard);
+        assertTrue(vTimeZone.getStandardOrDaylight().isEmpty());
+    }
 }
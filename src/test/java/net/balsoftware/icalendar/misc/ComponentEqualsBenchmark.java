@@ -0,0 +1,76 @@
+package net.balsoftware.icalendar.misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.balsoftware.icalendar.components.VEvent;
+import net.balsoftware.icalendar.properties.component.descriptive.Comment;
+
+/**
+ * Times equals, hashCode and adding children for a component with many children.  Not part of the unit tests,
+ * run the main method by hand and compare the times between versions.
+ *
+ * @author David Bal
+ */
+public class ComponentEqualsBenchmark
+{
+    private static final int COMMENTS = 3000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args)
+    {
+        List<Comment> comments = new ArrayList<>();
+        for (int i=0; i<COMMENTS; i++)
+        {
+            comments.add(Comment.parse("comment " + i));
+        }
+        VEvent v1 = new VEvent().withSummary("large").withComments(copy(comments));
+        VEvent v2 = new VEvent().withSummary("large").withComments(copy(comments));
+        VEvent v3 = new VEvent().withSummary("large").withComments(copy(comments));
+        v3.getComments().get(COMMENTS - 1).setValue("different");
+
+        for (int round=0; round<WARMUP_ROUNDS + ROUNDS; round++)
+        {
+            boolean isMeasured = round >= WARMUP_ROUNDS;
+
+            long start = System.nanoTime();
+            boolean result = true;
+            for (int i=0; i<200; i++)
+            {
+                result &= v1.equals(v2);
+                result &= ! v1.equals(v3);
+            }
+            long equalsTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int hash = 0;
+            for (int i=0; i<200; i++)
+            {
+                hash += v1.hashCode() + v3.hashCode();
+            }
+            long hashCodeTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            VEvent v4 = new VEvent();
+            for (Comment comment : comments)
+            {
+                v4.addChild(new Comment(comment));
+            }
+            long addTime = System.nanoTime() - start;
+
+            if (isMeasured)
+            {
+                System.out.println(String.format("equals: %,d us  hashCode: %,d us  add %d children: %,d us  (%b %d %d)",
+                        equalsTime / 1000, hashCodeTime / 1000, COMMENTS, addTime / 1000, result, hash, v4.getComments().size()));
+            }
+        }
+    }
+
+    private static List<Comment> copy(List<Comment> comments)
+    {
+        List<Comment> copies = new ArrayList<>();
+        comments.forEach(c -> copies.add(new Comment(c)));
+        return copies;
+    }
+}
@@ -1,13 +1,25 @@
 package net.balsoftware.icalendar.misc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import org.junit.Test;
 
+import net.balsoftware.icalendar.VElementBase;
+import net.balsoftware.icalendar.components.VComponent;
+import net.balsoftware.icalendar.components.VComponentElement;
+import net.balsoftware.icalendar.parameters.VParameter;
+import net.balsoftware.icalendar.parameters.VParameterElement;
+import net.balsoftware.icalendar.properties.VProperty;
+import net.balsoftware.icalendar.properties.VPropertyElement;
 import net.balsoftware.icalendar.properties.component.descriptive.Summary;
+import net.balsoftware.icalendar.properties.component.misc.NonStandardProperty;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRuleElement;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RRulePart;
+import net.balsoftware.icalendar.properties.component.time.DateTimeStart;
 
 public class CreateElementsTests
 {   
@@ -28,4 +40,32 @@ public class CreateElementsTests
     	Summary s2 = new Summary();
 		assertEquals(s, s2);
     }
+    
+    @Test
+    public void canMakeEmptyElementsByName()
+    {
+        for (VComponentElement e : VComponentElement.values())
+        {
+            assertEquals(e.elementClass(), VElementBase.newEmptyVElement(VComponent.class, e.toString()).getClass());
+        }
+        for (VPropertyElement e : VPropertyElement.values())
+        {
+            assertEquals(e.elementClass(), VElementBase.newEmptyVElement(VProperty.class, e.toString()).getClass());
+        }
+        for (VParameterElement e : VParameterElement.values())
+        {
+            assertEquals(e.elementClass(), VElementBase.newEmptyVElement(VParameter.class, e.toString()).getClass());
+        }
+        for (RRuleElement e : RRuleElement.values())
+        {
+            assertEquals(e.elementClass(), VElementBase.newEmptyVElement(RRulePart.class, e.toString()).getClass());
+        }
+        assertEquals(Summary.class, VElementBase.newEmptyVElement(VProperty.class, "Summary").getClass());
+        assertEquals(NonStandardProperty.class, VElementBase.newEmptyVElement(VProperty.class, "x-my-property").getClass());
+        String line = "DTSTART;TZID=America/Los_Angeles:20160207T123000";
+        assertEquals(DateTimeStart.class, VElementBase.newEmptyVElement(VProperty.class, line, 0, 7).getClass());
+        assertNull(VElementBase.newEmptyVElement(VProperty.class, line, 0, 6));
+        assertNull(VElementBase.newEmptyVElement(VProperty.class, "VEVENT"));
+        assertNull(VElementBase.newEmptyVElement(VComponent.class, "X-COMPONENT"));
+    }
 }
@@ -2,8 +2,13 @@ package net.balsoftware.icalendar.misc;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+
 import org.junit.Test;
 
+import net.balsoftware.icalendar.VCalendar;
 import net.balsoftware.icalendar.components.VEvent;
 
 public class FoldingAndUnfoldingTest
@@ -24,4 +29,43 @@ public class FoldingAndUnfoldingTest
         assertEquals(builtComponent, unfoldedComponent);
         assertEquals(foldedContent, builtComponent.toString());
     }
+    
+    @Test
+    public void canFoldMultibyteCharacters()
+    {
+        // each e-acute is 2 octets of UTF-8, so lines are folded at 75 octets, not 75 characters
+        String value = String.join("", Collections.nCopies(60, "\u00E9"));
+        VEvent builtComponent = new VEvent()
+                .withComments(value);
+        String foldedContent = "BEGIN:VEVENT" + System.lineSeparator() +
+                "COMMENT:" + value.substring(0, 33) + System.lineSeparator() +
+                " " + value.substring(33) + System.lineSeparator() +
+                "END:VEVENT";
+        assertEquals(foldedContent, builtComponent.toString());
+        assertEquals(builtComponent, VEvent.parse(foldedContent));
+    }
+    
+    @Test
+    public void canWriteToWriter() throws IOException
+    {
+        String content = "BEGIN:VCALENDAR" + System.lineSeparator() +
+                "VERSION:2.0" + System.lineSeparator() +
+                "BEGIN:VEVENT" + System.lineSeparator() +
+                "COMMENT:Ek and Lorentzon said they would consider halting investment at th" + System.lineSeparator() +
+                " \\,eir headquarters in Stockholm." + System.lineSeparator() +
+                "DTSTART;TZID=America/Los_Angeles:20160306T080000" + System.lineSeparator() +
+                "BEGIN:VALARM" + System.lineSeparator() +
+                "ACTION:DISPLAY" + System.lineSeparator() +
+                "DESCRIPTION:Reminder" + System.lineSeparator() +
+                "TRIGGER;RELATED=START:-PT15M" + System.lineSeparator() +
+                "END:VALARM" + System.lineSeparator() +
+                "END:VEVENT" + System.lineSeparator() +
+                "END:VCALENDAR";
+        VCalendar vCalendar = VCalendar.parse(content);
+        StringWriter writer = new StringWriter();
+        vCalendar.write(writer);
+        assertEquals(content, writer.toString());
+        assertEquals(vCalendar.toString(), writer.toString());
+    }
 }
+
@@ -1,14 +1,20 @@
 package net.balsoftware.icalendar.misc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import org.junit.Test;
 
+import net.balsoftware.icalendar.VCalendar;
+import net.balsoftware.icalendar.VChild;
 import net.balsoftware.icalendar.components.VEvent;
 import net.balsoftware.icalendar.parameters.Encoding.EncodingType;
 import net.balsoftware.icalendar.properties.ValueType;
@@ -176,4 +182,62 @@ public class OrdererTest
                                  "END:VEVENT";
         assertEquals(expectedContent, vComponent.toString());
     }
+    
+    @Test // equal children are told apart by identity
+    public void canRemoveEqualChild()
+    {
+        Comment c1 = Comment.parse("DOG");
+        Comment c2 = Comment.parse("CAT");
+        Comment c3 = Comment.parse("DOG");
+        VEvent vComponent = new VEvent()
+                .withComments(c1, c2, c3)
+                .withSummary("example");
+        vComponent.removeChild(c3);
+        assertEquals(3, vComponent.childrenUnmodifiable().size());
+        assertSame(c1, vComponent.childrenUnmodifiable().get(0));
+        assertSame(c1, vComponent.getComments().get(0));
+        String expectedContent = "BEGIN:VEVENT" + System.lineSeparator() +
+                                 "COMMENT:DOG" + System.lineSeparator() +
+                                 "COMMENT:CAT" + System.lineSeparator() +
+                                 "SUMMARY:example" + System.lineSeparator() +
+                                 "END:VEVENT";
+        assertEquals(expectedContent, vComponent.toString());
+        
+        // an equal copy still removes the child
+        vComponent.removeChild(Comment.parse("CAT"));
+        assertEquals(2, vComponent.childrenUnmodifiable().size());
+        assertEquals(1, vComponent.getComments().size());
+    }
+    
+    @Test
+    public void canRemoveManyChildren()
+    {
+        VCalendar vCalendar = new VCalendar();
+        List<VEvent> vEvents = new ArrayList<>();
+        for (int i=0; i<20000; i++)
+        {
+            VEvent vEvent = new VEvent().withUniqueIdentifier("uid" + i).withSummary("event " + i);
+            vEvents.add(vEvent);
+            vCalendar.addChild(vEvent);
+        }
+        long start = System.nanoTime();
+        for (int i=0; i<20000; i+=2)
+        {
+            vCalendar.removeChild(vEvents.get(i));
+        }
+        // checking VEvent.equals for each removal would take much longer
+        assertTrue(System.nanoTime() - start < 10_000_000_000L);
+        List<VChild> children = vCalendar.childrenUnmodifiable();
+        assertEquals(10000, children.size());
+        int i = 1;
+        for (VChild child : children)
+        {
+            assertSame(vEvents.get(i), child);
+            i += 2;
+        }
+        assertSame(vEvents.get(19999), children.get(9999));
+        vCalendar.orderChild(0, vEvents.get(19999));
+        assertSame(vEvents.get(19999), children.get(0));
+        assertSame(vEvents.get(1), children.get(1));
+    }
 }
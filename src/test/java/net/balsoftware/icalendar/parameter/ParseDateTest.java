@@ -2,6 +2,7 @@ package net.balsoftware.icalendar.parameter;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -47,6 +48,42 @@ public class ParseDateTest
         Temporal t = DateTimeUtilities.temporalFromString(value);
         assertEquals(LocalDate.of(2016, 3, 7), t);
     }    
+    
+    @Test
+    public void canParseDate5()
+    {
+        String value = "[America/New_York]20160313T023000";
+        Temporal t = DateTimeUtilities.temporalFromString(value);
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 3, 13, 3, 30), ZoneId.of("America/New_York")), t); // in gap
+        assertEquals(LocalDateTime.of(2016, 3, 7, 10, 0), DateTimeUtilities.temporalFromString("20160307T100000"));
+    }
+    
+    @Test
+    public void canParseDateWithFormatter()
+    {
+        // values that aren't parsed directly are resolved by the DateTimeFormatters
+        assertEquals(LocalDate.of(2015, 2, 28), DateTimeUtilities.temporalFromString("20150231"));
+        assertEquals(LocalDateTime.of(2016, 3, 8, 0, 0), DateTimeUtilities.temporalFromString("20160307T240000"));
+        Temporal t = DateTimeUtilities.temporalFromString("[america/los_angeles]20160228T070000");
+        assertEquals(ZonedDateTime.of(LocalDateTime.of(2016, 2, 28, 7, 0), ZoneId.of("America/Los_Angeles")), t);
+    }
+    
+    @Test (expected = DateTimeException.class)
+    public void canCatchInvalidDate()
+    {
+        DateTimeUtilities.temporalFromString("20161307");
+    }
+    
+    @Test
+    public void canMakeDateString()
+    {
+        assertEquals("20160307", DateTimeUtilities.temporalToString(LocalDate.of(2016, 3, 7)));
+        assertEquals("00050102", DateTimeUtilities.temporalToString(LocalDate.of(5, 1, 2)));
+        assertEquals("+123450101", DateTimeUtilities.temporalToString(LocalDate.of(12345, 1, 1)));
+        assertEquals("20160307T090807", DateTimeUtilities.temporalToString(LocalDateTime.of(2016, 3, 7, 9, 8, 7)));
+        assertEquals("20160307T090807Z", DateTimeUtilities.temporalToString(ZonedDateTime.of(LocalDateTime.of(2016, 3, 7, 9, 8, 7), ZoneId.of("Z"))));
+        assertEquals("20160307T090807", DateTimeUtilities.temporalToString(ZonedDateTime.of(LocalDateTime.of(2016, 3, 7, 9, 8, 7), ZoneId.of("America/New_York"))));
+    }
    
 
 }
@@ -1,6 +1,9 @@
 package net.balsoftware.icalendar.parameter.rrule;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
@@ -12,16 +15,25 @@ import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.junit.Test;
 
 import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRule;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.FrequencyType;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceIterator;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrencePlan;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.RecurrenceRuleValue;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByDay;
 import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByMonthDay;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByRule;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByWeekNumber;
+import net.balsoftware.icalendar.properties.component.recurrence.rrule.byxxx.ByYearDay;
+import net.balsoftware.icalendar.utilities.DateTimeUtilities;
 
 public class RecurrenceRuleStreamTest
 {
@@ -1178,4 +1190,168 @@ public class RecurrenceRuleStreamTest
        List<Temporal> madeRecurrences = rRule.getValue().streamRecurrences(dateTimeStart).limit(5).collect(Collectors.toList());
        assertEquals(expectedRecurrences, madeRecurrences);
    }
+   
+   /*
+    * Iterator, its epoch-second cursor and many threads expanding one rule make the same recurrences
+    * 
+   DTSTART;TZID=America/New_York:19970105T083000
+   RRULE:FREQ=YEARLY;INTERVAL=2;BYMONTH=1;BYDAY=SU;BYHOUR=8,9;BYMINUTE=30
+    */
+   @Test
+   public void canIterateRRule()
+   {
+       String s = "FREQ=YEARLY;INTERVAL=2;BYMONTH=1;BYDAY=SU;BYHOUR=8,9;BYMINUTE=30";
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse(s);
+       Temporal dateTimeStart = ZonedDateTime.of(LocalDateTime.of(1997, 1, 5, 8, 30), ZoneId.of("America/New_York"));
+       List<Temporal> expectedRecurrences = rRule.streamRecurrences(dateTimeStart).limit(50).collect(Collectors.toList());
+       assertEquals(ZonedDateTime.of(LocalDateTime.of(1997, 1, 5, 9, 30), ZoneId.of("America/New_York")), expectedRecurrences.get(1));
+       
+       RecurrenceIterator iterator = rRule.iterator(dateTimeStart);
+       List<Temporal> madeRecurrences = new ArrayList<>();
+       while (madeRecurrences.size() < 50) madeRecurrences.add(iterator.next());
+       assertEquals(expectedRecurrences, madeRecurrences);
+       
+       PrimitiveIterator.OfLong epochSeconds = rRule.iterator(dateTimeStart).epochSeconds();
+       for (Temporal t : expectedRecurrences)
+       {
+           assertEquals(((ZonedDateTime) t).toEpochSecond(), epochSeconds.nextLong());
+       }
+       
+       List<List<Temporal>> threadRecurrences = IntStream.range(0, 8)
+               .parallel()
+               .mapToObj(i -> rRule.streamRecurrences(dateTimeStart).limit(50).collect(Collectors.toList()))
+               .collect(Collectors.toList());
+       threadRecurrences.forEach(r -> assertEquals(expectedRecurrences, r));
+   }
+   
+   /* COUNT limits iterator */
+   @Test
+   public void canIterateRRuleWithCount()
+   {
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse("FREQ=MONTHLY;BYDAY=MO,TU,WE,TH,FR;BYSETPOS=-1;COUNT=3");
+       Temporal dateTimeStart = LocalDate.of(2016, 6, 30);
+       RecurrenceIterator iterator = rRule.iterator(dateTimeStart);
+       assertEquals(3, iterator.spliterator().estimateSize());
+       assertEquals(LocalDate.of(2016, 6, 30), iterator.next());
+       assertEquals(LocalDate.of(2016, 7, 29), iterator.next());
+       assertEquals(LocalDate.of(2016, 8, 31).toEpochDay() * 86400, iterator.nextEpochSecond());
+       assertFalse(iterator.hasNext());
+   }
+   
+   /* Plan is cached and made again after a rule part changes */
+   @Test
+   public void canCachePlan()
+   {
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse("FREQ=WEEKLY;BYDAY=MO,WE;COUNT=4");
+       Temporal dateTimeStart = LocalDate.of(2016, 6, 6);
+       RecurrencePlan plan = rRule.plan();
+       assertSame(plan, rRule.plan());
+       List<Temporal> expectedRecurrences = Arrays.asList(LocalDate.of(2016, 6, 6), LocalDate.of(2016, 6, 8),
+               LocalDate.of(2016, 6, 13), LocalDate.of(2016, 6, 15));
+       assertEquals(expectedRecurrences, rRule.streamRecurrences(dateTimeStart).collect(Collectors.toList()));
+       
+       rRule.setCount(2);
+       assertNotSame(plan, rRule.plan());
+       assertEquals(expectedRecurrences.subList(0, 2), rRule.streamRecurrences(dateTimeStart).collect(Collectors.toList()));
+
+       plan = rRule.plan();
+       ((ByDay) rRule.lookupByRule(ByDay.class)).addDayOfWeek(DayOfWeek.TUESDAY);
+       assertNotSame(plan, rRule.plan());
+       expectedRecurrences = Arrays.asList(LocalDate.of(2016, 6, 6), LocalDate.of(2016, 6, 7));
+       assertEquals(expectedRecurrences, rRule.streamRecurrences(dateTimeStart).collect(Collectors.toList()));
+       
+       plan = rRule.plan();
+       rRule.getCount().setValue(3);
+       assertNotSame(plan, rRule.plan());
+       assertEquals(3, rRule.streamRecurrences(dateTimeStart).count());
+   }
+
+   /* Plan's tables for each kind of year or month make the same recurrences as applying the rule to each year */
+   @Test
+   public void canUseCompiledTables()
+   {
+       LocalDateTime dateTimeStart = LocalDateTime.of(1999, 1, 1, 10, 0);
+       List<ByRule<?>> byRules = Arrays.asList(
+               new ByWeekNumber(1, 20, 53, -1, -53),
+               new ByYearDay(1, 60, 366, -1, -366),
+               new ByMonthDay(1, 29, 31, -1, -31));
+       for (ByRule<?> byRule : byRules)
+       {
+           ChronoUnit[] chronoUnits = (byRule instanceof ByMonthDay) ?
+                   new ChronoUnit[] { ChronoUnit.YEARS, ChronoUnit.MONTHS } : new ChronoUnit[] { ChronoUnit.YEARS };
+           for (ChronoUnit chronoUnit : chronoUnits)
+           {
+               List<Temporal> inList = Stream.iterate((Temporal) dateTimeStart, t -> t.plus(1, chronoUnit))
+                       .limit(30)
+                       .collect(Collectors.toList());
+               List<Temporal> expectedRecurrences = byRule.streamRecurrences(inList.stream(), chronoUnit, dateTimeStart)
+                       .collect(Collectors.toList());
+               List<Temporal> madeRecurrences = new ArrayList<>();
+               byRule.compile(chronoUnit, DayOfWeek.MONDAY).apply(inList, madeRecurrences, dateTimeStart);
+               assertEquals(byRule + " " + chronoUnit, expectedRecurrences, madeRecurrences);
+           }
+       }
+   }
+
+   /* Skipping periods before a target makes the same recurrences after the target as expanding from DTSTART */
+   @Test
+   public void canSkipPeriods()
+   {
+       List<String> rules = Arrays.asList(
+               "FREQ=DAILY",
+               "FREQ=DAILY;INTERVAL=3;COUNT=10000",
+               "FREQ=DAILY;BYHOUR=8,20;COUNT=40000",
+               "FREQ=DAILY;BYMONTH=1,7",
+               "FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=9000",
+               "FREQ=WEEKLY;INTERVAL=2;WKST=SU;BYDAY=SU,SA",
+               "FREQ=MONTHLY;BYMONTHDAY=1,-1;COUNT=1300",
+               "FREQ=MONTHLY;BYDAY=2TU;COUNT=700",
+               "FREQ=MONTHLY;BYDAY=FR;BYSETPOS=-1",
+               "FREQ=YEARLY;BYMONTH=1,6;BYMONTHDAY=-1,15;COUNT=300",
+               "FREQ=YEARLY;BYYEARDAY=-2,100;COUNT=200",
+               "FREQ=YEARLY;BYWEEKNO=20;BYDAY=MO");
+       List<Temporal> dateTimeStarts = Arrays.asList(
+               LocalDate.of(1990, 1, 31),
+               LocalDateTime.of(1990, 6, 15, 10, 0),
+               LocalDateTime.of(1992, 2, 29, 10, 0),
+               ZonedDateTime.of(LocalDateTime.of(1990, 3, 2, 2, 30), ZoneId.of("America/New_York")),
+               ZonedDateTime.of(LocalDateTime.of(1990, 10, 1, 1, 30), ZoneId.of("America/New_York")),
+               ZonedDateTime.of(LocalDateTime.of(1990, 1, 10, 9, 0), ZoneId.of("Europe/London")));
+       for (String rule : rules)
+       {
+           RecurrenceRuleValue rRule = RecurrenceRuleValue.parse(rule);
+           for (Temporal dateTimeStart : dateTimeStarts)
+           {
+               Temporal target = dateTimeStart.plus(50, ChronoUnit.YEARS).plus(123, ChronoUnit.DAYS);
+               List<Temporal> expectedRecurrences = rRule.streamRecurrences(dateTimeStart)
+                       .filter(t -> ! DateTimeUtilities.isBefore(t, target))
+                       .limit(20)
+                       .collect(Collectors.toList());
+               RecurrenceIterator iterator = rRule.iterator(dateTimeStart, target);
+               List<Temporal> madeRecurrences = StreamSupport.stream(iterator.spliterator(), false)
+                       .filter(t -> ! DateTimeUtilities.isBefore(t, target))
+                       .limit(20)
+                       .collect(Collectors.toList());
+               assertEquals(rule + " " + dateTimeStart, expectedRecurrences, madeRecurrences);
+               assertEquals(rule + " " + dateTimeStart, 20, madeRecurrences.size());
+           }
+       }
+   }
+
+   /* Daily series from 1990 skips to 2040 without expanding the days between */
+   @Test
+   public void canSkipPeriodsWithCount()
+   {
+       RecurrenceRuleValue rRule = RecurrenceRuleValue.parse("FREQ=DAILY;COUNT=20000");
+       Temporal dateTimeStart = LocalDateTime.of(1990, 1, 1, 10, 0);
+       Temporal target = LocalDateTime.of(2040, 1, 1, 10, 0);
+       RecurrenceIterator iterator = rRule.iterator(dateTimeStart, target);
+       assertEquals(18262, iterator.skippedPeriods());
+       assertEquals(LocalDateTime.of(2040, 1, 1, 10, 0), iterator.next());
+       assertEquals(20000 - 18262 - 1, StreamSupport.stream(iterator.spliterator(), false).count());
+
+       // all recurrences are before target
+       Temporal lateTarget = LocalDateTime.of(2050, 1, 1, 0, 0);
+       assertFalse(rRule.iterator(dateTimeStart, lateTarget).hasNext());
+   }
 }
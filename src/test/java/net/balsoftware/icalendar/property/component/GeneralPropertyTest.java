@@ -1,17 +1,29 @@
 package net.balsoftware.icalendar.property.component;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
+import net.balsoftware.icalendar.ParseOptions;
 import net.balsoftware.icalendar.parameters.ValueParameter;
 import net.balsoftware.icalendar.properties.ValueType;
+import net.balsoftware.icalendar.properties.calendar.Method;
+import net.balsoftware.icalendar.properties.calendar.Method.MethodType;
+import net.balsoftware.icalendar.properties.component.descriptive.GeographicPosition;
 import net.balsoftware.icalendar.properties.component.descriptive.Summary;
 import net.balsoftware.icalendar.properties.component.misc.NonStandardProperty;
+import net.balsoftware.icalendar.properties.component.recurrence.RecurrenceRule;
+import net.balsoftware.icalendar.utilities.ContentLineTokenizer;
 import net.balsoftware.icalendar.utilities.ICalendarUtilities;
+import net.balsoftware.icalendar.utilities.InternPool;
 import net.balsoftware.icalendar.utilities.Pair;
 
 public class GeneralPropertyTest
@@ -159,4 +171,85 @@ public class GeneralPropertyTest
         Summary madeProperty = Summary.parse(content);
         assertEquals("SUMMARY:test value", madeProperty.toString());
     }
+    
+    @Test
+    public void canTokenizeContentLine()
+    {
+        String contentLine = "Attendee;Rsvp=TRUE;DELEGATED-FROM=\"mailto:a@example.com\";X-FLAG:mailto:b@example.com";
+        ContentLineTokenizer tokenizer = new ContentLineTokenizer().reset(contentLine);
+        assertEquals("Attendee", contentLine.substring(0, tokenizer.nameEnd()));
+        assertTrue(tokenizer.nextParameter());
+        assertTrue(ContentLineTokenizer.regionMatchesIgnoreCase(contentLine, tokenizer.parameterNameStart(), tokenizer.parameterNameEnd(), "RSVP"));
+        assertEquals("TRUE", contentLine.substring(tokenizer.parameterValueStart(), tokenizer.parameterValueEnd()));
+        assertTrue(tokenizer.nextParameter());
+        assertEquals("\"mailto:a@example.com\"", contentLine.substring(tokenizer.parameterValueStart(), tokenizer.parameterValueEnd()));
+        assertTrue(tokenizer.nextParameter());
+        assertEquals("X-FLAG", contentLine.substring(tokenizer.parameterNameStart(), tokenizer.parameterNameEnd()));
+        assertEquals(-1, tokenizer.parameterValueStart());
+        assertFalse(tokenizer.nextParameter());
+        assertEquals("mailto:b@example.com", contentLine.substring(tokenizer.valueStart()));
+        
+        // reused for a line without a name
+        tokenizer.reset("FREQ=DAILY;COUNT=3");
+        assertEquals(-1, tokenizer.nameEnd());
+        assertTrue(tokenizer.nextParameter());
+        assertTrue(tokenizer.nextParameter());
+        assertFalse(tokenizer.nextParameter());
+        assertEquals(-1, tokenizer.valueStart());
+    }
+    
+    @Test
+    public void canLookupNamesIgnoringCase()
+    {
+        String tzid = "TZID";
+        ContentLineTokenizer.Names names = new ContentLineTokenizer.Names(Arrays.asList(tzid, "VALUE", "LANGUAGE"));
+        String contentLine = "DTSTART;tzId=America/New_York:20160306T103000";
+        assertSame(tzid, names.lookup(contentLine, 8, 12));
+        assertNull(names.lookup(contentLine, 0, 7));
+        assertNull(names.lookup("TZI", 0, 3));
+    }
+    
+    @Test
+    public void canDecodeValueLazily()
+    {
+        ParseOptions options = ParseOptions.DEFAULT.withLazyDecoding(true);
+        assertTrue(options.isLazyDecoding());
+        String content = "METHOD:publish";
+        Method method = options.parse(new Method(), content);
+        assertEquals(content, method.toString()); // original text, not converted
+        assertEquals(MethodType.PUBLISH, method.getValue());
+        assertEquals(content, method.toString()); // reading doesn't change the text
+        method.setValue(MethodType.PUBLISH);
+        assertEquals("METHOD:PUBLISH", method.toString());
+        
+        RecurrenceRule rRule = options.parse(new RecurrenceRule(), "RRULE:FREQ=DAILY;COUNT=3");
+        assertEquals(3, (int) rRule.getValue().getCount().getValue());
+        assertSame(rRule, rRule.getValue().getParent());
+        
+        Summary summary = options.parse(new Summary(), "SUMMARY:lazy");
+        summary.setValue("changed");
+        assertEquals("SUMMARY:changed", summary.toString());
+        
+        GeographicPosition geo = options.parse(new GeographicPosition(), "GEO:37.386013;-122.082932");
+        assertEquals(37.386013, geo.getLatitude(), 0); // setValue is overridden, converted when parsed
+        
+        assertEquals("METHOD:PUBLISH", Method.parse("METHOD:publish").toString()); // default options aren't lazy
+    }
+    
+    @Test
+    public void canDecodeValueLazilyWithInternPool() throws Exception
+    {
+        InternPool pool = new InternPool();
+        ParseOptions options = ParseOptions.DEFAULT
+                .withInternPool(pool)
+                .withLazyDecoding(true);
+        Summary summary1 = options.parse(new Summary(), "SUMMARY:Team\\, meeting");
+        Summary summary2 = options.parse(new Summary(), "SUMMARY:Team\\, meeting");
+        // decoded after parsing, and on another thread
+        assertEquals("Team, meeting", summary1.getValue());
+        Thread thread = new Thread(() -> summary2.getValue());
+        thread.start();
+        thread.join();
+        assertSame(summary1.getValue(), summary2.getValue());
+    }
 }